@@ -16,6 +16,7 @@
 package io.github.ascopes.jct.assertions;
 
 import io.github.ascopes.jct.compilers.JctCompilation;
+import io.github.ascopes.jct.compilers.JctCompilationTimings;
 import io.github.ascopes.jct.containers.ModuleContainerGroup;
 import io.github.ascopes.jct.containers.OutputContainerGroup;
 import io.github.ascopes.jct.containers.PackageContainerGroup;
@@ -177,6 +178,22 @@ public final class JctAssertions extends UtilityClass {
     return assertThatKind(kind);
   }
 
+  /**
+   * Perform an assertion on the phase timings of a compilation.
+   *
+   * <p>This is a shorthand alias for {@link #assertThatTimings(JctCompilationTimings)}. If you
+   * are using AssertJ assertions in your tests with static imports, you may wish to use that
+   * instead to prevent name conflicts.
+   *
+   * @param timings the timings to assert on.
+   * @return the assertion.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  public static JctCompilationTimingsAssert assertThat(@Nullable JctCompilationTimings timings) {
+    return assertThatTimings(timings);
+  }
+
   /**
    * Perform an assertion on a location.
    *
@@ -301,6 +318,20 @@ public final class JctAssertions extends UtilityClass {
     return new JavaFileObjectKindAssert(kind);
   }
 
+  /**
+   * Perform an assertion on the phase timings of a compilation.
+   *
+   * @param timings the timings to assert on.
+   * @return the assertion.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  public static JctCompilationTimingsAssert assertThatTimings(
+      @Nullable JctCompilationTimings timings
+  ) {
+    return new JctCompilationTimingsAssert(timings);
+  }
+
   /**
    * Perform an assertion on a location.
    *
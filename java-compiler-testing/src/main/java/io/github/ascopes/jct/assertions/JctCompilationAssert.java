@@ -145,7 +145,20 @@ public final class JctCompilationAssert extends
    */
   public TraceDiagnosticListAssert diagnostics() {
     isNotNull();
-    return new TraceDiagnosticListAssert(actual.getDiagnostics());
+    return new TraceDiagnosticListAssert(actual.getDiagnostics(), actual.getDiagnosticCounts());
+  }
+
+  /**
+   * Get assertions for the phase timings of the compilation.
+   *
+   * @return assertions for the timings.
+   * @throws AssertionError if the compilation was null.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  public JctCompilationTimingsAssert timings() {
+    isNotNull();
+    return new JctCompilationTimingsAssert(actual.getTimings());
   }
 
   /**
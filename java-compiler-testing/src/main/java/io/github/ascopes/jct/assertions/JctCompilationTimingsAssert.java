@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.assertions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.jct.compilers.JctCompilationTimings;
+import java.time.Duration;
+import java.util.List;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+import org.assertj.core.api.AbstractAssert;
+import org.assertj.core.api.AbstractDurationAssert;
+import org.assertj.core.api.ListAssert;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Assertions for the {@link JctCompilationTimings phase timings} of a compilation.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.EXPERIMENTAL)
+public final class JctCompilationTimingsAssert
+    extends AbstractAssert<JctCompilationTimingsAssert, JctCompilationTimings> {
+
+  /**
+   * Initialize this assertion type.
+   *
+   * @param value the value to assert on.
+   */
+  public JctCompilationTimingsAssert(@Nullable JctCompilationTimings value) {
+    super(value, JctCompilationTimingsAssert.class);
+  }
+
+  /**
+   * Get assertions for the total time that the compiler took to run.
+   *
+   * @return assertions for the total time.
+   * @throws AssertionError if the timings were null.
+   */
+  public AbstractDurationAssert<?> total() {
+    isNotNull();
+    return assertThat(actual.getTotal()).as("total compilation time");
+  }
+
+  /**
+   * Get assertions for the time spent parsing sources.
+   *
+   * @return assertions for the time spent parsing.
+   * @throws AssertionError if the timings were null.
+   */
+  public AbstractDurationAssert<?> parse() {
+    isNotNull();
+    return assertThat(actual.getParse()).as("parse time");
+  }
+
+  /**
+   * Get assertions for the time spent entering symbols for parsed sources.
+   *
+   * @return assertions for the time spent entering symbols.
+   * @throws AssertionError if the timings were null.
+   */
+  public AbstractDurationAssert<?> enter() {
+    isNotNull();
+    return assertThat(actual.getEnter()).as("enter time");
+  }
+
+  /**
+   * Get assertions for the time spent analyzing types.
+   *
+   * @return assertions for the time spent analyzing.
+   * @throws AssertionError if the timings were null.
+   */
+  public AbstractDurationAssert<?> analyze() {
+    isNotNull();
+    return assertThat(actual.getAnalyze()).as("analyze time");
+  }
+
+  /**
+   * Get assertions for the time spent generating class files.
+   *
+   * @return assertions for the time spent generating class files.
+   * @throws AssertionError if the timings were null.
+   */
+  public AbstractDurationAssert<?> generate() {
+    isNotNull();
+    return assertThat(actual.getGenerate()).as("generate time");
+  }
+
+  /**
+   * Get assertions for the total time spent performing annotation processing.
+   *
+   * @return assertions for the time spent performing annotation processing.
+   * @throws AssertionError if the timings were null.
+   */
+  public AbstractDurationAssert<?> annotationProcessing() {
+    isNotNull();
+    return assertThat(actual.getAnnotationProcessing()).as("annotation processing time");
+  }
+
+  /**
+   * Get assertions for the time spent in each annotation processing round.
+   *
+   * @return assertions for the time spent in each round.
+   * @throws AssertionError if the timings were null.
+   */
+  public ListAssert<Duration> annotationProcessingRounds() {
+    isNotNull();
+    List<Duration> rounds = actual.getAnnotationProcessingRounds();
+    return assertThat(rounds).as("annotation processing round times");
+  }
+}
@@ -20,13 +20,16 @@ import static io.github.ascopes.jct.utils.IterableUtils.requireNonNullValues;
 import static java.util.Objects.requireNonNull;
 import static java.util.function.Predicate.not;
 
+import io.github.ascopes.jct.diagnostics.DiagnosticCounts;
 import io.github.ascopes.jct.diagnostics.TraceDiagnostic;
 import io.github.ascopes.jct.repr.TraceDiagnosticListRepresentation;
 import io.github.ascopes.jct.utils.StringUtils;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -35,10 +38,15 @@ import javax.tools.JavaFileObject;
 import org.apiguardian.api.API;
 import org.apiguardian.api.API.Status;
 import org.assertj.core.api.AbstractListAssert;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Assertions for a list of diagnostics.
  *
+ * <p>If the {@link DiagnosticCounts counts} of the diagnostics are provided, then assertions that
+ * check for the absence of diagnostics use these counts, so remain accurate even if some of the
+ * diagnostics were not retained.
+ *
  * @author Ashley Scopes
  * @since 0.0.1
  */
@@ -47,6 +55,9 @@ public final class TraceDiagnosticListAssert
     extends
     AbstractListAssert<TraceDiagnosticListAssert, List<? extends TraceDiagnostic<? extends JavaFileObject>>, TraceDiagnostic<? extends JavaFileObject>, TraceDiagnosticAssert> {
 
+  private final @Nullable DiagnosticCounts counts;
+  private final Set<Kind> countedKinds;
+
   /**
    * Initialize this assertion.
    *
@@ -54,9 +65,36 @@ public final class TraceDiagnosticListAssert
    */
   public TraceDiagnosticListAssert(
       List<? extends TraceDiagnostic<? extends JavaFileObject>> traceDiagnostics
+  ) {
+    this(traceDiagnostics, null);
+  }
+
+  /**
+   * Initialize this assertion.
+   *
+   * @param traceDiagnostics the diagnostics to perform assertions on.
+   * @param counts           the counts of every diagnostic that was reported, including any
+   *                         that were not retained, or {@code null} if only the given diagnostics
+   *                         should be considered.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  public TraceDiagnosticListAssert(
+      List<? extends TraceDiagnostic<? extends JavaFileObject>> traceDiagnostics,
+      @Nullable DiagnosticCounts counts
+  ) {
+    this(traceDiagnostics, counts, EnumSet.allOf(Kind.class));
+  }
+
+  private TraceDiagnosticListAssert(
+      List<? extends TraceDiagnostic<? extends JavaFileObject>> traceDiagnostics,
+      @Nullable DiagnosticCounts counts,
+      Set<Kind> countedKinds
   ) {
     super(traceDiagnostics, TraceDiagnosticListAssert.class);
     info.useRepresentation(TraceDiagnosticListRepresentation.getInstance());
+    this.counts = counts;
+    this.countedKinds = countedKinds;
   }
 
   /**
@@ -154,7 +192,11 @@ public final class TraceDiagnosticListAssert
    */
   public TraceDiagnosticListAssert filteringByKinds(Iterable<Kind> kinds) {
     requireNonNullValues(kinds, "kinds");
-    return filteringBy(kind(kinds));
+    var kindsSet = kindsSet(kinds);
+    var filteredCountedKinds = EnumSet.noneOf(Kind.class);
+    filteredCountedKinds.addAll(countedKinds);
+    filteredCountedKinds.retainAll(kindsSet);
+    return filteringBy(kind(kindsSet), filteredCountedKinds);
   }
 
   /**
@@ -184,7 +226,11 @@ public final class TraceDiagnosticListAssert
    */
   public TraceDiagnosticListAssert excludingKinds(Iterable<Kind> kinds) {
     requireNonNullValues(kinds, "kinds");
-    return filteringBy(not(kind(kinds)));
+    var kindsSet = kindsSet(kinds);
+    var filteredCountedKinds = EnumSet.noneOf(Kind.class);
+    filteredCountedKinds.addAll(countedKinds);
+    filteredCountedKinds.removeAll(kindsSet);
+    return filteringBy(not(kind(kindsSet)), filteredCountedKinds);
   }
 
   /**
@@ -277,6 +323,9 @@ public final class TraceDiagnosticListAssert
   /**
    * Assert that this list has no diagnostics matching any of the given kinds.
    *
+   * <p>If the counts of the diagnostics were provided, diagnostics that were reported but not
+   * retained are also taken into account.
+   *
    * @param kinds the kinds to check for.
    * @return this assertion object for further call chaining.
    * @throws AssertionError       if the diagnostic list is null.
@@ -285,12 +334,22 @@ public final class TraceDiagnosticListAssert
   public TraceDiagnosticListAssert hasNoDiagnosticsOfKinds(Iterable<Kind> kinds) {
     requireNonNullValues(kinds, "kinds");
 
+    var kindsSet = kindsSet(kinds);
     var actualDiagnostics = actual
         .stream()
-        .filter(kind(kinds))
+        .filter(kind(kindsSet))
         .collect(Collectors.toList());
 
-    if (!actualDiagnostics.isEmpty()) {
+    var reportedCount = (long) actualDiagnostics.size();
+
+    if (counts != null) {
+      var countedKindsToCheck = EnumSet.noneOf(Kind.class);
+      countedKindsToCheck.addAll(countedKinds);
+      countedKindsToCheck.retainAll(kindsSet);
+      reportedCount = Math.max(reportedCount, counts.getCount(countedKindsToCheck));
+    }
+
+    if (reportedCount > 0) {
       var allKindsString = StreamSupport.stream(kinds.spliterator(), false)
           .map(next -> next.name().toLowerCase(Locale.ROOT).replace('_', ' '))
           .sorted()
@@ -299,12 +358,18 @@ public final class TraceDiagnosticListAssert
               names -> StringUtils.toWordedList(names, ", ", ", or ")
           ));
 
+      var droppedCount = reportedCount - actualDiagnostics.size();
+      var droppedString = droppedCount == 0
+          ? ""
+          : String.format("\n\n...and %d more that were not retained", droppedCount);
+
       failWithActualExpectedAndMessage(
-          actualDiagnostics.size(),
+          reportedCount,
           0,
-          "Expected no %s diagnostics.\n\nDiagnostics:\n%s",
+          "Expected no %s diagnostics.\n\nDiagnostics:\n%s%s",
           allKindsString,
-          TraceDiagnosticListRepresentation.getInstance().toStringOf(actualDiagnostics)
+          TraceDiagnosticListRepresentation.getInstance().toStringOf(actualDiagnostics),
+          droppedString
       );
     }
 
@@ -325,15 +390,9 @@ public final class TraceDiagnosticListAssert
   ) {
     requireNonNull(predicate, "predicate must not be null");
 
-    isNotNull();
-
-    return actual
-        .stream()
-        .filter(predicate)
-        .collect(Collectors.collectingAndThen(
-            Collectors.toUnmodifiableList(),
-            TraceDiagnosticListAssert::new
-        ));
+    // We cannot tell which of the diagnostics that were not retained would match an arbitrary
+    // predicate, so the counts cannot be used past this point.
+    return filteringBy(predicate, EnumSet.noneOf(Kind.class));
   }
 
   @Override
@@ -353,10 +412,27 @@ public final class TraceDiagnosticListAssert
     return new TraceDiagnosticListAssert(list);
   }
 
-  private Predicate<TraceDiagnostic<? extends JavaFileObject>> kind(Iterable<Kind> kinds) {
-    var kindsSet = new LinkedHashSet<Kind>();
-    kinds.forEach(kindsSet::add);
+  private TraceDiagnosticListAssert filteringBy(
+      Predicate<TraceDiagnostic<? extends JavaFileObject>> predicate,
+      Set<Kind> filteredCountedKinds
+  ) {
+    isNotNull();
 
+    var filtered = actual
+        .stream()
+        .filter(predicate)
+        .collect(Collectors.toUnmodifiableList());
+
+    return new TraceDiagnosticListAssert(filtered, counts, filteredCountedKinds);
+  }
+
+  private Predicate<TraceDiagnostic<? extends JavaFileObject>> kind(Set<Kind> kindsSet) {
     return diagnostic -> kindsSet.contains(diagnostic.getKind());
   }
+
+  private static Set<Kind> kindsSet(Iterable<Kind> kinds) {
+    var kindsSet = new LinkedHashSet<Kind>();
+    kinds.forEach(kindsSet::add);
+    return kindsSet;
+  }
 }
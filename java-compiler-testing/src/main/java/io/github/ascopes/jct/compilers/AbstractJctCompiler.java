@@ -19,22 +19,35 @@ import static io.github.ascopes.jct.utils.IterableUtils.requireNonNullValues;
 import static java.util.Objects.requireNonNull;
 
 import io.github.ascopes.jct.compilers.impl.JctCompilationFactoryImpl;
+import io.github.ascopes.jct.compilers.impl.JctCompilationFingerprint;
 import io.github.ascopes.jct.compilers.impl.JctCompilationImpl;
+import io.github.ascopes.jct.compilers.impl.JctCompilationSnapshot;
+import io.github.ascopes.jct.compilers.impl.JctIncrementalCompilationState;
+import io.github.ascopes.jct.diagnostics.DiagnosticObserver;
+import io.github.ascopes.jct.diagnostics.DiagnosticRetention;
+import io.github.ascopes.jct.diagnostics.StackCaptureMode;
 import io.github.ascopes.jct.ex.JctCompilerException;
 import io.github.ascopes.jct.filemanagers.AnnotationProcessorDiscovery;
+import io.github.ascopes.jct.filemanagers.JctFileManager;
 import io.github.ascopes.jct.filemanagers.JctFileManagerFactory;
 import io.github.ascopes.jct.filemanagers.LoggingMode;
 import io.github.ascopes.jct.workspaces.Workspace;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
 import javax.annotation.processing.Processor;
 import org.apiguardian.api.API;
 import org.apiguardian.api.API.Status;
 import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Common functionality for a compiler that can be overridden and that produces a
@@ -43,7 +56,11 @@ import org.jspecify.annotations.Nullable;
  * <p>Implementations should extend this class and override anything they require.
  * In most cases, you should not need to override anything other than the constructor.
  *
- * <p>This class is <strong>not</strong> thread-safe.
+ * <p>Configuring this class is <strong>not</strong> thread-safe. Once configured, the
+ * {@code compile} methods may be called concurrently from multiple threads, as
+ * {@link #compileAsync(Workspace)} and {@link #compileAll(Collection)} do, provided that the
+ * configuration is not changed while any of those compilations are running, and that each
+ * workspace is only compiled by one thread at a time.
  *
  * <p>If you wish to create a common set of configuration settings for instances of
  * this class, you should consider writing a custom {@link JctCompilerConfigurer} object to apply
@@ -58,9 +75,12 @@ import org.jspecify.annotations.Nullable;
 public abstract class AbstractJctCompiler<A extends AbstractJctCompiler<A>>
     implements JctCompiler<A, JctCompilation> {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(AbstractJctCompiler.class);
+
   private final List<Processor> annotationProcessors;
   private final List<String> annotationProcessorOptions;
   private final List<String> compilerOptions;
+  private final Map<Workspace, JctIncrementalCompilationState> incrementalStates;
   private String name;
   private boolean showWarnings;
   private boolean showDeprecationWarnings;
@@ -85,6 +105,17 @@ public abstract class AbstractJctCompiler<A extends AbstractJctCompiler<A>>
   private boolean inheritSystemModulePath;
   private LoggingMode fileManagerLoggingMode;
   private AnnotationProcessorDiscovery annotationProcessorDiscovery;
+  private @Nullable JctCompilationCache compilationCache;
+  private boolean incrementalCompilation;
+  private boolean annotationProcessorMetrics;
+  private boolean fileManagerMetrics;
+  private StackCaptureMode diagnosticStackCaptureMode;
+  private int diagnosticStackFrameLimit;
+  private DiagnosticRetention diagnosticRetention;
+  private int diagnosticRetentionLimit;
+  private @Nullable DiagnosticObserver diagnosticObserver;
+  private @Nullable Duration compilationDeadline;
+  private boolean discardClassOutputs;
 
   /**
    * Initialize this compiler.
@@ -116,6 +147,19 @@ public abstract class AbstractJctCompiler<A extends AbstractJctCompiler<A>>
     inheritSystemModulePath = JctCompiler.DEFAULT_INHERIT_SYSTEM_MODULE_PATH;
     fileManagerLoggingMode = JctCompiler.DEFAULT_FILE_MANAGER_LOGGING_MODE;
     annotationProcessorDiscovery = JctCompiler.DEFAULT_ANNOTATION_PROCESSOR_DISCOVERY;
+    compilationCache = null;
+    incrementalCompilation = JctCompiler.DEFAULT_INCREMENTAL_COMPILATION;
+    annotationProcessorMetrics = JctCompiler.DEFAULT_ANNOTATION_PROCESSOR_METRICS;
+    fileManagerMetrics = JctCompiler.DEFAULT_FILE_MANAGER_METRICS;
+    diagnosticStackCaptureMode = JctCompiler.DEFAULT_DIAGNOSTIC_STACK_CAPTURE_MODE;
+    diagnosticStackFrameLimit = JctCompiler.DEFAULT_DIAGNOSTIC_STACK_FRAME_LIMIT;
+    diagnosticRetention = JctCompiler.DEFAULT_DIAGNOSTIC_RETENTION;
+    diagnosticRetentionLimit = JctCompiler.DEFAULT_DIAGNOSTIC_RETENTION_LIMIT;
+    diagnosticObserver = null;
+    compilationDeadline = null;
+    discardClassOutputs = JctCompiler.DEFAULT_DISCARD_CLASS_OUTPUTS;
+    // Workspaces use identity equality, so entries are dropped once a workspace is unreachable.
+    incrementalStates = Collections.synchronizedMap(new WeakHashMap<>());
   }
 
   @Override
@@ -427,6 +471,148 @@ public abstract class AbstractJctCompiler<A extends AbstractJctCompiler<A>>
     return myself();
   }
 
+  @Nullable
+  @Override
+  public JctCompilationCache getCompilationCache() {
+    return compilationCache;
+  }
+
+  @Override
+  public A compilationCache(@Nullable JctCompilationCache compilationCache) {
+    this.compilationCache = compilationCache;
+    return myself();
+  }
+
+  @Override
+  public boolean isIncrementalCompilation() {
+    return incrementalCompilation;
+  }
+
+  @Override
+  public A incrementalCompilation(boolean incrementalCompilation) {
+    this.incrementalCompilation = incrementalCompilation;
+    return myself();
+  }
+
+  @Override
+  public boolean isAnnotationProcessorMetrics() {
+    return annotationProcessorMetrics;
+  }
+
+  @Override
+  public A annotationProcessorMetrics(boolean annotationProcessorMetrics) {
+    this.annotationProcessorMetrics = annotationProcessorMetrics;
+    return myself();
+  }
+
+  @Override
+  public boolean isFileManagerMetrics() {
+    return fileManagerMetrics;
+  }
+
+  @Override
+  public A fileManagerMetrics(boolean fileManagerMetrics) {
+    this.fileManagerMetrics = fileManagerMetrics;
+    return myself();
+  }
+
+  @Override
+  public StackCaptureMode getDiagnosticStackCaptureMode() {
+    return diagnosticStackCaptureMode;
+  }
+
+  @Override
+  public A diagnosticStackCaptureMode(StackCaptureMode diagnosticStackCaptureMode) {
+    this.diagnosticStackCaptureMode = requireNonNull(
+        diagnosticStackCaptureMode,
+        "diagnosticStackCaptureMode"
+    );
+    return myself();
+  }
+
+  @Override
+  public int getDiagnosticStackFrameLimit() {
+    return diagnosticStackFrameLimit;
+  }
+
+  @Override
+  public A diagnosticStackFrameLimit(int diagnosticStackFrameLimit) {
+    if (diagnosticStackFrameLimit < 1) {
+      throw new IllegalArgumentException("Cannot provide a stack frame limit less than 1");
+    }
+
+    this.diagnosticStackFrameLimit = diagnosticStackFrameLimit;
+    return myself();
+  }
+
+  @Override
+  public DiagnosticRetention getDiagnosticRetention() {
+    return diagnosticRetention;
+  }
+
+  @Override
+  public A diagnosticRetention(DiagnosticRetention diagnosticRetention) {
+    this.diagnosticRetention = requireNonNull(diagnosticRetention, "diagnosticRetention");
+    return myself();
+  }
+
+  @Override
+  public int getDiagnosticRetentionLimit() {
+    return diagnosticRetentionLimit;
+  }
+
+  @Override
+  public A diagnosticRetentionLimit(int diagnosticRetentionLimit) {
+    if (diagnosticRetentionLimit < 1) {
+      throw new IllegalArgumentException("Cannot provide a diagnostic retention limit less than 1");
+    }
+
+    this.diagnosticRetentionLimit = diagnosticRetentionLimit;
+    return myself();
+  }
+
+  @Nullable
+  @Override
+  public DiagnosticObserver getDiagnosticObserver() {
+    return diagnosticObserver;
+  }
+
+  @Override
+  public A diagnosticObserver(@Nullable DiagnosticObserver diagnosticObserver) {
+    this.diagnosticObserver = diagnosticObserver;
+    return myself();
+  }
+
+  @Nullable
+  @Override
+  public Duration getCompilationDeadline() {
+    return compilationDeadline;
+  }
+
+  @Override
+  public A compilationDeadline(@Nullable Duration compilationDeadline) {
+    if (compilationDeadline != null
+        && (compilationDeadline.isZero() || compilationDeadline.isNegative())) {
+      throw new IllegalArgumentException(
+          "Cannot provide a compilation deadline that is not positive"
+      );
+    }
+
+    this.compilationDeadline = compilationDeadline;
+    return myself();
+  }
+
+  @Override
+  public boolean isDiscardClassOutputs() {
+    return discardClassOutputs;
+  }
+
+  @Override
+  public A discardClassOutputs(boolean discardClassOutputs) {
+    this.discardClassOutputs = discardClassOutputs;
+    return myself();
+  }
+
   /**
    * Get the compiler name.
    *
@@ -519,18 +705,104 @@ public abstract class AbstractJctCompiler<A extends AbstractJctCompiler<A>>
         .target(target)
         .verbose(verbose)
         .showWarnings(showWarnings)
+        .compilationMode(compilationMode)
         .build();
   }
 
+  private JctCompilation compileInternal(
+      Workspace workspace,
+      @Nullable Collection<String> classNames
+  ) {
+    var flags = buildFlags(getFlagBuilderFactory().createFlagBuilder());
+    var compilationCache = this.compilationCache;
+
+    // Memoized compilations never run the compiler, so they cannot report their diagnostics to
+    // the observer, measure the annotation processors, or measure the file manager. Any of these
+    // have to bypass the cache.
+    if (compilationCache == null
+        || diagnosticObserver != null
+        || annotationProcessorMetrics
+        || fileManagerMetrics) {
+      return withFileManager(workspace, fm -> compileUncached(flags, workspace, fm, classNames));
+    }
+
+    // Fingerprint before the file manager is created, since creating it may add required
+    // locations to the workspace.
+    String fingerprint;
+
+    try {
+      fingerprint = JctCompilationFingerprint.compute(this, flags, workspace, classNames);
+    } catch (IOException ex) {
+      throw new JctCompilerException("Failed to fingerprint the workspace", ex);
+    }
+
+    var snapshot = compilationCache.get(fingerprint);
+
+    if (snapshot != null) {
+      var compilation = withFileManager(workspace, fm -> restore(snapshot, workspace, fm));
+
+      if (compilation != null) {
+        LOGGER.info("Reusing memoized compilation for {} with {}", workspace, name);
+        return compilation;
+      }
+
+      LOGGER.debug("Memoized compilation could not be restored, so will compile instead");
+    }
+
+    var compilation = withFileManager(
+        workspace,
+        fm -> compileUncached(flags, workspace, fm, classNames)
+    );
+
+    try {
+      var newSnapshot = JctCompilationSnapshot.capture(compilation, workspace, locale);
+      compilationCache.put(fingerprint, newSnapshot);
+    } catch (IOException ex) {
+      throw new JctCompilerException("Failed to capture the compilation outputs", ex);
+    }
+
+    return compilation;
+  }
+
+  private JctCompilation compileUncached(
+      List<String> flags,
+      Workspace workspace,
+      JctFileManager fileManager,
+      @Nullable Collection<String> classNames
+  ) {
+    var compiler = getCompilerFactory().createCompiler();
+
+    // Incremental compilation reuses the previous class outputs, so it cannot work if they are
+    // being discarded, or if the compilation mode stops before any are written.
+    if (incrementalCompilation
+        && !discardClassOutputs
+        && classNames == null
+        && compilationMode != CompilationMode.PARSE_ONLY
+        && compilationMode != CompilationMode.ANALYZE_ONLY) {
+      return incrementalStates
+          .computeIfAbsent(workspace, ignored -> new JctIncrementalCompilationState())
+          .compile(this, flags, workspace, fileManager, compiler);
+    }
+
+    return getCompilationFactory().createCompilation(flags, fileManager, compiler, classNames);
+  }
+
+  @Nullable
+  private JctCompilation restore(
+      JctCompilationSnapshot snapshot,
+      Workspace workspace,
+      JctFileManager fileManager
+  ) {
+    try {
+      return snapshot.restore(workspace, fileManager);
+    } catch (IOException ex) {
+      throw new JctCompilerException("Failed to restore memoized compilation outputs", ex);
+    }
+  }
+
   @SuppressWarnings("ThrowFromFinallyBlock")
-  private JctCompilation compileInternal(Workspace workspace, Collection<String> classNames) {
-    var fileManagerFactory = getFileManagerFactory();
-    var flagBuilderFactory = getFlagBuilderFactory();
-    var compilerFactory = getCompilerFactory();
-    var compilationFactory = getCompilationFactory();
-    var flags = buildFlags(flagBuilderFactory.createFlagBuilder());
-    var compiler = compilerFactory.createCompiler();
-    var fileManager = fileManagerFactory.createFileManager(workspace);
+  private <T> T withFileManager(Workspace workspace, FileManagerAction<T> action) {
+    var fileManager = getFileManagerFactory().createFileManager(workspace);
 
     // Any internal exceptions should be rethrown as a JctCompilerException by the
     // compilation factory, so there is nothing else to worry about here.
@@ -539,7 +811,7 @@ public abstract class AbstractJctCompiler<A extends AbstractJctCompiler<A>>
     // try-with-resources. This is kinda crap code, but it prevents reporting errors incorrectly.
 
     try {
-      return compilationFactory.createCompilation(flags, fileManager, compiler, classNames);
+      return action.apply(fileManager);
     } finally {
       try {
         fileManager.close();
@@ -551,4 +823,11 @@ public abstract class AbstractJctCompiler<A extends AbstractJctCompiler<A>>
       }
     }
   }
+
+  @FunctionalInterface
+  private interface FileManagerAction<T> {
+
+    @Nullable
+    T apply(JctFileManager fileManager);
+  }
 }
@@ -21,7 +21,7 @@ import org.apiguardian.api.API.Status;
 /**
  * An enum representing the various types of compilation mode that a compiler can run under.
  *
- * <p>This corresponds to the {@code -proc} flag in the OpenJDK Javac implementation.
+ * <p>This mostly corresponds to the {@code -proc} flag in the OpenJDK Javac implementation.
  *
  * @author Ashley Scopes
  * @since 0.0.1
@@ -49,4 +49,34 @@ public enum CompilationMode {
    * <p>This corresponds to providing {@code -proc:only} in the OpenJDK Javac implementation.
    */
   ANNOTATION_PROCESSING_ONLY,
+
+  /**
+   * Only parse the sources, skipping annotation processing, analysis, and code generation.
+   *
+   * <p>Only syntax errors will be reported, and no files will be written. This is much faster
+   * than a full compilation for tests that only check for errors raised by the parser.
+   *
+   * <p>This is only supported by compilers that create {@code JavacTask}s, such as the OpenJDK
+   * Javac implementation, as it is run by calling {@code JavacTask#parse()} directly.
+   *
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  PARSE_ONLY,
+
+  /**
+   * Parse and analyse the sources and run any annotation processing that may be enabled, but skip
+   * code generation.
+   *
+   * <p>All diagnostics raised by attribution and flow analysis will be reported, but no class
+   * files will be written. This is much faster than a full compilation for tests that only check
+   * the diagnostics that a compilation reports.
+   *
+   * <p>This is only supported by compilers that create {@code JavacTask}s, such as the OpenJDK
+   * Javac implementation, as it is run by calling {@code JavacTask#analyze()} directly.
+   *
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  ANALYZE_ONLY,
 }
@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers;
+
+import static io.github.ascopes.jct.utils.IterableUtils.requireNonNullValues;
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+
+/**
+ * Immutable measurements of the work performed by a single annotation processor during a
+ * compilation.
+ *
+ * <p>CPU times are measured for the thread running the compiler, so only include work that the
+ * processor performed on that thread. If the JVM does not support measuring thread CPU time, then
+ * every CPU time is reported as {@link Duration#ZERO}.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.EXPERIMENTAL)
+public final class JctAnnotationProcessorMetrics {
+
+  private final String processorName;
+  private final Duration initWallTime;
+  private final Duration initCpuTime;
+  private final List<Round> rounds;
+
+  /**
+   * Initialise these metrics.
+   *
+   * @param processorName the fully qualified class name of the processor.
+   * @param initWallTime  the wall-clock time taken to initialise the processor.
+   * @param initCpuTime   the CPU time taken to initialise the processor.
+   * @param rounds        the metrics for each round that the processor took part in.
+   */
+  public JctAnnotationProcessorMetrics(
+      String processorName,
+      Duration initWallTime,
+      Duration initCpuTime,
+      List<Round> rounds
+  ) {
+    this.processorName = requireNonNull(processorName, "processorName");
+    this.initWallTime = requireNonNull(initWallTime, "initWallTime");
+    this.initCpuTime = requireNonNull(initCpuTime, "initCpuTime");
+    this.rounds = Collections.unmodifiableList(
+        new ArrayList<>(requireNonNullValues(rounds, "rounds"))
+    );
+  }
+
+  /**
+   * Get the fully qualified class name of the processor.
+   *
+   * @return the processor class name.
+   */
+  public String getProcessorName() {
+    return processorName;
+  }
+
+  /**
+   * Get the wall-clock time taken to initialise the processor.
+   *
+   * @return the initialisation wall-clock time.
+   */
+  public Duration getInitWallTime() {
+    return initWallTime;
+  }
+
+  /**
+   * Get the CPU time taken to initialise the processor.
+   *
+   * @return the initialisation CPU time.
+   */
+  public Duration getInitCpuTime() {
+    return initCpuTime;
+  }
+
+  /**
+   * Get the metrics for each round that the processor took part in, in the order that the rounds
+   * ran.
+   *
+   * @return an unmodifiable list of the round metrics.
+   */
+  public List<Round> getRounds() {
+    return rounds;
+  }
+
+  /**
+   * Get the total wall-clock time that the processor took, including initialisation.
+   *
+   * @return the total wall-clock time.
+   */
+  public Duration getTotalWallTime() {
+    return rounds.stream().map(Round::getWallTime).reduce(initWallTime, Duration::plus);
+  }
+
+  /**
+   * Get the total CPU time that the processor took, including initialisation.
+   *
+   * @return the total CPU time.
+   */
+  public Duration getTotalCpuTime() {
+    return rounds.stream().map(Round::getCpuTime).reduce(initCpuTime, Duration::plus);
+  }
+
+  /**
+   * Get the total number of files that the processor generated across every round.
+   *
+   * @return the number of generated files.
+   */
+  public int getGeneratedFileCount() {
+    return rounds.stream().mapToInt(Round::getGeneratedFileCount).sum();
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("processorName", processorName)
+        .attribute("initWallTime", initWallTime)
+        .attribute("initCpuTime", initCpuTime)
+        .attribute("rounds", rounds)
+        .toString();
+  }
+
+  /**
+   * Immutable measurements of a single call to {@code Processor#process}.
+   *
+   * @author Ashley Scopes
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  public static final class Round {
+
+    private final Duration wallTime;
+    private final Duration cpuTime;
+    private final int elementCount;
+    private final int generatedFileCount;
+
+    /**
+     * Initialise these metrics.
+     *
+     * @param wallTime           the wall-clock time taken to process the round.
+     * @param cpuTime            the CPU time taken to process the round.
+     * @param elementCount       the number of elements annotated with the annotations that the
+     *                           processor was asked to process.
+     * @param generatedFileCount the number of files that the processor generated.
+     */
+    public Round(Duration wallTime, Duration cpuTime, int elementCount, int generatedFileCount) {
+      this.wallTime = requireNonNull(wallTime, "wallTime");
+      this.cpuTime = requireNonNull(cpuTime, "cpuTime");
+      this.elementCount = elementCount;
+      this.generatedFileCount = generatedFileCount;
+    }
+
+    /**
+     * Get the wall-clock time taken to process the round.
+     *
+     * @return the wall-clock time.
+     */
+    public Duration getWallTime() {
+      return wallTime;
+    }
+
+    /**
+     * Get the CPU time taken to process the round.
+     *
+     * @return the CPU time.
+     */
+    public Duration getCpuTime() {
+      return cpuTime;
+    }
+
+    /**
+     * Get the number of elements annotated with the annotations that the processor was asked to
+     * process in this round.
+     *
+     * @return the number of elements.
+     */
+    public int getElementCount() {
+      return elementCount;
+    }
+
+    /**
+     * Get the number of source files, class files, and resources that the processor generated
+     * via the {@code Filer} in this round.
+     *
+     * @return the number of generated files.
+     */
+    public int getGeneratedFileCount() {
+      return generatedFileCount;
+    }
+
+    @Override
+    public String toString() {
+      return new ToStringBuilder(this)
+          .attribute("wallTime", wallTime)
+          .attribute("cpuTime", cpuTime)
+          .attribute("elementCount", elementCount)
+          .attribute("generatedFileCount", generatedFileCount)
+          .toString();
+    }
+  }
+}
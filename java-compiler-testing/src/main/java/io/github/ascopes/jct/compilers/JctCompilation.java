@@ -18,8 +18,12 @@ package io.github.ascopes.jct.compilers;
 import io.github.ascopes.jct.containers.ModuleContainerGroup;
 import io.github.ascopes.jct.containers.OutputContainerGroup;
 import io.github.ascopes.jct.containers.PackageContainerGroup;
+import io.github.ascopes.jct.diagnostics.DiagnosticCounts;
+import io.github.ascopes.jct.diagnostics.DiagnosticObserver;
+import io.github.ascopes.jct.diagnostics.DiagnosticRetention;
 import io.github.ascopes.jct.diagnostics.TraceDiagnostic;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.filemanagers.JctFileManagerMetrics;
 import java.util.List;
 import java.util.Set;
 import javax.tools.JavaFileObject;
@@ -53,6 +57,76 @@ public interface JctCompilation {
     );
   }
 
+  /**
+   * Get a breakdown of the time that the compiler spent in each phase of the compilation.
+   *
+   * <p>This can be used to determine whether time is being spent within the compiler itself or
+   * within annotation processors. Compilations that did not invoke the compiler, such as those
+   * that were {@link #isMemoized() memoized}, report {@link JctCompilationTimings#empty()}.
+   *
+   * @return the timings.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  default JctCompilationTimings getTimings() {
+    throw new UnsupportedOperationException(
+        "This operation is not implemented, but will be mandatory in v1.0.0"
+    );
+  }
+
+  /**
+   * Get the measurements of each annotation processor that took part in the compilation.
+   *
+   * <p>This will be empty unless {@link JctCompiler#annotationProcessorMetrics(boolean)} was
+   * enabled, or if the compiler was not invoked because the compilation was
+   * {@link #isMemoized() memoized}.
+   *
+   * @return the metrics for each explicitly provided annotation processor, in the order that the
+   * processors were provided.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  default List<JctAnnotationProcessorMetrics> getAnnotationProcessorMetrics() {
+    throw new UnsupportedOperationException(
+        "This operation is not implemented, but will be mandatory in v1.0.0"
+    );
+  }
+
+  /**
+   * Get the measurements of the operations that the compiler performed on the file manager.
+   *
+   * <p>This will be {@link JctFileManagerMetrics#empty() empty} unless
+   * {@link JctCompiler#fileManagerMetrics(boolean)} was enabled, or if the compiler was not
+   * invoked because the compilation was {@link #isMemoized() memoized}.
+   *
+   * @return the file manager metrics.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  default JctFileManagerMetrics getFileManagerMetrics() {
+    throw new UnsupportedOperationException(
+        "This operation is not implemented, but will be mandatory in v1.0.0"
+    );
+  }
+
+  /**
+   * Get the memory used by the compilation.
+   *
+   * <p>This can be used to detect compilations or annotation processors that allocate far more
+   * than expected before they cause the JVM to run out of memory. Compilations that did not invoke
+   * the compiler, such as those that were {@link #isMemoized() memoized}, report
+   * {@link JctCompilationResourceUsage#empty()}.
+   *
+   * @return the resource usage.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  default JctCompilationResourceUsage getResourceUsage() {
+    throw new UnsupportedOperationException(
+        "This operation is not implemented, but will be mandatory in v1.0.0"
+    );
+  }
+
   /**
    * Determine if warnings were treated as errors.
    *
@@ -67,6 +141,53 @@ public interface JctCompilation {
    */
   boolean isSuccessful();
 
+  /**
+   * Determine if the compilation was cancelled by the
+   * {@link JctCompiler#diagnosticObserver(DiagnosticObserver) diagnostic observer}.
+   *
+   * <p>Cancelled compilations are always unsuccessful, and only contain the diagnostics that were
+   * reported before the compilation was cancelled.
+   *
+   * <p>Note that this throws an unsupported operation exception by default
+   * to prevent breaking existing functionality. In v1.0.0, this will become
+   * required behaviour.
+   *
+   * @return {@code true} if the compilation was cancelled, or {@code false} otherwise.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  default boolean isCancelled() {
+    throw new UnsupportedOperationException(
+        "This operation is not implemented, but will be mandatory in v1.0.0"
+    );
+  }
+
+  /**
+   * Determine if the compilation was restored from a {@link JctCompilationCache} rather than
+   * being performed by the compiler.
+   *
+   * <p>Memoized compilations report the arguments, outcome, output lines, compilation units and
+   * diagnostics of the compilation that they were captured from. The compiler was not invoked,
+   * so they report empty {@link #getTimings() timings}, {@link #getResourceUsage() resource
+   * usage}, {@link #getAnnotationProcessorMetrics() annotation processor metrics} and
+   * {@link #getFileManagerMetrics() file manager metrics}. Compilations that can be cancelled
+   * are never memoized, so these are never {@link #isCancelled() cancelled}.
+   *
+   * <p>Note that this throws an unsupported operation exception by default
+   * to prevent breaking existing functionality. In v1.0.0, this will become
+   * required behaviour.
+   *
+   * @return {@code true} if the compilation was memoized, or {@code false} if the compiler was
+   * invoked.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  default boolean isMemoized() {
+    throw new UnsupportedOperationException(
+        "This operation is not implemented, but will be mandatory in v1.0.0"
+    );
+  }
+
   /**
    * Determine if the compilation was a failure or not.
    *
@@ -99,6 +220,24 @@ public interface JctCompilation {
    */
   List<TraceDiagnostic<JavaFileObject>> getDiagnostics();
 
+  /**
+   * Get the counts of every diagnostic that was reported by the compilation.
+   *
+   * <p>Unlike {@link #getDiagnostics()}, these include any diagnostics that were discarded by
+   * the {@link JctCompiler#diagnosticRetention(DiagnosticRetention) diagnostic retention policy},
+   * so are always exact.
+   *
+   * <p>By default, this counts the result of {@link #getDiagnostics()}, which is only correct
+   * for implementations that never discard diagnostics.
+   *
+   * @return the diagnostic counts.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  default DiagnosticCounts getDiagnosticCounts() {
+    return DiagnosticCounts.of(getDiagnostics());
+  }
+
   /**
    * Get the file manager that was used to store and manage files.
    *
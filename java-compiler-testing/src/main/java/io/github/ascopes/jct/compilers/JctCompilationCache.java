@@ -0,0 +1,525 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.compilers.impl.JctCompilationDiskCache;
+import io.github.ascopes.jct.compilers.impl.JctCompilationSnapshot;
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Cache of compilation results, used to avoid compiling the same inputs more than once.
+ *
+ * <p>This is opt-in, and can be enabled by passing a cache to
+ * {@link JctCompiler#compilationCache(JctCompilationCache)}. Compilations are keyed by a
+ * fingerprint of the workspace contents, the compiler flags, the annotation processor classes,
+ * and the effective release. When nothing has changed, the compiler is not invoked, and the
+ * outputs of the previous compilation are restored into the new workspace instead. Restored
+ * compilations are {@link JctCompilation#isMemoized() marked as memoized}.
+ *
+ * <p>This is useful for parameterised tests and tests that make many different assertions about
+ * the same fixture. It should not be used for tests that rely on annotation processors having
+ * side effects, since annotation processors will not be run again on a cache hit.
+ *
+ * <p>Only the classes of the annotation processors are fingerprinted, not the processor instances
+ * themselves. Two instances of the same processor class that were configured differently, such
+ * as via constructor arguments, will therefore share the same cache entries. Any configuration
+ * that changes what a processor generates should be passed as an
+ * {@link JctCompiler#addAnnotationProcessorOptions(Iterable) annotation processor option}
+ * instead, since these are included in the fingerprint. Otherwise, the cache should not be used
+ * for those compilations.
+ *
+ * <p>Entries are evicted in least-recently-used order once either the maximum number of entries
+ * or the maximum total size of the cached output files is exceeded.
+ *
+ * <p>A {@link #directory(Path) directory} can optionally be provided to persist entries between
+ * JVM runs, in a similar way to a local build cache. Entries are checksummed and verified each
+ * time they are read, and the directory is pruned in least-recently-used order once it exceeds
+ * {@link #maximumDirectorySizeInBytes(long) the maximum size}. Compilations that use custom
+ * {@link javax.tools.JavaFileManager.Location locations} are only cached in memory. If a cached
+ * result is suspected to be wrong, {@link #forceMiss(boolean) force-miss mode} can be enabled to
+ * ignore every existing entry while still overwriting them with fresh results.
+ *
+ * <p>The {@link #getSharedInstance() shared instance} can be configured with the
+ * {@value #DIRECTORY_PROPERTY} and {@value #FORCE_MISS_PROPERTY} system properties.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.EXPERIMENTAL)
+public final class JctCompilationCache {
+
+  /**
+   * The default maximum number of entries to retain ({@value}).
+   */
+  public static final int DEFAULT_MAXIMUM_ENTRIES = 64;
+
+  /**
+   * The default maximum total size of cached output files, in bytes ({@value}).
+   */
+  public static final long DEFAULT_MAXIMUM_SIZE_IN_BYTES = 64L * 1024L * 1024L;
+
+  /**
+   * The default maximum total size of the cache directory, in bytes ({@value}).
+   */
+  public static final long DEFAULT_MAXIMUM_DIRECTORY_SIZE_IN_BYTES = 256L * 1024L * 1024L;
+
+  /**
+   * The system property that sets the directory of the shared instance.
+   */
+  public static final String DIRECTORY_PROPERTY = "jct.compilationCache.directory";
+
+  /**
+   * The system property that enables force-miss mode on the shared instance, if set to
+   * {@code true}.
+   */
+  public static final String FORCE_MISS_PROPERTY = "jct.compilationCache.forceMiss";
+
+  private static final JctCompilationCache SHARED_INSTANCE = fromSystemProperties();
+
+  /**
+   * Get a cache that is shared across the entire JVM.
+   *
+   * @return the shared cache.
+   */
+  public static JctCompilationCache getSharedInstance() {
+    return SHARED_INSTANCE;
+  }
+
+  private final Object lock;
+  private final LinkedHashMap<String, JctCompilationSnapshot> entries;
+  private int maximumEntries;
+  private long maximumSizeInBytes;
+  private long sizeInBytes;
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+  private long diskHitCount;
+  private long maximumDirectorySizeInBytes;
+  private boolean forceMiss;
+  private @Nullable JctCompilationDiskCache diskCache;
+
+  /**
+   * Initialise a new cache with the default limits.
+   */
+  public JctCompilationCache() {
+    this(DEFAULT_MAXIMUM_ENTRIES, DEFAULT_MAXIMUM_SIZE_IN_BYTES);
+  }
+
+  /**
+   * Initialise a new cache.
+   *
+   * @param maximumEntries     the maximum number of entries to retain.
+   * @param maximumSizeInBytes the maximum total size of cached output files, in bytes.
+   * @throws IllegalArgumentException if either limit is negative.
+   */
+  public JctCompilationCache(int maximumEntries, long maximumSizeInBytes) {
+    lock = new Object();
+    // Access-ordered, so the eldest entry is always the least recently used one.
+    entries = new LinkedHashMap<>(16, 0.75f, true);
+    this.maximumEntries = requireNonNegative(maximumEntries, "maximumEntries");
+    this.maximumSizeInBytes = requireNonNegative(maximumSizeInBytes, "maximumSizeInBytes");
+    sizeInBytes = 0;
+    hitCount = 0;
+    missCount = 0;
+    evictionCount = 0;
+    diskHitCount = 0;
+    maximumDirectorySizeInBytes = DEFAULT_MAXIMUM_DIRECTORY_SIZE_IN_BYTES;
+    forceMiss = false;
+    diskCache = null;
+  }
+
+  /**
+   * Get the maximum number of entries to retain.
+   *
+   * @return the maximum number of entries.
+   */
+  public int getMaximumEntries() {
+    synchronized (lock) {
+      return maximumEntries;
+    }
+  }
+
+  /**
+   * Set the maximum number of entries to retain, evicting the least recently used entries if
+   * there are now too many.
+   *
+   * @param maximumEntries the maximum number of entries.
+   * @return this cache, for further call chaining.
+   * @throws IllegalArgumentException if the value is negative.
+   */
+  public JctCompilationCache maximumEntries(int maximumEntries) {
+    synchronized (lock) {
+      this.maximumEntries = requireNonNegative(maximumEntries, "maximumEntries");
+      evictExcessEntries();
+    }
+    return this;
+  }
+
+  /**
+   * Get the maximum total size of cached output files.
+   *
+   * @return the maximum size, in bytes.
+   */
+  public long getMaximumSizeInBytes() {
+    synchronized (lock) {
+      return maximumSizeInBytes;
+    }
+  }
+
+  /**
+   * Set the maximum total size of cached output files, evicting the least recently used entries
+   * if the cache is now too large.
+   *
+   * @param maximumSizeInBytes the maximum size, in bytes.
+   * @return this cache, for further call chaining.
+   * @throws IllegalArgumentException if the value is negative.
+   */
+  public JctCompilationCache maximumSizeInBytes(long maximumSizeInBytes) {
+    synchronized (lock) {
+      this.maximumSizeInBytes = requireNonNegative(maximumSizeInBytes, "maximumSizeInBytes");
+      evictExcessEntries();
+    }
+    return this;
+  }
+
+  /**
+   * Get the directory that entries are persisted to between JVM runs.
+   *
+   * @return the directory, or {@code null} if entries are only held in memory.
+   */
+  @Nullable
+  public Path getDirectory() {
+    synchronized (lock) {
+      return diskCache == null ? null : diskCache.getDirectory();
+    }
+  }
+
+  /**
+   * Set the directory that entries are persisted to between JVM runs.
+   *
+   * <p>The directory will be created if it does not exist when the first entry is saved. It can
+   * be shared by multiple JVMs at once.
+   *
+   * @param directory the directory, or {@code null} to only hold entries in memory.
+   * @return this cache, for further call chaining.
+   */
+  public JctCompilationCache directory(@Nullable Path directory) {
+    synchronized (lock) {
+      diskCache = directory == null
+          ? null
+          : new JctCompilationDiskCache(directory, maximumDirectorySizeInBytes);
+    }
+    return this;
+  }
+
+  /**
+   * Get the maximum total size of the entries in the cache directory.
+   *
+   * @return the maximum size, in bytes.
+   */
+  public long getMaximumDirectorySizeInBytes() {
+    synchronized (lock) {
+      return maximumDirectorySizeInBytes;
+    }
+  }
+
+  /**
+   * Set the maximum total size of the entries in the cache directory.
+   *
+   * <p>The least recently used entries are deleted the next time that an entry is saved, if the
+   * directory is now too large.
+   *
+   * @param maximumDirectorySizeInBytes the maximum size, in bytes.
+   * @return this cache, for further call chaining.
+   * @throws IllegalArgumentException if the value is negative.
+   */
+  public JctCompilationCache maximumDirectorySizeInBytes(long maximumDirectorySizeInBytes) {
+    synchronized (lock) {
+      this.maximumDirectorySizeInBytes = requireNonNegative(
+          maximumDirectorySizeInBytes,
+          "maximumDirectorySizeInBytes"
+      );
+
+      if (diskCache != null) {
+        diskCache = new JctCompilationDiskCache(
+            diskCache.getDirectory(),
+            maximumDirectorySizeInBytes
+        );
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Determine whether force-miss mode is enabled.
+   *
+   * @return {@code true} if enabled, or {@code false} otherwise.
+   */
+  public boolean isForceMiss() {
+    synchronized (lock) {
+      return forceMiss;
+    }
+  }
+
+  /**
+   * Enable or disable force-miss mode.
+   *
+   * <p>When enabled, every lookup misses, both in memory and on disk, so every compilation is
+   * performed for real. The results are still stored as usual, replacing any existing entries.
+   * This can be used to rule out a poisoned cache as the cause of an unexpected result.
+   *
+   * @param forceMiss {@code true} to enable, or {@code false} to disable.
+   * @return this cache, for further call chaining.
+   */
+  public JctCompilationCache forceMiss(boolean forceMiss) {
+    synchronized (lock) {
+      this.forceMiss = forceMiss;
+    }
+    return this;
+  }
+
+  /**
+   * Get the number of entries in the cache.
+   *
+   * @return the number of entries.
+   */
+  public int size() {
+    synchronized (lock) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Get the total size of the cached output files.
+   *
+   * @return the size, in bytes.
+   */
+  public long getSizeInBytes() {
+    synchronized (lock) {
+      return sizeInBytes;
+    }
+  }
+
+  /**
+   * Get the number of lookups that found a cached compilation.
+   *
+   * @return the hit count.
+   */
+  public long getHitCount() {
+    synchronized (lock) {
+      return hitCount;
+    }
+  }
+
+  /**
+   * Get the number of lookups that found a cached compilation in the cache directory rather
+   * than in memory.
+   *
+   * <p>These are also included in the {@link #getHitCount() hit count}.
+   *
+   * @return the disk hit count.
+   */
+  public long getDiskHitCount() {
+    synchronized (lock) {
+      return diskHitCount;
+    }
+  }
+
+  /**
+   * Get the number of lookups that did not find a cached compilation.
+   *
+   * @return the miss count.
+   */
+  public long getMissCount() {
+    synchronized (lock) {
+      return missCount;
+    }
+  }
+
+  /**
+   * Get the number of entries that have been evicted to stay within the limits.
+   *
+   * <p>Entries removed by {@link #clear()} are not counted.
+   *
+   * @return the eviction count.
+   */
+  public long getEvictionCount() {
+    synchronized (lock) {
+      return evictionCount;
+    }
+  }
+
+  /**
+   * Remove all entries from the cache.
+   *
+   * <p>Entries in the cache directory are left in place.
+   */
+  public void clear() {
+    synchronized (lock) {
+      entries.clear();
+      sizeInBytes = 0;
+    }
+  }
+
+  @Override
+  public String toString() {
+    synchronized (lock) {
+      return new ToStringBuilder(this)
+          .attribute("size", entries.size())
+          .attribute("sizeInBytes", sizeInBytes)
+          .attribute("maximumEntries", maximumEntries)
+          .attribute("maximumSizeInBytes", maximumSizeInBytes)
+          .attribute("hitCount", hitCount)
+          .attribute("missCount", missCount)
+          .attribute("evictionCount", evictionCount)
+          .attribute("diskHitCount", diskHitCount)
+          .attribute("diskCache", diskCache)
+          .attribute("forceMiss", forceMiss)
+          .toString();
+    }
+  }
+
+  /**
+   * Look up the snapshot for the given fingerprint, marking it as recently used.
+   *
+   * <p>This is used internally by compilers, and should not be called by users.
+   *
+   * @param fingerprint the fingerprint.
+   * @return the snapshot, or {@code null} if it is not cached.
+   */
+  @API(since = "0.7.0", status = Status.INTERNAL)
+  @Nullable
+  public JctCompilationSnapshot get(String fingerprint) {
+    requireNonNull(fingerprint, "fingerprint");
+    JctCompilationDiskCache diskCache;
+
+    synchronized (lock) {
+      var snapshot = forceMiss ? null : entries.get(fingerprint);
+
+      if (snapshot != null) {
+        ++hitCount;
+        return snapshot;
+      }
+
+      diskCache = forceMiss ? null : this.diskCache;
+
+      if (diskCache == null) {
+        ++missCount;
+        return null;
+      }
+    }
+
+    // Do not hold the lock while reading from disk, so other lookups are not blocked.
+    var snapshot = diskCache.load(fingerprint);
+
+    synchronized (lock) {
+      if (snapshot == null) {
+        ++missCount;
+      } else {
+        ++hitCount;
+        ++diskHitCount;
+        putInMemory(fingerprint, snapshot);
+      }
+    }
+
+    return snapshot;
+  }
+
+  /**
+   * Store the snapshot for the given fingerprint, evicting other entries if needed, and
+   * persisting it to the cache directory if one is set.
+   *
+   * <p>This is used internally by compilers, and should not be called by users.
+   *
+   * @param fingerprint the fingerprint.
+   * @param snapshot    the snapshot.
+   */
+  @API(since = "0.7.0", status = Status.INTERNAL)
+  public void put(String fingerprint, JctCompilationSnapshot snapshot) {
+    requireNonNull(fingerprint, "fingerprint");
+    requireNonNull(snapshot, "snapshot");
+
+    JctCompilationDiskCache diskCache;
+
+    synchronized (lock) {
+      putInMemory(fingerprint, snapshot);
+      diskCache = this.diskCache;
+    }
+
+    if (diskCache != null && snapshot.isPersistable()) {
+      diskCache.save(fingerprint, snapshot);
+    }
+  }
+
+  // Must hold the lock when calling this.
+  private void putInMemory(String fingerprint, JctCompilationSnapshot snapshot) {
+    var previous = entries.put(fingerprint, snapshot);
+
+    if (previous != null) {
+      sizeInBytes -= previous.getSizeInBytes();
+    }
+
+    sizeInBytes += snapshot.getSizeInBytes();
+    evictExcessEntries();
+  }
+
+  // Must hold the lock when calling this.
+  private void evictExcessEntries() {
+    var iterator = entries.values().iterator();
+
+    while ((entries.size() > maximumEntries || sizeInBytes > maximumSizeInBytes)
+        && iterator.hasNext()) {
+      var snapshot = iterator.next();
+      iterator.remove();
+      sizeInBytes -= snapshot.getSizeInBytes();
+      ++evictionCount;
+    }
+  }
+
+  private static JctCompilationCache fromSystemProperties() {
+    var cache = new JctCompilationCache();
+    var directory = System.getProperty(DIRECTORY_PROPERTY);
+
+    if (directory != null && !directory.isBlank()) {
+      cache.directory(Path.of(directory));
+    }
+
+    return cache.forceMiss(Boolean.getBoolean(FORCE_MISS_PROPERTY));
+  }
+
+  private static int requireNonNegative(int value, String name) {
+    if (value < 0) {
+      throw new IllegalArgumentException(name + " cannot be negative");
+    }
+    return value;
+  }
+
+  private static long requireNonNegative(long value, String name) {
+    if (value < 0) {
+      throw new IllegalArgumentException(name + " cannot be negative");
+    }
+    return value;
+  }
+}
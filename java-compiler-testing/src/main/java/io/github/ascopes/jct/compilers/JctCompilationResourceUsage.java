@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.utils.Lazy;
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.function.LongSupplier;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+
+/**
+ * Immutable measurements of the memory used by a compilation.
+ *
+ * <p>Allocations are measured for the thread that ran the compiler, so do not include anything
+ * allocated by other threads, such as threads started by annotation processors. Garbage
+ * collection is measured for the entire JVM while the compiler was running, so may include
+ * collections caused by other work running at the same time.
+ *
+ * <p>The size of the workspace is only computed the first time that it is requested, since it
+ * requires walking every in-memory location.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.EXPERIMENTAL)
+public final class JctCompilationResourceUsage {
+
+  private static final JctCompilationResourceUsage EMPTY = new JctCompilationResourceUsage(
+      OptionalLong.empty(),
+      Duration.ZERO,
+      0,
+      0
+  );
+
+  private final OptionalLong allocatedBytes;
+  private final Duration gcTime;
+  private final long gcCount;
+  private final Lazy<Long> workspaceSizeInBytes;
+
+  /**
+   * Initialise these measurements.
+   *
+   * @param allocatedBytes       the number of bytes allocated by the compiling thread, or empty
+   *                             if this could not be measured.
+   * @param gcTime               the time spent performing garbage collection.
+   * @param gcCount              the number of garbage collections that were performed.
+   * @param workspaceSizeInBytes the size of the in-memory workspace once compilation completed.
+   */
+  public JctCompilationResourceUsage(
+      OptionalLong allocatedBytes,
+      Duration gcTime,
+      long gcCount,
+      long workspaceSizeInBytes
+  ) {
+    this(allocatedBytes, gcTime, gcCount, () -> workspaceSizeInBytes);
+  }
+
+  /**
+   * Initialise these measurements, computing the size of the workspace the first time that it
+   * is requested.
+   *
+   * @param allocatedBytes       the number of bytes allocated by the compiling thread, or empty
+   *                             if this could not be measured.
+   * @param gcTime               the time spent performing garbage collection.
+   * @param gcCount              the number of garbage collections that were performed.
+   * @param workspaceSizeInBytes the supplier of the size of the in-memory workspace.
+   */
+  @API(since = "0.7.0", status = Status.INTERNAL)
+  public JctCompilationResourceUsage(
+      OptionalLong allocatedBytes,
+      Duration gcTime,
+      long gcCount,
+      LongSupplier workspaceSizeInBytes
+  ) {
+    requireNonNull(workspaceSizeInBytes, "workspaceSizeInBytes");
+    this.allocatedBytes = requireNonNull(allocatedBytes, "allocatedBytes");
+    this.gcTime = requireNonNull(gcTime, "gcTime");
+    this.gcCount = gcCount;
+    this.workspaceSizeInBytes = new Lazy<>(workspaceSizeInBytes::getAsLong);
+  }
+
+  /**
+   * Get the number of bytes that the compiling thread allocated on the heap.
+   *
+   * @return the number of allocated bytes, or an empty optional if the JVM does not support
+   * measuring thread allocations.
+   */
+  public OptionalLong getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  /**
+   * Get the time that the JVM spent performing garbage collection while the compiler was
+   * running.
+   *
+   * @return the garbage collection time.
+   */
+  public Duration getGcTime() {
+    return gcTime;
+  }
+
+  /**
+   * Get the number of garbage collections that the JVM performed while the compiler was running.
+   *
+   * @return the number of garbage collections.
+   */
+  public long getGcCount() {
+    return gcCount;
+  }
+
+  /**
+   * Get the total size of every file held in memory by the workspace once the compiler finished.
+   *
+   * <p>This covers every location that is not on the default file system, including any
+   * generated sources and class outputs, and approximates the heap retained by the workspace.
+   * Workspaces that only use temporary directories on disk will report zero.
+   *
+   * <p>This is computed the first time that it is requested, so reflects any changes made to the
+   * workspace between the compiler finishing and that point. Locations that have been closed by
+   * then, such as those of a closed workspace, are not counted.
+   *
+   * @return the size of the in-memory workspace, in bytes.
+   */
+  public long getWorkspaceSizeInBytes() {
+    return workspaceSizeInBytes.access();
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("allocatedBytes", allocatedBytes)
+        .attribute("gcTime", gcTime)
+        .attribute("gcCount", gcCount)
+        .attribute("workspaceSizeInBytes", getWorkspaceSizeInBytes())
+        .toString();
+  }
+
+  /**
+   * Get measurements for a compilation where the compiler was not invoked, such as memoized
+   * compilations.
+   *
+   * @return the measurements, where nothing was allocated or collected.
+   */
+  public static JctCompilationResourceUsage empty() {
+    return EMPTY;
+  }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers;
+
+import static io.github.ascopes.jct.utils.IterableUtils.requireNonNullValues;
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+
+/**
+ * Immutable breakdown of the time that a compilation spent in each phase of the compiler.
+ *
+ * <p>Phases are reported by the compiler as it runs, so are only available for compilers that
+ * behave like Javac. For other compilers, only the {@link #getTotal() total} is known, and
+ * every phase is reported as {@link Duration#ZERO}.
+ *
+ * <p>Phases may overlap. In particular, each annotation processing round includes the time
+ * taken to parse and enter any sources that processors generated in the previous round, and
+ * that time is reported in both phases. The time spent within annotation processors themselves
+ * is roughly the annotation processing time minus any parsing and entering performed within it.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.EXPERIMENTAL)
+public final class JctCompilationTimings {
+
+  private static final JctCompilationTimings EMPTY = builder().build();
+
+  private final Duration total;
+  private final Duration parse;
+  private final Duration enter;
+  private final Duration analyze;
+  private final Duration generate;
+  private final Duration annotationProcessing;
+  private final List<Duration> annotationProcessingRounds;
+
+  private JctCompilationTimings(Builder builder) {
+    total = builder.total;
+    parse = builder.parse;
+    enter = builder.enter;
+    analyze = builder.analyze;
+    generate = builder.generate;
+    annotationProcessing = builder.annotationProcessing;
+    annotationProcessingRounds = Collections.unmodifiableList(
+        new ArrayList<>(builder.annotationProcessingRounds)
+    );
+  }
+
+  /**
+   * Get the total wall-clock time that the compiler took to run.
+   *
+   * @return the total time.
+   */
+  public Duration getTotal() {
+    return total;
+  }
+
+  /**
+   * Get the time spent parsing sources.
+   *
+   * @return the time spent parsing.
+   */
+  public Duration getParse() {
+    return parse;
+  }
+
+  /**
+   * Get the time spent entering symbols for parsed sources.
+   *
+   * @return the time spent entering symbols.
+   */
+  public Duration getEnter() {
+    return enter;
+  }
+
+  /**
+   * Get the time spent attributing and flow-analyzing types.
+   *
+   * @return the time spent analyzing.
+   */
+  public Duration getAnalyze() {
+    return analyze;
+  }
+
+  /**
+   * Get the time spent generating class files.
+   *
+   * @return the time spent generating class files.
+   */
+  public Duration getGenerate() {
+    return generate;
+  }
+
+  /**
+   * Get the total time spent performing annotation processing.
+   *
+   * <p>This covers every round, as well as discovering and initializing the processors.
+   *
+   * @return the time spent performing annotation processing.
+   */
+  public Duration getAnnotationProcessing() {
+    return annotationProcessing;
+  }
+
+  /**
+   * Get the time spent in each annotation processing round, in the order that the rounds ran.
+   *
+   * @return an unmodifiable list of the time spent in each round, which will be empty if
+   * annotation processing did not run.
+   */
+  public List<Duration> getAnnotationProcessingRounds() {
+    return annotationProcessingRounds;
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("total", total)
+        .attribute("parse", parse)
+        .attribute("enter", enter)
+        .attribute("analyze", analyze)
+        .attribute("generate", generate)
+        .attribute("annotationProcessing", annotationProcessing)
+        .attribute("annotationProcessingRounds", annotationProcessingRounds)
+        .toString();
+  }
+
+  /**
+   * Get timings where every phase took no time.
+   *
+   * <p>This is used for compilations where the compiler did not run, such as memoized
+   * compilations.
+   *
+   * @return the empty timings.
+   */
+  public static JctCompilationTimings empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Initialize a builder for a new {@link JctCompilationTimings} object.
+   *
+   * <p>Any phase that is not set will default to {@link Duration#ZERO}.
+   *
+   * @return the builder.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Builder type for {@link JctCompilationTimings} to simplify initialization.
+   *
+   * @author Ashley Scopes
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  public static final class Builder {
+
+    private Duration total;
+    private Duration parse;
+    private Duration enter;
+    private Duration analyze;
+    private Duration generate;
+    private Duration annotationProcessing;
+    private List<Duration> annotationProcessingRounds;
+
+    private Builder() {
+      // Only initialized in this file.
+      total = Duration.ZERO;
+      parse = Duration.ZERO;
+      enter = Duration.ZERO;
+      analyze = Duration.ZERO;
+      generate = Duration.ZERO;
+      annotationProcessing = Duration.ZERO;
+      annotationProcessingRounds = List.of();
+    }
+
+    /**
+     * Set the total wall-clock time that the compiler took to run.
+     *
+     * @param total the total time.
+     * @return this builder.
+     */
+    public Builder total(Duration total) {
+      this.total = requireNonNull(total, "total");
+      return this;
+    }
+
+    /**
+     * Set the time spent parsing sources.
+     *
+     * @param parse the time spent parsing.
+     * @return this builder.
+     */
+    public Builder parse(Duration parse) {
+      this.parse = requireNonNull(parse, "parse");
+      return this;
+    }
+
+    /**
+     * Set the time spent entering symbols for parsed sources.
+     *
+     * @param enter the time spent entering symbols.
+     * @return this builder.
+     */
+    public Builder enter(Duration enter) {
+      this.enter = requireNonNull(enter, "enter");
+      return this;
+    }
+
+    /**
+     * Set the time spent attributing and flow-analyzing types.
+     *
+     * @param analyze the time spent analyzing.
+     * @return this builder.
+     */
+    public Builder analyze(Duration analyze) {
+      this.analyze = requireNonNull(analyze, "analyze");
+      return this;
+    }
+
+    /**
+     * Set the time spent generating class files.
+     *
+     * @param generate the time spent generating class files.
+     * @return this builder.
+     */
+    public Builder generate(Duration generate) {
+      this.generate = requireNonNull(generate, "generate");
+      return this;
+    }
+
+    /**
+     * Set the total time spent performing annotation processing.
+     *
+     * @param annotationProcessing the time spent performing annotation processing.
+     * @return this builder.
+     */
+    public Builder annotationProcessing(Duration annotationProcessing) {
+      this.annotationProcessing = requireNonNull(annotationProcessing, "annotationProcessing");
+      return this;
+    }
+
+    /**
+     * Set the time spent in each annotation processing round.
+     *
+     * @param annotationProcessingRounds the time spent in each round, in order.
+     * @return this builder.
+     */
+    public Builder annotationProcessingRounds(List<Duration> annotationProcessingRounds) {
+      this.annotationProcessingRounds = requireNonNullValues(
+          annotationProcessingRounds,
+          "annotationProcessingRounds"
+      );
+      return this;
+    }
+
+    /**
+     * Build this builder and output the created {@link JctCompilationTimings}.
+     *
+     * @return the built object.
+     */
+    public JctCompilationTimings build() {
+      return new JctCompilationTimings(this);
+    }
+  }
+}
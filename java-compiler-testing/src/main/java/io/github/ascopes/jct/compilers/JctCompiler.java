@@ -15,6 +15,13 @@
  */
 package io.github.ascopes.jct.compilers;
 
+import static io.github.ascopes.jct.utils.IterableUtils.requireNonNullValues;
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.compilers.impl.JctCompilationExecutor;
+import io.github.ascopes.jct.diagnostics.DiagnosticObserver;
+import io.github.ascopes.jct.diagnostics.DiagnosticRetention;
+import io.github.ascopes.jct.diagnostics.StackCaptureMode;
 import io.github.ascopes.jct.ex.JctCompilerException;
 import io.github.ascopes.jct.filemanagers.AnnotationProcessorDiscovery;
 import io.github.ascopes.jct.filemanagers.LoggingMode;
@@ -23,13 +30,21 @@ import io.github.ascopes.jct.workspaces.Workspace;
 import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 import javax.annotation.processing.Processor;
 import javax.lang.model.SourceVersion;
 import org.apiguardian.api.API;
 import org.apiguardian.api.API.Status;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Base definition of a compiler that can be configured to perform a compilation run against
@@ -133,6 +148,73 @@ public interface JctCompiler<C extends JctCompiler<C, R>, R extends JctCompilati
    */
   Charset DEFAULT_LOG_CHARSET = StandardCharsets.UTF_8;
 
+  /**
+   * Default setting for incremental compilation ({@code false}).
+   *
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  boolean DEFAULT_INCREMENTAL_COMPILATION = false;
+
+  /**
+   * Default setting for measuring annotation processors ({@code false}).
+   *
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  boolean DEFAULT_ANNOTATION_PROCESSOR_METRICS = false;
+
+  /**
+   * Default setting for measuring file manager operations ({@code false}).
+   *
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  boolean DEFAULT_FILE_MANAGER_METRICS = false;
+
+  /**
+   * Default setting for how much of the stack to capture for each diagnostic
+   * ({@link StackCaptureMode#LIMITED}).
+   *
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  StackCaptureMode DEFAULT_DIAGNOSTIC_STACK_CAPTURE_MODE = StackCaptureMode.LIMITED;
+
+  /**
+   * Default limit for the number of stack frames to capture for each diagnostic when using
+   * {@link StackCaptureMode#LIMITED} ({@code 32}).
+   *
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  int DEFAULT_DIAGNOSTIC_STACK_FRAME_LIMIT = 32;
+
+  /**
+   * Default setting for which diagnostics to keep ({@link DiagnosticRetention#ALL}).
+   *
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  DiagnosticRetention DEFAULT_DIAGNOSTIC_RETENTION = DiagnosticRetention.ALL;
+
+  /**
+   * Default limit for the number of diagnostics of each kind to keep when using
+   * {@link DiagnosticRetention#FIRST_PER_KIND} ({@code 100}).
+   *
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  int DEFAULT_DIAGNOSTIC_RETENTION_LIMIT = 100;
+
+  /**
+   * Default setting for discarding class outputs ({@code false}).
+   *
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  boolean DEFAULT_DISCARD_CLASS_OUTPUTS = false;
+
   /**
    * Invoke the compilation and return the compilation result.
    *
@@ -195,6 +277,148 @@ public interface JctCompiler<C extends JctCompiler<C, R>, R extends JctCompilati
    */
   R compile(Workspace workspace, Collection<String> classNames);
 
+  /**
+   * Invoke the compilation asynchronously on a shared executor.
+   *
+   * <p>The shared executor is bounded to one thread per available processor by default. This
+   * can be overridden with the {@code jct.compilers.parallelism} system property.
+   *
+   * <p>The workspace must not be closed, and the configuration of this compiler must not be
+   * changed, until the returned future has completed. The compilation runs with the context
+   * class loader of the calling thread.
+   *
+   * @param workspace the workspace to compile.
+   * @return a future that completes with the compilation result, or completes exceptionally with
+   *     any of the exceptions that {@link #compile(Workspace)} can raise.
+   * @see #compile(Workspace)
+   * @see #compileAsync(Workspace, Executor)
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  default CompletableFuture<R> compileAsync(Workspace workspace) {
+    return compileAsync(workspace, JctCompilationExecutor.getInstance());
+  }
+
+  /**
+   * Invoke the compilation asynchronously on the given executor.
+   *
+   * <p>The workspace must not be closed, and the configuration of this compiler must not be
+   * changed, until the returned future has completed. The compilation runs with the context
+   * class loader of the calling thread, rather than that of the executor thread.
+   *
+   * @param workspace the workspace to compile.
+   * @param executor  the executor to run the compilation on.
+   * @return a future that completes with the compilation result, or completes exceptionally with
+   *     any of the exceptions that {@link #compile(Workspace)} can raise.
+   * @see #compile(Workspace)
+   * @see #compileAsync(Workspace)
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  default CompletableFuture<R> compileAsync(Workspace workspace, Executor executor) {
+    requireNonNull(workspace, "workspace");
+    requireNonNull(executor, "executor");
+    return CompletableFuture.supplyAsync(
+        JctCompilationExecutor.withCallerContextClassLoader(() -> compile(workspace)),
+        executor
+    );
+  }
+
+  /**
+   * Compile each of the given workspaces concurrently on a shared executor, waiting for all of
+   * them to complete.
+   *
+   * <p>Each workspace is compiled as if it were passed to {@link #compile(Workspace)}. Any
+   * annotation processors that were {@link #addAnnotationProcessors(Iterable) added explicitly}
+   * are shared between the concurrent compilations, so must be thread-safe. JAR indexes for the
+   * inherited class path and module path are shared between all compilations.
+   *
+   * <p>The configuration of this compiler must not be changed while this method is running,
+   * and each workspace must only appear once in the collection. Compilations run with the
+   * context class loader of the calling thread.
+   *
+   * <p>The shared executor is bounded to one thread per available processor by default. This
+   * can be overridden with the {@code jct.compilers.parallelism} system property.
+   *
+   * @param workspaces the workspaces to compile.
+   * @return the compilation results, in the same order as the workspaces.
+   * @throws JctCompilerException  if the compiler threw an unhandled exception for any of the
+   *                               workspaces. This should not occur for compilation failures
+   *                               generally.
+   * @throws IllegalStateException if no compilation units were found in any of the workspaces.
+   * @throws UncheckedIOException  if an IO error occurs.
+   * @see #compileAll(Collection, Executor)
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  default List<R> compileAll(Collection<? extends Workspace> workspaces) {
+    return compileAll(workspaces, JctCompilationExecutor.getInstance());
+  }
+
+  /**
+   * Compile each of the given workspaces concurrently on the given executor, waiting for all of
+   * them to complete.
+   *
+   * <p>Each workspace is compiled as if it were passed to {@link #compile(Workspace)}. Any
+   * annotation processors that were {@link #addAnnotationProcessors(Iterable) added explicitly}
+   * are shared between the concurrent compilations, so must be thread-safe. JAR indexes for the
+   * inherited class path and module path are shared between all compilations.
+   *
+   * <p>The configuration of this compiler must not be changed while this method is running,
+   * and each workspace must only appear once in the collection. Compilations run with the
+   * context class loader of the calling thread.
+   *
+   * <p>If any compilation fails with an exception, the remaining compilations are still allowed
+   * to complete before the first exception is rethrown, so that it is always safe to close the
+   * workspaces afterwards. Any other exceptions are added to it as suppressed exceptions.
+   *
+   * @param workspaces the workspaces to compile.
+   * @param executor   the executor to run the compilations on.
+   * @return the compilation results, in the same order as the workspaces.
+   * @throws JctCompilerException  if the compiler threw an unhandled exception for any of the
+   *                               workspaces. This should not occur for compilation failures
+   *                               generally.
+   * @throws IllegalStateException if no compilation units were found in any of the workspaces.
+   * @throws UncheckedIOException  if an IO error occurs.
+   * @see #compileAll(Collection)
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  default List<R> compileAll(Collection<? extends Workspace> workspaces, Executor executor) {
+    requireNonNullValues(workspaces, "workspaces");
+    requireNonNull(executor, "executor");
+
+    var futures = workspaces.stream()
+        .map(workspace -> compileAsync(workspace, executor))
+        .collect(Collectors.toList());
+
+    var results = new ArrayList<R>(futures.size());
+    RuntimeException firstException = null;
+
+    for (var future : futures) {
+      try {
+        results.add(future.join());
+      } catch (CompletionException ex) {
+        // Unwrap to give the same exceptions that compile(Workspace) would raise.
+        var cause = ex.getCause() instanceof RuntimeException
+            ? (RuntimeException) ex.getCause()
+            : ex;
+
+        if (firstException == null) {
+          firstException = cause;
+        } else {
+          firstException.addSuppressed(cause);
+        }
+      }
+    }
+
+    if (firstException != null) {
+      throw firstException;
+    }
+
+    return Collections.unmodifiableList(results);
+  }
+
   /**
    * Apply a given configurer to this compiler that can throw a checked exception.
    *
@@ -891,4 +1115,394 @@ public interface JctCompiler<C extends JctCompiler<C, R>, R extends JctCompilati
    * @return this compiler for further call chaining.
    */
   C annotationProcessorDiscovery(AnnotationProcessorDiscovery annotationProcessorDiscovery);
+
+  /**
+   * Get the cache used to memoize compilations, if any.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to {@code null},
+   * meaning that compilations are never memoized.
+   *
+   * @return the compilation cache, or {@code null} if compilations are not memoized.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.STABLE)
+  @Nullable
+  JctCompilationCache getCompilationCache();
+
+  /**
+   * Set the cache used to memoize compilations.
+   *
+   * <p>When set, compiling a workspace with the same contents and settings as a previous
+   * compilation will restore the outputs of that compilation into the workspace rather than
+   * invoking the compiler again. See {@link JctCompilationCache} for details.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to {@code null},
+   * meaning that compilations are never memoized.
+   *
+   * @param compilationCache the compilation cache to use, or {@code null} to disable
+   *                         memoization.
+   * @return this compiler for further call chaining.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.STABLE)
+  C compilationCache(@Nullable JctCompilationCache compilationCache);
+
+  /**
+   * Determine whether workspaces are compiled incrementally.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_INCREMENTAL_COMPILATION}.
+   *
+   * @return {@code true} if incremental compilation is enabled, or {@code false} otherwise.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  boolean isIncrementalCompilation();
+
+  /**
+   * Set whether to compile workspaces incrementally.
+   *
+   * <p>When enabled, compiling a workspace that this compiler has already compiled will only
+   * recompile the sources that were added or changed since then, along with any sources that
+   * depend on them. The existing class outputs are reused for everything else. Dependencies are
+   * discovered as the compiler analyzes each source, so this is only supported by compilers
+   * that behave like Javac.
+   *
+   * <p>Anything other than the sources on the source path changing, such as the flags or the
+   * class path, will cause everything to be recompiled. Multi-module sources, compilations of
+   * explicit class names, and compilations using {@link CompilationMode#PARSE_ONLY} or
+   * {@link CompilationMode#ANALYZE_ONLY} are always compiled in full.
+   *
+   * <p>The resulting compilation only describes the sources that were recompiled, and
+   * annotation processors will only see those sources, so this should not be used with
+   * processors that aggregate information across every source.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_INCREMENTAL_COMPILATION}.
+   *
+   * @param incrementalCompilation {@code true} to compile incrementally, or {@code false} to
+   *                               always compile everything.
+   * @return this compiler for further call chaining.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  C incrementalCompilation(boolean incrementalCompilation);
+
+  /**
+   * Determine whether annotation processors are measured during compilation.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_ANNOTATION_PROCESSOR_METRICS}.
+   *
+   * @return {@code true} if annotation processors are measured, or {@code false} otherwise.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  boolean isAnnotationProcessorMetrics();
+
+  /**
+   * Set whether to measure annotation processors during compilation.
+   *
+   * <p>When enabled, each processor that was {@link #addAnnotationProcessors added explicitly}
+   * is wrapped in a decorator that measures the wall-clock and CPU time taken to initialise the
+   * processor and to process each round, as well as the number of elements it was given and the
+   * number of files it generated. The results are available from
+   * {@link JctCompilation#getAnnotationProcessorMetrics()}.
+   *
+   * <p>Processors are given a decorated {@code ProcessingEnvironment}, so this cannot be used with
+   * processors that depend upon the compiler's own implementation of that interface. Processors
+   * that are discovered from the annotation processor paths are not measured.
+   *
+   * <p>Processors can only be measured when they actually run, so the
+   * {@link #compilationCache(JctCompilationCache) compilation cache} is not used while this is
+   * enabled.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_ANNOTATION_PROCESSOR_METRICS}.
+   *
+   * @param annotationProcessorMetrics {@code true} to measure annotation processors, or
+   *                                   {@code false} to not measure them.
+   * @return this compiler for further call chaining.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  C annotationProcessorMetrics(boolean annotationProcessorMetrics);
+
+  /**
+   * Determine whether file manager operations are measured during compilation.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_FILE_MANAGER_METRICS}.
+   *
+   * @return {@code true} if file manager operations are measured, or {@code false} otherwise.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  boolean isFileManagerMetrics();
+
+  /**
+   * Set whether to measure file manager operations during compilation.
+   *
+   * <p>When enabled, the compiler is given a decorated file manager that counts each operation
+   * that the compiler performs and records how long it took, along with the number of bytes read
+   * from and written to the files that it hands out and the number of files that each listing
+   * returned. The results are available from {@link JctCompilation#getFileManagerMetrics()}.
+   *
+   * <p>This is far cheaper than {@link #fileManagerLoggingMode(LoggingMode) logging} each
+   * operation, so is suitable for profiling larger compilations.
+   *
+   * <p>Operations can only be measured when the compiler actually runs, so the
+   * {@link #compilationCache(JctCompilationCache) compilation cache} is not used while this is
+   * enabled.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_FILE_MANAGER_METRICS}.
+   *
+   * @param fileManagerMetrics {@code true} to measure file manager operations, or {@code false}
+   *                           to not measure them.
+   * @return this compiler for further call chaining.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  C fileManagerMetrics(boolean fileManagerMetrics);
+
+  /**
+   * Get how much of the stack is captured for each diagnostic that the compiler reports.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_DIAGNOSTIC_STACK_CAPTURE_MODE}.
+   *
+   * @return the stack capture mode.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  StackCaptureMode getDiagnosticStackCaptureMode();
+
+  /**
+   * Set how much of the stack to capture for each diagnostic that the compiler reports.
+   *
+   * <p>The captured stack is available from each diagnostic in the compilation, and is what gets
+   * logged when the {@link #diagnosticLoggingMode(LoggingMode) diagnostic logging mode} is
+   * {@link LoggingMode#STACKTRACES}. Capturing the full stack is comparatively expensive, and can
+   * make up a large part of the time taken by compilations that report many diagnostics.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_DIAGNOSTIC_STACK_CAPTURE_MODE}.
+   *
+   * @param diagnosticStackCaptureMode the stack capture mode to use.
+   * @return this compiler for further call chaining.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  C diagnosticStackCaptureMode(StackCaptureMode diagnosticStackCaptureMode);
+
+  /**
+   * Get the maximum number of stack frames to capture for each diagnostic when the
+   * {@link #getDiagnosticStackCaptureMode() stack capture mode} is
+   * {@link StackCaptureMode#LIMITED}.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_DIAGNOSTIC_STACK_FRAME_LIMIT}.
+   *
+   * @return the stack frame limit.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  int getDiagnosticStackFrameLimit();
+
+  /**
+   * Set the maximum number of stack frames to capture for each diagnostic when the
+   * {@link #getDiagnosticStackCaptureMode() stack capture mode} is
+   * {@link StackCaptureMode#LIMITED}.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_DIAGNOSTIC_STACK_FRAME_LIMIT}.
+   *
+   * @param diagnosticStackFrameLimit the stack frame limit to use.
+   * @return this compiler for further call chaining.
+   * @throws IllegalArgumentException if the limit is less than 1.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  C diagnosticStackFrameLimit(int diagnosticStackFrameLimit);
+
+  /**
+   * Get which of the diagnostics that the compiler reports are kept in the compilation.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_DIAGNOSTIC_RETENTION}.
+   *
+   * @return the diagnostic retention policy.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  DiagnosticRetention getDiagnosticRetention();
+
+  /**
+   * Set which of the diagnostics that the compiler reports are kept in the compilation.
+   *
+   * <p>Compilations that report huge numbers of warnings can use a large amount of memory to
+   * hold every diagnostic. Discarding some of them bounds this, while
+   * {@link JctCompilation#getDiagnosticCounts() the diagnostic counts} remain exact, so that
+   * assertions such as checking that no errors were reported still work as expected.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_DIAGNOSTIC_RETENTION}.
+   *
+   * @param diagnosticRetention the diagnostic retention policy to use.
+   * @return this compiler for further call chaining.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  C diagnosticRetention(DiagnosticRetention diagnosticRetention);
+
+  /**
+   * Get the maximum number of diagnostics of each kind to keep when the
+   * {@link #getDiagnosticRetention() diagnostic retention policy} is
+   * {@link DiagnosticRetention#FIRST_PER_KIND}.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_DIAGNOSTIC_RETENTION_LIMIT}.
+   *
+   * @return the diagnostic retention limit.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  int getDiagnosticRetentionLimit();
+
+  /**
+   * Set the maximum number of diagnostics of each kind to keep when the
+   * {@link #getDiagnosticRetention() diagnostic retention policy} is
+   * {@link DiagnosticRetention#FIRST_PER_KIND}.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_DIAGNOSTIC_RETENTION_LIMIT}.
+   *
+   * @param diagnosticRetentionLimit the diagnostic retention limit to use.
+   * @return this compiler for further call chaining.
+   * @throws IllegalArgumentException if the limit is less than 1.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  C diagnosticRetentionLimit(int diagnosticRetentionLimit);
+
+  /**
+   * Get the observer that is invoked for each diagnostic as the compiler reports it, if any.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to {@code null},
+   * meaning that no observer is invoked.
+   *
+   * @return the diagnostic observer, or {@code null} if no observer is invoked.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  @Nullable
+  DiagnosticObserver getDiagnosticObserver();
+
+  /**
+   * Set the observer to invoke for each diagnostic as the compiler reports it.
+   *
+   * <p>The observer can cancel the compilation, which is useful for tests that only expect the
+   * compilation to fail, as the compiler can be stopped as soon as the first error is reported
+   * rather than running to completion. For example:
+   *
+   * <pre><code>
+   *   compiler.diagnosticObserver(DiagnosticObserver.cancelOnFirstError());
+   * </code></pre>
+   *
+   * <p>Cancelled compilations are reported as having failed, and
+   * {@link JctCompilation#isCancelled()} will return {@code true}. Since the observer has to see
+   * every diagnostic as it is reported, the {@link #compilationCache(JctCompilationCache)
+   * compilation cache} is not used while an observer is set.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to {@code null},
+   * meaning that no observer is invoked.
+   *
+   * @param diagnosticObserver the diagnostic observer to use, or {@code null} to not invoke an
+   *                           observer.
+   * @return this compiler for further call chaining.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  C diagnosticObserver(@Nullable DiagnosticObserver diagnosticObserver);
+
+  /**
+   * Get the maximum amount of time that a compilation may take before it is abandoned, if any.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to {@code null},
+   * meaning that compilations may take as long as they need.
+   *
+   * @return the compilation deadline, or {@code null} if compilations have no deadline.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  @Nullable
+  Duration getCompilationDeadline();
+
+  /**
+   * Set the maximum amount of time that a compilation may take before it is abandoned.
+   *
+   * <p>This protects test suites from compilations that never complete, such as those running an
+   * annotation processor that is stuck in an infinite loop. When a deadline is set, the compiler
+   * is run on a separate daemon thread. If the deadline passes, the stack of that thread is
+   * captured, the thread is interrupted, and the compilation fails with a
+   * {@link JctCompilerException} that contains the captured stack. For example:
+   *
+   * <pre><code>
+   *   compiler.compilationDeadline(Duration.ofSeconds(30));
+   * </code></pre>
+   *
+   * <p>The compiler provides no way to forcibly stop the abandoned thread, so it may continue
+   * running in the background until it next responds to being interrupted or reports a
+   * diagnostic.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to {@code null},
+   * meaning that compilations may take as long as they need.
+   *
+   * @param compilationDeadline the compilation deadline, or {@code null} to allow compilations to
+   *                            take as long as they need.
+   * @return this compiler for further call chaining.
+   * @throws IllegalArgumentException if the deadline is zero or negative.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  C compilationDeadline(@Nullable Duration compilationDeadline);
+
+  /**
+   * Determine whether class outputs are discarded rather than being written to the workspace.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_DISCARD_CLASS_OUTPUTS}.
+   *
+   * @return {@code true} if class outputs are discarded, or {@code false} otherwise.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  boolean isDiscardClassOutputs();
+
+  /**
+   * Set whether to discard class outputs rather than writing them to the workspace.
+   *
+   * <p>Tests that only make assertions on diagnostics or generated sources still pay for the
+   * compiler writing every class file into the workspace. When enabled, the
+   * {@link javax.tools.StandardLocation#CLASS_OUTPUT class output} location is backed by a
+   * container that counts the bytes written to each file and then throws them away, without
+   * creating any files or directories for them. File objects are still handed out for outputs
+   * in the same way as usual, so the compiler and any annotation processors behave as normal.
+   *
+   * <p>Since nothing is kept, class outputs cannot be read back, loaded, or asserted upon, and
+   * {@link #incrementalCompilation(boolean) incremental compilation} will always compile
+   * everything. This has no effect if the workspace already provides a class output path, or
+   * for module-oriented class outputs.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_DISCARD_CLASS_OUTPUTS}.
+   *
+   * @param discardClassOutputs {@code true} to discard class outputs, or {@code false} to write
+   *                            them to the workspace.
+   * @return this compiler for further call chaining.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  C discardClassOutputs(boolean discardClassOutputs);
 }
@@ -0,0 +1,330 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * On-disk store of compilation snapshots that persists between JVM runs.
+ *
+ * <p>Each entry is held in its own file, named after the fingerprint of the compilation. The
+ * payload of each entry is checksummed, and is verified every time it is read. Entries that fail
+ * verification are deleted and treated as a miss. Once the total size of the entries exceeds
+ * the configured maximum, the least recently used entries are deleted first. Reading an entry
+ * counts as using it.
+ *
+ * <p>Entries are written to a temporary file and then moved into place, so that this can be
+ * safely shared between concurrent JVMs. IO errors are logged and otherwise ignored, since the
+ * store is only ever an optimisation.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.INTERNAL)
+public final class JctCompilationDiskCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JctCompilationDiskCache.class);
+  private static final int MAGIC = 0x4A43_5443;  // "JCTC"
+  private static final int FORMAT_VERSION = 2;
+  private static final String EXTENSION = ".jctc";
+
+  private final Path directory;
+  private final long maximumSizeInBytes;
+
+  /**
+   * Initialise this store.
+   *
+   * @param directory          the directory to store entries in. This will be created if it
+   *                           does not exist when the first entry is saved.
+   * @param maximumSizeInBytes the maximum total size of the entries, in bytes.
+   * @throws IllegalArgumentException if the maximum size is negative.
+   */
+  public JctCompilationDiskCache(Path directory, long maximumSizeInBytes) {
+    this.directory = requireNonNull(directory, "directory").toAbsolutePath().normalize();
+
+    if (maximumSizeInBytes < 0) {
+      throw new IllegalArgumentException("maximumSizeInBytes cannot be negative");
+    }
+
+    this.maximumSizeInBytes = maximumSizeInBytes;
+  }
+
+  /**
+   * Get the directory that entries are stored in.
+   *
+   * @return the directory.
+   */
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Get the maximum total size of the entries.
+   *
+   * @return the maximum size, in bytes.
+   */
+  public long getMaximumSizeInBytes() {
+    return maximumSizeInBytes;
+  }
+
+  /**
+   * Load the snapshot for the given fingerprint.
+   *
+   * @param fingerprint the fingerprint.
+   * @return the snapshot, or {@code null} if no valid entry exists.
+   */
+  @Nullable
+  public JctCompilationSnapshot load(String fingerprint) {
+    var entryPath = entryPathFor(fingerprint);
+    byte[] entry;
+
+    try {
+      entry = Files.readAllBytes(entryPath);
+    } catch (NoSuchFileException ex) {
+      return null;
+    } catch (IOException ex) {
+      LOGGER.debug("Ignoring unreadable cached compilation {}", entryPath, ex);
+      return null;
+    }
+
+    try (var input = new DataInputStream(new ByteArrayInputStream(entry))) {
+      if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+        // Written by an incompatible version, so will be replaced when we next save it.
+        LOGGER.debug("Ignoring cached compilation {} in an unknown format", entryPath);
+        return null;
+      }
+
+      var checksum = new byte[32];
+      input.readFully(checksum);
+      var payload = new byte[input.readInt()];
+      input.readFully(payload);
+
+      if (input.read() != -1 || !Arrays.equals(checksum, checksum(fingerprint, payload))) {
+        throw new IOException("Checksum mismatch");
+      }
+
+      var snapshot = JctCompilationSnapshot.readFrom(
+          new DataInputStream(new ByteArrayInputStream(payload))
+      );
+
+      touch(entryPath);
+      LOGGER.trace("Loaded cached compilation {}", entryPath);
+      return snapshot;
+
+    } catch (IOException | NegativeArraySizeException ex) {
+      // EOFException is an IOException, so truncated entries also end up here.
+      LOGGER.warn(
+          "Discarding corrupt cached compilation {}: {}",
+          entryPath,
+          ex instanceof EOFException ? "entry is truncated" : ex.getMessage()
+      );
+      delete(entryPath);
+      return null;
+    }
+  }
+
+  /**
+   * Store the snapshot for the given fingerprint, replacing any existing entry and then deleting
+   * the least recently used entries if the store has grown too large.
+   *
+   * @param fingerprint the fingerprint.
+   * @param snapshot    the snapshot, which must be
+   *                    {@link JctCompilationSnapshot#isPersistable() persistable}.
+   */
+  public void save(String fingerprint, JctCompilationSnapshot snapshot) {
+    var entryPath = entryPathFor(fingerprint);
+    Path tempFile = null;
+
+    try {
+      var payload = new ByteArrayOutputStream();
+      try (var output = new DataOutputStream(payload)) {
+        snapshot.writeTo(output);
+      }
+
+      var payloadBytes = payload.toByteArray();
+      Files.createDirectories(directory);
+
+      // Write to a temporary file first and then move it into place, so that concurrent JVMs
+      // never observe a partially written entry.
+      tempFile = Files.createTempFile(directory, entryPath.getFileName().toString(), ".tmp");
+
+      try (var output = new DataOutputStream(Files.newOutputStream(tempFile))) {
+        output.writeInt(MAGIC);
+        output.writeInt(FORMAT_VERSION);
+        output.write(checksum(fingerprint, payloadBytes));
+        output.writeInt(payloadBytes.length);
+        output.write(payloadBytes);
+      }
+
+      try {
+        Files.move(
+            tempFile,
+            entryPath,
+            StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING
+        );
+      } catch (AtomicMoveNotSupportedException ex) {
+        Files.move(tempFile, entryPath, StandardCopyOption.REPLACE_EXISTING);
+      }
+
+      LOGGER.trace("Stored cached compilation {}", entryPath);
+    } catch (IOException ex) {
+      LOGGER.debug("Failed to store cached compilation {}", entryPath, ex);
+
+      if (tempFile != null) {
+        delete(tempFile);
+      }
+      return;
+    }
+
+    prune();
+  }
+
+  /**
+   * Delete the least recently used entries until the total size of the entries no longer
+   * exceeds the maximum size.
+   */
+  public void prune() {
+    List<Path> entryPaths;
+
+    try (var list = Files.list(directory)) {
+      entryPaths = list
+          .filter(path -> path.getFileName().toString().endsWith(EXTENSION))
+          .collect(Collectors.toList());
+    } catch (IOException ex) {
+      LOGGER.debug("Failed to list cached compilations in {}", directory, ex);
+      return;
+    }
+
+    // Read the attributes up front, since other JVMs may be modifying them while we sort.
+    var entries = new ArrayList<PrunableEntry>();
+    var totalSize = 0L;
+
+    for (var entryPath : entryPaths) {
+      try {
+        var entry = new PrunableEntry(
+            entryPath,
+            Files.size(entryPath),
+            Files.getLastModifiedTime(entryPath)
+        );
+        entries.add(entry);
+        totalSize += entry.size;
+      } catch (IOException ex) {
+        LOGGER.trace("Ignoring cached compilation {} that disappeared", entryPath, ex);
+      }
+    }
+
+    entries.sort(Comparator.comparing(entry -> entry.lastModified));
+
+    for (var entry : entries) {
+      if (totalSize <= maximumSizeInBytes) {
+        break;
+      }
+
+      LOGGER.trace("Pruning least recently used cached compilation {}", entry.path);
+      delete(entry.path);
+      totalSize -= entry.size;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("directory", directory)
+        .attribute("maximumSizeInBytes", maximumSizeInBytes)
+        .toString();
+  }
+
+  private Path entryPathFor(String fingerprint) {
+    requireNonNull(fingerprint, "fingerprint");
+
+    // Fingerprints are generated internally, but never let one escape the directory regardless.
+    if (!fingerprint.matches("[0-9a-f]+")) {
+      throw new IllegalArgumentException("Invalid fingerprint " + fingerprint);
+    }
+
+    return directory.resolve(fingerprint + EXTENSION);
+  }
+
+  private static byte[] checksum(String fingerprint, byte[] payload) {
+    try {
+      // Include the fingerprint, so that an entry renamed to another fingerprint is rejected.
+      var digest = MessageDigest.getInstance("SHA-256");
+      digest.update(fingerprint.getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+      return digest.digest(payload);
+    } catch (NoSuchAlgorithmException ex) {
+      // Every JVM is required to support SHA-256.
+      throw new IllegalStateException("SHA-256 is not available", ex);
+    }
+  }
+
+  private static void touch(Path entryPath) {
+    try {
+      Files.setLastModifiedTime(entryPath, FileTime.fromMillis(System.currentTimeMillis()));
+    } catch (IOException ex) {
+      LOGGER.trace("Failed to mark cached compilation {} as recently used", entryPath, ex);
+    }
+  }
+
+  private static void delete(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException ex) {
+      LOGGER.debug("Failed to delete {}", path, ex);
+    }
+  }
+
+  private static final class PrunableEntry {
+
+    private final Path path;
+    private final long size;
+    private final FileTime lastModified;
+
+    private PrunableEntry(Path path, long size, FileTime lastModified) {
+      this.path = path;
+      this.size = size;
+      this.lastModified = lastModified;
+    }
+  }
+}
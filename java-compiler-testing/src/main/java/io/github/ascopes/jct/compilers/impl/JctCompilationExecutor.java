@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers.impl;
+
+import io.github.ascopes.jct.utils.UtilityClass;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+
+/**
+ * Holder for the shared executor that asynchronous compilations run on by default.
+ *
+ * <p>Compilation is CPU-bound, so this is a bounded pool of daemon threads rather than a
+ * virtual thread executor. By default, it has one thread per available processor. This can be
+ * overridden by setting the {@value #PARALLELISM_PROPERTY} system property.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.INTERNAL)
+public final class JctCompilationExecutor extends UtilityClass {
+
+  /**
+   * The system property that can be used to override the number of threads in the pool.
+   */
+  public static final String PARALLELISM_PROPERTY = "jct.compilers.parallelism";
+
+  private JctCompilationExecutor() {
+    // Static-only class.
+  }
+
+  /**
+   * Get the shared executor, creating it if this is the first time it has been used.
+   *
+   * @return the shared executor.
+   */
+  public static Executor getInstance() {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * Wrap the given task so that it runs with the context class loader of the calling thread,
+   * regardless of which thread it is eventually run on.
+   *
+   * <p>Annotation processors and compiler plugins may be loaded via the context class loader, but
+   * executor threads keep whichever context class loader they were created with. The original
+   * context class loader of the thread running the task is restored once the task completes.
+   *
+   * @param task the task to wrap.
+   * @param <T>  the result type.
+   * @return the wrapped task.
+   */
+  public static <T> Supplier<T> withCallerContextClassLoader(Supplier<T> task) {
+    var callerClassLoader = Thread.currentThread().getContextClassLoader();
+
+    return () -> {
+      var thread = Thread.currentThread();
+      var originalClassLoader = thread.getContextClassLoader();
+      thread.setContextClassLoader(callerClassLoader);
+
+      try {
+        return task.get();
+      } finally {
+        thread.setContextClassLoader(originalClassLoader);
+      }
+    };
+  }
+
+  /**
+   * Lazily initialised holder for the executor, so that no threads are created unless
+   * asynchronous compilation is actually used.
+   */
+  private static final class Holder {
+
+    private static final ExecutorService INSTANCE = createExecutor();
+
+    private static ExecutorService createExecutor() {
+      var parallelism = Math.max(
+          1,
+          Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors())
+      );
+
+      var threadNumber = new AtomicInteger();
+      return Executors.newFixedThreadPool(
+          parallelism,
+          runnable -> {
+            var thread = new Thread(runnable, "jct-compiler-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            // Each task sets its own context class loader, so do not hold onto the loader of
+            // whichever thread happened to submit the first task.
+            thread.setContextClassLoader(JctCompilationExecutor.class.getClassLoader());
+            return thread;
+          }
+      );
+    }
+  }
+}
@@ -18,6 +18,8 @@ package io.github.ascopes.jct.compilers.impl;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
+import com.sun.source.util.JavacTask;
+import io.github.ascopes.jct.compilers.CompilationMode;
 import io.github.ascopes.jct.compilers.JctCompilation;
 import io.github.ascopes.jct.compilers.JctCompilationFactory;
 import io.github.ascopes.jct.compilers.JctCompiler;
@@ -25,16 +27,23 @@ import io.github.ascopes.jct.diagnostics.TeeWriter;
 import io.github.ascopes.jct.diagnostics.TracingDiagnosticListener;
 import io.github.ascopes.jct.ex.JctCompilerException;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.filemanagers.JctFileManagerMetrics;
 import io.github.ascopes.jct.filemanagers.LoggingMode;
 import io.github.ascopes.jct.filemanagers.PathFileObject;
+import io.github.ascopes.jct.filemanagers.impl.JctMeasuringFileManager;
 import io.github.ascopes.jct.utils.IterableUtils;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import javax.tools.Diagnostic;
 import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
 import javax.tools.JavaFileObject;
 import javax.tools.JavaFileObject.Kind;
 import javax.tools.StandardLocation;
@@ -57,9 +66,27 @@ public final class JctCompilationFactoryImpl implements JctCompilationFactory {
   private static final Logger LOGGER = LoggerFactory.getLogger(JctCompilationFactoryImpl.class);
 
   private final JctCompiler<?, ?> compiler;
+  private final @Nullable Consumer<? super JavacTask> javacTaskConfigurer;
 
   public JctCompilationFactoryImpl(JctCompiler<?, ?> compiler) {
+    this(compiler, null);
+  }
+
+  /**
+   * Initialise this factory with a hook to configure the underlying compiler task.
+   *
+   * @param compiler            the compiler to create compilations for.
+   * @param javacTaskConfigurer the hook to configure each task with, such as to register task
+   *                            listeners, or {@code null} to not configure tasks. If this is
+   *                            provided, then the compiler must create {@link JavacTask}s.
+   * @since 0.7.0
+   */
+  public JctCompilationFactoryImpl(
+      JctCompiler<?, ?> compiler,
+      @Nullable Consumer<? super JavacTask> javacTaskConfigurer
+  ) {
     this.compiler = compiler;
+    this.javacTaskConfigurer = javacTaskConfigurer;
   }
 
   @Override
@@ -70,7 +97,20 @@ public final class JctCompilationFactoryImpl implements JctCompilationFactory {
       Collection<String> classNames
   ) {
     try {
-      return createCheckedCompilation(flags, fileManager, jsr199Compiler, classNames);
+      var deadline = compiler.getCompilationDeadline();
+
+      if (deadline == null) {
+        return createCheckedCompilation(flags, fileManager, jsr199Compiler, classNames, null);
+      }
+
+      var watchdog = new JctCompilationWatchdog(compiler.getName(), deadline);
+      return watchdog.call(() -> createCheckedCompilation(
+          flags,
+          fileManager,
+          jsr199Compiler,
+          classNames,
+          watchdog
+      ));
 
     } catch (JctCompilerException ex) {
       // Rethrow JctCompilerExceptions -- we don't want to wrap these again.
@@ -87,7 +127,8 @@ public final class JctCompilationFactoryImpl implements JctCompilationFactory {
       List<String> flags,
       JctFileManager fileManager,
       JavaCompiler jsr199Compiler,
-      Collection<String> classNames
+      Collection<String> classNames,
+      @Nullable JctCompilationWatchdog watchdog
   ) throws Exception {
     var compilationUnits = findFilteredCompilationUnits(fileManager, classNames);
 
@@ -100,12 +141,29 @@ public final class JctCompilationFactoryImpl implements JctCompilationFactory {
 
     var diagnosticListener = new TracingDiagnosticListener<>(
         compiler.getDiagnosticLoggingMode() != LoggingMode.DISABLED,
-        compiler.getDiagnosticLoggingMode() == LoggingMode.STACKTRACES
+        compiler.getDiagnosticLoggingMode() == LoggingMode.STACKTRACES,
+        compiler.getDiagnosticStackCaptureMode(),
+        compiler.getDiagnosticStackFrameLimit(),
+        compiler.getDiagnosticRetention(),
+        compiler.getDiagnosticRetentionLimit(),
+        compiler.getDiagnosticObserver()
     );
 
+    if (watchdog != null) {
+      // Stop the compiler at the next diagnostic it reports if the deadline passes, in case it
+      // does not respond to being interrupted.
+      watchdog.onTimeout(diagnosticListener::cancel);
+    }
+
+    // Only the compiler sees the measuring file manager. Everything else, including the
+    // compilation that we return, keeps using the original file objects.
+    var measuringFileManager = compiler.isFileManagerMetrics()
+        ? new JctMeasuringFileManager(fileManager)
+        : null;
+
     var task = jsr199Compiler.getTask(
         writer,
-        fileManager,
+        measuringFileManager == null ? fileManager : measuringFileManager,
         diagnosticListener,
         flags,
         null,
@@ -113,12 +171,44 @@ public final class JctCompilationFactoryImpl implements JctCompilationFactory {
     );
 
     var processors = compiler.getAnnotationProcessors();
+    var measuringProcessors = new ArrayList<JctMeasuringProcessor>();
+
+    if (compiler.isAnnotationProcessorMetrics()) {
+      processors.stream()
+          .map(JctMeasuringProcessor::new)
+          .forEach(measuringProcessors::add);
+      processors = List.copyOf(measuringProcessors);
+    }
+
     if (!processors.isEmpty()) {
       task.setProcessors(processors);
     }
 
     task.setLocale(compiler.getLocale());
 
+    var compilationMode = compiler.getCompilationMode();
+    if (isSkippingCodeGeneration(compilationMode) && !(task instanceof JavacTask)) {
+      throw new JctCompilerException(
+          "Compiler " + compiler.getName() + " does not support compilation mode "
+              + compilationMode
+      );
+    }
+
+    if (javacTaskConfigurer != null) {
+      if (!(task instanceof JavacTask)) {
+        throw new JctCompilerException(
+            "Compiler " + compiler.getName() + " does not support javac task listeners"
+        );
+      }
+
+      javacTaskConfigurer.accept((JavacTask) task);
+    }
+
+    var timingsCollector = new JctCompilationTimingsCollector();
+    if (task instanceof JavacTask) {
+      ((JavacTask) task).addTaskListener(timingsCollector);
+    }
+
     LOGGER
         .atInfo()
         .setMessage("Starting compilation with {} (found {} compilation units)")
@@ -126,12 +216,16 @@ public final class JctCompilationFactoryImpl implements JctCompilationFactory {
         .addArgument(compilationUnits::size)
         .log();
 
+    var resourceUsageCollector = new JctResourceUsageCollector();
     var start = System.nanoTime();
-    var success = requireNonNull(
-        task.call(),
-        () -> "Compiler " + compiler.getName() + " task .call() method returned null unexpectedly!"
-    );
-    var delta = (System.nanoTime() - start) / 1_000_000L;
+    var success = call(task, compilationMode, diagnosticListener);
+    var elapsed = Duration.ofNanos(System.nanoTime() - start);
+    var delta = elapsed.toMillis();
+    var timings = timingsCollector.toTimings(elapsed);
+    var resourceUsage = resourceUsageCollector.finish(fileManager);
+    var fileManagerMetrics = measuringFileManager == null
+        ? JctFileManagerMetrics.empty()
+        : measuringFileManager.getMetrics();
 
     // Ensure we commit the writer contents to the wrapped output stream in full.
     writer.flush();
@@ -150,6 +244,17 @@ public final class JctCompilationFactoryImpl implements JctCompilationFactory {
         ))
         .log();
 
+    LOGGER.debug("Compilation with {} phase timings: {}", compiler.getName(), timings);
+    LOGGER.debug("Compilation with {} resource usage: {}", compiler.getName(), resourceUsage);
+
+    if (measuringFileManager != null) {
+      LOGGER.debug(
+          "Compilation with {} file manager metrics: {}",
+          compiler.getName(),
+          fileManagerMetrics
+      );
+    }
+
     return JctCompilationImpl
         .builder()
         .arguments(flags)
@@ -157,11 +262,72 @@ public final class JctCompilationFactoryImpl implements JctCompilationFactory {
         .fileManager(fileManager)
         .outputLines(writer.getContent().lines().collect(toList()))
         .diagnostics(diagnosticListener.getDiagnostics())
+        .diagnosticCounts(diagnosticListener.getDiagnosticCounts())
         .success(success)
+        .cancelled(diagnosticListener.isCancelled())
         .failOnWarnings(compiler.isFailOnWarnings())
+        .timings(timings)
+        .annotationProcessorMetrics(measuringProcessors
+            .stream()
+            .map(JctMeasuringProcessor::getMetrics)
+            .collect(toList()))
+        .resourceUsage(resourceUsage)
+        .fileManagerMetrics(fileManagerMetrics)
         .build();
   }
 
+  private boolean call(
+      CompilationTask task,
+      CompilationMode compilationMode,
+      TracingDiagnosticListener<?> diagnosticListener
+  ) throws IOException {
+    try {
+      if (compilationMode == CompilationMode.PARSE_ONLY) {
+        ((JavacTask) task).parse();
+        return isSuccessful(diagnosticListener);
+      }
+
+      if (compilationMode == CompilationMode.ANALYZE_ONLY) {
+        // This also enters the trees and runs annotation processing first, if enabled.
+        ((JavacTask) task).analyze();
+        return isSuccessful(diagnosticListener);
+      }
+
+      return requireNonNull(
+          task.call(),
+          () -> "Compiler " + compiler.getName()
+              + " task .call() method returned null unexpectedly!"
+      );
+    } catch (RuntimeException ex) {
+      // Cancelling the compilation raises an exception from within the diagnostic listener,
+      // which the compiler will usually have wrapped by the time it reaches us.
+      if (!diagnosticListener.isCancelled()) {
+        throw ex;
+      }
+
+      LOGGER.debug("Compilation with {} was cancelled", compiler.getName());
+      return false;
+    }
+  }
+
+  private boolean isSuccessful(TracingDiagnosticListener<?> diagnosticListener) {
+    // The compiler only decides whether it succeeded at the end of a full compilation, so make
+    // the same decision here, including treating warnings as errors if requested.
+    var counts = diagnosticListener.getDiagnosticCounts();
+
+    if (counts.getCount(Diagnostic.Kind.ERROR) > 0) {
+      return false;
+    }
+
+    var warningKinds = List.of(Diagnostic.Kind.WARNING, Diagnostic.Kind.MANDATORY_WARNING);
+    return !compiler.isFailOnWarnings() || counts.getCount(warningKinds) == 0;
+  }
+
+  private static boolean isSkippingCodeGeneration(CompilationMode compilationMode) {
+    return compilationMode == CompilationMode.PARSE_ONLY
+        || compilationMode == CompilationMode.ANALYZE_ONLY;
+  }
+
   private Collection<JavaFileObject> findFilteredCompilationUnits(
       JctFileManager fileManager,
       @Nullable Collection<String> classNames
@@ -0,0 +1,345 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers.impl;
+
+import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.utils.Lazy;
+import io.github.ascopes.jct.utils.UtilityClass;
+import io.github.ascopes.jct.workspaces.PathRoot;
+import io.github.ascopes.jct.workspaces.Workspace;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.tools.JavaFileManager.Location;
+import javax.tools.StandardLocation;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Helper that computes a fingerprint of everything that can affect the result of a compilation.
+ *
+ * <p>This covers the compiler implementation and its settings, the flags passed to the
+ * compiler, the classes of any explicitly provided annotation processors, the class names to
+ * compile, and the contents of every location in the workspace. Since fingerprints may be
+ * persisted between JVM runs, the JVM that is running and the entries on its class path and
+ * module path are also taken into account.
+ *
+ * <p>Annotation processors are identified by the bytecode of their class only, so any state
+ * held within processor instances is not taken into account. Likewise, JARs on the default file
+ * system are identified by their path, size, and modification time, rather than by their
+ * contents.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.INTERNAL)
+public final class JctCompilationFingerprint extends UtilityClass {
+
+  private static final Lazy<byte[]> ENVIRONMENT = new Lazy<>(
+      JctCompilationFingerprint::computeEnvironment
+  );
+
+  private JctCompilationFingerprint() {
+    // Static-only class.
+  }
+
+  /**
+   * Compute the fingerprint for a compilation.
+   *
+   * @param compiler   the compiler that will perform the compilation.
+   * @param flags      the flags that will be passed to the compiler.
+   * @param workspace  the workspace that will be compiled.
+   * @param classNames the class names to compile, or {@code null} to compile everything.
+   * @return the fingerprint, as a hexadecimal string.
+   * @throws IOException if an IO error occurs reading the workspace.
+   */
+  public static String compute(
+      JctCompiler<?, ?> compiler,
+      List<String> flags,
+      Workspace workspace,
+      @Nullable Collection<String> classNames
+  ) throws IOException {
+    return compute(compiler, flags, workspace, classNames, location -> true);
+  }
+
+  /**
+   * Compute the fingerprint for a compilation, ignoring the source path and any output locations.
+   *
+   * <p>This identifies everything that sources are compiled against, so can be used to detect
+   * when previously compiled sources must be recompiled even though they have not changed.
+   *
+   * @param compiler  the compiler that will perform the compilation.
+   * @param flags     the flags that will be passed to the compiler.
+   * @param workspace the workspace that will be compiled.
+   * @return the fingerprint, as a hexadecimal string.
+   * @throws IOException if an IO error occurs reading the workspace.
+   */
+  public static String computeExcludingSources(
+      JctCompiler<?, ?> compiler,
+      List<String> flags,
+      Workspace workspace
+  ) throws IOException {
+    return compute(
+        compiler,
+        flags,
+        workspace,
+        null,
+        location -> location != StandardLocation.SOURCE_PATH && !location.isOutputLocation()
+    );
+  }
+
+  @SuppressWarnings("removal")
+  private static String compute(
+      JctCompiler<?, ?> compiler,
+      List<String> flags,
+      Workspace workspace,
+      @Nullable Collection<String> classNames,
+      Predicate<Location> locationFilter
+  ) throws IOException {
+    var digest = newDigest();
+
+    try (var output = new DataOutputStream(
+        new DigestOutputStream(OutputStream.nullOutputStream(), digest)
+    )) {
+      output.write(ENVIRONMENT.access());
+      writeString(output, compiler.getClass().getName());
+      writeString(output, compiler.getEffectiveRelease());
+      writeStrings(output, flags);
+
+      output.writeInt(compiler.getAnnotationProcessors().size());
+      for (var processor : compiler.getAnnotationProcessors()) {
+        writeClass(output, processor.getClass());
+      }
+
+      writeString(output, compiler.getAnnotationProcessorDiscovery().name());
+      writeString(output, compiler.getCompilationMode().name());
+      writeString(output, compiler.getDiagnosticLoggingMode().name());
+      writeString(output, compiler.getDiagnosticStackCaptureMode().name());
+      output.writeInt(compiler.getDiagnosticStackFrameLimit());
+      writeString(output, compiler.getDiagnosticRetention().name());
+      output.writeInt(compiler.getDiagnosticRetentionLimit());
+      writeString(output, compiler.getLocale().toLanguageTag());
+      writeString(output, compiler.getLogCharset().name());
+      output.writeBoolean(compiler.isFixJvmModulePathMismatch());
+      output.writeBoolean(compiler.isInheritClassPath());
+      output.writeBoolean(compiler.isInheritModulePath());
+      output.writeBoolean(compiler.isInheritPlatformClassPath());
+      output.writeBoolean(compiler.isInheritSystemModulePath());
+      output.writeBoolean(compiler.isDiscardClassOutputs());
+
+      if (classNames == null) {
+        output.writeBoolean(false);
+      } else {
+        output.writeBoolean(true);
+        writeStrings(output, classNames.stream().sorted().collect(Collectors.toList()));
+      }
+
+      // Locations have no natural ordering, so order them by name to keep this stable.
+      var locations = new TreeMap<String, Map.Entry<Location, List<? extends PathRoot>>>();
+      workspace.getAllPaths().entrySet()
+          .stream()
+          .filter(entry -> locationFilter.test(entry.getKey()))
+          .forEach(entry -> locations.put(entry.getKey().getName(), entry));
+
+      output.writeInt(locations.size());
+
+      for (var entry : locations.values()) {
+        writeString(output, entry.getKey().getName());
+        output.writeInt(entry.getValue().size());
+
+        for (var root : entry.getValue()) {
+          writePath(output, root.getPath());
+        }
+      }
+    }
+
+    var fingerprint = new StringBuilder();
+    for (var b : digest.digest()) {
+      fingerprint.append(Character.forDigit((b >> 4) & 0xF, 16))
+          .append(Character.forDigit(b & 0xF, 16));
+    }
+    return fingerprint.toString();
+  }
+
+  private static byte[] computeEnvironment() {
+    var digest = newDigest();
+
+    try (var output = new DataOutputStream(
+        new DigestOutputStream(OutputStream.nullOutputStream(), digest)
+    )) {
+      var jvmProperties = List.of("java.home", "java.vendor", "java.version", "java.vm.version");
+
+      for (var property : jvmProperties) {
+        writeString(output, System.getProperty(property, ""));
+      }
+
+      for (var property : List.of("java.class.path", "jdk.module.path")) {
+        var entries = System.getProperty(property, "");
+        writeString(output, entries);
+
+        for (var entry : entries.split(Pattern.quote(File.pathSeparator))) {
+          if (!entry.isEmpty()) {
+            writeClassPathEntry(output, Path.of(entry));
+          }
+        }
+      }
+    } catch (IOException ex) {
+      // We only ever write to a digest, so this should never happen.
+      throw new UncheckedIOException(ex);
+    }
+
+    return digest.digest();
+  }
+
+  private static void writeClassPathEntry(DataOutputStream output, Path entry)
+      throws IOException {
+    // The environment is only computed once per JVM, but class paths can be large, so only
+    // consider the size and modification time of each file, rather than its contents.
+    List<Path> paths;
+
+    try (var walker = Files.walk(entry)) {
+      paths = walker
+          .filter(Files::isRegularFile)
+          .sorted()
+          .collect(Collectors.toList());
+    } catch (IOException | UncheckedIOException ex) {
+      // Missing entries are ignored by the JVM, so treat them as being empty.
+      output.writeInt(-1);
+      return;
+    }
+
+    output.writeInt(paths.size());
+
+    for (var path : paths) {
+      writeString(output, entry.relativize(path).toString());
+
+      try {
+        output.writeLong(Files.size(path));
+        output.writeLong(Files.getLastModifiedTime(path).toMillis());
+      } catch (IOException ex) {
+        output.writeLong(-1);
+      }
+    }
+  }
+
+  private static void writeClass(DataOutputStream output, Class<?> type) throws IOException {
+    writeString(output, type.getName());
+
+    // Include the bytecode, so that changes to the implementation of a class with the same name
+    // produce a different fingerprint, even between JVM runs.
+    try (var input = type.getResourceAsStream("/" + type.getName().replace('.', '/') + ".class")) {
+      if (input == null) {
+        output.writeBoolean(false);
+      } else {
+        output.writeBoolean(true);
+        writeBytes(output, input.readAllBytes());
+      }
+    }
+  }
+
+  private static void writePath(DataOutputStream output, Path root) throws IOException {
+    if (!Files.isDirectory(root)) {
+      if (root.getFileSystem() == FileSystems.getDefault()) {
+        // Avoid reading potentially large JARs from disk each time.
+        output.writeByte('J');
+        writeString(output, root.toAbsolutePath().normalize().toString());
+        output.writeLong(Files.size(root));
+        output.writeLong(Files.getLastModifiedTime(root).toMillis());
+      } else {
+        output.writeByte('F');
+        writeBytes(output, Files.readAllBytes(root));
+      }
+      return;
+    }
+
+    output.writeByte('D');
+    List<Path> paths;
+
+    try (var walker = Files.walk(root)) {
+      paths = walker.collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    // Walk order is not guaranteed, so sort by the relative path to keep this stable.
+    paths.sort(Comparator.comparing(path -> root.relativize(path).toString()));
+    output.writeInt(paths.size());
+
+    for (var path : paths) {
+      var relativeName = new StringBuilder();
+
+      for (var name : root.relativize(path)) {
+        if (relativeName.length() > 0) {
+          relativeName.append('/');
+        }
+        relativeName.append(name);
+      }
+
+      writeString(output, relativeName.toString());
+
+      if (Files.isRegularFile(path)) {
+        output.writeBoolean(true);
+        writeBytes(output, Files.readAllBytes(path));
+      } else {
+        output.writeBoolean(false);
+      }
+    }
+  }
+
+  private static void writeStrings(DataOutputStream output, List<String> strings)
+      throws IOException {
+    output.writeInt(strings.size());
+    for (var string : strings) {
+      writeString(output, string);
+    }
+  }
+
+  private static void writeString(DataOutputStream output, String string) throws IOException {
+    writeBytes(output, string.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void writeBytes(DataOutputStream output, byte[] bytes) throws IOException {
+    // Length-prefix everything so that adjacent values can never be confused with each other.
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      // Every JVM is required to support SHA-256.
+      throw new IllegalStateException("SHA-256 is not available", ex);
+    }
+  }
+}
@@ -20,9 +20,14 @@ import static java.util.Collections.unmodifiableList;
 import static java.util.Collections.unmodifiableSet;
 import static java.util.Objects.requireNonNull;
 
+import io.github.ascopes.jct.compilers.JctAnnotationProcessorMetrics;
 import io.github.ascopes.jct.compilers.JctCompilation;
+import io.github.ascopes.jct.compilers.JctCompilationResourceUsage;
+import io.github.ascopes.jct.compilers.JctCompilationTimings;
+import io.github.ascopes.jct.diagnostics.DiagnosticCounts;
 import io.github.ascopes.jct.diagnostics.TraceDiagnostic;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.filemanagers.JctFileManagerMetrics;
 import io.github.ascopes.jct.utils.ToStringBuilder;
 import java.util.List;
 import java.util.Set;
@@ -42,10 +47,17 @@ public final class JctCompilationImpl implements JctCompilation {
   private final List<String> arguments;
   private final boolean success;
   private final boolean failOnWarnings;
+  private final boolean cancelled;
+  private final boolean memoized;
   private final List<String> outputLines;
   private final Set<JavaFileObject> compilationUnits;
   private final List<TraceDiagnostic<JavaFileObject>> diagnostics;
+  private final DiagnosticCounts diagnosticCounts;
   private final JctFileManager fileManager;
+  private final JctCompilationTimings timings;
+  private final List<JctAnnotationProcessorMetrics> annotationProcessorMetrics;
+  private final JctCompilationResourceUsage resourceUsage;
+  private final JctFileManagerMetrics fileManagerMetrics;
 
   private JctCompilationImpl(Builder builder) {
     arguments = unmodifiableList(
@@ -58,6 +70,8 @@ public final class JctCompilationImpl implements JctCompilation {
     failOnWarnings = requireNonNull(
         builder.failOnWarnings, "failOnWarnings"
     );
+    cancelled = builder.cancelled;
+    memoized = builder.memoized;
     outputLines = unmodifiableList(
         requireNonNullValues(builder.outputLines, "outputLines")
     );
@@ -67,9 +81,24 @@ public final class JctCompilationImpl implements JctCompilation {
     diagnostics = unmodifiableList(
         requireNonNullValues(builder.diagnostics, "diagnostics")
     );
+    diagnosticCounts = builder.diagnosticCounts == null
+        ? DiagnosticCounts.of(diagnostics)
+        : builder.diagnosticCounts;
     fileManager = requireNonNull(
         builder.fileManager, "fileManager"
     );
+    timings = requireNonNull(
+        builder.timings, "timings"
+    );
+    annotationProcessorMetrics = unmodifiableList(
+        requireNonNullValues(builder.annotationProcessorMetrics, "annotationProcessorMetrics")
+    );
+    resourceUsage = requireNonNull(
+        builder.resourceUsage, "resourceUsage"
+    );
+    fileManagerMetrics = requireNonNull(
+        builder.fileManagerMetrics, "fileManagerMetrics"
+    );
   }
 
   @Override
@@ -87,6 +116,16 @@ public final class JctCompilationImpl implements JctCompilation {
     return failOnWarnings;
   }
 
+  @Override
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  @Override
+  public boolean isMemoized() {
+    return memoized;
+  }
+
   @Override
   public List<String> getOutputLines() {
     return outputLines;
@@ -102,11 +141,36 @@ public final class JctCompilationImpl implements JctCompilation {
     return diagnostics;
   }
 
+  @Override
+  public DiagnosticCounts getDiagnosticCounts() {
+    return diagnosticCounts;
+  }
+
   @Override
   public JctFileManager getFileManager() {
     return fileManager;
   }
 
+  @Override
+  public JctCompilationTimings getTimings() {
+    return timings;
+  }
+
+  @Override
+  public List<JctAnnotationProcessorMetrics> getAnnotationProcessorMetrics() {
+    return annotationProcessorMetrics;
+  }
+
+  @Override
+  public JctCompilationResourceUsage getResourceUsage() {
+    return resourceUsage;
+  }
+
+  @Override
+  public JctFileManagerMetrics getFileManagerMetrics() {
+    return fileManagerMetrics;
+  }
+
   @Override
   public String toString() {
     return new ToStringBuilder(this)
@@ -138,20 +202,34 @@ public final class JctCompilationImpl implements JctCompilation {
     private List<String> arguments;
     private Boolean failOnWarnings;
     private Boolean success;
+    private boolean cancelled;
+    private boolean memoized;
     private List<String> outputLines;
     private Set<JavaFileObject> compilationUnits;
     private List<TraceDiagnostic<JavaFileObject>> diagnostics;
+    private DiagnosticCounts diagnosticCounts;
     private JctFileManager fileManager;
+    private JctCompilationTimings timings;
+    private List<JctAnnotationProcessorMetrics> annotationProcessorMetrics;
+    private JctCompilationResourceUsage resourceUsage;
+    private JctFileManagerMetrics fileManagerMetrics;
 
     private Builder() {
       // Only initialized in this file.
       arguments = null;
       failOnWarnings = null;
       success = null;
+      cancelled = false;
+      memoized = false;
       outputLines = null;
       compilationUnits = null;
       diagnostics = null;
+      diagnosticCounts = null;
       fileManager = null;
+      timings = JctCompilationTimings.empty();
+      annotationProcessorMetrics = List.of();
+      resourceUsage = JctCompilationResourceUsage.empty();
+      fileManagerMetrics = JctFileManagerMetrics.empty();
     }
 
     /**
@@ -187,6 +265,34 @@ public final class JctCompilationImpl implements JctCompilation {
       return this;
     }
 
+    /**
+     * Set whether the compilation was cancelled.
+     *
+     * <p>If not set, this defaults to {@code false}.
+     *
+     * @param cancelled {@code true} or {@code false}.
+     * @return this builder.
+     * @since 0.7.0
+     */
+    public Builder cancelled(boolean cancelled) {
+      this.cancelled = cancelled;
+      return this;
+    }
+
+    /**
+     * Set whether the compilation was restored from a cache rather than being performed.
+     *
+     * <p>If not set, this defaults to {@code false}.
+     *
+     * @param memoized {@code true} or {@code false}.
+     * @return this builder.
+     * @since 0.7.0
+     */
+    public Builder memoized(boolean memoized) {
+      this.memoized = memoized;
+      return this;
+    }
+
     /**
      * Set the output lines.
      *
@@ -222,6 +328,20 @@ public final class JctCompilationImpl implements JctCompilation {
       return this;
     }
 
+    /**
+     * Set the counts of every diagnostic that was reported, including any that were not kept.
+     *
+     * <p>If not set, this defaults to counting the {@link #diagnostics(List) diagnostics}.
+     *
+     * @param diagnosticCounts the diagnostic counts.
+     * @return this builder.
+     * @since 0.7.0
+     */
+    public Builder diagnosticCounts(DiagnosticCounts diagnosticCounts) {
+      this.diagnosticCounts = requireNonNull(diagnosticCounts, "diagnosticCounts");
+      return this;
+    }
+
     /**
      * Set the file manager.
      *
@@ -235,6 +355,67 @@ public final class JctCompilationImpl implements JctCompilation {
       return this;
     }
 
+    /**
+     * Set the phase timings.
+     *
+     * <p>If not set, this defaults to {@link JctCompilationTimings#empty()}.
+     *
+     * @param timings the timings.
+     * @return this builder.
+     * @since 0.7.0
+     */
+    public Builder timings(JctCompilationTimings timings) {
+      this.timings = requireNonNull(timings, "timings");
+      return this;
+    }
+
+    /**
+     * Set the annotation processor metrics.
+     *
+     * <p>If not set, this defaults to an empty list.
+     *
+     * @param annotationProcessorMetrics the annotation processor metrics.
+     * @return this builder.
+     * @since 0.7.0
+     */
+    public Builder annotationProcessorMetrics(
+        List<JctAnnotationProcessorMetrics> annotationProcessorMetrics
+    ) {
+      this.annotationProcessorMetrics = requireNonNull(
+          annotationProcessorMetrics,
+          "annotationProcessorMetrics"
+      );
+      return this;
+    }
+
+    /**
+     * Set the resource usage.
+     *
+     * <p>If not set, this defaults to {@link JctCompilationResourceUsage#empty()}.
+     *
+     * @param resourceUsage the resource usage.
+     * @return this builder.
+     * @since 0.7.0
+     */
+    public Builder resourceUsage(JctCompilationResourceUsage resourceUsage) {
+      this.resourceUsage = requireNonNull(resourceUsage, "resourceUsage");
+      return this;
+    }
+
+    /**
+     * Set the file manager metrics.
+     *
+     * <p>If not set, this defaults to {@link JctFileManagerMetrics#empty()}.
+     *
+     * @param fileManagerMetrics the file manager metrics.
+     * @return this builder.
+     * @since 0.7.0
+     */
+    public Builder fileManagerMetrics(JctFileManagerMetrics fileManagerMetrics) {
+      this.fileManagerMetrics = requireNonNull(fileManagerMetrics, "fileManagerMetrics");
+      return this;
+    }
+
     /**
      * Build this builder and output the created {@link JctCompilationImpl}.
      *
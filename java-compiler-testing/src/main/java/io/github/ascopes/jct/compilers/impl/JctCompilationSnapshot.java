@@ -0,0 +1,836 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers.impl;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Objects.requireNonNullElseGet;
+
+import io.github.ascopes.jct.compilers.JctCompilation;
+import io.github.ascopes.jct.diagnostics.DiagnosticCounts;
+import io.github.ascopes.jct.diagnostics.TraceDiagnostic;
+import io.github.ascopes.jct.diagnostics.impl.StackTraceTrie;
+import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.filemanagers.ModuleLocation;
+import io.github.ascopes.jct.filemanagers.PathFileObject;
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import io.github.ascopes.jct.workspaces.Workspace;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileManager.Location;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.StandardLocation;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An immutable snapshot of the result of a compilation, including the files that it output.
+ *
+ * <p>Snapshots can be restored into another workspace with identical inputs, producing an
+ * equivalent compilation without invoking the compiler again. The sources of any diagnostics
+ * are resolved against the file manager of the workspace being restored into.
+ *
+ * <p>Snapshots can also be written to and read from a compact binary format, so that they can
+ * be persisted between JVM runs. This is only possible if every location they refer to is a
+ * {@link StandardLocation} or a {@link ModuleLocation} within one.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.INTERNAL)
+public final class JctCompilationSnapshot {
+
+  private final List<String> arguments;
+  private final boolean success;
+  private final boolean failOnWarnings;
+  private final List<String> outputLines;
+  private final List<DiagnosticRecord> diagnostics;
+  private final DiagnosticCounts diagnosticCounts;
+  private final List<FileReference> compilationUnits;
+  private final List<OutputRoot> outputRoots;
+  private final long sizeInBytes;
+
+  private JctCompilationSnapshot(
+      List<String> arguments,
+      boolean success,
+      boolean failOnWarnings,
+      List<String> outputLines,
+      List<DiagnosticRecord> diagnostics,
+      DiagnosticCounts diagnosticCounts,
+      List<FileReference> compilationUnits,
+      List<OutputRoot> outputRoots
+  ) {
+    this.arguments = arguments;
+    this.success = success;
+    this.failOnWarnings = failOnWarnings;
+    this.outputLines = outputLines;
+    this.diagnostics = diagnostics;
+    this.diagnosticCounts = diagnosticCounts;
+    this.compilationUnits = compilationUnits;
+    this.outputRoots = outputRoots;
+    sizeInBytes = outputRoots.stream().mapToLong(OutputRoot::getSizeInBytes).sum();
+  }
+
+  /**
+   * Get the total size of the output files held in this snapshot.
+   *
+   * @return the size in bytes.
+   */
+  public long getSizeInBytes() {
+    return sizeInBytes;
+  }
+
+  /**
+   * Determine whether this snapshot can be written with {@link #writeTo(DataOutput)}.
+   *
+   * @return {@code true} if it can be written, or {@code false} if it refers to any custom
+   *     locations.
+   */
+  public boolean isPersistable() {
+    return compilationUnits.stream().allMatch(FileReference::isPersistable)
+        && diagnostics.stream().allMatch(DiagnosticRecord::isPersistable)
+        && outputRoots.stream().allMatch(root -> isPersistable(root.location));
+  }
+
+  /**
+   * Restore this snapshot into the given workspace.
+   *
+   * <p>Output files are written to the output locations of the workspace, and a compilation is
+   * returned that refers to the given file manager.
+   *
+   * @param workspace   the workspace to restore the outputs into.
+   * @param fileManager the file manager for the workspace.
+   * @return the restored compilation, or {@code null} if the workspace does not have the same
+   *     layout as the one that this snapshot was captured from. In this case, the workspace is
+   *     left untouched.
+   * @throws IOException if an IO error occurs.
+   */
+  @Nullable
+  public JctCompilation restore(Workspace workspace, JctFileManager fileManager)
+      throws IOException {
+    requireNonNull(workspace, "workspace");
+    requireNonNull(fileManager, "fileManager");
+
+    // Check everything first so that we never leave a partially restored workspace behind.
+    var allPaths = workspace.getAllPaths();
+    var outputPaths = new ArrayList<Path>();
+
+    for (var outputRoot : outputRoots) {
+      var roots = allPaths.get(outputRoot.location);
+
+      if (roots == null || roots.size() <= outputRoot.index) {
+        return null;
+      }
+
+      outputPaths.add(roots.get(outputRoot.index).getPath());
+    }
+
+    var restoredCompilationUnits = new HashSet<JavaFileObject>();
+
+    for (var compilationUnit : compilationUnits) {
+      var fileObject = compilationUnit.resolve(fileManager);
+
+      if (fileObject == null) {
+        return null;
+      }
+
+      restoredCompilationUnits.add(fileObject);
+    }
+
+    for (var i = 0; i < outputRoots.size(); ++i) {
+      outputRoots.get(i).writeTo(outputPaths.get(i));
+    }
+
+    var restoredDiagnostics = new ArrayList<TraceDiagnostic<JavaFileObject>>();
+
+    for (var diagnostic : diagnostics) {
+      restoredDiagnostics.add(diagnostic.restore(fileManager));
+    }
+
+    return JctCompilationImpl
+        .builder()
+        .arguments(arguments)
+        .compilationUnits(restoredCompilationUnits)
+        .fileManager(fileManager)
+        .outputLines(outputLines)
+        .diagnostics(restoredDiagnostics)
+        .diagnosticCounts(diagnosticCounts)
+        .success(success)
+        .failOnWarnings(failOnWarnings)
+        .memoized(true)
+        .build();
+  }
+
+  /**
+   * Write this snapshot in a binary format.
+   *
+   * @param output the output to write to.
+   * @throws IOException              if an IO error occurs.
+   * @throws IllegalStateException if the snapshot is not {@link #isPersistable() persistable}.
+   */
+  public void writeTo(DataOutput output) throws IOException {
+    if (!isPersistable()) {
+      throw new IllegalStateException("Snapshot refers to custom locations, so cannot be written");
+    }
+
+    writeStrings(output, arguments);
+    output.writeBoolean(success);
+    output.writeBoolean(failOnWarnings);
+    writeStrings(output, outputLines);
+
+    output.writeInt(diagnostics.size());
+    for (var diagnostic : diagnostics) {
+      diagnostic.writeTo(output);
+    }
+    writeDiagnosticCounts(output, diagnosticCounts);
+
+    output.writeInt(compilationUnits.size());
+    for (var compilationUnit : compilationUnits) {
+      compilationUnit.writeTo(output);
+    }
+
+    output.writeInt(outputRoots.size());
+    for (var outputRoot : outputRoots) {
+      outputRoot.writeTo(output);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("success", success)
+        .attribute("arguments", arguments)
+        .attribute("sizeInBytes", sizeInBytes)
+        .toString();
+  }
+
+  /**
+   * Capture a snapshot of the given compilation.
+   *
+   * <p>Diagnostic messages are rendered in the given locale when captured, since they cannot be
+   * rendered again later. This should be the locale that the compiler was configured with.
+   *
+   * @param compilation the compilation to capture.
+   * @param workspace   the workspace that the compilation was performed in.
+   * @param locale      the locale to render diagnostic messages in.
+   * @return the snapshot.
+   * @throws IOException if an IO error occurs reading the outputs.
+   */
+  public static JctCompilationSnapshot capture(
+      JctCompilation compilation,
+      Workspace workspace,
+      Locale locale
+  ) throws IOException {
+    requireNonNull(compilation, "compilation");
+    requireNonNull(workspace, "workspace");
+    requireNonNull(locale, "locale");
+
+    var compilationUnits = new ArrayList<FileReference>();
+
+    for (var compilationUnit : compilation.getCompilationUnits()) {
+      // Assumption that we always use this class internally, same as when finding the
+      // compilation units in the first place.
+      compilationUnits.add(FileReference.of((PathFileObject) compilationUnit));
+    }
+
+    var stackTraces = new StackTraceTrie();
+    var diagnostics = compilation.getDiagnostics()
+        .stream()
+        .map(diagnostic -> DiagnosticRecord.capture(diagnostic, stackTraces, locale))
+        .collect(Collectors.toUnmodifiableList());
+    var diagnosticCounts = requireNonNullElseGet(
+        compilation.getDiagnosticCounts(),
+        () -> DiagnosticCounts.of(compilation.getDiagnostics())
+    );
+
+    var outputRoots = new ArrayList<OutputRoot>();
+
+    for (var entry : workspace.getAllPaths().entrySet()) {
+      var location = entry.getKey();
+
+      if (location.isOutputLocation()) {
+        var roots = entry.getValue();
+
+        for (var i = 0; i < roots.size(); ++i) {
+          outputRoots.add(OutputRoot.capture(location, i, roots.get(i).getPath()));
+        }
+      }
+    }
+
+    return new JctCompilationSnapshot(
+        List.copyOf(compilation.getArguments()),
+        compilation.isSuccessful(),
+        compilation.isFailOnWarnings(),
+        List.copyOf(compilation.getOutputLines()),
+        diagnostics,
+        diagnosticCounts,
+        Collections.unmodifiableList(compilationUnits),
+        Collections.unmodifiableList(outputRoots)
+    );
+  }
+
+  /**
+   * Read a snapshot that was written by {@link #writeTo(DataOutput)}.
+   *
+   * @param input the input to read from.
+   * @return the snapshot.
+   * @throws IOException if an IO error occurs, or the input is malformed.
+   */
+  public static JctCompilationSnapshot readFrom(DataInput input) throws IOException {
+    var arguments = readStrings(input);
+    var success = input.readBoolean();
+    var failOnWarnings = input.readBoolean();
+    var outputLines = readStrings(input);
+
+    var diagnosticCount = readCount(input);
+    var diagnostics = new ArrayList<DiagnosticRecord>();
+    var stackTraces = new StackTraceTrie();
+    for (var i = 0; i < diagnosticCount; ++i) {
+      diagnostics.add(DiagnosticRecord.readFrom(input, stackTraces));
+    }
+    var diagnosticCounts = readDiagnosticCounts(input);
+
+    var compilationUnitCount = readCount(input);
+    var compilationUnits = new ArrayList<FileReference>();
+    for (var i = 0; i < compilationUnitCount; ++i) {
+      compilationUnits.add(FileReference.readFrom(input));
+    }
+
+    var outputRootCount = readCount(input);
+    var outputRoots = new ArrayList<OutputRoot>();
+    for (var i = 0; i < outputRootCount; ++i) {
+      outputRoots.add(OutputRoot.readFrom(input));
+    }
+
+    return new JctCompilationSnapshot(
+        arguments,
+        success,
+        failOnWarnings,
+        outputLines,
+        Collections.unmodifiableList(diagnostics),
+        diagnosticCounts,
+        Collections.unmodifiableList(compilationUnits),
+        Collections.unmodifiableList(outputRoots)
+    );
+  }
+
+  private static boolean isPersistable(Location location) {
+    if (location instanceof ModuleLocation) {
+      return isPersistable(((ModuleLocation) location).getParent());
+    }
+    return location instanceof StandardLocation;
+  }
+
+  private static void writeLocation(DataOutput output, Location location) throws IOException {
+    if (location instanceof ModuleLocation) {
+      var moduleLocation = (ModuleLocation) location;
+      output.writeBoolean(true);
+      writeString(output, ((StandardLocation) moduleLocation.getParent()).name());
+      writeString(output, moduleLocation.getModuleName());
+    } else {
+      output.writeBoolean(false);
+      writeString(output, ((StandardLocation) location).name());
+    }
+  }
+
+  private static Location readLocation(DataInput input) throws IOException {
+    var isModule = input.readBoolean();
+    var location = readEnum(input, StandardLocation.class);
+    return isModule
+        ? new ModuleLocation(location, readString(input))
+        : location;
+  }
+
+  private static void writeDiagnosticCounts(
+      DataOutput output,
+      DiagnosticCounts diagnosticCounts
+  ) throws IOException {
+    // The counts include any diagnostics that were not retained, so cannot be recomputed from
+    // the diagnostics when the snapshot is read back.
+    var kindCounts = diagnosticCounts.getKindCounts();
+    output.writeInt(kindCounts.size());
+    for (var entry : kindCounts.entrySet()) {
+      writeString(output, entry.getKey().name());
+      output.writeLong(entry.getValue());
+    }
+
+    var codeCounts = diagnosticCounts.getCodeCounts();
+    output.writeInt(codeCounts.size());
+    for (var entry : codeCounts.entrySet()) {
+      writeString(output, entry.getKey());
+      output.writeLong(entry.getValue());
+    }
+
+    output.writeLong(diagnosticCounts.getRetainedCount());
+  }
+
+  private static DiagnosticCounts readDiagnosticCounts(DataInput input) throws IOException {
+    var kindCount = readCount(input);
+    var kindCounts = new EnumMap<Diagnostic.Kind, Long>(Diagnostic.Kind.class);
+    for (var i = 0; i < kindCount; ++i) {
+      kindCounts.put(readEnum(input, Diagnostic.Kind.class), input.readLong());
+    }
+
+    var codeCount = readCount(input);
+    var codeCounts = new HashMap<String, Long>();
+    for (var i = 0; i < codeCount; ++i) {
+      codeCounts.put(readString(input), input.readLong());
+    }
+
+    var retainedCount = input.readLong();
+
+    try {
+      return new DiagnosticCounts(kindCounts, codeCounts, retainedCount);
+    } catch (IllegalArgumentException ex) {
+      throw new IOException("Malformed snapshot, invalid diagnostic counts", ex);
+    }
+  }
+
+  private static void writeStrings(DataOutput output, List<String> strings) throws IOException {
+    output.writeInt(strings.size());
+    for (var string : strings) {
+      writeString(output, string);
+    }
+  }
+
+  private static List<String> readStrings(DataInput input) throws IOException {
+    var count = readCount(input);
+    var strings = new ArrayList<String>();
+    for (var i = 0; i < count; ++i) {
+      strings.add(readString(input));
+    }
+    return Collections.unmodifiableList(strings);
+  }
+
+  private static void writeNullableString(DataOutput output, @Nullable String string)
+      throws IOException {
+    output.writeBoolean(string != null);
+    if (string != null) {
+      writeString(output, string);
+    }
+  }
+
+  @Nullable
+  private static String readNullableString(DataInput input) throws IOException {
+    return input.readBoolean() ? readString(input) : null;
+  }
+
+  private static void writeString(DataOutput output, String string) throws IOException {
+    // DataOutput#writeUTF is limited to 64KiB, which compiler output can easily exceed.
+    writeBytes(output, string.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String readString(DataInput input) throws IOException {
+    return new String(readBytes(input), StandardCharsets.UTF_8);
+  }
+
+  private static void writeBytes(DataOutput output, byte[] bytes) throws IOException {
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static byte[] readBytes(DataInput input) throws IOException {
+    var bytes = new byte[readCount(input)];
+    input.readFully(bytes);
+    return bytes;
+  }
+
+  private static <E extends Enum<E>> E readEnum(DataInput input, Class<E> type)
+      throws IOException {
+    var name = readString(input);
+    try {
+      return Enum.valueOf(type, name);
+    } catch (IllegalArgumentException ex) {
+      throw new IOException("Unknown " + type.getSimpleName() + " " + name, ex);
+    }
+  }
+
+  private static int readCount(DataInput input) throws IOException {
+    var count = input.readInt();
+    if (count < 0) {
+      throw new IOException("Malformed snapshot, negative count " + count);
+    }
+    return count;
+  }
+
+  private static final class FileReference {
+
+    private final Location location;
+    private final String binaryName;
+    private final Kind kind;
+
+    private FileReference(Location location, String binaryName, Kind kind) {
+      this.location = location;
+      this.binaryName = binaryName;
+      this.kind = kind;
+    }
+
+    private boolean isPersistable() {
+      return JctCompilationSnapshot.isPersistable(location);
+    }
+
+    @Nullable
+    private JavaFileObject resolve(JctFileManager fileManager) throws IOException {
+      return fileManager.getJavaFileForInput(location, binaryName, kind);
+    }
+
+    private void writeTo(DataOutput output) throws IOException {
+      writeLocation(output, location);
+      writeString(output, binaryName);
+      writeString(output, kind.name());
+    }
+
+    private static FileReference readFrom(DataInput input) throws IOException {
+      return new FileReference(
+          readLocation(input),
+          readString(input),
+          readEnum(input, Kind.class)
+      );
+    }
+
+    private static FileReference of(PathFileObject fileObject) {
+      return new FileReference(
+          fileObject.getLocation(),
+          fileObject.getBinaryName(),
+          fileObject.getKind()
+      );
+    }
+  }
+
+  private static final class DiagnosticRecord {
+
+    private final Instant timestamp;
+    private final long threadId;
+    private final @Nullable String threadName;
+    private final List<StackTraceElement> stackTrace;
+    private final Diagnostic.Kind kind;
+    private final @Nullable FileReference source;
+    private final long position;
+    private final long startPosition;
+    private final long endPosition;
+    private final long lineNumber;
+    private final long columnNumber;
+    private final @Nullable String code;
+    private final String message;
+
+    private DiagnosticRecord(
+        Instant timestamp,
+        long threadId,
+        @Nullable String threadName,
+        List<StackTraceElement> stackTrace,
+        Diagnostic.Kind kind,
+        @Nullable FileReference source,
+        long position,
+        long startPosition,
+        long endPosition,
+        long lineNumber,
+        long columnNumber,
+        @Nullable String code,
+        String message
+    ) {
+      this.timestamp = timestamp;
+      this.threadId = threadId;
+      this.threadName = threadName;
+      this.stackTrace = stackTrace;
+      this.kind = kind;
+      this.source = source;
+      this.position = position;
+      this.startPosition = startPosition;
+      this.endPosition = endPosition;
+      this.lineNumber = lineNumber;
+      this.columnNumber = columnNumber;
+      this.code = code;
+      this.message = message;
+    }
+
+    private boolean isPersistable() {
+      return source == null || source.isPersistable();
+    }
+
+    private TraceDiagnostic<JavaFileObject> restore(JctFileManager fileManager)
+        throws IOException {
+      var resolvedSource = source == null ? null : source.resolve(fileManager);
+      return new TraceDiagnostic<>(
+          timestamp,
+          threadId,
+          threadName,
+          stackTrace,
+          new RestoredDiagnostic(this, resolvedSource)
+      );
+    }
+
+    private void writeTo(DataOutput output) throws IOException {
+      output.writeLong(timestamp.getEpochSecond());
+      output.writeInt(timestamp.getNano());
+      output.writeLong(threadId);
+      writeNullableString(output, threadName);
+
+      output.writeInt(stackTrace.size());
+      for (var frame : stackTrace) {
+        writeNullableString(output, frame.getClassLoaderName());
+        writeNullableString(output, frame.getModuleName());
+        writeNullableString(output, frame.getModuleVersion());
+        writeString(output, frame.getClassName());
+        writeString(output, frame.getMethodName());
+        writeNullableString(output, frame.getFileName());
+        output.writeInt(frame.getLineNumber());
+      }
+
+      writeString(output, kind.name());
+      output.writeBoolean(source != null);
+      if (source != null) {
+        source.writeTo(output);
+      }
+      output.writeLong(position);
+      output.writeLong(startPosition);
+      output.writeLong(endPosition);
+      output.writeLong(lineNumber);
+      output.writeLong(columnNumber);
+      writeNullableString(output, code);
+      writeString(output, message);
+    }
+
+    private static DiagnosticRecord readFrom(
+        DataInput input,
+        StackTraceTrie stackTraces
+    ) throws IOException {
+      var timestamp = Instant.ofEpochSecond(input.readLong(), input.readInt());
+      var threadId = input.readLong();
+      var threadName = readNullableString(input);
+
+      var frameCount = readCount(input);
+      var stackTrace = new ArrayList<StackTraceElement>();
+      for (var i = 0; i < frameCount; ++i) {
+        stackTrace.add(new StackTraceElement(
+            readNullableString(input),
+            readNullableString(input),
+            readNullableString(input),
+            readString(input),
+            readString(input),
+            readNullableString(input),
+            input.readInt()
+        ));
+      }
+
+      var kind = readEnum(input, Diagnostic.Kind.class);
+      var source = input.readBoolean() ? FileReference.readFrom(input) : null;
+
+      return new DiagnosticRecord(
+          timestamp,
+          threadId,
+          threadName,
+          stackTraces.intern(stackTrace),
+          kind,
+          source,
+          input.readLong(),
+          input.readLong(),
+          input.readLong(),
+          input.readLong(),
+          input.readLong(),
+          readNullableString(input),
+          readString(input)
+      );
+    }
+
+    private static DiagnosticRecord capture(
+        TraceDiagnostic<? extends JavaFileObject> diagnostic,
+        StackTraceTrie stackTraces,
+        Locale locale
+    ) {
+      var source = diagnostic.getSource();
+
+      return new DiagnosticRecord(
+          diagnostic.getTimestamp(),
+          diagnostic.getThreadId(),
+          diagnostic.getThreadName(),
+          stackTraces.intern(diagnostic.getStackTrace()),
+          diagnostic.getKind(),
+          // Other types of source cannot be resolved again later, so are dropped.
+          source instanceof PathFileObject ? FileReference.of((PathFileObject) source) : null,
+          diagnostic.getPosition(),
+          diagnostic.getStartPosition(),
+          diagnostic.getEndPosition(),
+          diagnostic.getLineNumber(),
+          diagnostic.getColumnNumber(),
+          diagnostic.getCode(),
+          diagnostic.getMessage(locale)
+      );
+    }
+  }
+
+  private static final class RestoredDiagnostic implements Diagnostic<JavaFileObject> {
+
+    private final DiagnosticRecord record;
+    private final @Nullable JavaFileObject source;
+
+    private RestoredDiagnostic(DiagnosticRecord record, @Nullable JavaFileObject source) {
+      this.record = record;
+      this.source = source;
+    }
+
+    @Override
+    public Kind getKind() {
+      return record.kind;
+    }
+
+    @Nullable
+    @Override
+    public JavaFileObject getSource() {
+      return source;
+    }
+
+    @Override
+    public long getPosition() {
+      return record.position;
+    }
+
+    @Override
+    public long getStartPosition() {
+      return record.startPosition;
+    }
+
+    @Override
+    public long getEndPosition() {
+      return record.endPosition;
+    }
+
+    @Override
+    public long getLineNumber() {
+      return record.lineNumber;
+    }
+
+    @Override
+    public long getColumnNumber() {
+      return record.columnNumber;
+    }
+
+    @Nullable
+    @Override
+    public String getCode() {
+      return record.code;
+    }
+
+    @Override
+    public String getMessage(@Nullable Locale locale) {
+      // The message was already rendered when the diagnostic was captured.
+      return record.message;
+    }
+
+    @Override
+    public String toString() {
+      return record.message;
+    }
+  }
+
+  private static final class OutputRoot {
+
+    private final Location location;
+    private final int index;
+    // Relative paths are stored as '/'-separated names, so that they can be restored into
+    // workspaces using a different path strategy.
+    private final Map<String, byte[]> files;
+
+    private OutputRoot(Location location, int index, Map<String, byte[]> files) {
+      this.location = location;
+      this.index = index;
+      this.files = files;
+    }
+
+    private long getSizeInBytes() {
+      return files.values().stream().mapToLong(content -> content.length).sum();
+    }
+
+    private void writeTo(Path root) throws IOException {
+      for (var file : files.entrySet()) {
+        var target = root;
+        for (var name : file.getKey().split("/")) {
+          target = target.resolve(name);
+        }
+
+        Files.createDirectories(target.getParent());
+        Files.write(target, file.getValue());
+      }
+    }
+
+    private void writeTo(DataOutput output) throws IOException {
+      writeLocation(output, location);
+      output.writeInt(index);
+      output.writeInt(files.size());
+
+      for (var file : files.entrySet()) {
+        writeString(output, file.getKey());
+        writeBytes(output, file.getValue());
+      }
+    }
+
+    private static OutputRoot readFrom(DataInput input) throws IOException {
+      var location = readLocation(input);
+      var index = readCount(input);
+      var fileCount = readCount(input);
+      var files = new LinkedHashMap<String, byte[]>();
+
+      for (var i = 0; i < fileCount; ++i) {
+        files.put(readString(input), readBytes(input));
+      }
+
+      return new OutputRoot(location, index, Collections.unmodifiableMap(files));
+    }
+
+    private static OutputRoot capture(Location location, int index, Path root) throws IOException {
+      var files = new LinkedHashMap<String, byte[]>();
+
+      if (Files.isDirectory(root)) {
+        List<Path> paths;
+
+        try (var walker = Files.walk(root)) {
+          paths = walker.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+
+        for (var path : paths) {
+          var relativeName = new StringBuilder();
+
+          for (var name : root.relativize(path)) {
+            if (relativeName.length() > 0) {
+              relativeName.append('/');
+            }
+            relativeName.append(name);
+          }
+
+          files.put(relativeName.toString(), Files.readAllBytes(path));
+        }
+      }
+
+      return new OutputRoot(location, index, Collections.unmodifiableMap(files));
+    }
+  }
+}
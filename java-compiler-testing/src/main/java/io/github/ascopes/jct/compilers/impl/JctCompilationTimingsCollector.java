@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+import io.github.ascopes.jct.compilers.JctCompilationTimings;
+import io.github.ascopes.jct.utils.VisibleForTestingOnly;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+
+/**
+ * Task listener that measures the time spent in each phase of a Javac compilation.
+ *
+ * <p>Javac reports some phases once per source or type, and others once per batch, so the
+ * time for each kind of event is accumulated across every occurrence. Nested events of the same
+ * kind are only measured once. Annotation processing rounds are measured individually.
+ *
+ * <p>Compilers invoke listeners from a single thread, so this type is not thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.INTERNAL)
+public final class JctCompilationTimingsCollector implements TaskListener {
+
+  private final LongSupplier nanoClock;
+  private final Map<TaskEvent.Kind, Phase> phases;
+  private final List<Duration> annotationProcessingRounds;
+  private long roundStartedAt;
+
+  /**
+   * Initialise this collector.
+   */
+  public JctCompilationTimingsCollector() {
+    this(System::nanoTime);
+  }
+
+  /**
+   * Initialise this collector with a custom clock.
+   *
+   * @param nanoClock the clock to read the current time in nanoseconds from.
+   */
+  @VisibleForTestingOnly
+  public JctCompilationTimingsCollector(LongSupplier nanoClock) {
+    this.nanoClock = requireNonNull(nanoClock, "nanoClock");
+    phases = new EnumMap<>(TaskEvent.Kind.class);
+    annotationProcessingRounds = new ArrayList<>();
+    roundStartedAt = -1;
+  }
+
+  @Override
+  public void started(TaskEvent event) {
+    var now = nanoClock.getAsLong();
+
+    if (event.getKind() == TaskEvent.Kind.ANNOTATION_PROCESSING_ROUND) {
+      roundStartedAt = now;
+    }
+
+    phases.computeIfAbsent(event.getKind(), kind -> new Phase()).start(now);
+  }
+
+  @Override
+  public void finished(TaskEvent event) {
+    var now = nanoClock.getAsLong();
+
+    if (event.getKind() == TaskEvent.Kind.ANNOTATION_PROCESSING_ROUND && roundStartedAt >= 0) {
+      annotationProcessingRounds.add(Duration.ofNanos(now - roundStartedAt));
+      roundStartedAt = -1;
+    }
+
+    var phase = phases.get(event.getKind());
+
+    if (phase != null) {
+      phase.finish(now);
+    }
+  }
+
+  /**
+   * Build the timings that have been collected so far.
+   *
+   * @param total the total time that the compiler took to run.
+   * @return the timings.
+   */
+  public JctCompilationTimings toTimings(Duration total) {
+    return JctCompilationTimings
+        .builder()
+        .total(total)
+        .parse(elapsed(TaskEvent.Kind.PARSE))
+        .enter(elapsed(TaskEvent.Kind.ENTER))
+        .analyze(elapsed(TaskEvent.Kind.ANALYZE))
+        .generate(elapsed(TaskEvent.Kind.GENERATE))
+        .annotationProcessing(elapsed(TaskEvent.Kind.ANNOTATION_PROCESSING))
+        .annotationProcessingRounds(annotationProcessingRounds)
+        .build();
+  }
+
+  private Duration elapsed(TaskEvent.Kind kind) {
+    var phase = phases.get(kind);
+    return phase == null
+        ? Duration.ZERO
+        : Duration.ofNanos(phase.elapsed);
+  }
+
+  /**
+   * Accumulated time for one kind of event.
+   */
+  private static final class Phase {
+
+    private int depth;
+    private long startedAt;
+    private long elapsed;
+
+    private Phase() {
+      depth = 0;
+      startedAt = 0;
+      elapsed = 0;
+    }
+
+    private void start(long now) {
+      if (depth++ == 0) {
+        startedAt = now;
+      }
+    }
+
+    private void finish(long now) {
+      // Ignore unbalanced events rather than reporting nonsensical times.
+      if (depth > 0 && --depth == 0) {
+        elapsed += now - startedAt;
+      }
+    }
+  }
+}
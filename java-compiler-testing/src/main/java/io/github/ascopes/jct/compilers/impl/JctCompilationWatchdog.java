@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.ex.JctCompilerException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+
+/**
+ * Runs a compilation on a dedicated thread, and abandons it if it does not complete before a
+ * deadline.
+ *
+ * <p>Compilers provide no way to stop a running task, so a compilation that never completes (such
+ * as one running an annotation processor stuck in an infinite loop) would otherwise block the
+ * calling thread forever. Once the deadline passes, the stack of the compiling thread is captured,
+ * any registered {@link #onTimeout(Runnable) timeout hooks} are run, and the compiling thread is
+ * interrupted. The calling thread then fails immediately with a {@link JctCompilerException}
+ * holding the captured stack, rather than waiting for the compiling thread to stop.
+ *
+ * <p>Compiling threads are daemon threads, so an abandoned compilation will never prevent the JVM
+ * from exiting.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.INTERNAL)
+public final class JctCompilationWatchdog {
+
+  private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+  private final String compilerName;
+  private final Duration deadline;
+  private final List<Runnable> timeoutHooks;
+
+  /**
+   * Initialise this watchdog.
+   *
+   * @param compilerName the name of the compiler, used in error messages.
+   * @param deadline     the maximum amount of time to wait for the compilation.
+   */
+  public JctCompilationWatchdog(String compilerName, Duration deadline) {
+    this.compilerName = requireNonNull(compilerName, "compilerName");
+    this.deadline = requireNonNull(deadline, "deadline");
+    timeoutHooks = new CopyOnWriteArrayList<>();
+  }
+
+  /**
+   * Register a hook to run if the deadline passes, such as to ask the compiler to stop.
+   *
+   * <p>Hooks run on the calling thread, before the compiling thread is interrupted.
+   *
+   * @param hook the hook to run.
+   */
+  public void onTimeout(Runnable hook) {
+    timeoutHooks.add(requireNonNull(hook, "hook"));
+  }
+
+  /**
+   * Run the compilation on a new thread, and wait for it to complete.
+   *
+   * @param compilation the compilation to run.
+   * @param <T>         the result type.
+   * @return the result of the compilation.
+   * @throws JctCompilerException if the deadline passes, or if the calling thread is interrupted
+   *                              while waiting.
+   * @throws Exception            any exception raised by the compilation itself.
+   */
+  public <T> T call(Callable<T> compilation) throws Exception {
+    var caller = Thread.currentThread();
+    var task = new FutureTask<>(compilation);
+    var worker = new Thread(task, "jct-compiler-deadline-" + THREAD_NUMBER.incrementAndGet());
+    worker.setDaemon(true);
+    // Annotation processors and compiler plugins may be loaded via the context class loader.
+    worker.setContextClassLoader(caller.getContextClassLoader());
+    worker.start();
+
+    try {
+      return task.get(deadline.toNanos(), TimeUnit.NANOSECONDS);
+
+    } catch (ExecutionException ex) {
+      var cause = ex.getCause();
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw (Exception) cause;
+
+    } catch (TimeoutException ex) {
+      // Capture the stack before interrupting, as interrupting may cause it to unwind.
+      var state = worker.getState();
+      var stackTrace = worker.getStackTrace();
+      timeoutHooks.forEach(Runnable::run);
+      task.cancel(true);
+      throw new JctCompilerException(describeTimeout(worker, state, stackTrace));
+
+    } catch (InterruptedException ex) {
+      task.cancel(true);
+      caller.interrupt();
+      throw new JctCompilerException(
+          "Interrupted while waiting for compilation with " + compilerName + " to complete", ex
+      );
+    }
+  }
+
+  private String describeTimeout(
+      Thread worker,
+      Thread.State state,
+      StackTraceElement[] stackTrace
+  ) {
+    var builder = new StringBuilder()
+        .append("Compilation with ")
+        .append(compilerName)
+        .append(" did not complete within ")
+        .append(deadline.toMillis())
+        .append("ms, so the compiling thread was interrupted and abandoned.")
+        .append("\n\nStack trace of thread \"")
+        .append(worker.getName())
+        .append("\" (")
+        .append(state)
+        .append(") when the deadline passed:");
+
+    for (var frame : stackTrace) {
+      builder.append("\n\tat ").append(frame);
+    }
+
+    return builder.toString();
+  }
+}
@@ -0,0 +1,548 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers.impl;
+
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreePathScanner;
+import com.sun.source.util.Trees;
+import io.github.ascopes.jct.compilers.JctCompilation;
+import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.ex.JctCompilerException;
+import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.filemanagers.PathFileObject;
+import io.github.ascopes.jct.utils.IterableUtils;
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import io.github.ascopes.jct.workspaces.Workspace;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.StandardLocation;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * State for incrementally recompiling the sources within a single workspace.
+ *
+ * <p>Each compilation records a digest of every source on the source path, along with a
+ * dependency graph of the types that each source declares and references, which is captured by
+ * a {@link TaskListener} once each type has been analyzed. Subsequent compilations only
+ * recompile the sources that were added or changed since the last successful compilation,
+ * along with every source that transitively depends on a changed or removed source. Class
+ * outputs for everything else are reused, and are provided to the compiler on the class path.
+ *
+ * <p>A full compilation is performed instead if there is no previous successful compilation, or
+ * if anything other than the sources has changed, such as the compiler flags, annotation
+ * processors, or the contents of any other location in the workspace. Multi-module sources are
+ * always compiled in full.
+ *
+ * <p>There are some limitations to be aware of:
+ *
+ * <ul>
+ *   <li>Annotation processors only see the sources that are being recompiled, so aggregating
+ *       processors may produce different results to a full compilation.</li>
+ *   <li>Generated sources that are no longer generated are not removed.</li>
+ *   <li>The resulting compilation only describes the sources that were recompiled.</li>
+ * </ul>
+ *
+ * <p>This requires a compiler that creates {@link JavacTask}s, since the dependency graph
+ * cannot be captured otherwise.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.INTERNAL)
+public final class JctIncrementalCompilationState {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(
+      JctIncrementalCompilationState.class
+  );
+
+  private @Nullable Snapshot previous;
+
+  /**
+   * Initialise this state. The first compilation will always compile everything.
+   */
+  public JctIncrementalCompilationState() {
+    previous = null;
+  }
+
+  /**
+   * Compile the given workspace, only recompiling sources that have changed since the last
+   * compilation, and the sources that depend upon them.
+   *
+   * @param compiler       the compiler that is performing the compilation.
+   * @param flags          the flags to pass to the compiler.
+   * @param workspace      the workspace being compiled.
+   * @param fileManager    the file manager for the workspace.
+   * @param jsr199Compiler the JSR-199 compiler to use.
+   * @return the compilation.
+   * @throws JctCompilerException if the compilation could not be performed.
+   */
+  public synchronized JctCompilation compile(
+      JctCompiler<?, ?> compiler,
+      List<String> flags,
+      Workspace workspace,
+      JctFileManager fileManager,
+      JavaCompiler jsr199Compiler
+  ) {
+    // Forget the previous compilation until we know that this one succeeded, so that a failure
+    // part way through forces the next compilation to compile everything again.
+    var previous = this.previous;
+    this.previous = null;
+
+    try {
+      return compileIncrementally(
+          compiler, flags, workspace, fileManager, jsr199Compiler, previous
+      );
+    } catch (IOException ex) {
+      throw new JctCompilerException("Failed to determine which sources need recompiling", ex);
+    }
+  }
+
+  @Override
+  public synchronized String toString() {
+    return new ToStringBuilder(this)
+        .attribute("sourceCount", previous == null ? 0 : previous.digests.size())
+        .toString();
+  }
+
+  private JctCompilation compileIncrementally(
+      JctCompiler<?, ?> compiler,
+      List<String> flags,
+      Workspace workspace,
+      JctFileManager fileManager,
+      JavaCompiler jsr199Compiler,
+      @Nullable Snapshot previous
+  ) throws IOException {
+    var moduleLocations = fileManager.listLocationsForModules(StandardLocation.MODULE_SOURCE_PATH);
+
+    if (!IterableUtils.flatten(moduleLocations).isEmpty()) {
+      LOGGER.debug("Multi-module sources cannot be compiled incrementally, compiling everything");
+      return new JctCompilationFactoryImpl(compiler)
+          .createCompilation(flags, fileManager, jsr199Compiler, null);
+    }
+
+    var configuration = JctCompilationFingerprint
+        .computeExcludingSources(compiler, flags, workspace);
+    var sources = listSources(fileManager);
+    var digests = new HashMap<URI, byte[]>();
+
+    for (var source : sources.values()) {
+      digests.put(source.toUri(), digest(source));
+    }
+
+    if (previous == null || !previous.configuration.equals(configuration)) {
+      LOGGER.debug("No compatible previous compilation was found, compiling everything");
+      return compileAndRecord(
+          compiler, flags, fileManager, jsr199Compiler, null, configuration, digests, Graph.EMPTY
+      );
+    }
+
+    var changed = new HashSet<URI>();
+    digests.forEach((uri, digest) -> {
+      if (!MessageDigest.isEqual(digest, previous.digests.get(uri))) {
+        changed.add(uri);
+      }
+    });
+
+    var removed = new HashSet<>(previous.digests.keySet());
+    removed.removeAll(digests.keySet());
+
+    var affected = previous.graph.findDependents(changed, removed);
+    affected.retainAll(digests.keySet());
+
+    for (var uri : digests.keySet()) {
+      if (!affected.contains(uri) && !previous.graph.hasOutputs(fileManager, uri)) {
+        LOGGER.trace("Outputs for {} are missing, so it will be recompiled", uri);
+        affected.add(uri);
+      }
+    }
+
+    // Delete outputs before compiling so that types that no longer exist do not linger, and so
+    // that the compiler cannot resolve stale class files instead of the sources being compiled.
+    var invalidated = new HashSet<>(affected);
+    invalidated.addAll(removed);
+    previous.graph.deleteOutputs(fileManager, invalidated);
+
+    var graph = previous.graph.without(removed);
+
+    if (affected.isEmpty()) {
+      LOGGER.info("All {} sources are up to date, nothing will be recompiled", sources.size());
+      this.previous = new Snapshot(configuration, digests, graph);
+
+      return JctCompilationImpl
+          .builder()
+          .arguments(flags)
+          .compilationUnits(Set.of())
+          .fileManager(fileManager)
+          .outputLines(List.of())
+          .diagnostics(List.of())
+          .success(true)
+          .failOnWarnings(compiler.isFailOnWarnings())
+          .build();
+    }
+
+    LOGGER.info(
+        "Recompiling {} of {} sources ({} changed, {} removed since the last compilation)",
+        affected.size(),
+        sources.size(),
+        changed.size(),
+        removed.size()
+    );
+
+    // Previously compiled classes are resolved from the class path rather than being recompiled.
+    var classOutputs = fileManager.getOutputContainerGroup(StandardLocation.CLASS_OUTPUT);
+    if (classOutputs != null) {
+      for (var container : classOutputs.getPackages()) {
+        fileManager.addPath(StandardLocation.CLASS_PATH, container.getPathRoot());
+      }
+    }
+
+    var classNames = affected.stream()
+        .map(sources::get)
+        .map(PathFileObject::getBinaryName)
+        .collect(Collectors.toCollection(TreeSet::new));
+
+    return compileAndRecord(
+        compiler, flags, fileManager, jsr199Compiler, classNames, configuration, digests, graph
+    );
+  }
+
+  private JctCompilation compileAndRecord(
+      JctCompiler<?, ?> compiler,
+      List<String> flags,
+      JctFileManager fileManager,
+      JavaCompiler jsr199Compiler,
+      @Nullable Collection<String> classNames,
+      String configuration,
+      Map<URI, byte[]> digests,
+      Graph graph
+  ) {
+    var recorder = new DependencyRecorder();
+    var compilation = new JctCompilationFactoryImpl(compiler, recorder::attach)
+        .createCompilation(flags, fileManager, jsr199Compiler, classNames);
+
+    if (compilation.isSuccessful()) {
+      previous = new Snapshot(configuration, digests, graph.with(recorder, digests.keySet()));
+    }
+
+    return compilation;
+  }
+
+  private static Map<URI, PathFileObject> listSources(JctFileManager fileManager)
+      throws IOException {
+    var sources = new HashMap<URI, PathFileObject>();
+
+    var files = fileManager.list(StandardLocation.SOURCE_PATH, "", Set.of(Kind.SOURCE), true);
+
+    for (var source : files) {
+      // The file manager only ever creates path file objects.
+      sources.put(source.toUri(), (PathFileObject) source);
+    }
+
+    return sources;
+  }
+
+  private static byte[] digest(PathFileObject source) throws IOException {
+    try {
+      return MessageDigest.getInstance("SHA-256")
+          .digest(Files.readAllBytes(source.getFullPath()));
+    } catch (NoSuchAlgorithmException ex) {
+      // Every JVM is required to support SHA-256.
+      throw new IllegalStateException("SHA-256 is not available", ex);
+    }
+  }
+
+  /**
+   * The result of the last successful compilation.
+   */
+  private static final class Snapshot {
+
+    private final String configuration;
+    private final Map<URI, byte[]> digests;
+    private final Graph graph;
+
+    private Snapshot(String configuration, Map<URI, byte[]> digests, Graph graph) {
+      this.configuration = configuration;
+      this.digests = digests;
+      this.graph = graph;
+    }
+  }
+
+  /**
+   * Immutable graph of the types that each compiled source declares and references.
+   */
+  private static final class Graph {
+
+    private static final Graph EMPTY = new Graph(Map.of(), Map.of(), Set.of());
+
+    // Binary names of every type declared in each source, including nested types.
+    private final Map<URI, Set<String>> declaredTypes;
+    // Binary names of the top-level types that each source refers to.
+    private final Map<URI, Set<String>> referencedTypes;
+    // Sources that were compiled but were not on the source path, such as generated sources.
+    private final Set<URI> generatedSources;
+
+    private Graph(
+        Map<URI, Set<String>> declaredTypes,
+        Map<URI, Set<String>> referencedTypes,
+        Set<URI> generatedSources
+    ) {
+      this.declaredTypes = declaredTypes;
+      this.referencedTypes = referencedTypes;
+      this.generatedSources = generatedSources;
+    }
+
+    private Set<URI> findDependents(Set<URI> changed, Set<URI> removed) {
+      var dependents = new HashSet<>(changed);
+      var queue = new ArrayDeque<URI>(changed);
+      queue.addAll(removed);
+
+      if (!queue.isEmpty()) {
+        // Generated sources may depend on anything that their processors looked at, which we
+        // cannot see, so assume that any change may affect them.
+        queue.addAll(generatedSources);
+      }
+
+      while (!queue.isEmpty()) {
+        var declared = declaredTypes.getOrDefault(queue.remove(), Set.of());
+
+        if (declared.isEmpty()) {
+          continue;
+        }
+
+        referencedTypes.forEach((uri, referenced) -> {
+          if (!dependents.contains(uri) && !Collections.disjoint(declared, referenced)) {
+            dependents.add(uri);
+            queue.add(uri);
+          }
+        });
+      }
+
+      return dependents;
+    }
+
+    private boolean hasOutputs(JctFileManager fileManager, URI uri) throws IOException {
+      var declared = declaredTypes.get(uri);
+
+      if (declared == null) {
+        // Sources that declare no types, such as package-info files, have no outputs to check,
+        // so just check that they were compiled at all.
+        return referencedTypes.containsKey(uri);
+      }
+
+      for (var binaryName : declared) {
+        var classFile = fileManager
+            .getJavaFileForInput(StandardLocation.CLASS_OUTPUT, binaryName, Kind.CLASS);
+
+        if (classFile == null) {
+          return false;
+        }
+      }
+
+      return true;
+    }
+
+    private void deleteOutputs(JctFileManager fileManager, Set<URI> uris) throws IOException {
+      for (var uri : uris) {
+        for (var binaryName : declaredTypes.getOrDefault(uri, Set.of())) {
+          var classFile = fileManager
+              .getJavaFileForInput(StandardLocation.CLASS_OUTPUT, binaryName, Kind.CLASS);
+
+          if (classFile != null && !classFile.delete()) {
+            LOGGER.warn("Failed to delete stale class file {}", classFile.toUri());
+          }
+        }
+      }
+    }
+
+    private Graph without(Set<URI> uris) {
+      var declaredTypes = new HashMap<>(this.declaredTypes);
+      var referencedTypes = new HashMap<>(this.referencedTypes);
+      var generatedSources = new HashSet<>(this.generatedSources);
+      declaredTypes.keySet().removeAll(uris);
+      referencedTypes.keySet().removeAll(uris);
+      generatedSources.removeAll(uris);
+      return new Graph(declaredTypes, referencedTypes, generatedSources);
+    }
+
+    private Graph with(DependencyRecorder recorder, Set<URI> sourcePath) {
+      var declaredTypes = new HashMap<>(this.declaredTypes);
+      var referencedTypes = new HashMap<>(this.referencedTypes);
+      var generatedSources = new HashSet<>(this.generatedSources);
+
+      // Anything that was recompiled replaces what we previously knew about it.
+      declaredTypes.keySet().removeAll(recorder.referencedTypes.keySet());
+      declaredTypes.putAll(recorder.declaredTypes);
+      referencedTypes.putAll(recorder.referencedTypes);
+
+      for (var uri : recorder.referencedTypes.keySet()) {
+        if (!sourcePath.contains(uri)) {
+          generatedSources.add(uri);
+        }
+      }
+
+      return new Graph(declaredTypes, referencedTypes, generatedSources);
+    }
+  }
+
+  /**
+   * Records the types that each source declares and references once the compiler has finished
+   * analyzing it.
+   */
+  private static final class DependencyRecorder {
+
+    private final Map<URI, Set<String>> declaredTypes;
+    private final Map<URI, Set<String>> referencedTypes;
+
+    private DependencyRecorder() {
+      declaredTypes = new HashMap<>();
+      referencedTypes = new HashMap<>();
+    }
+
+    private void attach(JavacTask task) {
+      task.addTaskListener(new AnalysisListener(Trees.instance(task), task.getElements()));
+    }
+
+    @Nullable
+    private static TypeElement findTopLevelType(@Nullable Element element) {
+      TypeElement topLevelType = null;
+
+      for (var current = element; current != null; current = current.getEnclosingElement()) {
+        if (current instanceof TypeElement) {
+          topLevelType = (TypeElement) current;
+        }
+      }
+
+      return topLevelType;
+    }
+
+    /**
+     * Task listener for a single task, which records each source once it has been analyzed.
+     */
+    private final class AnalysisListener implements TaskListener {
+
+      private final Trees trees;
+      private final Elements elements;
+
+      private AnalysisListener(Trees trees, Elements elements) {
+        this.trees = trees;
+        this.elements = elements;
+      }
+
+      @Override
+      public void finished(TaskEvent event) {
+        if (event.getKind() != TaskEvent.Kind.ANALYZE) {
+          return;
+        }
+
+        var uri = event.getSourceFile().toUri();
+        var referenced = referencedTypes.computeIfAbsent(uri, key -> new HashSet<>());
+        var scanner = new ReferenceScanner(referenced);
+        var unit = event.getCompilationUnit();
+        var unitPath = new TreePath(unit);
+
+        // Package and module descriptors do not declare any types.
+        var typeElement = event.getTypeElement();
+        if (typeElement != null) {
+          var declared = declaredTypes.computeIfAbsent(uri, key -> new HashSet<>());
+          addDeclaredTypes(typeElement, declared);
+
+          var typePath = trees.getPath(typeElement);
+          if (typePath != null) {
+            scanner.scan(typePath, null);
+          }
+        }
+
+        // Imports and package annotations are not part of the type declaration itself.
+        for (var importTree : unit.getImports()) {
+          scanner.scan(new TreePath(unitPath, importTree), null);
+        }
+
+        for (var annotation : unit.getPackageAnnotations()) {
+          scanner.scan(new TreePath(unitPath, annotation), null);
+        }
+      }
+
+      private void addDeclaredTypes(TypeElement typeElement, Set<String> declared) {
+        declared.add(elements.getBinaryName(typeElement).toString());
+
+        for (var enclosed : typeElement.getEnclosedElements()) {
+          if (enclosed instanceof TypeElement) {
+            addDeclaredTypes((TypeElement) enclosed, declared);
+          }
+        }
+      }
+
+      /**
+       * Scanner that resolves every name within a tree to the top-level type that it belongs to.
+       */
+      private final class ReferenceScanner extends TreePathScanner<Void, Void> {
+
+        private final Set<String> referenced;
+
+        private ReferenceScanner(Set<String> referenced) {
+          this.referenced = referenced;
+        }
+
+        @Override
+        public Void visitIdentifier(IdentifierTree node, Void unused) {
+          addReference();
+          return super.visitIdentifier(node, unused);
+        }
+
+        @Override
+        public Void visitMemberSelect(MemberSelectTree node, Void unused) {
+          addReference();
+          return super.visitMemberSelect(node, unused);
+        }
+
+        private void addReference() {
+          var topLevelType = findTopLevelType(trees.getElement(getCurrentPath()));
+
+          if (topLevelType != null) {
+            referenced.add(elements.getBinaryName(topLevelType).toString());
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.compilers.JctAnnotationProcessorMetrics;
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import io.github.ascopes.jct.utils.VisibleForTestingOnly;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import javax.annotation.processing.Completion;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager.Location;
+import javax.tools.JavaFileObject;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+
+/**
+ * Decorator for an annotation processor that measures the work that it performs.
+ *
+ * <p>Initialisation and each round of processing are timed using both the wall clock and the CPU
+ * time of the current thread. The processor is given a {@link Filer} that counts the files that
+ * it creates, so processors that depend upon the compiler's own implementation of
+ * {@link ProcessingEnvironment} cannot be measured.
+ *
+ * <p>Compilers invoke processors from a single thread, so this type is not thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.INTERNAL)
+public final class JctMeasuringProcessor implements Processor {
+
+  private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+  private final Processor delegate;
+  private final LongSupplier wallClock;
+  private final LongSupplier cpuClock;
+  private final List<JctAnnotationProcessorMetrics.Round> rounds;
+  private Duration initWallTime;
+  private Duration initCpuTime;
+  private int generatedFileCount;
+
+  /**
+   * Initialise this processor.
+   *
+   * @param delegate the processor to measure.
+   */
+  public JctMeasuringProcessor(Processor delegate) {
+    this(delegate, System::nanoTime, JctMeasuringProcessor::currentThreadCpuTime);
+  }
+
+  /**
+   * Initialise this processor with custom clocks.
+   *
+   * @param delegate  the processor to measure.
+   * @param wallClock the clock to read the wall-clock time in nanoseconds from.
+   * @param cpuClock  the clock to read the CPU time of the current thread in nanoseconds from.
+   */
+  @VisibleForTestingOnly
+  public JctMeasuringProcessor(Processor delegate, LongSupplier wallClock, LongSupplier cpuClock) {
+    this.delegate = requireNonNull(delegate, "delegate");
+    this.wallClock = requireNonNull(wallClock, "wallClock");
+    this.cpuClock = requireNonNull(cpuClock, "cpuClock");
+    rounds = new ArrayList<>();
+    initWallTime = Duration.ZERO;
+    initCpuTime = Duration.ZERO;
+    generatedFileCount = 0;
+  }
+
+  @Override
+  public Set<String> getSupportedOptions() {
+    return delegate.getSupportedOptions();
+  }
+
+  @Override
+  public Set<String> getSupportedAnnotationTypes() {
+    return delegate.getSupportedAnnotationTypes();
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return delegate.getSupportedSourceVersion();
+  }
+
+  @Override
+  public void init(ProcessingEnvironment processingEnv) {
+    var wallStart = wallClock.getAsLong();
+    var cpuStart = cpuClock.getAsLong();
+
+    delegate.init(new MeasuringProcessingEnvironment(processingEnv));
+
+    initCpuTime = Duration.ofNanos(cpuClock.getAsLong() - cpuStart);
+    initWallTime = Duration.ofNanos(wallClock.getAsLong() - wallStart);
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    // Counted outside the measured section, so that the cost is not attributed to the processor.
+    var elementCount = annotations.isEmpty()
+        ? 0
+        : roundEnv.getElementsAnnotatedWithAny(annotations.toArray(TypeElement[]::new)).size();
+    var generatedFileCountBefore = generatedFileCount;
+
+    var wallStart = wallClock.getAsLong();
+    var cpuStart = cpuClock.getAsLong();
+
+    try {
+      return delegate.process(annotations, roundEnv);
+    } finally {
+      var cpuTime = Duration.ofNanos(cpuClock.getAsLong() - cpuStart);
+      var wallTime = Duration.ofNanos(wallClock.getAsLong() - wallStart);
+
+      rounds.add(new JctAnnotationProcessorMetrics.Round(
+          wallTime,
+          cpuTime,
+          elementCount,
+          generatedFileCount - generatedFileCountBefore
+      ));
+    }
+  }
+
+  @Override
+  public Iterable<? extends Completion> getCompletions(
+      Element element,
+      AnnotationMirror annotation,
+      ExecutableElement member,
+      String userText
+  ) {
+    return delegate.getCompletions(element, annotation, member, userText);
+  }
+
+  /**
+   * Get the processor that is being measured.
+   *
+   * @return the processor.
+   */
+  public Processor getDelegate() {
+    return delegate;
+  }
+
+  /**
+   * Get the metrics that have been measured so far.
+   *
+   * @return the metrics.
+   */
+  public JctAnnotationProcessorMetrics getMetrics() {
+    return new JctAnnotationProcessorMetrics(
+        delegate.getClass().getName(),
+        initWallTime,
+        initCpuTime,
+        rounds
+    );
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("delegate", delegate)
+        .toString();
+  }
+
+  private static long currentThreadCpuTime() {
+    // Returns -1 if CPU time measurement is disabled, in which case we report zero.
+    return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()
+        ? Math.max(0, THREAD_MX_BEAN.getCurrentThreadCpuTime())
+        : 0;
+  }
+
+  /**
+   * Processing environment that provides a {@link CountingFiler} in place of the real one.
+   *
+   * <p>{@code isPreviewEnabled} only exists from Java 13, so cannot be delegated here.
+   */
+  private final class MeasuringProcessingEnvironment implements ProcessingEnvironment {
+
+    private final ProcessingEnvironment delegate;
+    private final Filer filer;
+
+    private MeasuringProcessingEnvironment(ProcessingEnvironment delegate) {
+      this.delegate = delegate;
+      filer = new CountingFiler(delegate.getFiler());
+    }
+
+    @Override
+    public Map<String, String> getOptions() {
+      return delegate.getOptions();
+    }
+
+    @Override
+    public Messager getMessager() {
+      return delegate.getMessager();
+    }
+
+    @Override
+    public Filer getFiler() {
+      return filer;
+    }
+
+    @Override
+    public Elements getElementUtils() {
+      return delegate.getElementUtils();
+    }
+
+    @Override
+    public Types getTypeUtils() {
+      return delegate.getTypeUtils();
+    }
+
+    @Override
+    public SourceVersion getSourceVersion() {
+      return delegate.getSourceVersion();
+    }
+
+    @Override
+    public Locale getLocale() {
+      return delegate.getLocale();
+    }
+  }
+
+  /**
+   * Filer that counts the files that are created through it.
+   */
+  private final class CountingFiler implements Filer {
+
+    private final Filer delegate;
+
+    private CountingFiler(Filer delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public JavaFileObject createSourceFile(
+        CharSequence name,
+        Element... originatingElements
+    ) throws IOException {
+      var file = delegate.createSourceFile(name, originatingElements);
+      ++generatedFileCount;
+      return file;
+    }
+
+    @Override
+    public JavaFileObject createClassFile(
+        CharSequence name,
+        Element... originatingElements
+    ) throws IOException {
+      var file = delegate.createClassFile(name, originatingElements);
+      ++generatedFileCount;
+      return file;
+    }
+
+    @Override
+    public FileObject createResource(
+        Location location,
+        CharSequence moduleAndPkg,
+        CharSequence relativeName,
+        Element... originatingElements
+    ) throws IOException {
+      var file = delegate.createResource(location, moduleAndPkg, relativeName, originatingElements);
+      ++generatedFileCount;
+      return file;
+    }
+
+    @Override
+    public FileObject getResource(
+        Location location,
+        CharSequence moduleAndPkg,
+        CharSequence relativeName
+    ) throws IOException {
+      return delegate.getResource(location, moduleAndPkg, relativeName);
+    }
+  }
+}
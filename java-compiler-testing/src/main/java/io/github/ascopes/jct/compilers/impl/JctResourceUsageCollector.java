@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers.impl;
+
+import io.github.ascopes.jct.compilers.JctCompilationResourceUsage;
+import io.github.ascopes.jct.containers.Container;
+import io.github.ascopes.jct.containers.PackageContainerGroup;
+import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.utils.LoomPolyfill;
+import io.github.ascopes.jct.workspaces.ManagedDirectory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.ClosedFileSystemException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.OptionalLong;
+import java.util.Set;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the memory used by a compilation.
+ *
+ * <p>A collector is created immediately before the compiler is invoked, on the thread that will
+ * invoke it, and {@link #finish(JctFileManager) finished} once the compiler returns. The size of
+ * the workspace is only computed if it is requested from the resulting measurements.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.INTERNAL)
+public final class JctResourceUsageCollector {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JctResourceUsageCollector.class);
+
+  private final long threadId;
+  private final long allocatedBytesAtStart;
+  private final long gcTimeAtStart;
+  private final long gcCountAtStart;
+
+  /**
+   * Start measuring the current thread.
+   */
+  public JctResourceUsageCollector() {
+    threadId = LoomPolyfill.getThreadId(Thread.currentThread());
+    allocatedBytesAtStart = allocatedBytes(threadId);
+    gcTimeAtStart = gcTimeMillis();
+    gcCountAtStart = gcCount();
+  }
+
+  /**
+   * Finish measuring.
+   *
+   * @param fileManager the file manager that was used for the compilation, which is used to
+   *                    determine the size of the in-memory workspace.
+   * @return the measurements.
+   */
+  public JctCompilationResourceUsage finish(JctFileManager fileManager) {
+    var allocatedBytesAtEnd = allocatedBytes(threadId);
+    var gcTimeAtEnd = gcTimeMillis();
+    var gcCountAtEnd = gcCount();
+
+    var allocatedBytes = allocatedBytesAtStart < 0 || allocatedBytesAtEnd < 0
+        ? OptionalLong.empty()
+        : OptionalLong.of(allocatedBytesAtEnd - allocatedBytesAtStart);
+
+    return new JctCompilationResourceUsage(
+        allocatedBytes,
+        Duration.ofMillis(gcTimeAtEnd - gcTimeAtStart),
+        gcCountAtEnd - gcCountAtStart,
+        () -> workspaceSizeInBytes(fileManager)
+    );
+  }
+
+  private static long allocatedBytes(long threadId) {
+    ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
+
+    // Thread allocation counters are a HotSpot extension to the standard management API.
+    if (threadMxBean instanceof com.sun.management.ThreadMXBean) {
+      var extendedThreadMxBean = (com.sun.management.ThreadMXBean) threadMxBean;
+
+      if (extendedThreadMxBean.isThreadAllocatedMemorySupported()
+          && extendedThreadMxBean.isThreadAllocatedMemoryEnabled()) {
+        return extendedThreadMxBean.getThreadAllocatedBytes(threadId);
+      }
+    }
+
+    return -1;
+  }
+
+  private static long gcTimeMillis() {
+    var total = 0L;
+
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      // Collectors report -1 if the value is undefined.
+      total += Math.max(0, collector.getCollectionTime());
+    }
+
+    return total;
+  }
+
+  private static long gcCount() {
+    var total = 0L;
+
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      total += Math.max(0, collector.getCollectionCount());
+    }
+
+    return total;
+  }
+
+  private static long workspaceSizeInBytes(JctFileManager fileManager) {
+    var roots = new HashSet<Path>();
+
+    for (var group : fileManager.getPackageContainerGroups()) {
+      addRoots(group, roots);
+    }
+
+    for (var group : fileManager.getModuleContainerGroups()) {
+      group.getModules().values().forEach(module -> addRoots(module, roots));
+    }
+
+    for (var group : fileManager.getOutputContainerGroups()) {
+      addRoots(group, roots);
+      group.getModules().values().forEach(module -> addRoots(module, roots));
+    }
+
+    var total = 0L;
+
+    for (var root : roots) {
+      // Module roots may be nested within package roots, so avoid counting them twice.
+      if (roots.stream().anyMatch(other -> !other.equals(root) && root.startsWith(other))) {
+        continue;
+      }
+
+      try {
+        total += sizeOf(root);
+      } catch (IOException | UncheckedIOException | ClosedFileSystemException ex) {
+        LOGGER.trace("Failed to determine the size of {}, so it will be ignored", root, ex);
+      }
+    }
+
+    return total;
+  }
+
+  private static void addRoots(PackageContainerGroup group, Set<Path> roots) {
+    for (Container container : group.getPackages()) {
+      var pathRoot = container.getPathRoot();
+
+      // Only directories created by the workspace count towards its size. Other roots, such as
+      // the JDK runtime image, are not on the default file system either, but are not held in
+      // the heap. Of the workspace directories, only those on in-memory file systems are.
+      if (pathRoot instanceof ManagedDirectory
+          && pathRoot.getPath().getFileSystem() != FileSystems.getDefault()) {
+        roots.add(pathRoot.getPath());
+      }
+    }
+  }
+
+  private static long sizeOf(Path root) throws IOException {
+    if (!Files.isDirectory(root)) {
+      return Files.isRegularFile(root) ? Files.size(root) : 0;
+    }
+
+    try (var walker = Files.walk(root)) {
+      return walker
+          .filter(Files::isRegularFile)
+          .mapToLong(path -> {
+            try {
+              return Files.size(path);
+            } catch (IOException ex) {
+              throw new UncheckedIOException(ex);
+            }
+          })
+          .sum();
+    }
+  }
+}
@@ -22,17 +22,29 @@ import io.github.ascopes.jct.containers.Container;
 import io.github.ascopes.jct.containers.PackageContainerGroup;
 import io.github.ascopes.jct.filemanagers.ModuleLocation;
 import io.github.ascopes.jct.filemanagers.PathFileObject;
+import io.github.ascopes.jct.utils.FileUtils;
 import io.github.ascopes.jct.utils.Lazy;
+import io.github.ascopes.jct.utils.LoomPolyfill;
 import io.github.ascopes.jct.utils.ToStringBuilder;
 import io.github.ascopes.jct.workspaces.PathRoot;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.FileSystem;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import javax.tools.JavaFileManager.Location;
 import javax.tools.JavaFileObject;
 import javax.tools.JavaFileObject.Kind;
 import org.apiguardian.api.API;
 import org.apiguardian.api.API.Status;
+import org.jspecify.annotations.Nullable;
 
 /**
  * An abstract base implementation for a group of containers that relate to a specific location.
@@ -41,12 +53,31 @@ import org.apiguardian.api.API.Status;
  * which is needed to facilitate the Java compiler's distributed class path, module handling, and
  * other important features.
  *
+ * <p>Lookups are routed using an index of which containers hold each package, so that only the
+ * containers that can possibly hold a file are consulted. Containers that cannot be indexed ahead
+ * of time (such as directories, whose contents may change) are always consulted. The order in
+ * which containers were added is always respected, so the first container to hold a file wins.
+ * The index is built lazily, one container at a time, and only as far as each lookup needs to go
+ * to find a result, so archives are not opened any earlier than they would be without it.
+ *
+ * <p>Listing files can optionally be performed across all containers in parallel by setting the
+ * {@value #PARALLEL_LISTING_PROPERTY} system property to {@code true}. This uses virtual threads
+ * where available, and a bounded pool of daemon threads otherwise. Results are always returned in
+ * the order of the containers that they were found in, regardless of whether listing is parallel.
+ *
  * @author Ashley Scopes
  * @since 0.0.1
  */
 @API(since = "0.0.1", status = Status.INTERNAL)
 public abstract class AbstractPackageContainerGroup implements PackageContainerGroup {
 
+  /**
+   * The system property that can be set to {@code true} to list files in parallel.
+   *
+   * @since 0.7.0
+   */
+  public static final String PARALLEL_LISTING_PROPERTY = "jct.containers.parallelListing";
+
   // https://docs.oracle.com/cd/E19830-01/819-4712/ablgz/index.html
   private static final Set<String> ARCHIVE_EXTENSIONS = Set.of(
       ".ear",
@@ -63,6 +94,9 @@ public abstract class AbstractPackageContainerGroup implements PackageContainerG
   private final String release;
   private final Set<Container> containers;
   private final Lazy<ClassLoader> classLoaderLazy;
+  private final Object routesLock;
+  private volatile Routes routes;
+  private final boolean parallelListing;
 
   /**
    * Initialize this container group.
@@ -76,6 +110,9 @@ public abstract class AbstractPackageContainerGroup implements PackageContainerG
 
     containers = synchronizedSet(new LinkedHashSet<>());
     classLoaderLazy = new Lazy<>(this::createClassLoader);
+    routesLock = new Object();
+    routes = new Routes(List.of());
+    parallelListing = Boolean.getBoolean(PARALLEL_LISTING_PROPERTY);
   }
 
   @Override
@@ -88,7 +125,11 @@ public abstract class AbstractPackageContainerGroup implements PackageContainerG
 
   @Override
   public void addPackage(Container container) {
-    containers.add(container);
+    // Hold the lock so that a lookup that is extending the index cannot carry on with the old one.
+    synchronized (routesLock) {
+      containers.add(container);
+      routes = new Routes(getPackages());
+    }
   }
 
   @Override
@@ -110,9 +151,11 @@ public abstract class AbstractPackageContainerGroup implements PackageContainerG
 
   @Override
   public boolean contains(PathFileObject fileObject) {
-    return containers
-        .stream()
-        .anyMatch(container -> container.contains(fileObject));
+    var result = findForFile(
+        fileObject,
+        container -> container.contains(fileObject) ? Boolean.TRUE : null
+    );
+    return result != null;
   }
 
   @Override
@@ -156,6 +199,15 @@ public abstract class AbstractPackageContainerGroup implements PackageContainerG
 
   @Override
   public PathFileObject getFileForInput(String packageName, String relativeName) {
+    // Relative names containing separators may resolve to a different package entirely, so we
+    // cannot route those.
+    if (relativeName.indexOf('/') == -1) {
+      return findForPackage(
+          packageName,
+          container -> container.getFileForInput(packageName, relativeName)
+      );
+    }
+
     for (var container : containers) {
       var file = container.getFileForInput(packageName, relativeName);
       if (file != null) {
@@ -180,14 +232,8 @@ public abstract class AbstractPackageContainerGroup implements PackageContainerG
 
   @Override
   public PathFileObject getJavaFileForInput(String className, Kind kind) {
-    for (var container : containers) {
-      var file = container.getJavaFileForInput(className, kind);
-      if (file != null) {
-        return file;
-      }
-    }
-
-    return null;
+    var packageName = FileUtils.binaryNameToPackageName(className);
+    return findForPackage(packageName, container -> container.getJavaFileForInput(className, kind));
   }
 
   @Override
@@ -228,14 +274,7 @@ public abstract class AbstractPackageContainerGroup implements PackageContainerG
 
   @Override
   public String inferBinaryName(PathFileObject fileObject) {
-    for (var container : containers) {
-      var name = container.inferBinaryName(fileObject);
-      if (name != null) {
-        return name;
-      }
-    }
-
-    return null;
+    return findForFile(fileObject, container -> container.inferBinaryName(fileObject));
   }
 
   @Override
@@ -249,9 +288,14 @@ public abstract class AbstractPackageContainerGroup implements PackageContainerG
       Set<? extends Kind> kinds,
       boolean recurse
   ) throws IOException {
-    // XXX: could this be run in parallel?
-    var collection = new HashSet<JavaFileObject>();
-    for (var container : containers) {
+    var packages = getPackages();
+
+    if (parallelListing && packages.size() > 1) {
+      return listFileObjectsInParallel(packages, packageName, kinds, recurse);
+    }
+
+    var collection = new LinkedHashSet<JavaFileObject>();
+    for (var container : packages) {
       container.listFileObjects(packageName, kinds, recurse, collection);
     }
     return collection;
@@ -275,4 +319,211 @@ public abstract class AbstractPackageContainerGroup implements PackageContainerG
   protected ClassLoader createClassLoader() {
     return new PackageContainerGroupUrlClassLoader(this);
   }
+
+  @Nullable
+  private <T> T findForPackage(String packageName, Function<Container, @Nullable T> lookup) {
+    return find(
+        routes -> routes.forPackage(packageName),
+        container -> !(container instanceof JarContainerImpl)
+            || ((JarContainerImpl) container).getPackageNames().contains(packageName),
+        lookup
+    );
+  }
+
+  @Nullable
+  private <T> T findForFile(PathFileObject fileObject, Function<Container, @Nullable T> lookup) {
+    var fileSystem = fileObject.getFullPath().getFileSystem();
+
+    return find(
+        routes -> routes.forFileSystem(fileSystem),
+        container -> !(container instanceof JarContainerImpl)
+            || ((JarContainerImpl) container).getFileSystem().equals(fileSystem),
+        lookup
+    );
+  }
+
+  @Nullable
+  private <T> T find(
+      Function<Routes, List<Container>> candidates,
+      Predicate<Container> mayHold,
+      Function<Container, @Nullable T> lookup
+  ) {
+    var routes = this.routes;
+
+    if (routes.isComplete()) {
+      return findFirst(candidates.apply(routes), lookup);
+    }
+
+    synchronized (routesLock) {
+      routes = this.routes;
+
+      // Try everything that has been indexed so far first, then index the remaining containers
+      // in order until one of them holds what we are looking for. Since every indexed container
+      // comes before every container that is not yet indexed, the first match still wins.
+      var result = findFirst(candidates.apply(routes), lookup);
+
+      while (result == null && !routes.isComplete()) {
+        var container = routes.indexNext();
+
+        if (mayHold.test(container)) {
+          result = lookup.apply(container);
+        }
+      }
+
+      return result;
+    }
+  }
+
+  @Nullable
+  private static <T> T findFirst(
+      List<Container> candidates,
+      Function<Container, @Nullable T> lookup
+  ) {
+    for (var container : candidates) {
+      var result = lookup.apply(container);
+      if (result != null) {
+        return result;
+      }
+    }
+
+    return null;
+  }
+
+  private static Set<JavaFileObject> listFileObjectsInParallel(
+      List<Container> packages,
+      String packageName,
+      Set<? extends Kind> kinds,
+      boolean recurse
+  ) throws IOException {
+    // Each container lists into its own collection so that no synchronization is needed, then
+    // the results are merged in container order to keep the result deterministic.
+    var futures = new ArrayList<Future<List<JavaFileObject>>>(packages.size());
+
+    for (var container : packages) {
+      futures.add(ListingExecutor.INSTANCE.submit(() -> {
+        var collection = new ArrayList<JavaFileObject>();
+        container.listFileObjects(packageName, kinds, recurse, collection);
+        return collection;
+      }));
+    }
+
+    var results = new LinkedHashSet<JavaFileObject>();
+
+    try {
+      for (var future : futures) {
+        results.addAll(future.get());
+      }
+    } catch (InterruptedException ex) {
+      futures.forEach(future -> future.cancel(true));
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while listing files in parallel");
+    } catch (ExecutionException ex) {
+      futures.forEach(future -> future.cancel(true));
+      var cause = ex.getCause();
+
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+
+      throw new IOException("Failed to list files", cause);
+    }
+
+    return results;
+  }
+
+  /**
+   * Lazily initialised holder for the executor used for parallel listing.
+   */
+  private static final class ListingExecutor {
+
+    private static final ExecutorService INSTANCE = createExecutor();
+
+    private static ExecutorService createExecutor() {
+      var executor = LoomPolyfill.newVirtualThreadPerTaskExecutor();
+
+      if (executor != null) {
+        return executor;
+      }
+
+      var threadNumber = new AtomicInteger();
+      return Executors.newFixedThreadPool(
+          Runtime.getRuntime().availableProcessors(),
+          runnable -> {
+            var thread = new Thread(runnable, "jct-listing-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          }
+      );
+    }
+  }
+
+  /**
+   * Routing index from packages and file systems to the containers that may hold them.
+   *
+   * <p>Containers are indexed one at a time, in the order they were added in, by
+   * {@link #indexNext()}. Each list of candidates only covers the containers indexed so far, and
+   * is in the same order as those containers. Until the index is complete, it must only be used
+   * while holding the lock of the group that owns it. Once complete, it is never modified again.
+   */
+  private static final class Routes {
+
+    private final List<Container> containers;
+    private final Map<String, List<Container>> byPackage;
+    private final Map<FileSystem, List<Container>> byFileSystem;
+    private final List<Container> unindexed;
+    private int indexedCount;
+    private volatile boolean complete;
+
+    private Routes(List<Container> containers) {
+      this.containers = containers;
+      byPackage = new HashMap<>();
+      byFileSystem = new HashMap<>();
+      unindexed = new ArrayList<>();
+      indexedCount = 0;
+      complete = containers.isEmpty();
+    }
+
+    private boolean isComplete() {
+      return complete;
+    }
+
+    private Container indexNext() {
+      var container = containers.get(indexedCount);
+
+      if (container instanceof JarContainerImpl) {
+        // Each new route starts with any unindexed containers that came before it, since
+        // they may hold anything.
+        var jar = (JarContainerImpl) container;
+
+        for (var packageName : jar.getPackageNames()) {
+          byPackage.computeIfAbsent(packageName, ignored -> new ArrayList<>(unindexed))
+              .add(jar);
+        }
+
+        byFileSystem.computeIfAbsent(jar.getFileSystem(), ignored -> new ArrayList<>(unindexed))
+            .add(jar);
+      } else {
+        unindexed.add(container);
+        byPackage.values().forEach(route -> route.add(container));
+        byFileSystem.values().forEach(route -> route.add(container));
+      }
+
+      // Publish the completed index last, so that readers that see it complete also see
+      // everything that was added to it.
+      complete = ++indexedCount == containers.size();
+      return container;
+    }
+
+    private List<Container> forFileSystem(FileSystem fileSystem) {
+      return byFileSystem.getOrDefault(fileSystem, unindexed);
+    }
+
+    private List<Container> forPackage(String packageName) {
+      return byPackage.getOrDefault(packageName, unindexed);
+    }
+  }
 }
@@ -15,6 +15,7 @@
  */
 package io.github.ascopes.jct.containers.impl;
 
+import io.github.ascopes.jct.containers.Container;
 import io.github.ascopes.jct.containers.ContainerGroup;
 import io.github.ascopes.jct.containers.ModuleContainerGroup;
 import io.github.ascopes.jct.containers.OutputContainerGroup;
@@ -57,6 +58,33 @@ public final class ContainerGroupRepositoryImpl implements AutoCloseable {
     outputs = new ConcurrentHashMap<>();
   }
 
+  /**
+   * Add the container to the registry, marking it as being part of the given location.
+   *
+   * <p>Only package-oriented locations are supported, since containers for modules must be
+   * discovered from the paths they are in.
+   *
+   * @param location  the location to add.
+   * @param container the container to register with the location.
+   * @throws IllegalArgumentException if the location is module-oriented or a module location.
+   * @throws IllegalStateException    if the location is an output location that already has a
+   *                                  package registered.
+   * @since 0.7.0
+   */
+  public void addContainer(Location location, Container container) {
+    if (location instanceof ModuleLocation || location.isModuleOrientedLocation()) {
+      throw new IllegalArgumentException(
+          "Cannot add containers to module locations or module-oriented locations"
+      );
+    }
+
+    var group = location.isOutputLocation()
+        ? getOrCreateOutputContainerGroup(location)
+        : getOrCreatePackageContainerGroup(location);
+
+    group.addPackage(container);
+  }
+
   /**
    * Add the path root to the registry, marking it as being part of the given location.
    *
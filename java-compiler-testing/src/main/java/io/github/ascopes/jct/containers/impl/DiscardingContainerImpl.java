@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.containers.impl;
+
+import static java.util.Objects.checkFromIndexSize;
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.containers.Container;
+import io.github.ascopes.jct.filemanagers.PathFileObject;
+import io.github.ascopes.jct.utils.FileUtils;
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import io.github.ascopes.jct.workspaces.PathRoot;
+import java.io.OutputStream;
+import java.lang.module.ModuleFinder;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.tools.JavaFileManager.Location;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+
+/**
+ * A container for output locations that discards anything written to it.
+ *
+ * <p>File objects for outputs are created relative to the given root in the same way as
+ * {@link PathWrappingContainerImpl}, but anything written to them is counted and then thrown
+ * away, so no files or directories are ever created for them. The name and size of each file
+ * that was written is recorded, and is available via {@link #getDiscardedFiles()}.
+ *
+ * <p>Since no content is kept, this container never provides any files for inputs or
+ * listings.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.INTERNAL)
+public final class DiscardingContainerImpl implements Container {
+
+  private final Location location;
+  private final PathRoot root;
+  private final String name;
+  private final Map<String, Long> discardedFiles;
+
+  /**
+   * Initialize this container.
+   *
+   * @param location the location.
+   * @param root     the root directory that file objects are created relative to.
+   */
+  public DiscardingContainerImpl(Location location, PathRoot root) {
+    this.location = requireNonNull(location, "location");
+    this.root = requireNonNull(root, "root");
+    name = root.toString();
+    discardedFiles = new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public void close() {
+    // Nothing to close, since nothing is ever opened on a file system.
+  }
+
+  @Override
+  public boolean contains(PathFileObject fileObject) {
+    return fileObject.getRootPath().equals(root.getPath())
+        && discardedFiles.containsKey(fileObject.getName());
+  }
+
+  /**
+   * Get the names and sizes of the files that were written to this container.
+   *
+   * <p>Names are the paths of each file relative to the root of this container. Sizes are the
+   * number of bytes that were written before the file was closed. Files that are still open are
+   * not included.
+   *
+   * @return a map of file names to their sizes in bytes, sorted by name.
+   */
+  public Map<String, Long> getDiscardedFiles() {
+    return Collections.unmodifiableMap(new TreeMap<>(discardedFiles));
+  }
+
+  @Override
+  public Path getFile(String fragment, String... fragments) {
+    return null;
+  }
+
+  @Override
+  public PathFileObject getFileForInput(String packageName, String relativeName) {
+    return null;
+  }
+
+  @Override
+  public PathFileObject getFileForOutput(String packageName, String relativeName) {
+    var path = FileUtils.resourceNameToPath(root.getPath(), packageName, relativeName);
+    return newFileObject(path);
+  }
+
+  @Override
+  public PathRoot getInnerPathRoot() {
+    return root;
+  }
+
+  @Override
+  public PathFileObject getJavaFileForInput(String binaryName, Kind kind) {
+    return null;
+  }
+
+  @Override
+  public PathFileObject getJavaFileForOutput(String className, Kind kind) {
+    var path = FileUtils.binaryNameToPath(root.getPath(), className, kind);
+    return newFileObject(path);
+  }
+
+  @Override
+  public Location getLocation() {
+    return location;
+  }
+
+  @Override
+  public ModuleFinder getModuleFinder() {
+    return ModuleFinder.of();
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public PathRoot getPathRoot() {
+    return root;
+  }
+
+  @Override
+  public String inferBinaryName(PathFileObject javaFileObject) {
+    return javaFileObject.getFullPath().startsWith(root.getPath())
+        ? FileUtils.pathToBinaryName(javaFileObject.getRelativePath())
+        : null;
+  }
+
+  @Override
+  public Collection<Path> listAllFiles() {
+    return List.of();
+  }
+
+  @Override
+  public void listFileObjects(
+      String packageName,
+      Set<? extends Kind> kinds,
+      boolean recurse,
+      Collection<JavaFileObject> collection
+  ) {
+    // Nothing is ever kept, so there is nothing to list.
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("uri", root.getUri())
+        .attribute("location", location)
+        .attribute("discardedFileCount", discardedFiles.size())
+        .toString();
+  }
+
+  private PathFileObject newFileObject(Path path) {
+    var relativePath = root.getPath().relativize(path);
+    var fileName = relativePath.toString();
+    return new PathFileObject(
+        location,
+        root.getPath(),
+        relativePath,
+        () -> new DiscardingOutputStream(fileName)
+    );
+  }
+
+  /**
+   * Output stream that counts the bytes written to it and records the total once closed.
+   */
+  private final class DiscardingOutputStream extends OutputStream {
+
+    private final String fileName;
+    private long size;
+
+    private DiscardingOutputStream(String fileName) {
+      this.fileName = fileName;
+      size = 0;
+    }
+
+    @Override
+    public void write(int b) {
+      ++size;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      checkFromIndexSize(off, len, b.length);
+      size += len;
+    }
+
+    @Override
+    public void close() {
+      discardedFiles.put(fileName, size);
+    }
+  }
+}
@@ -24,23 +24,20 @@ import io.github.ascopes.jct.utils.FileUtils;
 import io.github.ascopes.jct.utils.Lazy;
 import io.github.ascopes.jct.utils.ToStringBuilder;
 import io.github.ascopes.jct.workspaces.PathRoot;
-import io.github.ascopes.jct.workspaces.impl.WrappingDirectoryImpl;
 import java.io.IOException;
 import java.lang.module.ModuleFinder;
 import java.nio.file.FileSystem;
 import java.nio.file.FileVisitOption;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.ProviderNotFoundException;
-import java.nio.file.spi.FileSystemProvider;
-import java.util.*;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 import javax.tools.JavaFileManager.Location;
 import javax.tools.JavaFileObject;
 import javax.tools.JavaFileObject.Kind;
 import org.apiguardian.api.API;
 import org.apiguardian.api.API.Status;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * Container that wraps a JAR path and allows reading the contents of the JAR in-memory lazily.
@@ -49,9 +46,14 @@ import org.slf4j.LoggerFactory;
  * containers can exist pointing to the same physical JAR at once without concurrency issues
  * occurring.
  *
- * <p>The JAR will be opened lazily when needed, and then kept open until {@link #close() closed}
- * explicitly. If something goes wrong in this lazy-loading process, then methods may throw an
- * undocumented {@link java.io.UncheckedIOException}.
+ * <p>The JAR will be opened lazily when needed. Opened JARs are indexed once and shared between
+ * containers via the {@link JarIndexCache}, and are released back to the cache when this container
+ * is {@link #close() closed}. If something goes wrong in this lazy-loading process, then methods
+ * may throw an undocumented {@link java.io.UncheckedIOException}.
+ *
+ * <p>Lookups for files are answered from the index, so files that do not exist in the JAR are
+ * rejected without any file system access. The number of lookups that were found and rejected
+ * this way is available via {@link #getIndexHitCount()} and {@link #getIndexMissCount()}.
  *
  * @author Ashley Scopes
  * @since 0.0.1
@@ -59,12 +61,12 @@ import org.slf4j.LoggerFactory;
 @API(since = "0.0.1", status = Status.INTERNAL)
 public final class JarContainerImpl implements Container {
 
-  private static final Logger LOGGER = LoggerFactory.getLogger(JarContainerImpl.class);
-
   private final Location location;
   private final PathRoot jarPath;
   private final String release;
-  private final Lazy<PackageFileSystemHolder> holder;
+  private final Lazy<JarIndexCache.Lease> holder;
+  private final LongAdder indexHits;
+  private final LongAdder indexMisses;
 
   /**
    * Initialize this JAR container.
@@ -80,26 +82,31 @@ public final class JarContainerImpl implements Container {
 
     // This will throw if, for example, the file doesn't exist or if the system encounters an IO
     // error of some description. Both of these cases should be unexpected, however.
-    holder = new Lazy<>(() -> uncheckedIo(PackageFileSystemHolder::new));
+    holder = new Lazy<>(() -> uncheckedIo(
+        () -> JarIndexCache.getInstance().acquire(jarPath.getPath(), release)
+    ));
+
+    indexHits = new LongAdder();
+    indexMisses = new LongAdder();
   }
 
   @Override
   public void close() throws IOException {
-    holder.ifInitialized(PackageFileSystemHolder::close);
+    holder.ifInitialized(JarIndexCache.Lease::close);
   }
 
   @Override
   public boolean contains(PathFileObject fileObject) {
     var path = fileObject.getFullPath();
-    var root = holder.access().getPathRoot().getPath();
-    return path.startsWith(root) && Files.isRegularFile(path);
+    var root = index().getPathRoot().getPath();
+    return path.startsWith(root) && isIndexedFile(path);
   }
 
   @Override
   public Path getFile(String fragment, String... fragments) {
-    var root = holder.access().getPathRoot().getPath();
+    var root = index().getPathRoot().getPath();
     var fullPath = FileUtils.relativeResourceNameToPath(root, fragment, fragments);
-    if (Files.isRegularFile(fullPath)) {
+    if (isIndexedFile(fullPath)) {
       return fullPath;
     }
     return null;
@@ -107,7 +114,7 @@ public final class JarContainerImpl implements Container {
 
   @Override
   public PathFileObject getFileForInput(String packageName, String relativeName) {
-    var packageObj = holder.access().getPackage(packageName);
+    var packageObj = index().getPackage(packageName);
 
     if (packageObj == null) {
       return null;
@@ -115,7 +122,7 @@ public final class JarContainerImpl implements Container {
 
     var file = FileUtils.relativeResourceNameToPath(packageObj.getPath(), relativeName);
 
-    if (!Files.isRegularFile(file)) {
+    if (!isIndexedFile(file)) {
       return null;
     }
 
@@ -129,7 +136,7 @@ public final class JarContainerImpl implements Container {
 
   @Override
   public PathRoot getInnerPathRoot() {
-    return holder.access().getPathRoot();
+    return index().getPathRoot();
   }
 
   @Override
@@ -137,7 +144,7 @@ public final class JarContainerImpl implements Container {
     var packageName = FileUtils.binaryNameToPackageName(binaryName);
     var className = FileUtils.binaryNameToSimpleClassName(binaryName);
 
-    var packageObj = holder.access().getPackage(packageName);
+    var packageObj = index().getPackage(packageName);
 
     if (packageObj == null) {
       return null;
@@ -145,7 +152,7 @@ public final class JarContainerImpl implements Container {
 
     var file = FileUtils.simpleClassNameToPath(packageObj.getPath(), className, kind);
 
-    if (!Files.isRegularFile(file)) {
+    if (!isIndexedFile(file)) {
       return null;
     }
 
@@ -157,6 +164,47 @@ public final class JarContainerImpl implements Container {
     throw new UnsupportedOperationException("Cannot handle output source files in JARs");
   }
 
+  /**
+   * Get the file system that the opened JAR is exposed through.
+   *
+   * @return the file system.
+   * @since 0.7.0
+   */
+  public FileSystem getFileSystem() {
+    return index().getPathRoot().getPath().getFileSystem();
+  }
+
+  /**
+   * Get the names of all packages within the JAR, including the root package.
+   *
+   * @return an unmodifiable set of the package names.
+   * @since 0.7.0
+   */
+  public Set<String> getPackageNames() {
+    return index().getPackageNames();
+  }
+
+  /**
+   * Get the number of file lookups that were found in the index.
+   *
+   * @return the number of lookups that were found.
+   * @since 0.7.0
+   */
+  public long getIndexHitCount() {
+    return indexHits.sum();
+  }
+
+  /**
+   * Get the number of file lookups that were rejected by the index without accessing the file
+   * system.
+   *
+   * @return the number of lookups that were rejected.
+   * @since 0.7.0
+   */
+  public long getIndexMissCount() {
+    return indexMisses.sum();
+  }
+
   @Override
   public Location getLocation() {
     return location;
@@ -164,7 +212,7 @@ public final class JarContainerImpl implements Container {
 
   @Override
   public ModuleFinder getModuleFinder() {
-    return ModuleFinder.of(holder.access().getPathRoot().getPath());
+    return ModuleFinder.of(index().getPathRoot().getPath());
   }
 
   @Override
@@ -185,7 +233,7 @@ public final class JarContainerImpl implements Container {
     // get the correct path immediately.
     var fullPath = javaFileObject.getFullPath();
 
-    if (fullPath.startsWith( holder.access().getPathRoot().getPath())) {
+    if (fullPath.startsWith(index().getPathRoot().getPath())) {
       return FileUtils.pathToBinaryName(javaFileObject.getRelativePath());
     }
 
@@ -194,7 +242,7 @@ public final class JarContainerImpl implements Container {
 
   @Override
   public Collection<Path> listAllFiles() throws IOException {
-    return holder.access().getAllFiles();
+    return index().getAllFiles();
   }
 
   @Override
@@ -204,7 +252,7 @@ public final class JarContainerImpl implements Container {
       boolean recurse,
       Collection<JavaFileObject> collection
   ) throws IOException {
-    var packageDir = holder.access().getPackages().get(packageName);
+    var packageDir = index().getPackage(packageName);
 
     if (packageDir == null) {
       return;
@@ -229,102 +277,17 @@ public final class JarContainerImpl implements Container {
         .toString();
   }
 
-  /**
-   * Wrapper around a set of packages and a file system that can be opened lazily.
-   */
-  private final class PackageFileSystemHolder {
-
-    private final Map<String, PathRoot> packages;
-    private final FileSystem fileSystem;
-    private final PathRoot rootDirectoryPathRoot;
-
-    private PackageFileSystemHolder() throws IOException {
-      // It turns out that we can open more than one ZIP file system pointing to the
-      // same file at once, but we cannot do this with the JAR file system itself.
-      // This is an issue since it hinders our ability to run tests in parallel where multiple tests
-      // might be trying to read the same JAR at once.
-      //
-      // This means we have to do a little of hacking around to get this to work how we need it to.
-      // Remember that JARs are just glorified zip folders.
-
-      // Set the multi-release flag to enable reading META-INF/release/* files correctly if the
-      // MANIFEST.MF specifies the Multi-Release entry as true.
-      // Turns out the JDK implementation of the ZipFileSystem handles this for us.
-      packages = new HashMap<>();
-
-      var actualJarPath = jarPath.getPath();
-
-      var env = Map.<String, Object>of(
-          "releaseVersion", release,
-          "multi-release", release
-      );
-
-      // So, for some reason. I cannot make more than one instance of a ZipFileSystem
-      // if I pass a URI in here. If I pass a Path in here instead, then I can make
-      // multiple copies of it in memory. No idea why this is the way it is, but it
-      // appears to be how the JavacFileManager in the JDK can make itself run in parallel
-      // safely. While in Rome, I guess.
-      fileSystem = getJarFileSystemProvider().newFileSystem(actualJarPath, env);
-
-      // Always expect just one root directory in a ZIP archive.
-      var rootDirectory = fileSystem.getRootDirectories().iterator().next();
-      rootDirectoryPathRoot = new WrappingDirectoryImpl(rootDirectory);
-
-      // Index packages ahead-of-time to improve performance.
-      try (var walker = Files.walk(rootDirectory)) {
-        walker
-            .filter(Files::isDirectory)
-            .map(rootDirectory::relativize)
-            .forEach(path -> packages.put(
-                FileUtils.pathToBinaryName(path),
-                new WrappingDirectoryImpl(rootDirectory.resolve(path))
-            ));
-      }
-    }
-
-    private void close() throws IOException {
-      LOGGER.trace(
-          "Closing JAR file system handle ({} @ {})",
-          jarPath.getUri(),
-          fileSystem.getRootDirectories()
-      );
-      packages.clear();
-      fileSystem.close();
-    }
-
-    private Map<String, PathRoot> getPackages() {
-      return packages;
+  private boolean isIndexedFile(Path path) {
+    if (index().containsFile(path)) {
+      indexHits.increment();
+      return true;
     }
 
-    private PathRoot getPackage(String name) {
-      return packages.get(name);
-    }
-
-    private PathRoot getPathRoot() {
-      return rootDirectoryPathRoot;
-    }
-
-    private Collection<Path> getAllFiles() throws IOException {
-      var allPaths = new ArrayList<Path>();
-
-      // We have to do this eagerly as the walkers must be closed to prevent resource leakage.
-      for (var root : fileSystem.getRootDirectories()) {
-        try (var walker = Files.walk(root)) {
-          walker.forEach(allPaths::add);
-        }
-      }
-
-      return Collections.unmodifiableList(allPaths);
-    }
+    indexMisses.increment();
+    return false;
   }
 
-  private static FileSystemProvider getJarFileSystemProvider() {
-    for (var fsProvider : FileSystemProvider.installedProviders()) {
-      if (fsProvider.getScheme().equals("jar")) {
-        return fsProvider;
-      }
-    }
-
-    throw new ProviderNotFoundException("jar");
+  private JarIndex index() {
+    return holder.access().getIndex();
   }
 }
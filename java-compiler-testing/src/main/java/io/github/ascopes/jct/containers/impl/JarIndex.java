@@ -0,0 +1,386 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.containers.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import io.github.ascopes.jct.workspaces.PathRoot;
+import io.github.ascopes.jct.workspaces.impl.WrappingDirectoryImpl;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.Runtime.Version;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.ProviderNotFoundException;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarFile;
+import java.util.zip.ZipFile;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An opened JAR file system along with an index of the packages and files that it contains.
+ *
+ * <p>Indexes are immutable once opened, and can be safely read from multiple threads at once.
+ * This allows them to be shared between many {@link JarContainerImpl} instances via the
+ * {@link JarIndexCache}.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.INTERNAL)
+public final class JarIndex implements Closeable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JarIndex.class);
+
+  private final Path jarPath;
+  private final String release;
+  private final Map<String, String> packageDirectories;
+  private final Map<String, PathRoot> packages;
+  private final String[] files;
+  private final FileSystem fileSystem;
+  private final Path rootDirectory;
+  private final PathRoot rootDirectoryPathRoot;
+
+  /**
+   * Open the given JAR and index the packages and files within it.
+   *
+   * @param jarPath the path to the JAR to open.
+   * @param release the release version to use for {@code Multi-Release} JARs.
+   * @throws IOException if the JAR cannot be opened or read.
+   */
+  public JarIndex(Path jarPath, String release) throws IOException {
+    this(jarPath, release, null);
+  }
+
+  /**
+   * Open the given JAR and index the packages and files within it, reusing a stored index if
+   * one is available.
+   *
+   * @param jarPath the path to the JAR to open.
+   * @param release the release version to use for {@code Multi-Release} JARs.
+   * @param store   the persistent store to load and save the index with, or {@code null} to
+   *                always index the JAR.
+   * @throws IOException if the JAR cannot be opened or read.
+   */
+  public JarIndex(
+      Path jarPath,
+      String release,
+      @Nullable JarIndexStore store
+  ) throws IOException {
+    this.jarPath = requireNonNull(jarPath, "jarPath");
+    this.release = requireNonNull(release, "release");
+
+    // It turns out that we can open more than one ZIP file system pointing to the
+    // same file at once, but we cannot do this with the JAR file system itself.
+    // This is an issue since it hinders our ability to run tests in parallel where multiple tests
+    // might be trying to read the same JAR at once.
+    //
+    // This means we have to do a little of hacking around to get this to work how we need it to.
+    // Remember that JARs are just glorified zip folders.
+
+    // Set the multi-release flag to enable reading META-INF/release/* files correctly if the
+    // MANIFEST.MF specifies the Multi-Release entry as true.
+    // Turns out the JDK implementation of the ZipFileSystem handles this for us.
+    var env = Map.<String, Object>of(
+        "releaseVersion", release,
+        "multi-release", release
+    );
+
+    // So, for some reason. I cannot make more than one instance of a ZipFileSystem
+    // if I pass a URI in here. If I pass a Path in here instead, then I can make
+    // multiple copies of it in memory. No idea why this is the way it is, but it
+    // appears to be how the JavacFileManager in the JDK can make itself run in parallel
+    // safely. While in Rome, I guess.
+    fileSystem = getJarFileSystemProvider().newFileSystem(jarPath, env);
+
+    // Always expect just one root directory in a ZIP archive.
+    rootDirectory = fileSystem.getRootDirectories().iterator().next();
+    rootDirectoryPathRoot = new WrappingDirectoryImpl(rootDirectory);
+
+    // Index packages and files ahead-of-time to improve performance. The file index lets us
+    // reject lookups for files that do not exist without touching the file system, which is
+    // most lookups that the compiler performs.
+    JarIndexStore.Contents contents;
+
+    try {
+      contents = loadOrIndex(store);
+    } catch (IOException | RuntimeException ex) {
+      fileSystem.close();
+      throw ex;
+    }
+
+    var packageDirectories = new HashMap<String, String>();
+    contents.getDirectories().forEach(dir -> packageDirectories.put(dir.replace('/', '.'), dir));
+
+    this.packageDirectories = Collections.unmodifiableMap(packageDirectories);
+    packages = new ConcurrentHashMap<>();
+    // Already sorted by the contents.
+    files = contents.getFiles().toArray(String[]::new);
+  }
+
+  /**
+   * Close the underlying file system.
+   *
+   * @throws IOException if an IO error occurs.
+   */
+  @Override
+  public void close() throws IOException {
+    LOGGER.trace(
+        "Closing JAR file system handle ({} @ {})",
+        jarPath.toUri(),
+        fileSystem.getRootDirectories()
+    );
+    fileSystem.close();
+  }
+
+  /**
+   * Get the path to the JAR that was opened.
+   *
+   * @return the path to the JAR.
+   */
+  public Path getJarPath() {
+    return jarPath;
+  }
+
+  /**
+   * Get the release that was used to open {@code Multi-Release} JARs.
+   *
+   * @return the release.
+   */
+  public String getRelease() {
+    return release;
+  }
+
+  /**
+   * Get the names of all indexed packages, including the root package.
+   *
+   * @return an unmodifiable set of the package names.
+   */
+  public Set<String> getPackageNames() {
+    return packageDirectories.keySet();
+  }
+
+  /**
+   * Determine whether the given path within this JAR refers to a file that exists.
+   *
+   * <p>This only consults the index, so never touches the file system.
+   *
+   * @param file the path to the file, which must belong to this JAR's file system.
+   * @return {@code true} if the file exists, or {@code false} otherwise.
+   */
+  public boolean containsFile(Path file) {
+    var relativeName = rootDirectory.relativize(file.toAbsolutePath().normalize()).toString();
+    return Arrays.binarySearch(files, relativeName) >= 0;
+  }
+
+  /**
+   * Get the number of files in the index.
+   *
+   * @return the number of files.
+   */
+  public int getFileCount() {
+    return files.length;
+  }
+
+  /**
+   * Get the package with the given name.
+   *
+   * @param name the package name.
+   * @return the package, or {@code null} if it does not exist in this JAR.
+   */
+  @Nullable
+  public PathRoot getPackage(String name) {
+    var directory = packageDirectories.get(name);
+
+    if (directory == null) {
+      return null;
+    }
+
+    // Path roots are comparatively expensive to create, and most packages are never looked at,
+    // so only create them on demand.
+    return packages.computeIfAbsent(
+        name,
+        ignored -> new WrappingDirectoryImpl(rootDirectory.resolve(directory))
+    );
+  }
+
+  /**
+   * Get the root directory of the opened JAR file system.
+   *
+   * @return the root directory.
+   */
+  public PathRoot getPathRoot() {
+    return rootDirectoryPathRoot;
+  }
+
+  /**
+   * Determine whether the underlying file system is still open.
+   *
+   * @return {@code true} if open, or {@code false} if closed.
+   */
+  public boolean isOpen() {
+    return fileSystem.isOpen();
+  }
+
+  /**
+   * List all files in the JAR.
+   *
+   * @return the files, in an unmodifiable list.
+   * @throws IOException if an IO error occurs.
+   */
+  public Collection<Path> getAllFiles() throws IOException {
+    var allPaths = new ArrayList<Path>();
+
+    // We have to do this eagerly as the walkers must be closed to prevent resource leakage.
+    for (var root : fileSystem.getRootDirectories()) {
+      try (var walker = Files.walk(root)) {
+        walker.forEach(allPaths::add);
+      }
+    }
+
+    return Collections.unmodifiableList(allPaths);
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("jarPath", jarPath)
+        .attribute("release", release)
+        .attribute("packageCount", packageDirectories.size())
+        .attribute("fileCount", files.length)
+        .toString();
+  }
+
+  private JarIndexStore.Contents loadOrIndex(
+      @Nullable JarIndexStore store
+  ) throws IOException {
+    var onDefaultFileSystem = jarPath.getFileSystem() == FileSystems.getDefault();
+
+    if (store != null && onDefaultFileSystem) {
+      var contents = store.load(jarPath, release);
+      if (contents != null) {
+        return contents;
+      }
+    }
+
+    var directories = new HashSet<String>();
+    var files = new ArrayList<String>();
+    var version = parseVersion(release);
+
+    if (version != null && onDefaultFileSystem) {
+      indexCentralDirectory(version, directories, files);
+    } else {
+      indexFileSystem(directories, files);
+    }
+
+    var contents = new JarIndexStore.Contents(directories, files);
+
+    if (store != null && onDefaultFileSystem) {
+      store.save(jarPath, release, contents);
+    }
+
+    return contents;
+  }
+
+  private void indexCentralDirectory(
+      Version version,
+      Set<String> directories,
+      List<String> files
+  ) throws IOException {
+    // Reading the central directory directly avoids materialising a Path for every entry. The
+    // versioned view of the JAR applies the same Multi-Release rules as the file system that we
+    // opened, so the index and the file system agree on which entries exist.
+    try (var jarFile = new JarFile(jarPath.toFile(), false, ZipFile.OPEN_READ, version)) {
+      jarFile.versionedStream().forEach(entry -> {
+        var name = entry.getName();
+
+        if (entry.isDirectory()) {
+          addDirectory(directories, name.substring(0, name.length() - 1));
+        } else {
+          files.add(name);
+          addDirectory(directories, parentOf(name));
+        }
+      });
+    }
+  }
+
+  private void indexFileSystem(Set<String> directories, List<String> files) throws IOException {
+    // JARs that are not on the default file system (such as those in in-memory workspaces)
+    // cannot be opened as a JarFile, so we have to walk them instead.
+    try (var walker = Files.walk(rootDirectory)) {
+      walker.forEach(path -> {
+        var relativeName = rootDirectory.relativize(path).toString();
+
+        if (Files.isDirectory(path)) {
+          addDirectory(directories, relativeName);
+        } else {
+          files.add(relativeName);
+        }
+      });
+    }
+  }
+
+  @Nullable
+  private static Version parseVersion(String release) {
+    try {
+      return Version.parse(release);
+    } catch (IllegalArgumentException ex) {
+      LOGGER.trace("Cannot parse release {}, so will walk the JAR instead", release, ex);
+      return null;
+    }
+  }
+
+  private static void addDirectory(Set<String> directories, String directory) {
+    // Zip files do not need to contain entries for parent directories, so we add those
+    // ourselves. We can stop early once we reach a directory that was already added, since its
+    // parents will have been added with it.
+    while (directories.add(directory) && !directory.isEmpty()) {
+      directory = parentOf(directory);
+    }
+  }
+
+  private static String parentOf(String name) {
+    var lastSlash = name.lastIndexOf('/');
+    return lastSlash == -1 ? "" : name.substring(0, lastSlash);
+  }
+
+  private static FileSystemProvider getJarFileSystemProvider() {
+    for (var fsProvider : FileSystemProvider.installedProviders()) {
+      if (fsProvider.getScheme().equals("jar")) {
+        return fsProvider;
+      }
+    }
+
+    throw new ProviderNotFoundException("jar");
+  }
+}
@@ -0,0 +1,438 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.containers.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import io.github.ascopes.jct.utils.VisibleForTestingOnly;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JVM-wide cache of opened and indexed JARs.
+ *
+ * <p>JARs are keyed by their absolute path, their size, their last modification time, and the
+ * release used to open them, so a JAR that changes on disk will be reindexed. Each index is
+ * reference counted, meaning that parallel compilations can share the same index, and an index
+ * will never be closed while it is still in use.
+ *
+ * <p>Once an index is no longer in use, it is retained in a least-recently-used pool of idle
+ * entries, so that subsequent compilations can reuse it. The size of this pool defaults to
+ * {@link #DEFAULT_MAXIMUM_IDLE_ENTRIES}, and can be overridden by setting the
+ * {@value #MAXIMUM_IDLE_ENTRIES_PROPERTY} system property. Setting this to {@code 0} will close
+ * each index as soon as it is no longer in use.
+ *
+ * <p>Only JARs on the default file system are cached. JARs in other file systems (such as
+ * in-memory workspaces) are indexed privately for each caller.
+ *
+ * <p>If a {@link JarIndexStore} is enabled via the {@value JarIndexStore#DIRECTORY_PROPERTY}
+ * system property, then indexes are also persisted to disk, so that later JVMs (such as other
+ * test forks) can load them rather than indexing each JAR again.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.INTERNAL)
+public final class JarIndexCache {
+
+  /**
+   * The default maximum number of idle entries to retain ({@value}).
+   */
+  public static final int DEFAULT_MAXIMUM_IDLE_ENTRIES = 256;
+
+  /**
+   * The system property that can be used to override the maximum number of idle entries.
+   */
+  public static final String MAXIMUM_IDLE_ENTRIES_PROPERTY = "jct.jarIndexCache.maxIdleEntries";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JarIndexCache.class);
+  private static final JarIndexCache INSTANCE = new JarIndexCache(
+      Integer.getInteger(MAXIMUM_IDLE_ENTRIES_PROPERTY, DEFAULT_MAXIMUM_IDLE_ENTRIES),
+      JarIndexStore.fromSystemProperties()
+  );
+
+  /**
+   * Get the shared JVM-wide instance of this cache.
+   *
+   * @return the shared instance.
+   */
+  public static JarIndexCache getInstance() {
+    return INSTANCE;
+  }
+
+  private final @Nullable JarIndexStore store;
+  private final Object lock;
+  private final Map<Key, Entry> entries;
+  private final LinkedHashMap<Key, Entry> idleEntries;
+  private int maximumIdleEntries;
+
+  /**
+   * Initialise a new cache.
+   *
+   * <p>Only visible for testing. Use {@link #getInstance()} instead.
+   *
+   * @param maximumIdleEntries the maximum number of idle entries to retain.
+   * @throws IllegalArgumentException if the maximum number of idle entries is negative.
+   */
+  @VisibleForTestingOnly
+  public JarIndexCache(int maximumIdleEntries) {
+    this(maximumIdleEntries, null);
+  }
+
+  /**
+   * Initialise a new cache.
+   *
+   * <p>Only visible for testing. Use {@link #getInstance()} instead.
+   *
+   * @param maximumIdleEntries the maximum number of idle entries to retain.
+   * @param store              the persistent store to use, or {@code null} to not persist
+   *                           indexes.
+   * @throws IllegalArgumentException if the maximum number of idle entries is negative.
+   */
+  @VisibleForTestingOnly
+  public JarIndexCache(int maximumIdleEntries, @Nullable JarIndexStore store) {
+    this.store = store;
+    lock = new Object();
+    entries = new HashMap<>();
+    // Insertion ordered, and entries are reinserted each time they become idle, so the eldest
+    // entry is always the least recently used one.
+    idleEntries = new LinkedHashMap<>();
+    this.maximumIdleEntries = requireNonNegative(maximumIdleEntries);
+  }
+
+  /**
+   * Acquire a lease on the index for the given JAR, opening and indexing it if needed.
+   *
+   * <p>The lease must be closed once finished with, otherwise the index will never be evicted.
+   *
+   * @param jarPath the path to the JAR.
+   * @param release the release version to use for {@code Multi-Release} JARs.
+   * @return the lease.
+   * @throws IOException if the JAR cannot be opened or read.
+   */
+  public Lease acquire(Path jarPath, String release) throws IOException {
+    requireNonNull(jarPath, "jarPath");
+    requireNonNull(release, "release");
+
+    if (jarPath.getFileSystem() != FileSystems.getDefault()) {
+      LOGGER.trace("Not caching index for {} as it is not on the default file system", jarPath);
+      return new Lease(null, new JarIndex(jarPath, release));
+    }
+
+    var key = Key.of(jarPath, release);
+    Entry entry;
+
+    synchronized (lock) {
+      entry = entries.computeIfAbsent(key, Entry::new);
+      idleEntries.remove(key);
+      ++entry.references;
+    }
+
+    try {
+      // Open outside the global lock so that parallel tests indexing different JARs do not
+      // block each other.
+      return new Lease(entry, entry.open(store));
+    } catch (IOException | RuntimeException ex) {
+      synchronized (lock) {
+        if (--entry.references == 0) {
+          entries.remove(key, entry);
+        }
+      }
+      throw ex;
+    }
+  }
+
+  /**
+   * Close all idle entries in this cache.
+   *
+   * <p>Entries that are still in use are not affected.
+   */
+  public void clear() {
+    List<Entry> evicted;
+
+    synchronized (lock) {
+      evicted = new ArrayList<>(idleEntries.values());
+      idleEntries.clear();
+      evicted.forEach(entry -> entries.remove(entry.key, entry));
+    }
+
+    evicted.forEach(Entry::close);
+  }
+
+  /**
+   * Get the maximum number of idle entries that are retained.
+   *
+   * @return the maximum number of idle entries.
+   */
+  public int getMaximumIdleEntries() {
+    synchronized (lock) {
+      return maximumIdleEntries;
+    }
+  }
+
+  /**
+   * Set the maximum number of idle entries that are retained, evicting the least recently used
+   * entries if there are now too many.
+   *
+   * @param maximumIdleEntries the maximum number of idle entries.
+   * @throws IllegalArgumentException if the maximum number of idle entries is negative.
+   */
+  public void setMaximumIdleEntries(int maximumIdleEntries) {
+    List<Entry> evicted;
+
+    synchronized (lock) {
+      this.maximumIdleEntries = requireNonNegative(maximumIdleEntries);
+      evicted = evictExcessIdleEntries();
+    }
+
+    evicted.forEach(Entry::close);
+  }
+
+  /**
+   * Get the number of entries in this cache, including those in use.
+   *
+   * @return the number of entries.
+   */
+  public int size() {
+    synchronized (lock) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Get the number of idle entries in this cache.
+   *
+   * @return the number of idle entries.
+   */
+  public int idleSize() {
+    synchronized (lock) {
+      return idleEntries.size();
+    }
+  }
+
+  @Override
+  public String toString() {
+    synchronized (lock) {
+      return new ToStringBuilder(this)
+          .attribute("size", entries.size())
+          .attribute("idleSize", idleEntries.size())
+          .attribute("maximumIdleEntries", maximumIdleEntries)
+          .attribute("store", store)
+          .toString();
+    }
+  }
+
+  private void release(Entry entry) {
+    List<Entry> evicted;
+
+    synchronized (lock) {
+      if (--entry.references > 0) {
+        return;
+      }
+
+      idleEntries.put(entry.key, entry);
+      evicted = evictExcessIdleEntries();
+    }
+
+    evicted.forEach(Entry::close);
+  }
+
+  // Must hold the lock when calling this. Closing should be done outside the lock.
+  private List<Entry> evictExcessIdleEntries() {
+    var evicted = new ArrayList<Entry>();
+    var iterator = idleEntries.values().iterator();
+
+    while (idleEntries.size() > maximumIdleEntries && iterator.hasNext()) {
+      var entry = iterator.next();
+      iterator.remove();
+      entries.remove(entry.key, entry);
+      evicted.add(entry);
+    }
+
+    return evicted;
+  }
+
+  private static int requireNonNegative(int maximumIdleEntries) {
+    if (maximumIdleEntries < 0) {
+      throw new IllegalArgumentException("maximumIdleEntries cannot be negative");
+    }
+    return maximumIdleEntries;
+  }
+
+  /**
+   * A reference-counted lease on a JAR index.
+   *
+   * <p>Closing the lease releases the reference. Closing it more than once has no effect.
+   *
+   * @author Ashley Scopes
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.INTERNAL)
+  public final class Lease implements Closeable {
+
+    private final @Nullable Entry entry;
+    private final JarIndex index;
+    private final AtomicBoolean closed;
+
+    private Lease(@Nullable Entry entry, JarIndex index) {
+      this.entry = entry;
+      this.index = index;
+      closed = new AtomicBoolean(false);
+    }
+
+    /**
+     * Get the index that this lease is for.
+     *
+     * @return the index.
+     */
+    public JarIndex getIndex() {
+      return index;
+    }
+
+    /**
+     * Release this lease.
+     *
+     * @throws IOException if the index is not cached and fails to close.
+     */
+    @Override
+    public void close() throws IOException {
+      if (!closed.compareAndSet(false, true)) {
+        return;
+      }
+
+      if (entry == null) {
+        index.close();
+      } else {
+        release(entry);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return new ToStringBuilder(this)
+          .attribute("index", index)
+          .attribute("closed", closed.get())
+          .toString();
+    }
+  }
+
+  private static final class Entry {
+
+    private final Key key;
+    private int references;
+    private volatile @Nullable JarIndex index;
+
+    private Entry(Key key) {
+      this.key = key;
+      references = 0;
+      index = null;
+    }
+
+    private JarIndex open(@Nullable JarIndexStore store) throws IOException {
+      var index = this.index;
+
+      if (index == null) {
+        synchronized (this) {
+          index = this.index;
+          if (index == null) {
+            LOGGER.trace("Indexing {} for release {}", key.path, key.release);
+            index = new JarIndex(key.path, key.release, store);
+            this.index = index;
+          }
+        }
+      }
+
+      return index;
+    }
+
+    private void close() {
+      var index = this.index;
+
+      if (index == null) {
+        return;
+      }
+
+      try {
+        LOGGER.trace("Evicting {} from the JAR index cache", key.path);
+        index.close();
+      } catch (IOException ex) {
+        LOGGER.debug("Ignoring error closing evicted JAR index for {}", key.path, ex);
+      }
+    }
+  }
+
+  private static final class Key {
+
+    private final Path path;
+    private final long size;
+    private final long lastModified;
+    private final String release;
+
+    private Key(Path path, long size, long lastModified, String release) {
+      this.path = path;
+      this.size = size;
+      this.lastModified = lastModified;
+      this.release = release;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+      if (!(other instanceof Key)) {
+        return false;
+      }
+
+      var that = (Key) other;
+      return size == that.size
+          && lastModified == that.lastModified
+          && path.equals(that.path)
+          && release.equals(that.release);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, size, lastModified, release);
+    }
+
+    private static Key of(Path jarPath, String release) throws IOException {
+      var path = jarPath.toAbsolutePath().normalize();
+      var attributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+      return new Key(
+          path,
+          attributes.size(),
+          attributes.lastModifiedTime().toMillis(),
+          release
+      );
+    }
+  }
+}
@@ -0,0 +1,431 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.containers.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent on-disk store of JAR indexes, allowing them to be reused across JVM runs.
+ *
+ * <p>Each JAR is stored in its own file, named after a hash of the absolute path of the JAR and
+ * the release it was indexed for. The size and last modification time of the JAR are recorded
+ * within the file, so a JAR that changes on disk will be reindexed and its entry overwritten.
+ *
+ * <p>Entries are stored in a compact binary format. Since entries are sorted, each name only
+ * records the suffix that differs from the name before it. Entries are memory-mapped when read.
+ *
+ * <p>This store is disabled by default. It can be enabled by setting the
+ * {@value #DIRECTORY_PROPERTY} system property to the directory to store entries in, for
+ * example {@code target/jct-cache}.
+ *
+ * <p>Any errors reading or writing entries are logged and otherwise ignored, since the store is
+ * only an optimisation.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.INTERNAL)
+public final class JarIndexStore {
+
+  /**
+   * The system property that can be used to enable the store in the given directory.
+   */
+  public static final String DIRECTORY_PROPERTY = "jct.jarIndexCache.directory";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JarIndexStore.class);
+  private static final int MAGIC = 0x4A43_5449;  // "JCTI"
+  private static final int FORMAT_VERSION = 1;
+  private static final String EXTENSION = ".idx";
+
+  /**
+   * Create a store from the {@value #DIRECTORY_PROPERTY} system property, if it is set.
+   *
+   * @return the store, or {@code null} if the system property is not set.
+   */
+  @Nullable
+  public static JarIndexStore fromSystemProperties() {
+    var directory = System.getProperty(DIRECTORY_PROPERTY);
+
+    if (directory == null || directory.isBlank()) {
+      return null;
+    }
+
+    return new JarIndexStore(Path.of(directory));
+  }
+
+  private final Path directory;
+
+  /**
+   * Initialise this store.
+   *
+   * @param directory the directory to store entries in. This will be created if it does not
+   *                  exist when the first entry is saved.
+   */
+  public JarIndexStore(Path directory) {
+    this.directory = requireNonNull(directory, "directory").toAbsolutePath().normalize();
+  }
+
+  /**
+   * Get the directory that entries are stored in.
+   *
+   * @return the directory.
+   */
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Load the stored contents of the given JAR.
+   *
+   * @param jarPath the path to the JAR.
+   * @param release the release that the JAR is being indexed for.
+   * @return the contents, or {@code null} if no valid up-to-date entry exists.
+   */
+  @Nullable
+  public Contents load(Path jarPath, String release) {
+    try {
+      var key = Key.of(jarPath, release);
+      var entryPath = entryPathFor(key);
+
+      try (var channel = FileChannel.open(entryPath, StandardOpenOption.READ)) {
+        var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        var contents = read(key, buffer);
+
+        if (contents == null) {
+          LOGGER.trace("Stored index {} for {} is out of date", entryPath, jarPath);
+        } else {
+          LOGGER.trace("Loaded stored index {} for {}", entryPath, jarPath);
+        }
+
+        return contents;
+      }
+    } catch (NoSuchFileException ex) {
+      return null;
+    } catch (IOException | BufferUnderflowException | IllegalArgumentException ex) {
+      LOGGER.debug("Ignoring unreadable stored index for {}", jarPath, ex);
+      return null;
+    }
+  }
+
+  /**
+   * Store the contents of the given JAR, replacing any existing entry.
+   *
+   * @param jarPath  the path to the JAR.
+   * @param release  the release that the JAR was indexed for.
+   * @param contents the contents to store.
+   */
+  public void save(Path jarPath, String release, Contents contents) {
+    Path tempFile = null;
+
+    try {
+      var key = Key.of(jarPath, release);
+      var entryPath = entryPathFor(key);
+      Files.createDirectories(directory);
+
+      // Write to a temporary file first and then move it into place, so that concurrent JVMs
+      // never observe a partially written entry.
+      tempFile = Files.createTempFile(directory, entryPath.getFileName().toString(), ".tmp");
+
+      try (var output = new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(tempFile))
+      )) {
+        write(key, contents, output);
+      }
+
+      try {
+        Files.move(
+            tempFile,
+            entryPath,
+            StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING
+        );
+      } catch (AtomicMoveNotSupportedException ex) {
+        Files.move(tempFile, entryPath, StandardCopyOption.REPLACE_EXISTING);
+      }
+
+      LOGGER.trace("Stored index {} for {}", entryPath, jarPath);
+    } catch (IOException ex) {
+      LOGGER.debug("Failed to store index for {}", jarPath, ex);
+
+      if (tempFile != null) {
+        try {
+          Files.deleteIfExists(tempFile);
+        } catch (IOException cleanupEx) {
+          ex.addSuppressed(cleanupEx);
+        }
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("directory", directory)
+        .toString();
+  }
+
+  private Path entryPathFor(Key key) {
+    // Deliberately exclude the size and modification time, so that a modified JAR overwrites
+    // its existing entry rather than leaving stale entries behind.
+    try {
+      var digest = MessageDigest.getInstance("SHA-256");
+      digest.update(key.path.getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+      digest.update(key.release.getBytes(StandardCharsets.UTF_8));
+
+      var name = new StringBuilder();
+      for (var b : digest.digest()) {
+        name.append(Character.forDigit((b >> 4) & 0xF, 16))
+            .append(Character.forDigit(b & 0xF, 16));
+      }
+
+      return directory.resolve(name.append(EXTENSION).toString());
+    } catch (NoSuchAlgorithmException ex) {
+      // Every JVM is required to support SHA-256.
+      throw new IllegalStateException("SHA-256 is not available", ex);
+    }
+  }
+
+  @Nullable
+  private static Contents read(Key key, ByteBuffer buffer) {
+    if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+      return null;
+    }
+
+    var path = readString(buffer, "");
+    var size = buffer.getLong();
+    var lastModified = buffer.getLong();
+    var release = readString(buffer, "");
+
+    if (!key.path.equals(path)
+        || key.size != size
+        || key.lastModified != lastModified
+        || !key.release.equals(release)) {
+      return null;
+    }
+
+    var directories = readSortedStrings(buffer);
+    var files = readSortedStrings(buffer);
+    return new Contents(directories, files);
+  }
+
+  private static void write(Key key, Contents contents, DataOutputStream output)
+      throws IOException {
+    output.writeInt(MAGIC);
+    output.writeInt(FORMAT_VERSION);
+    writeString(output, "", key.path);
+    output.writeLong(key.size);
+    output.writeLong(key.lastModified);
+    writeString(output, "", key.release);
+    writeSortedStrings(output, contents.directories);
+    writeSortedStrings(output, contents.files);
+  }
+
+  private static List<String> readSortedStrings(ByteBuffer buffer) {
+    var count = readVarInt(buffer);
+    // Each string takes at least two bytes, so do not trust the count of a corrupt entry to size
+    // the list with.
+    var strings = new ArrayList<String>(Math.min(count, buffer.remaining() / 2));
+    var previous = "";
+
+    for (var i = 0; i < count; ++i) {
+      previous = readString(buffer, previous);
+      strings.add(previous);
+    }
+
+    return Collections.unmodifiableList(strings);
+  }
+
+  private static void writeSortedStrings(DataOutputStream output, List<String> strings)
+      throws IOException {
+    writeVarInt(output, strings.size());
+    var previous = "";
+
+    for (var string : strings) {
+      writeString(output, previous, string);
+      previous = string;
+    }
+  }
+
+  private static String readString(ByteBuffer buffer, String previous) {
+    var prefixLength = readVarInt(buffer);
+    var suffix = new byte[readVarInt(buffer)];
+    buffer.get(suffix);
+
+    if (prefixLength > previous.length()) {
+      throw new IllegalArgumentException("Corrupt entry, prefix length is out of range");
+    }
+
+    return previous.substring(0, prefixLength) + new String(suffix, StandardCharsets.UTF_8);
+  }
+
+  private static void writeString(DataOutputStream output, String previous, String string)
+      throws IOException {
+    var prefixLength = 0;
+    var maxPrefixLength = Math.min(previous.length(), string.length());
+
+    while (prefixLength < maxPrefixLength
+        && previous.charAt(prefixLength) == string.charAt(prefixLength)) {
+      ++prefixLength;
+    }
+
+    // Never split a surrogate pair, otherwise the suffix would not be valid UTF-8.
+    if (prefixLength > 0 && Character.isHighSurrogate(string.charAt(prefixLength - 1))) {
+      --prefixLength;
+    }
+
+    var suffix = string.substring(prefixLength).getBytes(StandardCharsets.UTF_8);
+    writeVarInt(output, prefixLength);
+    writeVarInt(output, suffix.length);
+    output.write(suffix);
+  }
+
+  private static int readVarInt(ByteBuffer buffer) {
+    var value = 0;
+
+    for (var shift = 0; shift < 32; shift += 7) {
+      var b = buffer.get();
+      value |= (b & 0x7F) << shift;
+
+      if ((b & 0x80) == 0) {
+        if (value < 0) {
+          throw new IllegalArgumentException("Corrupt entry, negative length");
+        }
+        return value;
+      }
+    }
+
+    throw new IllegalArgumentException("Corrupt entry, malformed length");
+  }
+
+  private static void writeVarInt(DataOutputStream output, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      output.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    output.writeByte(value);
+  }
+
+  /**
+   * The indexed contents of a JAR.
+   *
+   * @author Ashley Scopes
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.INTERNAL)
+  public static final class Contents {
+
+    private final List<String> directories;
+    private final List<String> files;
+
+    /**
+     * Initialise the contents.
+     *
+     * @param directories the relative names of the directories in the JAR.
+     * @param files       the relative names of the files in the JAR.
+     */
+    public Contents(Collection<String> directories, Collection<String> files) {
+      this.directories = sorted(requireNonNull(directories, "directories"));
+      this.files = sorted(requireNonNull(files, "files"));
+    }
+
+    /**
+     * Get the relative names of the directories in the JAR.
+     *
+     * @return the directory names, in sorted order.
+     */
+    public List<String> getDirectories() {
+      return directories;
+    }
+
+    /**
+     * Get the relative names of the files in the JAR.
+     *
+     * @return the file names, in sorted order.
+     */
+    public List<String> getFiles() {
+      return files;
+    }
+
+    @Override
+    public String toString() {
+      return new ToStringBuilder(this)
+          .attribute("directoryCount", directories.size())
+          .attribute("fileCount", files.size())
+          .toString();
+    }
+
+    private static List<String> sorted(Collection<String> strings) {
+      var list = new ArrayList<>(strings);
+      Collections.sort(list);
+      return Collections.unmodifiableList(list);
+    }
+  }
+
+  private static final class Key {
+
+    private final String path;
+    private final long size;
+    private final long lastModified;
+    private final String release;
+
+    private Key(String path, long size, long lastModified, String release) {
+      this.path = path;
+      this.size = size;
+      this.lastModified = lastModified;
+      this.release = release;
+    }
+
+    private static Key of(Path jarPath, String release) throws IOException {
+      var path = jarPath.toAbsolutePath().normalize();
+      var attributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+      return new Key(
+          path.toString(),
+          attributes.size(),
+          attributes.lastModifiedTime().toMillis(),
+          release
+      );
+    }
+  }
+}
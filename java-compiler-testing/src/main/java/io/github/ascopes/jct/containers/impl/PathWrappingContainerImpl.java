@@ -15,6 +15,7 @@
  */
 package io.github.ascopes.jct.containers.impl;
 
+import static io.github.ascopes.jct.utils.IoExceptionUtils.uncheckedIo;
 import static java.util.Objects.requireNonNull;
 
 import io.github.ascopes.jct.containers.Container;
@@ -25,23 +26,48 @@ import io.github.ascopes.jct.workspaces.PathRoot;
 import java.io.IOException;
 import java.lang.module.ModuleFinder;
 import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import javax.tools.JavaFileManager.Location;
 import javax.tools.JavaFileObject;
 import javax.tools.JavaFileObject.Kind;
 import org.apiguardian.api.API;
 import org.apiguardian.api.API.Status;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * A container that wraps a known directory of files.
  *
+ * <p>For input locations, the contents of the directory are indexed in-memory the first time
+ * they are needed, so that lookups and listings do not need to touch the file system again. The
+ * index is discarded whenever a file object created by this container is written to or deleted,
+ * and is rebuilt lazily on the next lookup. Output locations are never indexed, since they are
+ * expected to change frequently. The number of lookups that were answered by the index is
+ * available via {@link #getIndexHitCount()} and {@link #getIndexMissCount()}.
+ *
+ * <p>The index is a snapshot, so files that are created or deleted by any other means while it
+ * is held, such as by writing to the workspace directly, will not be visible to this container
+ * until the index is next discarded. Containers are created per file manager, and thus per
+ * compilation, so this only affects changes made while a compilation is running. Directories on
+ * read-only file systems, such as the JDK runtime image, can never change, so containers for
+ * those may be shared between file managers instead.
+ *
  * @author Ashley Scopes
  * @since 0.0.1
  */
@@ -53,6 +79,11 @@ public final class PathWrappingContainerImpl implements Container {
   private final Location location;
   private final PathRoot root;
   private final String name;
+  private final boolean indexed;
+  private final Object lock;
+  private final LongAdder indexHits;
+  private final LongAdder indexMisses;
+  private volatile @Nullable DirectoryIndex index;
 
   /**
    * Initialize this container.
@@ -64,6 +95,11 @@ public final class PathWrappingContainerImpl implements Container {
     this.location = requireNonNull(location, "location");
     this.root = requireNonNull(root, "root");
     name = root.toString();
+    indexed = !location.isOutputLocation();
+    lock = new Object();
+    indexHits = new LongAdder();
+    indexMisses = new LongAdder();
+    index = null;
   }
 
   @Override
@@ -75,14 +111,14 @@ public final class PathWrappingContainerImpl implements Container {
   @Override
   public boolean contains(PathFileObject fileObject) {
     var path = fileObject.getFullPath();
-    return path.startsWith(root.getPath()) && Files.isRegularFile(path);
+    return path.startsWith(root.getPath()) && isRegularFile(path.normalize());
   }
 
   @Override
   public Path getFile(String fragment, String... fragments) {
     var realPath = FileUtils.relativeResourceNameToPath(root.getPath(), fragment, fragments);
 
-    return Files.isRegularFile(realPath)
+    return isRegularFile(realPath)
         ? realPath
         : null;
   }
@@ -91,15 +127,15 @@ public final class PathWrappingContainerImpl implements Container {
   public PathFileObject getFileForInput(String packageName, String relativeName) {
     var path = FileUtils.resourceNameToPath(root.getPath(), packageName, relativeName);
 
-    return Files.isRegularFile(path)
-        ? new PathFileObject(location, root.getPath(), path)
+    return isRegularFile(path)
+        ? newFileObject(path)
         : null;
   }
 
   @Override
   public PathFileObject getFileForOutput(String packageName, String relativeName) {
     var path = FileUtils.resourceNameToPath(root.getPath(), packageName, relativeName);
-    return new PathFileObject(location, root.getPath(), path);
+    return newFileObject(path);
   }
 
   @Override
@@ -110,15 +146,36 @@ public final class PathWrappingContainerImpl implements Container {
   @Override
   public PathFileObject getJavaFileForInput(String binaryName, Kind kind) {
     var path = FileUtils.binaryNameToPath(root.getPath(), binaryName, kind);
-    return Files.isRegularFile(path)
-        ? new PathFileObject(location, root.getPath(), path)
+    return isRegularFile(path)
+        ? newFileObject(path)
         : null;
   }
 
   @Override
   public PathFileObject getJavaFileForOutput(String className, Kind kind) {
     var path = FileUtils.binaryNameToPath(root.getPath(), className, kind);
-    return new PathFileObject(location, root.getPath(), path);
+    return newFileObject(path);
+  }
+
+  /**
+   * Get the number of file lookups that were found in the index.
+   *
+   * @return the number of lookups that were found.
+   * @since 0.7.0
+   */
+  public long getIndexHitCount() {
+    return indexHits.sum();
+  }
+
+  /**
+   * Get the number of file lookups that were rejected by the index without accessing the file
+   * system.
+   *
+   * @return the number of lookups that were rejected.
+   * @since 0.7.0
+   */
+  public long getIndexMissCount() {
+    return indexMisses.sum();
   }
 
   @Override
@@ -150,6 +207,14 @@ public final class PathWrappingContainerImpl implements Container {
 
   @Override
   public Collection<Path> listAllFiles() throws IOException {
+    if (indexed) {
+      var index = getIndex();
+      if (!index.exists) {
+        throw new NoSuchFileException(root.getPath().toString());
+      }
+      return index.allPaths;
+    }
+
     try (var walker = Files.walk(root.getPath(), FileVisitOption.FOLLOW_LINKS)) {
       return walker.collect(Collectors.toUnmodifiableList());
     }
@@ -162,13 +227,30 @@ public final class PathWrappingContainerImpl implements Container {
       boolean recurse,
       Collection<JavaFileObject> collection
   ) throws IOException {
-    var maxDepth = recurse ? Integer.MAX_VALUE : 1;
     var basePath = FileUtils.packageNameToPath(root.getPath(), packageName);
 
+    if (indexed) {
+      var filesByDirectory = getIndex().filesByDirectory;
+
+      if (recurse) {
+        filesByDirectory.forEach((directory, files) -> {
+          if (directory.startsWith(basePath)) {
+            addFileObjects(files, kinds, collection);
+          }
+        });
+      } else {
+        addFileObjects(filesByDirectory.getOrDefault(basePath, List.of()), kinds, collection);
+      }
+
+      return;
+    }
+
+    var maxDepth = recurse ? Integer.MAX_VALUE : 1;
+
     try (var walker = Files.walk(basePath, maxDepth, FileVisitOption.FOLLOW_LINKS)) {
       walker
           .filter(FileUtils.fileWithAnyKind(kinds))
-          .map(path -> new PathFileObject(location, root.getPath(), path))
+          .map(this::newFileObject)
           .forEach(collection::add);
     } catch (NoSuchFileException ex) {
       LOGGER.trace("Directory {} does not exist so is being ignored", root.getPath());
@@ -182,4 +264,124 @@ public final class PathWrappingContainerImpl implements Container {
         .attribute("location", location)
         .toString();
   }
+
+  private void addFileObjects(
+      List<Path> files,
+      Set<? extends Kind> kinds,
+      Collection<JavaFileObject> collection
+  ) {
+    files.stream()
+        .filter(file -> kinds.contains(FileUtils.pathToKind(file)))
+        .map(this::newFileObject)
+        .forEach(collection::add);
+  }
+
+  private DirectoryIndex getIndex() {
+    var index = this.index;
+
+    if (index == null) {
+      synchronized (lock) {
+        index = this.index;
+
+        if (index == null) {
+          index = uncheckedIo(() -> new DirectoryIndex(root.getPath()));
+          this.index = index;
+        }
+      }
+    }
+
+    return index;
+  }
+
+  private void invalidateIndex() {
+    // Take the lock so that we wait for any index that is currently being built to finish before
+    // discarding it, otherwise it could miss the change that caused this invalidation.
+    synchronized (lock) {
+      index = null;
+    }
+  }
+
+  private boolean isRegularFile(Path path) {
+    if (!indexed) {
+      return Files.isRegularFile(path);
+    }
+
+    if (getIndex().files.contains(path)) {
+      indexHits.increment();
+      return true;
+    }
+
+    indexMisses.increment();
+    return false;
+  }
+
+  private PathFileObject newFileObject(Path path) {
+    return new PathFileObject(location, root.getPath(), path, this::invalidateIndex);
+  }
+
+  /**
+   * In-memory snapshot of the contents of a directory tree.
+   */
+  private static final class DirectoryIndex {
+
+    private final boolean exists;
+    private final List<Path> allPaths;
+    private final Set<Path> files;
+    private final Map<Path, List<Path>> filesByDirectory;
+
+    private DirectoryIndex(Path root) throws IOException {
+      var allPaths = new ArrayList<Path>();
+      files = new HashSet<>();
+      filesByDirectory = new LinkedHashMap<>();
+
+      LOGGER.trace("Indexing directory {}", root);
+
+      exists = Files.isDirectory(root);
+
+      if (!exists) {
+        this.allPaths = List.of();
+        return;
+      }
+
+      // Walk the tree once, collecting the attributes as we go, rather than querying each file
+      // individually afterwards.
+      Files.walkFileTree(
+          root,
+          Set.of(FileVisitOption.FOLLOW_LINKS),
+          Integer.MAX_VALUE,
+          new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+              allPaths.add(dir);
+              filesByDirectory.put(dir, new ArrayList<>());
+              return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+              allPaths.add(file);
+
+              if (attrs.isRegularFile()) {
+                files.add(file);
+                filesByDirectory
+                    .computeIfAbsent(file.getParent(), ignored -> new ArrayList<>())
+                    .add(file);
+              }
+
+              return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException ex) {
+              // Treat unreadable files as if they do not exist, which is how lookups behaved
+              // before they were indexed.
+              LOGGER.trace("Ignoring unreadable path {} while indexing", file, ex);
+              return FileVisitResult.CONTINUE;
+            }
+          }
+      );
+
+      this.allPaths = Collections.unmodifiableList(allPaths);
+    }
+  }
 }
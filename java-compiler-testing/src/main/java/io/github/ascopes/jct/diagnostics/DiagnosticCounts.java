@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.diagnostics;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import javax.tools.Diagnostic;
+import javax.tools.Diagnostic.Kind;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+
+/**
+ * Immutable counts of the diagnostics that a compiler reported.
+ *
+ * <p>These are exact even when the {@link DiagnosticRetention retention policy} discarded some
+ * of the diagnostics themselves, so they can be used to answer questions such as "were any
+ * errors reported?" accurately regardless of how many diagnostics were kept.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.EXPERIMENTAL)
+public final class DiagnosticCounts {
+
+  private static final DiagnosticCounts EMPTY = new DiagnosticCounts(Map.of(), Map.of(), 0);
+
+  private final Map<Kind, Long> kindCounts;
+  private final Map<String, Long> codeCounts;
+  private final long totalCount;
+  private final long retainedCount;
+
+  /**
+   * Initialise these counts.
+   *
+   * @param kindCounts    the number of diagnostics reported for each kind. Kinds that are not
+   *                      present are treated as having been reported zero times.
+   * @param codeCounts    the number of diagnostics reported for each diagnostic code. Diagnostics
+   *                      without a code are not included.
+   * @param retainedCount the number of the reported diagnostics that were kept.
+   * @throws IllegalArgumentException if any count is negative, or if more diagnostics were kept
+   *                                  than were reported.
+   */
+  public DiagnosticCounts(
+      Map<Kind, Long> kindCounts,
+      Map<String, Long> codeCounts,
+      long retainedCount
+  ) {
+    requireNonNull(kindCounts, "kindCounts");
+    requireNonNull(codeCounts, "codeCounts");
+
+    var kindCountsCopy = new EnumMap<Kind, Long>(Kind.class);
+    var totalCount = 0L;
+
+    for (var entry : kindCounts.entrySet()) {
+      var count = requireNonNull(entry.getValue(), "kindCounts value");
+      requireNonNegative(count);
+
+      // Zero counts are dropped so that equal counts always compare as equal.
+      if (count > 0) {
+        kindCountsCopy.put(requireNonNull(entry.getKey(), "kindCounts key"), count);
+        totalCount += count;
+      }
+    }
+
+    var codeCountsCopy = new TreeMap<String, Long>();
+
+    for (var entry : codeCounts.entrySet()) {
+      var count = requireNonNull(entry.getValue(), "codeCounts value");
+      requireNonNegative(count);
+
+      if (count > 0) {
+        codeCountsCopy.put(requireNonNull(entry.getKey(), "codeCounts key"), count);
+      }
+    }
+
+    requireNonNegative(retainedCount);
+
+    if (retainedCount > totalCount) {
+      throw new IllegalArgumentException(
+          "Cannot retain " + retainedCount + " diagnostics when only " + totalCount
+              + " were reported"
+      );
+    }
+
+    this.kindCounts = Collections.unmodifiableMap(kindCountsCopy);
+    this.codeCounts = Collections.unmodifiableMap(codeCountsCopy);
+    this.totalCount = totalCount;
+    this.retainedCount = retainedCount;
+  }
+
+  /**
+   * Get the number of diagnostics of the given kind that were reported.
+   *
+   * @param kind the kind of diagnostic.
+   * @return the number of diagnostics.
+   */
+  public long getCount(Kind kind) {
+    return kindCounts.getOrDefault(requireNonNull(kind, "kind"), 0L);
+  }
+
+  /**
+   * Get the number of diagnostics with the given code that were reported.
+   *
+   * @param code the diagnostic code, such as {@code compiler.warn.has.been.deprecated}.
+   * @return the number of diagnostics.
+   */
+  public long getCount(String code) {
+    return codeCounts.getOrDefault(requireNonNull(code, "code"), 0L);
+  }
+
+  /**
+   * Get the number of diagnostics of any of the given kinds that were reported.
+   *
+   * @param kinds the kinds of diagnostic.
+   * @return the number of diagnostics.
+   */
+  public long getCount(Iterable<Kind> kinds) {
+    requireNonNull(kinds, "kinds");
+
+    // Sum over a set so that repeated kinds are not counted more than once.
+    var kindSet = EnumSet.noneOf(Kind.class);
+    kinds.forEach(kind -> kindSet.add(requireNonNull(kind, "kinds[]")));
+
+    return kindSet.stream().mapToLong(this::getCount).sum();
+  }
+
+  /**
+   * Get the number of diagnostics that were reported for each kind.
+   *
+   * @return an unmodifiable map of each kind that was reported to its count.
+   */
+  public Map<Kind, Long> getKindCounts() {
+    return kindCounts;
+  }
+
+  /**
+   * Get the number of diagnostics that were reported for each diagnostic code.
+   *
+   * @return an unmodifiable map of each code that was reported to its count, sorted by code.
+   */
+  public Map<String, Long> getCodeCounts() {
+    return codeCounts;
+  }
+
+  /**
+   * Get the total number of diagnostics that were reported.
+   *
+   * @return the number of diagnostics.
+   */
+  public long getTotalCount() {
+    return totalCount;
+  }
+
+  /**
+   * Get the number of diagnostics that were kept.
+   *
+   * @return the number of diagnostics.
+   */
+  public long getRetainedCount() {
+    return retainedCount;
+  }
+
+  /**
+   * Get the number of diagnostics that were reported but discarded by the retention policy.
+   *
+   * @return the number of diagnostics.
+   */
+  public long getDroppedCount() {
+    return totalCount - retainedCount;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof DiagnosticCounts)) {
+      return false;
+    }
+
+    var that = (DiagnosticCounts) other;
+
+    return retainedCount == that.retainedCount
+        && kindCounts.equals(that.kindCounts)
+        && codeCounts.equals(that.codeCounts);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(kindCounts, codeCounts, retainedCount);
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("kindCounts", kindCounts)
+        .attribute("totalCount", totalCount)
+        .attribute("droppedCount", getDroppedCount())
+        .toString();
+  }
+
+  /**
+   * Get counts where no diagnostics were reported.
+   *
+   * @return the empty counts.
+   */
+  public static DiagnosticCounts empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Count the given diagnostics, assuming that every diagnostic was kept.
+   *
+   * @param diagnostics the diagnostics to count.
+   * @return the counts.
+   */
+  public static DiagnosticCounts of(Collection<? extends Diagnostic<?>> diagnostics) {
+    requireNonNull(diagnostics, "diagnostics");
+
+    var kindCounts = new EnumMap<Kind, Long>(Kind.class);
+    var codeCounts = new TreeMap<String, Long>();
+
+    for (var diagnostic : diagnostics) {
+      kindCounts.merge(diagnostic.getKind(), 1L, Long::sum);
+
+      var code = diagnostic.getCode();
+      if (code != null) {
+        codeCounts.merge(code, 1L, Long::sum);
+      }
+    }
+
+    return new DiagnosticCounts(kindCounts, codeCounts, diagnostics.size());
+  }
+
+  private static void requireNonNegative(long count) {
+    if (count < 0) {
+      throw new IllegalArgumentException("Cannot provide a diagnostic count less than 0");
+    }
+  }
+}
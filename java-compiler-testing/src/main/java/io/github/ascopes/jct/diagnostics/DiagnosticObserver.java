@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.diagnostics;
+
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+
+/**
+ * Callback that observes each diagnostic as soon as the compiler reports it, and that can cancel
+ * the compilation early.
+ *
+ * <p>This allows tests that only expect a compilation to fail to stop as soon as the first error
+ * is reported, rather than waiting for the compiler to run to completion. Cancelled compilations
+ * are reported as having failed, and only contain the diagnostics that were reported before the
+ * compilation was cancelled.
+ *
+ * <p>Observers are invoked on the thread that reported the diagnostic, before the compiler
+ * continues, so should return quickly.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.EXPERIMENTAL)
+@FunctionalInterface
+public interface DiagnosticObserver {
+
+  /**
+   * Observe a diagnostic that the compiler reported.
+   *
+   * <p>This is invoked for every diagnostic, including those that are not kept by the
+   * {@link DiagnosticRetention retention policy}.
+   *
+   * @param diagnostic the diagnostic that was reported.
+   * @param counts     the counts of every diagnostic reported so far, including this one.
+   * @return whether to continue or cancel the compilation.
+   */
+  Action observe(TraceDiagnostic<? extends JavaFileObject> diagnostic, DiagnosticCounts counts);
+
+  /**
+   * Create an observer that cancels the compilation as soon as the first error is reported.
+   *
+   * @return the observer.
+   */
+  static DiagnosticObserver cancelOnFirstError() {
+    return cancelAfterErrors(1);
+  }
+
+  /**
+   * Create an observer that cancels the compilation once the given number of errors have been
+   * reported.
+   *
+   * @param errorCount the number of errors to cancel after.
+   * @return the observer.
+   * @throws IllegalArgumentException if the error count is less than 1.
+   */
+  static DiagnosticObserver cancelAfterErrors(int errorCount) {
+    if (errorCount < 1) {
+      throw new IllegalArgumentException("Cannot provide an error count less than 1");
+    }
+
+    return (diagnostic, counts) -> counts.getCount(Kind.ERROR) >= errorCount
+        ? Action.CANCEL
+        : Action.CONTINUE;
+  }
+
+  /**
+   * What to do after observing a diagnostic.
+   *
+   * @author Ashley Scopes
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  enum Action {
+    /**
+     * Allow the compilation to continue.
+     */
+    CONTINUE,
+
+    /**
+     * Cancel the compilation as soon as possible.
+     */
+    CANCEL,
+  }
+}
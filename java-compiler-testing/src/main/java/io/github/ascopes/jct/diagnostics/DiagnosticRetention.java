@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.diagnostics;
+
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+
+/**
+ * Options for which diagnostics to keep when the compiler reports them.
+ *
+ * <p>Regardless of the policy, every reported diagnostic is always counted, so
+ * {@link DiagnosticCounts} remain exact even when diagnostics are discarded. This allows
+ * compilations that report huge numbers of warnings to be tested without holding every one of
+ * them in memory.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.EXPERIMENTAL)
+public enum DiagnosticRetention {
+  /**
+   * Keep every diagnostic.
+   */
+  ALL,
+
+  /**
+   * Keep up to a fixed number of diagnostics of each {@link javax.tools.Diagnostic.Kind kind},
+   * in the order that they were reported, and only count the rest.
+   */
+  FIRST_PER_KIND,
+
+  /**
+   * Keep no diagnostics at all, and only count them.
+   */
+  COUNTS_ONLY,
+}
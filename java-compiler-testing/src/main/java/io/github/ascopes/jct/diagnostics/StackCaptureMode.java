@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.diagnostics;
+
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+
+/**
+ * Options for how much of the stack to capture when a diagnostic is reported.
+ *
+ * <p>The captured stack is available from {@link TraceDiagnostic#getStackTrace()}, and is what
+ * gets logged when diagnostic logging includes stacktraces.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.EXPERIMENTAL)
+public enum StackCaptureMode {
+  /**
+   * Capture no stack frames at all.
+   */
+  DISABLED,
+
+  /**
+   * Capture up to a fixed number of the innermost stack frames.
+   *
+   * <p>Frames are walked lazily, so only the frames that are kept are ever inspected, and they
+   * are only turned into {@link StackTraceElement}s when the stacktrace is first read.
+   */
+  LIMITED,
+
+  /**
+   * Capture the full stack of the reporting thread.
+   */
+  FULL,
+}
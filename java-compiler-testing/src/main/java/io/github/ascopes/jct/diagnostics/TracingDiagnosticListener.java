@@ -17,19 +17,30 @@ package io.github.ascopes.jct.diagnostics;
 
 import static java.util.Objects.requireNonNull;
 
+import io.github.ascopes.jct.diagnostics.impl.StackTraceTrie;
 import io.github.ascopes.jct.utils.LoomPolyfill;
 import io.github.ascopes.jct.utils.VisibleForTestingOnly;
+import java.lang.StackWalker.StackFrame;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.tools.Diagnostic;
+import javax.tools.Diagnostic.Kind;
 import javax.tools.DiagnosticListener;
 import javax.tools.JavaFileObject;
 import org.apiguardian.api.API;
 import org.apiguardian.api.API.Status;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.event.Level;
@@ -38,6 +49,15 @@ import org.slf4j.event.Level;
  * A diagnostics listener that wraps all diagnostics in additional invocation information, and then
  * stores them in a queue for processing later.
  *
+ * <p>Every diagnostic is counted as it is reported, but only the diagnostics allowed by the
+ * {@link DiagnosticRetention retention policy} are kept. Diagnostics that are not kept are never
+ * wrapped, and their stack is only captured if it is needed for logging.
+ *
+ * <p>If a {@link DiagnosticObserver} is provided, it is invoked for every diagnostic as it is
+ * reported. If it asks to cancel the compilation, then this listener throws an exception back
+ * into the compiler to abort it, and {@link #isCancelled()} will return {@code true}. The
+ * compilation can also be cancelled from another thread with {@link #cancel()}.
+ *
  * @param <S> the file type.
  * @author Ashley Scopes
  * @since 0.0.1
@@ -45,15 +65,29 @@ import org.slf4j.event.Level;
 @API(since = "0.0.1", status = Status.STABLE)
 public class TracingDiagnosticListener<S extends JavaFileObject> implements DiagnosticListener<S> {
 
+  private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
   private final ConcurrentLinkedQueue<TraceDiagnostic<S>> diagnostics;
   private final Logger logger;
   private final Supplier<? extends Thread> threadGetter;
   private final boolean logging;
   private final boolean stackTraces;
+  private final StackCaptureMode stackCaptureMode;
+  private final int stackFrameLimit;
+  private final StackTraceTrie stackTraceTrie;
+  private final DiagnosticRetention retention;
+  private final int retentionLimit;
+  private final Map<Kind, AtomicLong> kindCounts;
+  private final ConcurrentHashMap<String, LongAdder> codeCounts;
+  private final LongAdder retainedCount;
+  private final @Nullable DiagnosticObserver observer;
+  private volatile boolean cancelled;
 
   /**
    * Initialize this listener.
    *
+   * <p>The full stack will be captured for each diagnostic.
+   *
    * @param logging     {@code true} if logging is enabled, {@code false} otherwise.
    * @param stackTraces {@code true} if logging stack traces is enabled, {@code false} otherwise.
    *                    This is ignored if {@code logging} is {@code false}.
@@ -61,12 +95,91 @@ public class TracingDiagnosticListener<S extends JavaFileObject> implements Diag
   public TracingDiagnosticListener(
       boolean logging,
       boolean stackTraces
+  ) {
+    this(
+        logging,
+        stackTraces,
+        StackCaptureMode.FULL,
+        Integer.MAX_VALUE,
+        DiagnosticRetention.ALL,
+        Integer.MAX_VALUE
+    );
+  }
+
+  /**
+   * Initialize this listener.
+   *
+   * @param logging          {@code true} if logging is enabled, {@code false} otherwise.
+   * @param stackTraces      {@code true} if logging stack traces is enabled, {@code false}
+   *                         otherwise. This is ignored if {@code logging} is {@code false}.
+   * @param stackCaptureMode how much of the stack to capture for each diagnostic.
+   * @param stackFrameLimit  the maximum number of frames to capture when using
+   *                         {@link StackCaptureMode#LIMITED}.
+   * @param retention        which diagnostics to keep.
+   * @param retentionLimit   the maximum number of diagnostics of each kind to keep when using
+   *                         {@link DiagnosticRetention#FIRST_PER_KIND}.
+   * @throws IllegalArgumentException if the stack frame limit or the retention limit is less
+   *                                  than 1.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  public TracingDiagnosticListener(
+      boolean logging,
+      boolean stackTraces,
+      StackCaptureMode stackCaptureMode,
+      int stackFrameLimit,
+      DiagnosticRetention retention,
+      int retentionLimit
+  ) {
+    this(
+        logging,
+        stackTraces,
+        stackCaptureMode,
+        stackFrameLimit,
+        retention,
+        retentionLimit,
+        null
+    );
+  }
+
+  /**
+   * Initialize this listener.
+   *
+   * @param logging          {@code true} if logging is enabled, {@code false} otherwise.
+   * @param stackTraces      {@code true} if logging stack traces is enabled, {@code false}
+   *                         otherwise. This is ignored if {@code logging} is {@code false}.
+   * @param stackCaptureMode how much of the stack to capture for each diagnostic.
+   * @param stackFrameLimit  the maximum number of frames to capture when using
+   *                         {@link StackCaptureMode#LIMITED}.
+   * @param retention        which diagnostics to keep.
+   * @param retentionLimit   the maximum number of diagnostics of each kind to keep when using
+   *                         {@link DiagnosticRetention#FIRST_PER_KIND}.
+   * @param observer         the observer to invoke for each diagnostic, or {@code null} if no
+   *                         observer should be invoked.
+   * @throws IllegalArgumentException if the stack frame limit or the retention limit is less
+   *                                  than 1.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  public TracingDiagnosticListener(
+      boolean logging,
+      boolean stackTraces,
+      StackCaptureMode stackCaptureMode,
+      int stackFrameLimit,
+      DiagnosticRetention retention,
+      int retentionLimit,
+      @Nullable DiagnosticObserver observer
   ) {
     this(
         LoggerFactory.getLogger(TracingDiagnosticListener.class),
         Thread::currentThread,
         logging,
-        stackTraces
+        stackTraces,
+        stackCaptureMode,
+        stackFrameLimit,
+        retention,
+        retentionLimit,
+        observer
     );
   }
 
@@ -86,11 +199,121 @@ public class TracingDiagnosticListener<S extends JavaFileObject> implements Diag
       boolean logging,
       boolean stackTraces
   ) {
+    this(
+        logger,
+        threadGetter,
+        logging,
+        stackTraces,
+        StackCaptureMode.FULL,
+        Integer.MAX_VALUE,
+        DiagnosticRetention.ALL,
+        Integer.MAX_VALUE
+    );
+  }
+
+  /**
+   * Only visible for testing.
+   *
+   * @param logger           the logger to use.
+   * @param threadGetter     the supplier of the current thread.
+   * @param logging          whether to enable logging.
+   * @param stackTraces      whether to enable stack traces in the logging.
+   * @param stackCaptureMode how much of the stack to capture for each diagnostic.
+   * @param stackFrameLimit  the maximum number of frames to capture when using
+   *                         {@link StackCaptureMode#LIMITED}.
+   * @param retention        which diagnostics to keep.
+   * @param retentionLimit   the maximum number of diagnostics of each kind to keep when using
+   *                         {@link DiagnosticRetention#FIRST_PER_KIND}.
+   * @throws IllegalArgumentException if the stack frame limit or the retention limit is less
+   *                                  than 1.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.INTERNAL)
+  @VisibleForTestingOnly
+  protected TracingDiagnosticListener(
+      Logger logger,
+      Supplier<? extends Thread> threadGetter,
+      boolean logging,
+      boolean stackTraces,
+      StackCaptureMode stackCaptureMode,
+      int stackFrameLimit,
+      DiagnosticRetention retention,
+      int retentionLimit
+  ) {
+    this(
+        logger,
+        threadGetter,
+        logging,
+        stackTraces,
+        stackCaptureMode,
+        stackFrameLimit,
+        retention,
+        retentionLimit,
+        null
+    );
+  }
+
+  /**
+   * Only visible for testing.
+   *
+   * @param logger           the logger to use.
+   * @param threadGetter     the supplier of the current thread.
+   * @param logging          whether to enable logging.
+   * @param stackTraces      whether to enable stack traces in the logging.
+   * @param stackCaptureMode how much of the stack to capture for each diagnostic.
+   * @param stackFrameLimit  the maximum number of frames to capture when using
+   *                         {@link StackCaptureMode#LIMITED}.
+   * @param retention        which diagnostics to keep.
+   * @param retentionLimit   the maximum number of diagnostics of each kind to keep when using
+   *                         {@link DiagnosticRetention#FIRST_PER_KIND}.
+   * @param observer         the observer to invoke for each diagnostic, or {@code null} if no
+   *                         observer should be invoked.
+   * @throws IllegalArgumentException if the stack frame limit or the retention limit is less
+   *                                  than 1.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.INTERNAL)
+  @VisibleForTestingOnly
+  protected TracingDiagnosticListener(
+      Logger logger,
+      Supplier<? extends Thread> threadGetter,
+      boolean logging,
+      boolean stackTraces,
+      StackCaptureMode stackCaptureMode,
+      int stackFrameLimit,
+      DiagnosticRetention retention,
+      int retentionLimit,
+      @Nullable DiagnosticObserver observer
+  ) {
+    if (stackFrameLimit < 1) {
+      throw new IllegalArgumentException("Stack frame limit must be at least 1");
+    }
+
+    if (retentionLimit < 1) {
+      throw new IllegalArgumentException("Retention limit must be at least 1");
+    }
+
     diagnostics = new ConcurrentLinkedQueue<>();
     this.logger = requireNonNull(logger, "logger");
     this.threadGetter = requireNonNull(threadGetter, "threadGetter");
     this.logging = logging;
     this.stackTraces = stackTraces;
+    this.stackCaptureMode = requireNonNull(stackCaptureMode, "stackCaptureMode");
+    this.stackFrameLimit = stackFrameLimit;
+    stackTraceTrie = new StackTraceTrie();
+    this.retention = requireNonNull(retention, "retention");
+    this.retentionLimit = retentionLimit;
+
+    // Every kind is populated up front so that the map itself is never modified concurrently.
+    kindCounts = new EnumMap<>(Kind.class);
+    for (var kind : Kind.values()) {
+      kindCounts.put(kind, new AtomicLong());
+    }
+
+    codeCounts = new ConcurrentHashMap<>();
+    retainedCount = new LongAdder();
+    this.observer = observer;
+    cancelled = false;
   }
 
   /**
@@ -114,39 +337,212 @@ public class TracingDiagnosticListener<S extends JavaFileObject> implements Diag
     return stackTraces;
   }
 
+  /**
+   * Get how much of the stack is captured for each diagnostic.
+   *
+   * @return the stack capture mode.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  public StackCaptureMode getStackCaptureMode() {
+    return stackCaptureMode;
+  }
+
+  /**
+   * Get the maximum number of stack frames that are captured for each diagnostic when using
+   * {@link StackCaptureMode#LIMITED}.
+   *
+   * @return the stack frame limit.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  public int getStackFrameLimit() {
+    return stackFrameLimit;
+  }
+
+  /**
+   * Get which diagnostics are kept.
+   *
+   * @return the retention policy.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  public DiagnosticRetention getRetention() {
+    return retention;
+  }
+
+  /**
+   * Get the maximum number of diagnostics of each kind that are kept when using
+   * {@link DiagnosticRetention#FIRST_PER_KIND}.
+   *
+   * @return the retention limit.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  public int getRetentionLimit() {
+    return retentionLimit;
+  }
+
+  /**
+   * Get the observer that is invoked for each diagnostic, if any.
+   *
+   * @return the observer, or {@code null} if no observer is invoked.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  @Nullable
+  public DiagnosticObserver getObserver() {
+    return observer;
+  }
+
+  /**
+   * Determine whether the compilation was cancelled, either by the
+   * {@link #getObserver() observer} or by a call to {@link #cancel()}.
+   *
+   * @return {@code true} if the compilation was cancelled, or {@code false} otherwise.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Cancel the compilation from outside the compiler.
+   *
+   * <p>The compiler is aborted the next time that it reports a diagnostic to this listener. This
+   * is safe to call from any thread.
+   *
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  public void cancel() {
+    cancelled = true;
+  }
+
   /**
    * Get a copy of the queue containing all the diagnostics that have been detected.
    *
+   * <p>This only contains the diagnostics that were kept by the
+   * {@link #getRetention() retention policy}.
+   *
    * @return the diagnostics in a list.
    */
   public List<TraceDiagnostic<S>> getDiagnostics() {
     return List.copyOf(diagnostics);
   }
 
+  /**
+   * Get the counts of every diagnostic that has been reported, including any diagnostics that
+   * were not kept.
+   *
+   * @return the diagnostic counts.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  public DiagnosticCounts getDiagnosticCounts() {
+    var kindCountsSnapshot = new EnumMap<Kind, Long>(Kind.class);
+    kindCounts.forEach((kind, count) -> kindCountsSnapshot.put(kind, count.get()));
+
+    var codeCountsSnapshot = new HashMap<String, Long>();
+    codeCounts.forEach((code, count) -> codeCountsSnapshot.put(code, count.sum()));
+
+    // Diagnostics reported while we are taking the snapshot may be counted as retained without
+    // being counted as reported, so never claim that more were retained than were reported.
+    var totalCount = kindCountsSnapshot.values().stream().mapToLong(Long::longValue).sum();
+    var retainedCountSnapshot = Math.min(retainedCount.sum(), totalCount);
+
+    return new DiagnosticCounts(kindCountsSnapshot, codeCountsSnapshot, retainedCountSnapshot);
+  }
+
   @Override
   public final void report(Diagnostic<? extends S> diagnostic) {
     requireNonNull(diagnostic);
 
+    if (cancelled) {
+      // The compiler may try to report further diagnostics while it unwinds, so keep asking it
+      // to stop rather than letting it continue.
+      throw new CancellationException();
+    }
+
+    var retain = count(diagnostic);
+
+    if (!retain && !logging && observer == null) {
+      // Nothing will ever read this diagnostic, so skip capturing anything about it.
+      return;
+    }
+
     var now = Instant.now();
     var thisThread = threadGetter.get();
     var threadName = thisThread.getName();
-    var stackTrace = List.of(thisThread.getStackTrace());
+    var stackTrace = captureStackTrace(thisThread);
     var threadId = LoomPolyfill.getThreadId(thisThread);
 
     var wrapped = new TraceDiagnostic<S>(now, threadId, threadName, stackTrace, diagnostic);
 
-    diagnostics.add(wrapped);
+    if (retain) {
+      diagnostics.add(wrapped);
+      retainedCount.increment();
+    }
 
-    if (!logging) {
-      return;
+    if (logging) {
+      logger
+          .atLevel(diagnosticToLevel(diagnostic))
+          .setMessage("{}{}")
+          .addArgument(messageGetter(wrapped))
+          .addArgument(stackTraceFormatter(stackTrace))
+          .log();
+    }
+
+    if (observer != null
+        && observer.observe(wrapped, getDiagnosticCounts()) == DiagnosticObserver.Action.CANCEL) {
+      cancelled = true;
+      // There is no API to cancel a running compiler, but exceptions raised by listeners are
+      // propagated out of the compiler, which aborts the compilation.
+      throw new CancellationException();
+    }
+  }
+
+  private boolean count(Diagnostic<?> diagnostic) {
+    var kindCount = kindCounts.get(diagnostic.getKind()).incrementAndGet();
+
+    var code = diagnostic.getCode();
+    if (code != null) {
+      codeCounts.computeIfAbsent(code, ignored -> new LongAdder()).increment();
     }
 
-    logger
-        .atLevel(diagnosticToLevel(diagnostic))
-        .setMessage("{}{}")
-        .addArgument(messageGetter(wrapped))
-        .addArgument(stackTraceFormatter(stackTrace))
-        .log();
+    switch (retention) {
+      case FIRST_PER_KIND:
+        return kindCount <= retentionLimit;
+      case COUNTS_ONLY:
+        return false;
+      default:
+        return true;
+    }
+  }
+
+  private List<StackTraceElement> captureStackTrace(Thread thisThread) {
+    // Diagnostics nearly always share most of their stack, so we intern the frames to avoid
+    // holding a separate copy of the same frames for every diagnostic.
+    switch (stackCaptureMode) {
+      case FULL:
+        return stackTraceTrie.intern(Arrays.asList(thisThread.getStackTrace()));
+      case LIMITED:
+        return stackTraceTrie.internFrames(walkStackFrames());
+      default:
+        return List.of();
+    }
+  }
+
+  private List<StackFrame> walkStackFrames() {
+    // Frames are fetched from the JVM in small batches as the stream is consumed, so limiting
+    // the stream also limits the amount of the stack that we actually inspect. We skip our own
+    // frames so that the limit applies to the frames of the compiler that reported the diagnostic.
+    var listenerClassName = TracingDiagnosticListener.class.getName();
+    return STACK_WALKER.walk(frames -> frames
+        .dropWhile(frame -> frame.getClassName().equals(listenerClassName))
+        .limit(stackFrameLimit)
+        .collect(Collectors.toUnmodifiableList()));
   }
 
   private Level diagnosticToLevel(Diagnostic<?> diagnostic) {
@@ -175,4 +571,16 @@ public class TracingDiagnosticListener<S extends JavaFileObject> implements Diag
         .map(frame -> "\n\t" + frame)
         .collect(Collectors.joining());
   }
+
+  /**
+   * Raised into the compiler to abort the compilation once it has been cancelled.
+   */
+  private static final class CancellationException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private CancellationException() {
+      super("Compilation was cancelled", null, false, false);
+    }
+  }
 }
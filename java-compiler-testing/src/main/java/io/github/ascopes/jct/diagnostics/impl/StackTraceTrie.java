@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.diagnostics.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import java.lang.StackWalker.StackFrame;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A trie that interns stack traces, so that traces sharing the same outermost frames also share
+ * the memory used to hold those frames.
+ *
+ * <p>Diagnostics reported during a compilation nearly always come from the same deep call chain
+ * within the compiler, and only differ in the few innermost frames. Each interned trace is
+ * represented by the node for its innermost frame, which refers to its caller through its parent
+ * node, so each distinct frame is only stored once per trie. Interning the same trace twice
+ * returns the same list.
+ *
+ * <p>The returned lists are immutable, and walk the trie when they are read. Reading a single
+ * frame by index is therefore linear in the index, but iterating over a trace is linear in its
+ * length.
+ *
+ * <p>Tries are safe to use from multiple threads at once.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.INTERNAL)
+public final class StackTraceTrie {
+
+  private final Node root;
+  private final LongAdder nodeCount;
+
+  /**
+   * Initialize an empty trie.
+   */
+  public StackTraceTrie() {
+    root = new Node(null, null, null);
+    nodeCount = new LongAdder();
+  }
+
+  /**
+   * Intern the given stack trace.
+   *
+   * @param stackTrace the stack trace, with the innermost frame first.
+   * @return the interned stack trace, in an immutable list.
+   */
+  public List<StackTraceElement> intern(List<StackTraceElement> stackTrace) {
+    // The outermost frames are the ones most likely to be shared, so they go nearest the root.
+    var elements = stackTrace.toArray(new StackTraceElement[0]);
+    var node = root;
+
+    for (var i = elements.length - 1; i >= 0; --i) {
+      node = node.child(elements[i], elements[i], null);
+    }
+
+    return node;
+  }
+
+  /**
+   * Intern the given stack frames.
+   *
+   * <p>Each distinct frame is only converted to a {@link StackTraceElement} once, and only when
+   * it is first read, which avoids resolving the line numbers of frames that are never looked at.
+   *
+   * @param stackFrames the stack frames, with the innermost frame first.
+   * @return the interned stack trace, in an immutable list.
+   */
+  public List<StackTraceElement> internFrames(List<StackFrame> stackFrames) {
+    var frames = stackFrames.toArray(new StackFrame[0]);
+    var node = root;
+
+    for (var i = frames.length - 1; i >= 0; --i) {
+      node = node.child(new FrameKey(frames[i]), null, frames[i]);
+    }
+
+    return node;
+  }
+
+  /**
+   * Get the number of distinct frames held in this trie.
+   *
+   * @return the number of frames.
+   */
+  public long getNodeCount() {
+    return nodeCount.sum();
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("nodeCount", nodeCount.sum())
+        .toString();
+  }
+
+  /**
+   * Identity of a stack frame that does not require resolving its line number.
+   */
+  private static final class FrameKey {
+
+    private final String className;
+    private final String methodName;
+    private final String descriptor;
+    private final int byteCodeIndex;
+
+    private FrameKey(StackFrame frame) {
+      className = frame.getClassName();
+      methodName = frame.getMethodName();
+      descriptor = frame.getDescriptor();
+      byteCodeIndex = frame.getByteCodeIndex();
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+      if (!(other instanceof FrameKey)) {
+        return false;
+      }
+
+      var that = (FrameKey) other;
+
+      return byteCodeIndex == that.byteCodeIndex
+          && className.equals(that.className)
+          && methodName.equals(that.methodName)
+          && descriptor.equals(that.descriptor);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(className, methodName, descriptor, byteCodeIndex);
+    }
+  }
+
+  /**
+   * A node in the trie, which doubles as the stack trace ending at the frame it holds.
+   */
+  private final class Node extends AbstractList<StackTraceElement> {
+
+    private final @Nullable Node parent;
+    private final int size;
+    private final @Nullable StackFrame frame;
+    private final ConcurrentHashMap<Object, Node> children;
+    private volatile @Nullable StackTraceElement element;
+
+    private Node(
+        @Nullable Node parent,
+        @Nullable StackTraceElement element,
+        @Nullable StackFrame frame
+    ) {
+      this.parent = parent;
+      this.element = element;
+      this.frame = frame;
+      size = parent == null ? 0 : parent.size + 1;
+      children = new ConcurrentHashMap<>(2);
+    }
+
+    @Override
+    public StackTraceElement get(int index) {
+      Objects.checkIndex(index, size);
+
+      var node = this;
+      for (var i = 0; i < index; ++i) {
+        node = node.parent;
+      }
+
+      return node.getElement();
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public Iterator<StackTraceElement> iterator() {
+      return new Iterator<>() {
+        private Node next = Node.this;
+
+        @Override
+        public boolean hasNext() {
+          return next.parent != null;
+        }
+
+        @Override
+        public StackTraceElement next() {
+          if (next.parent == null) {
+            throw new NoSuchElementException();
+          }
+
+          var current = next;
+          next = current.parent;
+          return current.getElement();
+        }
+      };
+    }
+
+    private Node child(
+        Object key,
+        @Nullable StackTraceElement element,
+        @Nullable StackFrame frame
+    ) {
+      var child = children.get(key);
+
+      if (child == null) {
+        child = children.computeIfAbsent(key, ignored -> {
+          nodeCount.increment();
+          return new Node(this, element, frame);
+        });
+      }
+
+      return child;
+    }
+
+    private StackTraceElement getElement() {
+      var element = this.element;
+
+      if (element == null) {
+        // Threads racing to resolve the same frame will produce equal elements, so it does not
+        // matter which one is kept.
+        element = requireNonNull(frame).toStackTraceElement();
+        this.element = element;
+      }
+
+      return element;
+    }
+  }
+}
@@ -15,6 +15,7 @@
  */
 package io.github.ascopes.jct.filemanagers;
 
+import io.github.ascopes.jct.containers.Container;
 import io.github.ascopes.jct.containers.ModuleContainerGroup;
 import io.github.ascopes.jct.containers.OutputContainerGroup;
 import io.github.ascopes.jct.containers.PackageContainerGroup;
@@ -71,6 +72,24 @@ public interface JctFileManager extends JavaFileManager {
    */
   void addPaths(Location location, Collection<? extends PathRoot> paths);
 
+  /**
+   * Add a package-oriented container to a given location.
+   *
+   * <p>This allows locations to be backed by containers that do not simply wrap a path on a file
+   * system.
+   *
+   * @param location  the location to use.
+   * @param container the container to add.
+   * @throws IllegalArgumentException if the location is module-oriented or a module location.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  default void addContainer(Location location, Container container) {
+    throw new UnsupportedOperationException(
+        "This operation is not implemented, but will be mandatory in v1.0.0"
+    );
+  }
+
   /**
    * Copy all containers from the first location to the second location.
    *
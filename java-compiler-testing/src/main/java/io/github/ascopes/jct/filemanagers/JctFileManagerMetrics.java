@@ -0,0 +1,346 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.filemanagers;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Immutable snapshot of the operations that a compiler performed on its {@link JctFileManager}.
+ *
+ * <p>Bytes read and written only include files that the file manager handed out to the compiler,
+ * such as class path entries, class outputs, and generated sources. Compilation units that are
+ * passed to the compiler directly are read without going through the file manager, so are not
+ * included.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.EXPERIMENTAL)
+public final class JctFileManagerMetrics {
+
+  private static final JctFileManagerMetrics EMPTY = new JctFileManagerMetrics(
+      Map.of(), 0, 0, Histogram.empty()
+  );
+
+  private final SortedMap<String, Operation> operations;
+  private final long bytesRead;
+  private final long bytesWritten;
+  private final Histogram listResultSizes;
+
+  /**
+   * Initialise these metrics.
+   *
+   * @param operations      the metrics for each operation, keyed by the method name.
+   * @param bytesRead       the number of bytes read from files.
+   * @param bytesWritten    the number of bytes written to files.
+   * @param listResultSizes the number of files returned by each listing.
+   */
+  public JctFileManagerMetrics(
+      Map<String, Operation> operations,
+      long bytesRead,
+      long bytesWritten,
+      Histogram listResultSizes
+  ) {
+    this.operations = Collections.unmodifiableSortedMap(
+        new TreeMap<>(requireNonNull(operations, "operations"))
+    );
+    this.bytesRead = bytesRead;
+    this.bytesWritten = bytesWritten;
+    this.listResultSizes = requireNonNull(listResultSizes, "listResultSizes");
+  }
+
+  /**
+   * Get the metrics for each operation that was performed at least once, keyed by the name of the
+   * file manager method, such as {@code list} or {@code getJavaFileForInput}.
+   *
+   * <p>Overloaded methods share the same entry.
+   *
+   * @return an unmodifiable map of the operation metrics, sorted by name.
+   */
+  public SortedMap<String, Operation> getOperations() {
+    return operations;
+  }
+
+  /**
+   * Get the metrics for the operation with the given method name.
+   *
+   * @param name the name of the file manager method.
+   * @return the operation metrics, or {@code null} if the operation was never performed.
+   */
+  @Nullable
+  public Operation getOperation(String name) {
+    return operations.get(requireNonNull(name, "name"));
+  }
+
+  /**
+   * Get the number of bytes that were read from files handed out by the file manager.
+   *
+   * <p>Content read via a {@code Reader} is counted in characters.
+   *
+   * @return the number of bytes read.
+   */
+  public long getBytesRead() {
+    return bytesRead;
+  }
+
+  /**
+   * Get the number of bytes that were written to files handed out by the file manager.
+   *
+   * <p>Content written via a {@code Writer} is counted in characters.
+   *
+   * @return the number of bytes written.
+   */
+  public long getBytesWritten() {
+    return bytesWritten;
+  }
+
+  /**
+   * Get the distribution of the number of files returned by each call to
+   * {@link JctFileManager#list}.
+   *
+   * @return the list result sizes.
+   */
+  public Histogram getListResultSizes() {
+    return listResultSizes;
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("operations", operations)
+        .attribute("bytesRead", bytesRead)
+        .attribute("bytesWritten", bytesWritten)
+        .attribute("listResultSizes", listResultSizes)
+        .toString();
+  }
+
+  /**
+   * Get metrics for a compilation that did not perform any file manager operations, or that did
+   * not measure them.
+   *
+   * @return the empty metrics.
+   */
+  public static JctFileManagerMetrics empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Immutable measurements of a single file manager method.
+   *
+   * @author Ashley Scopes
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  public static final class Operation {
+
+    private final long failureCount;
+    private final Histogram latencies;
+
+    /**
+     * Initialise these metrics.
+     *
+     * @param failureCount the number of calls that raised an exception.
+     * @param latencies    the time taken by each call, in nanoseconds.
+     */
+    public Operation(long failureCount, Histogram latencies) {
+      this.failureCount = failureCount;
+      this.latencies = requireNonNull(latencies, "latencies");
+    }
+
+    /**
+     * Get the number of times the method was called.
+     *
+     * @return the number of calls.
+     */
+    public long getCallCount() {
+      return latencies.getCount();
+    }
+
+    /**
+     * Get the number of calls that raised an exception.
+     *
+     * @return the number of failed calls.
+     */
+    public long getFailureCount() {
+      return failureCount;
+    }
+
+    /**
+     * Get the distribution of the time taken by each call, in nanoseconds.
+     *
+     * @return the latencies.
+     */
+    public Histogram getLatencies() {
+      return latencies;
+    }
+
+    /**
+     * Get the total time spent in the method across all calls.
+     *
+     * @return the total time.
+     */
+    public Duration getTotalTime() {
+      return Duration.ofNanos(latencies.getSum());
+    }
+
+    @Override
+    public String toString() {
+      return new ToStringBuilder(this)
+          .attribute("failureCount", failureCount)
+          .attribute("latencies", latencies)
+          .toString();
+    }
+  }
+
+  /**
+   * Immutable distribution of non-negative values.
+   *
+   * <p>Values are grouped into buckets whose bounds are powers of two, so that the distribution
+   * can be recorded cheaply. Percentiles are therefore only accurate to within a factor of two.
+   *
+   * @author Ashley Scopes
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.EXPERIMENTAL)
+  public static final class Histogram {
+
+    private static final Histogram EMPTY = new Histogram(0, 0, Map.of());
+
+    private final long sum;
+    private final long max;
+    private final SortedMap<Long, Long> buckets;
+    private final long count;
+
+    /**
+     * Initialise this histogram.
+     *
+     * @param sum     the sum of all values.
+     * @param max     the largest value.
+     * @param buckets the number of values in each bucket, keyed by the inclusive upper bound of
+     *                the bucket.
+     */
+    public Histogram(long sum, long max, Map<Long, Long> buckets) {
+      this.sum = sum;
+      this.max = max;
+      this.buckets = Collections.unmodifiableSortedMap(
+          new TreeMap<>(requireNonNull(buckets, "buckets"))
+      );
+      count = this.buckets.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Get the number of values.
+     *
+     * @return the number of values.
+     */
+    public long getCount() {
+      return count;
+    }
+
+    /**
+     * Get the sum of all values.
+     *
+     * @return the sum.
+     */
+    public long getSum() {
+      return sum;
+    }
+
+    /**
+     * Get the largest value.
+     *
+     * @return the largest value, or zero if there are no values.
+     */
+    public long getMax() {
+      return max;
+    }
+
+    /**
+     * Get the mean value.
+     *
+     * @return the mean value, or zero if there are no values.
+     */
+    public double getMean() {
+      return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Get the number of values in each non-empty bucket.
+     *
+     * @return an unmodifiable map of the number of values in each bucket, keyed by the inclusive
+     * upper bound of the bucket, in ascending order.
+     */
+    public SortedMap<Long, Long> getBuckets() {
+      return buckets;
+    }
+
+    /**
+     * Get an upper bound for the given percentile.
+     *
+     * @param percentile the percentile, between {@code 0} and {@code 100} inclusive.
+     * @return the upper bound of the bucket holding the percentile, limited to the largest value,
+     * or zero if there are no values.
+     * @throws IllegalArgumentException if the percentile is out of range.
+     */
+    public long getPercentile(double percentile) {
+      if (percentile < 0 || percentile > 100) {
+        throw new IllegalArgumentException("Percentile must be between 0 and 100");
+      }
+
+      var rank = (long) Math.ceil(count * percentile / 100);
+      var seen = 0L;
+
+      for (var bucket : buckets.entrySet()) {
+        seen += bucket.getValue();
+
+        if (seen >= rank) {
+          return Math.min(bucket.getKey(), max);
+        }
+      }
+
+      return max;
+    }
+
+    @Override
+    public String toString() {
+      return new ToStringBuilder(this)
+          .attribute("count", count)
+          .attribute("sum", sum)
+          .attribute("max", max)
+          .attribute("buckets", buckets)
+          .toString();
+    }
+
+    /**
+     * Get a histogram with no values.
+     *
+     * @return the empty histogram.
+     */
+    public static Histogram empty() {
+      return EMPTY;
+    }
+  }
+}
@@ -15,16 +15,26 @@
  */
 package io.github.ascopes.jct.filemanagers;
 
+import io.github.ascopes.jct.containers.Container;
+import io.github.ascopes.jct.containers.ModuleContainerGroup;
+import io.github.ascopes.jct.containers.OutputContainerGroup;
+import io.github.ascopes.jct.containers.PackageContainerGroup;
 import io.github.ascopes.jct.utils.LoomPolyfill;
 import io.github.ascopes.jct.utils.ToStringBuilder;
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
-import java.lang.reflect.Proxy;
+import io.github.ascopes.jct.workspaces.PathRoot;
+import java.io.IOException;
+import java.lang.StackWalker.StackFrame;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
-import java.util.function.Supplier;
+import java.util.ServiceLoader;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
 import org.apiguardian.api.API;
 import org.apiguardian.api.API.Status;
 import org.jspecify.annotations.Nullable;
@@ -32,19 +42,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * A proxy that wraps a {@link JctFileManager} in a proxy that can log all interactions with the
- * JavaFileManager, along with a corresponding stacktrace.
+ * A {@link JctFileManager} that wraps another file manager and logs all interactions with it,
+ * along with a corresponding stacktrace.
  *
  * <p>This is useful for diagnosing difficult-to-find errors being produced by {@code javac}
  * during testing, however, it may produce a hefty performance overhead when in use.
  *
- * <p>All logs are emitted with the {@code DEBUG} logging level.
+ * <p>All logs are emitted with the {@code DEBUG} logging level. Each call checks whether this
+ * level is enabled before doing anything else, and delegates directly to the wrapped file manager
+ * if it is not, so a disabled logger adds no allocations or reflection to the call. Stack frames
+ * are only captured when requested, and are only formatted if the log entry is actually written.
  *
  * @author Ashley Scopes
  * @since 0.0.1
  */
 @API(since = "0.0.1", status = Status.STABLE)
-public final class LoggingFileManagerProxy implements InvocationHandler {
+public final class LoggingFileManagerProxy implements JctFileManager {
+
+  private static final StackWalker STACK_WALKER = StackWalker.getInstance();
 
   private final Logger logger;
   private final JctFileManager inner;
@@ -59,39 +74,698 @@ public final class LoggingFileManagerProxy implements InvocationHandler {
     stackDepth = ThreadLocal.withInitial(() -> 0);
   }
 
-  /**
-   * Invoke the given call.
-   *
-   * @param proxy  the proxy.
-   * @param method the method.
-   * @param args   the arguments.
-   * @return the result.
-   * @throws Throwable any exception that is thrown.
-   */
   @Override
-  public Object invoke(Object proxy, Method method, Object @Nullable ... args) throws Throwable {
-    if (method.getName().equals("toString")) {
-      return toString();
+  public void addContainer(Location location, Container container) {
+    if (!logger.isDebugEnabled()) {
+      inner.addContainer(location, container);
+      return;
+    }
+
+    invoke(
+        "void",
+        "addContainer",
+        "Location, Container",
+        () -> {
+          inner.addContainer(location, container);
+          return null;
+        },
+        location, container
+    );
+  }
+
+  @Override
+  public void addPath(Location location, PathRoot path) {
+    if (!logger.isDebugEnabled()) {
+      inner.addPath(location, path);
+      return;
+    }
+
+    invoke(
+        "void",
+        "addPath",
+        "Location, PathRoot",
+        () -> {
+          inner.addPath(location, path);
+          return null;
+        },
+        location, path
+    );
+  }
+
+  @Override
+  public void addPaths(Location location, Collection<? extends PathRoot> paths) {
+    if (!logger.isDebugEnabled()) {
+      inner.addPaths(location, paths);
+      return;
+    }
+
+    invoke(
+        "void",
+        "addPaths",
+        "Location, Collection",
+        () -> {
+          inner.addPaths(location, paths);
+          return null;
+        },
+        location, paths
+    );
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!logger.isDebugEnabled()) {
+      inner.close();
+      return;
+    }
+
+    invoke(
+        "void",
+        "close",
+        "",
+        () -> {
+          inner.close();
+          return null;
+        }
+    );
+  }
+
+  @Override
+  public boolean contains(Location location, FileObject fo) throws IOException {
+    if (!logger.isDebugEnabled()) {
+      return inner.contains(location, fo);
+    }
+
+    return invoke(
+        "boolean",
+        "contains",
+        "Location, FileObject",
+        () -> inner.contains(location, fo),
+        location, fo
+    );
+  }
+
+  @Override
+  public void copyContainers(Location from, Location to) {
+    if (!logger.isDebugEnabled()) {
+      inner.copyContainers(from, to);
+      return;
+    }
+
+    invoke(
+        "void",
+        "copyContainers",
+        "Location, Location",
+        () -> {
+          inner.copyContainers(from, to);
+          return null;
+        },
+        from, to
+    );
+  }
+
+  @Override
+  public void createEmptyLocation(Location location) {
+    if (!logger.isDebugEnabled()) {
+      inner.createEmptyLocation(location);
+      return;
+    }
+
+    invoke(
+        "void",
+        "createEmptyLocation",
+        "Location",
+        () -> {
+          inner.createEmptyLocation(location);
+          return null;
+        },
+        location
+    );
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (!logger.isDebugEnabled()) {
+      inner.flush();
+      return;
+    }
+
+    invoke(
+        "void",
+        "flush",
+        "",
+        () -> {
+          inner.flush();
+          return null;
+        }
+    );
+  }
+
+  @Override
+  @Nullable
+  public OutputContainerGroup getClassOutputGroup() {
+    if (!logger.isDebugEnabled()) {
+      return inner.getClassOutputGroup();
+    }
+
+    return invoke("OutputContainerGroup", "getClassOutputGroup", "", inner::getClassOutputGroup);
+  }
+
+  @Override
+  @Nullable
+  public PackageContainerGroup getClassPathGroup() {
+    if (!logger.isDebugEnabled()) {
+      return inner.getClassPathGroup();
+    }
+
+    return invoke("PackageContainerGroup", "getClassPathGroup", "", inner::getClassPathGroup);
+  }
+
+  @Override
+  public ClassLoader getClassLoader(Location location) {
+    if (!logger.isDebugEnabled()) {
+      return inner.getClassLoader(location);
+    }
+
+    return invoke(
+        "ClassLoader",
+        "getClassLoader",
+        "Location",
+        () -> inner.getClassLoader(location),
+        location
+    );
+  }
+
+  @Override
+  @Nullable
+  public PackageContainerGroup getAnnotationProcessorPathGroup() {
+    if (!logger.isDebugEnabled()) {
+      return inner.getAnnotationProcessorPathGroup();
+    }
+
+    return invoke(
+        "PackageContainerGroup",
+        "getAnnotationProcessorPathGroup",
+        "",
+        inner::getAnnotationProcessorPathGroup
+    );
+  }
+
+  @Override
+  @Nullable
+  public ModuleContainerGroup getAnnotationProcessorModulePathGroup() {
+    if (!logger.isDebugEnabled()) {
+      return inner.getAnnotationProcessorModulePathGroup();
+    }
+
+    return invoke(
+        "ModuleContainerGroup",
+        "getAnnotationProcessorModulePathGroup",
+        "",
+        inner::getAnnotationProcessorModulePathGroup
+    );
+  }
+
+  @Override
+  public String getEffectiveRelease() {
+    if (!logger.isDebugEnabled()) {
+      return inner.getEffectiveRelease();
+    }
+
+    return invoke("String", "getEffectiveRelease", "", inner::getEffectiveRelease);
+  }
+
+  @Override
+  public FileObject getFileForInput(
+      Location location,
+      String packageName,
+      String relativeName
+  ) throws IOException {
+    if (!logger.isDebugEnabled()) {
+      return inner.getFileForInput(location, packageName, relativeName);
+    }
+
+    return invoke(
+        "FileObject",
+        "getFileForInput",
+        "Location, String, String",
+        () -> inner.getFileForInput(location, packageName, relativeName),
+        location, packageName, relativeName
+    );
+  }
+
+  @Override
+  public FileObject getFileForOutput(
+      Location location,
+      String packageName,
+      String relativeName,
+      FileObject sibling
+  ) throws IOException {
+    if (!logger.isDebugEnabled()) {
+      return inner.getFileForOutput(location, packageName, relativeName, sibling);
+    }
+
+    return invoke(
+        "FileObject",
+        "getFileForOutput",
+        "Location, String, String, FileObject",
+        () -> inner.getFileForOutput(location, packageName, relativeName, sibling),
+        location, packageName, relativeName, sibling
+    );
+  }
+
+  @Override
+  public JavaFileObject getJavaFileForInput(
+      Location location,
+      String className,
+      Kind kind
+  ) throws IOException {
+    if (!logger.isDebugEnabled()) {
+      return inner.getJavaFileForInput(location, className, kind);
+    }
+
+    return invoke(
+        "JavaFileObject",
+        "getJavaFileForInput",
+        "Location, String, Kind",
+        () -> inner.getJavaFileForInput(location, className, kind),
+        location, className, kind
+    );
+  }
+
+  @Override
+  public JavaFileObject getJavaFileForOutput(
+      Location location,
+      String className,
+      Kind kind,
+      FileObject sibling
+  ) throws IOException {
+    if (!logger.isDebugEnabled()) {
+      return inner.getJavaFileForOutput(location, className, kind, sibling);
+    }
+
+    return invoke(
+        "JavaFileObject",
+        "getJavaFileForOutput",
+        "Location, String, Kind, FileObject",
+        () -> inner.getJavaFileForOutput(location, className, kind, sibling),
+        location, className, kind, sibling
+    );
+  }
+
+  @Override
+  public Location getLocationForModule(Location location, String moduleName) throws IOException {
+    if (!logger.isDebugEnabled()) {
+      return inner.getLocationForModule(location, moduleName);
+    }
+
+    return invoke(
+        "Location",
+        "getLocationForModule",
+        "Location, String",
+        () -> inner.getLocationForModule(location, moduleName),
+        location, moduleName
+    );
+  }
+
+  @Override
+  public Location getLocationForModule(Location location, JavaFileObject fo) throws IOException {
+    if (!logger.isDebugEnabled()) {
+      return inner.getLocationForModule(location, fo);
+    }
+
+    return invoke(
+        "Location",
+        "getLocationForModule",
+        "Location, JavaFileObject",
+        () -> inner.getLocationForModule(location, fo),
+        location, fo
+    );
+  }
+
+  @Override
+  public ModuleContainerGroup getModuleContainerGroup(Location location) {
+    if (!logger.isDebugEnabled()) {
+      return inner.getModuleContainerGroup(location);
+    }
+
+    return invoke(
+        "ModuleContainerGroup",
+        "getModuleContainerGroup",
+        "Location",
+        () -> inner.getModuleContainerGroup(location),
+        location
+    );
+  }
+
+  @Override
+  public Collection<ModuleContainerGroup> getModuleContainerGroups() {
+    if (!logger.isDebugEnabled()) {
+      return inner.getModuleContainerGroups();
+    }
+
+    return invoke("Collection", "getModuleContainerGroups", "", inner::getModuleContainerGroups);
+  }
+
+  @Override
+  @Nullable
+  public ModuleContainerGroup getModulePathGroup() {
+    if (!logger.isDebugEnabled()) {
+      return inner.getModulePathGroup();
+    }
+
+    return invoke("ModuleContainerGroup", "getModulePathGroup", "", inner::getModulePathGroup);
+  }
+
+  @Override
+  @Nullable
+  public ModuleContainerGroup getModuleSourcePathGroup() {
+    if (!logger.isDebugEnabled()) {
+      return inner.getModuleSourcePathGroup();
+    }
+
+    return invoke(
+        "ModuleContainerGroup",
+        "getModuleSourcePathGroup",
+        "",
+        inner::getModuleSourcePathGroup
+    );
+  }
+
+  @Override
+  @Deprecated(since = "0.6.0", forRemoval = true)
+  @SuppressWarnings("removal")
+  @Nullable
+  public OutputContainerGroup getNativeHeaderOutputGroup() {
+    if (!logger.isDebugEnabled()) {
+      return inner.getNativeHeaderOutputGroup();
+    }
+
+    return invoke(
+        "OutputContainerGroup",
+        "getNativeHeaderOutputGroup",
+        "",
+        inner::getNativeHeaderOutputGroup
+    );
+  }
+
+  @Override
+  public OutputContainerGroup getOutputContainerGroup(Location location) {
+    if (!logger.isDebugEnabled()) {
+      return inner.getOutputContainerGroup(location);
+    }
+
+    return invoke(
+        "OutputContainerGroup",
+        "getOutputContainerGroup",
+        "Location",
+        () -> inner.getOutputContainerGroup(location),
+        location
+    );
+  }
+
+  @Override
+  public Collection<OutputContainerGroup> getOutputContainerGroups() {
+    if (!logger.isDebugEnabled()) {
+      return inner.getOutputContainerGroups();
+    }
+
+    return invoke("Collection", "getOutputContainerGroups", "", inner::getOutputContainerGroups);
+  }
+
+  @Override
+  public PackageContainerGroup getPackageContainerGroup(Location location) {
+    if (!logger.isDebugEnabled()) {
+      return inner.getPackageContainerGroup(location);
+    }
+
+    return invoke(
+        "PackageContainerGroup",
+        "getPackageContainerGroup",
+        "Location",
+        () -> inner.getPackageContainerGroup(location),
+        location
+    );
+  }
+
+  @Override
+  public Collection<PackageContainerGroup> getPackageContainerGroups() {
+    if (!logger.isDebugEnabled()) {
+      return inner.getPackageContainerGroups();
+    }
+
+    return invoke("Collection", "getPackageContainerGroups", "", inner::getPackageContainerGroups);
+  }
+
+  @Override
+  @Deprecated(since = "0.6.0", forRemoval = true)
+  @SuppressWarnings("removal")
+  @Nullable
+  public ModuleContainerGroup getPatchModulePathGroup() {
+    if (!logger.isDebugEnabled()) {
+      return inner.getPatchModulePathGroup();
+    }
+
+    return invoke(
+        "ModuleContainerGroup",
+        "getPatchModulePathGroup",
+        "",
+        inner::getPatchModulePathGroup
+    );
+  }
+
+  @Override
+  @Deprecated(since = "0.6.0", forRemoval = true)
+  @SuppressWarnings("removal")
+  @Nullable
+  public PackageContainerGroup getPlatformClassPathGroup() {
+    if (!logger.isDebugEnabled()) {
+      return inner.getPlatformClassPathGroup();
     }
 
+    return invoke(
+        "PackageContainerGroup",
+        "getPlatformClassPathGroup",
+        "",
+        inner::getPlatformClassPathGroup
+    );
+  }
+
+  @Override
+  public <S> ServiceLoader<S> getServiceLoader(
+      Location location,
+      Class<S> service
+  ) throws IOException {
+    if (!logger.isDebugEnabled()) {
+      return inner.getServiceLoader(location, service);
+    }
+
+    return invoke(
+        "ServiceLoader",
+        "getServiceLoader",
+        "Location, Class",
+        () -> inner.getServiceLoader(location, service),
+        location, service
+    );
+  }
+
+  @Override
+  @Nullable
+  public OutputContainerGroup getSourceOutputGroup() {
+    if (!logger.isDebugEnabled()) {
+      return inner.getSourceOutputGroup();
+    }
+
+    return invoke("OutputContainerGroup", "getSourceOutputGroup", "", inner::getSourceOutputGroup);
+  }
+
+  @Override
+  @Nullable
+  public PackageContainerGroup getSourcePathGroup() {
+    if (!logger.isDebugEnabled()) {
+      return inner.getSourcePathGroup();
+    }
+
+    return invoke("PackageContainerGroup", "getSourcePathGroup", "", inner::getSourcePathGroup);
+  }
+
+  @Override
+  @Deprecated(since = "0.6.0", forRemoval = true)
+  @SuppressWarnings("removal")
+  @Nullable
+  public ModuleContainerGroup getSystemModulesGroup() {
+    if (!logger.isDebugEnabled()) {
+      return inner.getSystemModulesGroup();
+    }
+
+    return invoke(
+        "ModuleContainerGroup",
+        "getSystemModulesGroup",
+        "",
+        inner::getSystemModulesGroup
+    );
+  }
+
+  @Override
+  @Deprecated(since = "0.6.0", forRemoval = true)
+  @SuppressWarnings("removal")
+  @Nullable
+  public ModuleContainerGroup getUpgradeModulePathGroup() {
+    if (!logger.isDebugEnabled()) {
+      return inner.getUpgradeModulePathGroup();
+    }
+
+    return invoke(
+        "ModuleContainerGroup",
+        "getUpgradeModulePathGroup",
+        "",
+        inner::getUpgradeModulePathGroup
+    );
+  }
+
+  @Override
+  public boolean handleOption(String current, Iterator<String> remaining) {
+    if (!logger.isDebugEnabled()) {
+      return inner.handleOption(current, remaining);
+    }
+
+    return invoke(
+        "boolean",
+        "handleOption",
+        "String, Iterator",
+        () -> inner.handleOption(current, remaining),
+        current, remaining
+    );
+  }
+
+  @Override
+  public boolean hasLocation(Location location) {
+    if (!logger.isDebugEnabled()) {
+      return inner.hasLocation(location);
+    }
+
+    return invoke(
+        "boolean",
+        "hasLocation",
+        "Location",
+        () -> inner.hasLocation(location),
+        location
+    );
+  }
+
+  @Override
+  public String inferBinaryName(Location location, JavaFileObject file) {
+    if (!logger.isDebugEnabled()) {
+      return inner.inferBinaryName(location, file);
+    }
+
+    return invoke(
+        "String",
+        "inferBinaryName",
+        "Location, JavaFileObject",
+        () -> inner.inferBinaryName(location, file),
+        location, file
+    );
+  }
+
+  @Override
+  public String inferModuleName(Location location) throws IOException {
+    if (!logger.isDebugEnabled()) {
+      return inner.inferModuleName(location);
+    }
+
+    return invoke(
+        "String",
+        "inferModuleName",
+        "Location",
+        () -> inner.inferModuleName(location),
+        location
+    );
+  }
+
+  @Override
+  public boolean isSameFile(FileObject a, FileObject b) {
+    if (!logger.isDebugEnabled()) {
+      return inner.isSameFile(a, b);
+    }
+
+    return invoke(
+        "boolean",
+        "isSameFile",
+        "FileObject, FileObject",
+        () -> inner.isSameFile(a, b),
+        a, b
+    );
+  }
+
+  @Override
+  public int isSupportedOption(String option) {
+    if (!logger.isDebugEnabled()) {
+      return inner.isSupportedOption(option);
+    }
+
+    return invoke(
+        "int",
+        "isSupportedOption",
+        "String",
+        () -> inner.isSupportedOption(option),
+        option
+    );
+  }
+
+  @Override
+  public Set<JavaFileObject> list(
+      Location location,
+      String packageName,
+      Set<Kind> kinds,
+      boolean recurse
+  ) throws IOException {
+    if (!logger.isDebugEnabled()) {
+      return inner.list(location, packageName, kinds, recurse);
+    }
+
+    return invoke(
+        "Set",
+        "list",
+        "Location, String, Set, boolean",
+        () -> inner.list(location, packageName, kinds, recurse),
+        location, packageName, kinds, recurse
+    );
+  }
+
+  @Override
+  public Iterable<Set<Location>> listLocationsForModules(Location location) throws IOException {
+    if (!logger.isDebugEnabled()) {
+      return inner.listLocationsForModules(location);
+    }
+
+    return invoke(
+        "Iterable",
+        "listLocationsForModules",
+        "Location",
+        () -> inner.listLocationsForModules(location),
+        location
+    );
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("inner", inner)
+        .attribute("stackTraces", stackTraces)
+        .toString();
+  }
+
+  private <T, E extends Throwable> T invoke(
+      String returnType,
+      String methodName,
+      String paramStr,
+      Call<T, E> call,
+      @Nullable Object... args
+  ) throws E {
     var thread = LoomPolyfill.getCurrentThread();
     var threadId = LoomPolyfill.getThreadId(thread);
-
     var depth = incrementStackDepth();
-    var returnType = method.getReturnType().getSimpleName();
-    var methodName = method.getName();
-    var paramStr = Stream
-        .of(method.getParameters())
-        .map(Parameter::getType)
-        .map(Class::getSimpleName)
-        .collect(Collectors.joining(", "));
-
-    // When no arguments are passed, the args array is
-    // null rather than a zero length array (i.e. Object[0]).
-    var argsStr = args == null ? "" : Stream
-        .of(args)
-        .map(Objects::toString)
-        .collect(Collectors.joining(", "));
+    var stackFrames = stackTraces ? captureStackFrames() : List.<StackFrame>of();
 
     logger
         .atDebug()
@@ -101,14 +775,20 @@ public final class LoggingFileManagerProxy implements InvocationHandler {
         .addArgument(returnType)
         .addArgument(methodName)
         .addArgument(paramStr)
-        .addArgument(argsStr)
-        .addArgument(stackTraceFormatter(thread.getStackTrace()))
+        .addArgument(() -> Stream
+            .of(args)
+            .map(Objects::toString)
+            .collect(Collectors.joining(", ")))
+        .addArgument(() -> stackFrames
+            .stream()
+            .map(frame -> "\n\t" + frame.toStackTraceElement())
+            .collect(Collectors.joining()))
         .log();
 
     try {
-      var result = method.invoke(inner, args);
+      var result = call.call();
 
-      if (method.getReturnType().equals(void.class)) {
+      if (returnType.equals("void")) {
         logger
             .atDebug()
             .setMessage("<<< [thread={}, depth={}] {} {}({}) completed")
@@ -133,7 +813,7 @@ public final class LoggingFileManagerProxy implements InvocationHandler {
 
       return result;
 
-    } catch (ReflectiveOperationException ex) {
+    } catch (Throwable ex) {
 
       logger
           .atDebug()
@@ -143,24 +823,16 @@ public final class LoggingFileManagerProxy implements InvocationHandler {
           .addArgument(returnType)
           .addArgument(methodName)
           .addArgument(paramStr)
-          .addArgument(ex.getCause())
+          .addArgument(ex)
           .log();
 
-      throw ex.getCause();
+      throw ex;
 
     } finally {
       decrementStackDepth();
     }
   }
 
-  @Override
-  public String toString() {
-    return new ToStringBuilder(this)
-        .attribute("inner", inner)
-        .attribute("stackTraces", stackTraces)
-        .toString();
-  }
-
   private int incrementStackDepth() {
     var depth = stackDepth.get() + 1;
     stackDepth.set(depth);
@@ -172,15 +844,12 @@ public final class LoggingFileManagerProxy implements InvocationHandler {
     stackDepth.set(depth);
   }
 
-  private Supplier<String> stackTraceFormatter(StackTraceElement[] stackTrace) {
-    if (!stackTraces) {
-      return () -> "";
-    }
-
-    return () -> Stream
-        .of(stackTrace)
-        .map(frame -> "\n\t" + frame)
-        .collect(Collectors.joining());
+  private static List<StackFrame> captureStackFrames() {
+    // Skip the frames within this class, so that the trace starts at the caller of the file
+    // manager. The frames themselves are only turned into strings if the entry is logged.
+    return STACK_WALKER.walk(frames -> frames
+        .dropWhile(frame -> frame.getClassName().equals(LoggingFileManagerProxy.class.getName()))
+        .collect(Collectors.toUnmodifiableList()));
   }
 
   /**
@@ -192,10 +861,18 @@ public final class LoggingFileManagerProxy implements InvocationHandler {
    * @return the proxy {@link JctFileManager} to use.
    */
   public static JctFileManager wrap(JctFileManager manager, boolean stackTraces) {
-    return (JctFileManager) Proxy.newProxyInstance(
-        JctFileManager.class.getClassLoader(),
-        new Class<?>[]{JctFileManager.class},
-        new LoggingFileManagerProxy(manager, stackTraces)
-    );
+    return new LoggingFileManagerProxy(manager, stackTraces);
+  }
+
+  /**
+   * A call to the wrapped file manager.
+   *
+   * @param <T> the result type.
+   * @param <E> the exception type.
+   */
+  @FunctionalInterface
+  private interface Call<T, E extends Throwable> {
+
+    T call() throws E;
   }
 }
@@ -18,6 +18,7 @@ package io.github.ascopes.jct.filemanagers;
 import static java.util.Objects.requireNonNull;
 
 import io.github.ascopes.jct.utils.FileUtils;
+import io.github.ascopes.jct.utils.IoExceptionUtils.IoSupplier;
 import io.github.ascopes.jct.utils.ToStringBuilder;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
@@ -65,6 +66,9 @@ public final class PathFileObject implements JavaFileObject {
   private static final Logger LOGGER = LoggerFactory.getLogger(PathFileObject.class);
   private static final Charset CHARSET = StandardCharsets.UTF_8;
   private static final long NOT_MODIFIED = 0L;
+  private static final Runnable NO_LISTENER = () -> {
+    // Do nothing.
+  };
 
   private final Location location;
   private final Path rootPath;
@@ -73,6 +77,8 @@ public final class PathFileObject implements JavaFileObject {
   private final String name;
   private final URI uri;
   private final Kind kind;
+  private final Runnable modificationListener;
+  private final @Nullable IoSupplier<? extends OutputStream> outputStreamFactory;
 
   /**
    * Initialize this file object.
@@ -82,6 +88,75 @@ public final class PathFileObject implements JavaFileObject {
    * @param relativePath the path to point to, relative to the root.
    */
   public PathFileObject(Location location, Path rootPath, Path relativePath) {
+    this(location, rootPath, relativePath, NO_LISTENER);
+  }
+
+  /**
+   * Initialize this file object.
+   *
+   * <p>The modification listener is invoked after this file object creates, overwrites, or
+   * deletes the file, which allows the creator of this object to discard any state it has cached
+   * about the file system.
+   *
+   * @param location             the location that the file object is located within.
+   * @param rootPath             the root directory that the path is a package within.
+   * @param relativePath         the path to point to, relative to the root.
+   * @param modificationListener the listener to invoke when the file is modified.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.INTERNAL)
+  public PathFileObject(
+      Location location,
+      Path rootPath,
+      Path relativePath,
+      Runnable modificationListener
+  ) {
+    this(
+        location,
+        rootPath,
+        relativePath,
+        requireNonNull(modificationListener, "modificationListener"),
+        null
+    );
+  }
+
+  /**
+   * Initialize this file object.
+   *
+   * <p>Any output streams and writers that are opened for this file object will write to the
+   * stream produced by the given factory rather than to the file system. No files or directories
+   * will be created for them, which allows the creator of this object to decide what to do with
+   * the written content.
+   *
+   * @param location            the location that the file object is located within.
+   * @param rootPath            the root directory that the path is a package within.
+   * @param relativePath        the path to point to, relative to the root.
+   * @param outputStreamFactory the factory to open output streams with.
+   * @since 0.7.0
+   */
+  @API(since = "0.7.0", status = Status.INTERNAL)
+  public PathFileObject(
+      Location location,
+      Path rootPath,
+      Path relativePath,
+      IoSupplier<? extends OutputStream> outputStreamFactory
+  ) {
+    this(
+        location,
+        rootPath,
+        relativePath,
+        NO_LISTENER,
+        requireNonNull(outputStreamFactory, "outputStreamFactory")
+    );
+  }
+
+  private PathFileObject(
+      Location location,
+      Path rootPath,
+      Path relativePath,
+      Runnable modificationListener,
+      @Nullable IoSupplier<? extends OutputStream> outputStreamFactory
+  ) {
     requireNonNull(location, "location");
     requireNonNull(rootPath, "rootPath");
     requireNonNull(relativePath, "relativePath");
@@ -103,6 +178,8 @@ public final class PathFileObject implements JavaFileObject {
     name = this.relativePath.toString();
     uri = fullPath.toUri();
     kind = FileUtils.pathToKind(relativePath);
+    this.modificationListener = modificationListener;
+    this.outputStreamFactory = outputStreamFactory;
   }
 
   /**
@@ -113,7 +190,11 @@ public final class PathFileObject implements JavaFileObject {
   @Override
   public boolean delete() {
     try {
-      return Files.deleteIfExists(fullPath);
+      var deleted = Files.deleteIfExists(fullPath);
+      if (deleted) {
+        modificationListener.run();
+      }
+      return deleted;
     } catch (IOException ex) {
       LOGGER.debug("Ignoring error deleting {}", uri, ex);
       return false;
@@ -406,9 +487,16 @@ public final class PathFileObject implements JavaFileObject {
   }
 
   private OutputStream openUnbufferedOutputStream() throws IOException {
+    if (outputStreamFactory != null) {
+      return outputStreamFactory.get();
+    }
+
     // Ensure parent directories exist first.
     Files.createDirectories(fullPath.getParent());
-    return Files.newOutputStream(fullPath);
+    var outputStream = Files.newOutputStream(fullPath);
+    // The file now exists, so anything that cached the state of the file system must be told.
+    modificationListener.run();
+    return outputStream;
   }
 
   private CharsetDecoder decoder(boolean ignoreEncodingErrors) {
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.filemanagers.config;
+
+import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.containers.impl.DiscardingContainerImpl;
+import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.workspaces.Workspace;
+import io.github.ascopes.jct.workspaces.impl.WrappingDirectoryImpl;
+import java.nio.file.Path;
+import javax.tools.StandardLocation;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Configurer for a file manager that backs the class outputs with a container that discards
+ * anything written to it, if enabled in the compiler.
+ *
+ * <p>The container is rooted at the first class output package in the workspace, if there is
+ * one, so file objects for outputs have the same paths that they would otherwise have. Otherwise,
+ * it is rooted at a directory in the system temporary directory that is never created. The
+ * workspace itself is never modified. This must run before the workspace paths are added to the
+ * file manager, since output locations can only hold a single package.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.EXPERIMENTAL)
+public final class JctFileManagerDiscardingClassOutputConfigurer
+    implements JctFileManagerConfigurer {
+
+  private static final Logger LOGGER
+      = LoggerFactory.getLogger(JctFileManagerDiscardingClassOutputConfigurer.class);
+
+  private static final String DIRECTORY_NAME = "jct-discarded-class-outputs";
+
+  private final JctCompiler<?, ?> compiler;
+  private final Workspace workspace;
+
+  /**
+   * Initialise this configurer.
+   *
+   * @param compiler  the compiler to pull configuration details from.
+   * @param workspace the workspace to bind to.
+   */
+  public JctFileManagerDiscardingClassOutputConfigurer(
+      JctCompiler<?, ?> compiler,
+      Workspace workspace
+  ) {
+    this.compiler = compiler;
+    this.workspace = workspace;
+  }
+
+  @Override
+  public JctFileManager configure(JctFileManager fileManager) {
+    LOGGER.debug("Configuring class outputs to be discarded");
+
+    // Do not create a package in the workspace if there is not one already, as the user would
+    // then see an empty class output package in the workspace after compiling.
+    var existingPackages = workspace.getClassOutputPackages();
+    var root = existingPackages.isEmpty()
+        ? new WrappingDirectoryImpl(Path.of(System.getProperty("java.io.tmpdir"), DIRECTORY_NAME))
+        : existingPackages.get(0);
+
+    LOGGER.trace("Discarding class outputs that would have been written to {}", root);
+
+    var container = new DiscardingContainerImpl(StandardLocation.CLASS_OUTPUT, root);
+    fileManager.addContainer(StandardLocation.CLASS_OUTPUT, container);
+    return fileManager;
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return compiler.isDiscardClassOutputs();
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.filemanagers.config;
+
+import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.containers.Container;
+import io.github.ascopes.jct.containers.impl.PathWrappingContainerImpl;
+import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.filemanagers.impl.JctFileManagerBaselineCache;
+import io.github.ascopes.jct.utils.VisibleForTestingOnly;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Configurer for a file manager that applies the running JVM's class path, module path, and
+ * system modules to the file manager from a shared, pre-indexed baseline.
+ *
+ * <p>This produces the same result as applying the
+ * {@link JctFileManagerJvmClassPathConfigurer}, {@link JctFileManagerJvmClassPathModuleConfigurer},
+ * {@link JctFileManagerJvmModulePathConfigurer}, and
+ * {@link JctFileManagerJvmSystemModulesConfigurer} in that order, but the JARs and modules are
+ * only discovered and indexed once per release rather than once per compilation.
+ *
+ * <p>If class path, module path, and system module inheritance are all disabled in the compiler,
+ * then this will not run.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.STABLE)
+public final class JctFileManagerJvmBaselineConfigurer implements JctFileManagerConfigurer {
+
+  private static final Logger LOGGER = LoggerFactory
+      .getLogger(JctFileManagerJvmBaselineConfigurer.class);
+
+  private final JctCompiler<?, ?> compiler;
+  private final JctFileManagerBaselineCache cache;
+
+  /**
+   * Initialise the configurer with the desired compiler.
+   *
+   * @param compiler the compiler to wrap.
+   */
+  public JctFileManagerJvmBaselineConfigurer(JctCompiler<?, ?> compiler) {
+    this(compiler, JctFileManagerBaselineCache.getInstance());
+  }
+
+  /**
+   * Initialise the configurer with the desired compiler and baseline cache.
+   *
+   * <p>Only visible for testing.
+   *
+   * @param compiler the compiler to wrap.
+   * @param cache    the baseline cache to use.
+   */
+  @VisibleForTestingOnly
+  public JctFileManagerJvmBaselineConfigurer(
+      JctCompiler<?, ?> compiler,
+      JctFileManagerBaselineCache cache
+  ) {
+    this.compiler = compiler;
+    this.cache = cache;
+  }
+
+  @Override
+  public JctFileManager configure(JctFileManager fileManager) {
+    LOGGER.debug("Configuring locations inherited from the JVM");
+
+    var baseline = cache.getBaseline(compiler);
+
+    // We copy the containers rather than the groups, since groups can be modified after
+    // configuration and the baseline must not be. Containers are recreated from their path roots
+    // so that each file manager owns, and later closes, its own containers. Closing a shared JAR
+    // container would release the baseline's lease on the JAR index, allowing the cache to close
+    // the JAR while other file managers are still using it. Recreating JAR containers is cheap,
+    // since the index itself is shared via the JAR index cache. The exception is directories on
+    // read-only file systems, such as the modules in the JDK runtime image. These can never
+    // change, hold nothing that needs closing, and are by far the largest directories we index,
+    // so they are shared so that they only have to be indexed once.
+    for (var group : baseline.getPackageContainerGroups()) {
+      var location = group.getLocation();
+      fileManager.createEmptyLocation(location);
+      var target = fileManager.getPackageContainerGroup(location);
+
+      for (var container : group.getPackages()) {
+        if (isSharedWithBaseline(container)) {
+          target.addPackage(container);
+        } else {
+          target.addPackage(container.getPathRoot());
+        }
+      }
+    }
+
+    for (var group : baseline.getModuleContainerGroups()) {
+      var location = group.getLocation();
+      fileManager.createEmptyLocation(location);
+      var target = fileManager.getModuleContainerGroup(location);
+
+      group.getModules().forEach((moduleLocation, moduleGroup) -> {
+        var moduleName = moduleLocation.getModuleName();
+
+        for (var container : moduleGroup.getPackages()) {
+          if (isSharedWithBaseline(container)) {
+            target.addModule(moduleName, container);
+          } else {
+            target.addModule(moduleName, container.getPathRoot());
+          }
+        }
+      });
+    }
+
+    return fileManager;
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return compiler.isInheritClassPath()
+        || compiler.isInheritModulePath()
+        || compiler.isInheritSystemModulePath();
+  }
+
+  private static boolean isSharedWithBaseline(Container container) {
+    return container instanceof PathWrappingContainerImpl
+        && container.getPathRoot().getPath().getFileSystem().isReadOnly();
+  }
+}
@@ -26,6 +26,10 @@ import org.slf4j.LoggerFactory;
 /**
  * Configurer for a file manager that applies the given workspace.
  *
+ * <p>Output locations that have already been configured in the file manager, such as class
+ * outputs that are being discarded, are left as they are, since output locations can only hold
+ * a single package.
+ *
  * @author Ashley Scopes
  * @since 0.0.1
  */
@@ -51,6 +55,15 @@ public final class JctFileManagerWorkspaceConfigurer implements JctFileManagerCo
     LOGGER.debug("Configuring file manager with user-provided paths");
 
     workspace.getAllPaths().forEach((location, paths) -> {
+      if (location.isOutputLocation() && fileManager.hasLocation(location)) {
+        LOGGER
+            .atTrace()
+            .setMessage("Skipping workspace location {} as the file manager already provides it")
+            .addArgument(() -> StringUtils.quoted(location.getName()))
+            .log();
+        return;
+      }
+
       LOGGER
           .atTrace()
           .setMessage("Adding paths from workspace location {} into file manager ({})")
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.filemanagers.impl;
+
+import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.filemanagers.config.JctFileManagerConfigurerChain;
+import io.github.ascopes.jct.filemanagers.config.JctFileManagerJvmClassPathConfigurer;
+import io.github.ascopes.jct.filemanagers.config.JctFileManagerJvmClassPathModuleConfigurer;
+import io.github.ascopes.jct.filemanagers.config.JctFileManagerJvmModulePathConfigurer;
+import io.github.ascopes.jct.filemanagers.config.JctFileManagerJvmSystemModulesConfigurer;
+import io.github.ascopes.jct.utils.Lazy;
+import io.github.ascopes.jct.utils.SpecialLocationUtils;
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import io.github.ascopes.jct.utils.VisibleForTestingOnly;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JVM-wide cache of file managers holding the locations inherited from the running JVM.
+ *
+ * <p>Inheriting the class path, module path, and system modules from the JVM requires opening and
+ * indexing every JAR and discovering every module on those paths. This is the same work for every
+ * compilation that uses the same release and inheritance settings, so it is performed once and the
+ * resulting baseline is reused.
+ *
+ * <p>Baselines are never exposed directly and are never modified once built. Consumers should
+ * recreate the containers from each baseline group in their own groups, since those will be
+ * closed along with the consumer. Only containers that hold nothing that needs closing may be
+ * shared directly.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.INTERNAL)
+public final class JctFileManagerBaselineCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JctFileManagerBaselineCache.class);
+  private static final JctFileManagerBaselineCache INSTANCE = new JctFileManagerBaselineCache();
+
+  /**
+   * Get the shared JVM-wide instance of this cache.
+   *
+   * @return the shared instance.
+   */
+  public static JctFileManagerBaselineCache getInstance() {
+    return INSTANCE;
+  }
+
+  private final Map<Key, Lazy<JctFileManager>> baselines;
+
+  /**
+   * Initialise a new cache.
+   *
+   * <p>Only visible for testing. Use {@link #getInstance()} instead.
+   */
+  @VisibleForTestingOnly
+  public JctFileManagerBaselineCache() {
+    baselines = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Get the baseline for the given compiler, building it if it does not yet exist.
+   *
+   * <p>The returned file manager must be treated as read-only.
+   *
+   * @param compiler the compiler to get the baseline for.
+   * @return the baseline file manager.
+   */
+  public JctFileManager getBaseline(JctCompiler<?, ?> compiler) {
+    var key = new Key(compiler);
+
+    // Building is performed outside the map's internal locks so that building a baseline for
+    // one release does not block lookups for other releases.
+    return baselines
+        .computeIfAbsent(key, ignored -> new Lazy<>(() -> build(key, compiler)))
+        .access();
+  }
+
+  /**
+   * Discard all baselines in this cache.
+   *
+   * <p>File managers that already inherited from a baseline are not affected.
+   */
+  public void clear() {
+    baselines.clear();
+  }
+
+  /**
+   * Get the number of baselines in this cache.
+   *
+   * @return the number of baselines.
+   */
+  public int size() {
+    return baselines.size();
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("size", baselines.size())
+        .toString();
+  }
+
+  private static JctFileManager build(Key key, JctCompiler<?, ?> compiler) {
+    LOGGER.debug("Building inherited JVM location baseline for release {}", key.release);
+
+    // The order here must match the order that the default configurer chain previously applied
+    // these configurers in, since the order of containers within a group is significant.
+    return new JctFileManagerConfigurerChain()
+        .addLast(new JctFileManagerJvmClassPathConfigurer(compiler))
+        .addLast(new JctFileManagerJvmClassPathModuleConfigurer(compiler))
+        .addLast(new JctFileManagerJvmModulePathConfigurer(compiler))
+        .addLast(new JctFileManagerJvmSystemModulesConfigurer(compiler))
+        .configure(new JctFileManagerImpl(key.release));
+  }
+
+  private static final class Key {
+
+    private final String release;
+    private final boolean inheritClassPath;
+    private final boolean fixJvmModulePathMismatch;
+    private final boolean inheritModulePath;
+    private final boolean inheritSystemModulePath;
+    private final List<Path> classPath;
+    private final List<Path> modulePath;
+
+    private Key(JctCompiler<?, ?> compiler) {
+      release = compiler.getEffectiveRelease();
+      inheritClassPath = compiler.isInheritClassPath();
+      fixJvmModulePathMismatch = compiler.isFixJvmModulePathMismatch();
+      inheritModulePath = compiler.isInheritModulePath();
+      inheritSystemModulePath = compiler.isInheritSystemModulePath();
+
+      // The paths themselves are part of the key in case the module path property is changed
+      // at runtime.
+      classPath = SpecialLocationUtils.currentClassPathLocations();
+      modulePath = SpecialLocationUtils.currentModulePathLocations();
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+      if (!(other instanceof Key)) {
+        return false;
+      }
+
+      var that = (Key) other;
+      return inheritClassPath == that.inheritClassPath
+          && fixJvmModulePathMismatch == that.fixJvmModulePathMismatch
+          && inheritModulePath == that.inheritModulePath
+          && inheritSystemModulePath == that.inheritSystemModulePath
+          && release.equals(that.release)
+          && classPath.equals(that.classPath)
+          && modulePath.equals(that.modulePath);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(
+          release,
+          inheritClassPath,
+          fixJvmModulePathMismatch,
+          inheritModulePath,
+          inheritSystemModulePath,
+          classPath,
+          modulePath
+      );
+    }
+  }
+}
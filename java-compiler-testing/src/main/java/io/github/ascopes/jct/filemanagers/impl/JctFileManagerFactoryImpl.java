@@ -20,11 +20,9 @@ import io.github.ascopes.jct.filemanagers.JctFileManager;
 import io.github.ascopes.jct.filemanagers.JctFileManagerFactory;
 import io.github.ascopes.jct.filemanagers.config.JctFileManagerAnnotationProcessorClassPathConfigurer;
 import io.github.ascopes.jct.filemanagers.config.JctFileManagerConfigurerChain;
-import io.github.ascopes.jct.filemanagers.config.JctFileManagerJvmClassPathConfigurer;
-import io.github.ascopes.jct.filemanagers.config.JctFileManagerJvmClassPathModuleConfigurer;
-import io.github.ascopes.jct.filemanagers.config.JctFileManagerJvmModulePathConfigurer;
+import io.github.ascopes.jct.filemanagers.config.JctFileManagerDiscardingClassOutputConfigurer;
+import io.github.ascopes.jct.filemanagers.config.JctFileManagerJvmBaselineConfigurer;
 import io.github.ascopes.jct.filemanagers.config.JctFileManagerJvmPlatformClassPathConfigurer;
-import io.github.ascopes.jct.filemanagers.config.JctFileManagerJvmSystemModulesConfigurer;
 import io.github.ascopes.jct.filemanagers.config.JctFileManagerLoggingProxyConfigurer;
 import io.github.ascopes.jct.filemanagers.config.JctFileManagerRequiredLocationsConfigurer;
 import io.github.ascopes.jct.filemanagers.config.JctFileManagerWorkspaceConfigurer;
@@ -78,12 +76,10 @@ public final class JctFileManagerFactoryImpl implements JctFileManagerFactory {
   public JctFileManagerConfigurerChain createConfigurerChain(Workspace workspace) {
     // The order here is important. Do not adjust it without testing extensively first!
     return new JctFileManagerConfigurerChain()
+        .addLast(new JctFileManagerDiscardingClassOutputConfigurer(compiler, workspace))
         .addLast(new JctFileManagerWorkspaceConfigurer(workspace))
-        .addLast(new JctFileManagerJvmClassPathConfigurer(compiler))
-        .addLast(new JctFileManagerJvmClassPathModuleConfigurer(compiler))
-        .addLast(new JctFileManagerJvmModulePathConfigurer(compiler))
+        .addLast(new JctFileManagerJvmBaselineConfigurer(compiler))
         .addLast(new JctFileManagerJvmPlatformClassPathConfigurer(compiler))
-        .addLast(new JctFileManagerJvmSystemModulesConfigurer(compiler))
         .addLast(new JctFileManagerAnnotationProcessorClassPathConfigurer(compiler))
         .addLast(new JctFileManagerRequiredLocationsConfigurer(workspace))
         .addLast(new JctFileManagerLoggingProxyConfigurer(compiler));
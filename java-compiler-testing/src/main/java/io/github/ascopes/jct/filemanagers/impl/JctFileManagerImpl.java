@@ -17,6 +17,7 @@ package io.github.ascopes.jct.filemanagers.impl;
 
 import static java.util.Objects.requireNonNull;
 
+import io.github.ascopes.jct.containers.Container;
 import io.github.ascopes.jct.containers.ModuleContainerGroup;
 import io.github.ascopes.jct.containers.OutputContainerGroup;
 import io.github.ascopes.jct.containers.PackageContainerGroup;
@@ -60,6 +61,11 @@ public final class JctFileManagerImpl implements JctFileManager {
     repository = new ContainerGroupRepositoryImpl(release);
   }
 
+  @Override
+  public void addContainer(Location location, Container container) {
+    repository.addContainer(location, container);
+  }
+
   @Override
   public void addPath(Location location, PathRoot pathRoot) {
     repository.addPath(location, pathRoot);
@@ -0,0 +1,719 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.filemanagers.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.containers.Container;
+import io.github.ascopes.jct.containers.ModuleContainerGroup;
+import io.github.ascopes.jct.containers.OutputContainerGroup;
+import io.github.ascopes.jct.containers.PackageContainerGroup;
+import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.filemanagers.JctFileManagerMetrics;
+import io.github.ascopes.jct.filemanagers.JctFileManagerMetrics.Histogram;
+import io.github.ascopes.jct.filemanagers.JctFileManagerMetrics.Operation;
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import io.github.ascopes.jct.utils.VisibleForTestingOnly;
+import io.github.ascopes.jct.workspaces.PathRoot;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.FilterReader;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.tools.FileObject;
+import javax.tools.ForwardingFileObject;
+import javax.tools.ForwardingJavaFileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import org.apiguardian.api.API;
+import org.apiguardian.api.API.Status;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A {@link JctFileManager} decorator that measures the operations performed on it.
+ *
+ * <p>Each call is counted and timed, and file objects that are handed out are wrapped so that
+ * the bytes read from and written to them can be counted. File objects that are passed back to
+ * this file manager are unwrapped before being passed on to the delegate.
+ *
+ * <p>All counters are striped, so this can be used from many threads at once without
+ * contention, and no information is captured beyond the counters themselves, so the overhead is
+ * a small constant amount per call. Use {@link #getMetrics()} to take a snapshot.
+ *
+ * @author Ashley Scopes
+ * @since 0.7.0
+ */
+@API(since = "0.7.0", status = Status.INTERNAL)
+public final class JctMeasuringFileManager implements JctFileManager {
+
+  private final JctFileManager delegate;
+  private final LongSupplier nanoTime;
+  private final ConcurrentMap<String, OperationRecorder> operations;
+  private final LongAdder bytesRead;
+  private final LongAdder bytesWritten;
+  private final HistogramRecorder listResultSizes;
+
+  /**
+   * Initialise this file manager.
+   *
+   * @param delegate the file manager to measure.
+   */
+  public JctMeasuringFileManager(JctFileManager delegate) {
+    this(delegate, System::nanoTime);
+  }
+
+  /**
+   * Initialise this file manager with a custom clock.
+   *
+   * @param delegate the file manager to measure.
+   * @param nanoTime the clock to measure latencies with.
+   */
+  @VisibleForTestingOnly
+  public JctMeasuringFileManager(JctFileManager delegate, LongSupplier nanoTime) {
+    this.delegate = requireNonNull(delegate, "delegate");
+    this.nanoTime = requireNonNull(nanoTime, "nanoTime");
+    operations = new ConcurrentHashMap<>();
+    bytesRead = new LongAdder();
+    bytesWritten = new LongAdder();
+    listResultSizes = new HistogramRecorder();
+  }
+
+  /**
+   * Get the file manager being measured.
+   *
+   * @return the delegate file manager.
+   */
+  public JctFileManager getDelegate() {
+    return delegate;
+  }
+
+  /**
+   * Take a snapshot of the measurements so far.
+   *
+   * @return the metrics.
+   */
+  public JctFileManagerMetrics getMetrics() {
+    var snapshots = new HashMap<String, Operation>();
+    operations.forEach((name, recorder) -> snapshots.put(name, recorder.snapshot()));
+    return new JctFileManagerMetrics(
+        snapshots,
+        bytesRead.sum(),
+        bytesWritten.sum(),
+        listResultSizes.snapshot()
+    );
+  }
+
+  @Override
+  public void addContainer(Location location, Container container) {
+    measure("addContainer", () -> {
+      delegate.addContainer(location, container);
+      return null;
+    });
+  }
+
+  @Override
+  public void addPath(Location location, PathRoot path) {
+    measure("addPath", () -> {
+      delegate.addPath(location, path);
+      return null;
+    });
+  }
+
+  @Override
+  public void addPaths(Location location, Collection<? extends PathRoot> paths) {
+    measure("addPaths", () -> {
+      delegate.addPaths(location, paths);
+      return null;
+    });
+  }
+
+  @Override
+  public void close() throws IOException {
+    measure("close", () -> {
+      delegate.close();
+      return null;
+    });
+  }
+
+  @Override
+  public boolean contains(Location location, FileObject fo) throws IOException {
+    return measure("contains", () -> delegate.contains(location, unwrap(fo)));
+  }
+
+  @Override
+  public void copyContainers(Location from, Location to) {
+    measure("copyContainers", () -> {
+      delegate.copyContainers(from, to);
+      return null;
+    });
+  }
+
+  @Override
+  public void createEmptyLocation(Location location) {
+    measure("createEmptyLocation", () -> {
+      delegate.createEmptyLocation(location);
+      return null;
+    });
+  }
+
+  @Override
+  public void flush() throws IOException {
+    measure("flush", () -> {
+      delegate.flush();
+      return null;
+    });
+  }
+
+  @Override
+  public ClassLoader getClassLoader(Location location) {
+    return measure("getClassLoader", () -> delegate.getClassLoader(location));
+  }
+
+  @Override
+  public String getEffectiveRelease() {
+    return measure("getEffectiveRelease", delegate::getEffectiveRelease);
+  }
+
+  @Override
+  public FileObject getFileForInput(
+      Location location,
+      String packageName,
+      String relativeName
+  ) throws IOException {
+    return wrap(measure(
+        "getFileForInput",
+        () -> delegate.getFileForInput(location, packageName, relativeName)
+    ));
+  }
+
+  @Override
+  public FileObject getFileForOutput(
+      Location location,
+      String packageName,
+      String relativeName,
+      FileObject sibling
+  ) throws IOException {
+    return wrap(measure(
+        "getFileForOutput",
+        () -> delegate.getFileForOutput(location, packageName, relativeName, unwrap(sibling))
+    ));
+  }
+
+  @Override
+  public JavaFileObject getJavaFileForInput(
+      Location location,
+      String className,
+      Kind kind
+  ) throws IOException {
+    return wrap(measure(
+        "getJavaFileForInput",
+        () -> delegate.getJavaFileForInput(location, className, kind)
+    ));
+  }
+
+  @Override
+  public JavaFileObject getJavaFileForOutput(
+      Location location,
+      String className,
+      Kind kind,
+      FileObject sibling
+  ) throws IOException {
+    return wrap(measure(
+        "getJavaFileForOutput",
+        () -> delegate.getJavaFileForOutput(location, className, kind, unwrap(sibling))
+    ));
+  }
+
+  @Override
+  public Location getLocationForModule(Location location, String moduleName) throws IOException {
+    return measure(
+        "getLocationForModule",
+        () -> delegate.getLocationForModule(location, moduleName)
+    );
+  }
+
+  @Override
+  public Location getLocationForModule(Location location, JavaFileObject fo) throws IOException {
+    return measure(
+        "getLocationForModule",
+        () -> delegate.getLocationForModule(location, unwrap(fo))
+    );
+  }
+
+  @Override
+  public ModuleContainerGroup getModuleContainerGroup(Location location) {
+    return measure("getModuleContainerGroup", () -> delegate.getModuleContainerGroup(location));
+  }
+
+  @Override
+  public Collection<ModuleContainerGroup> getModuleContainerGroups() {
+    return measure("getModuleContainerGroups", delegate::getModuleContainerGroups);
+  }
+
+  @Override
+  public OutputContainerGroup getOutputContainerGroup(Location location) {
+    return measure("getOutputContainerGroup", () -> delegate.getOutputContainerGroup(location));
+  }
+
+  @Override
+  public Collection<OutputContainerGroup> getOutputContainerGroups() {
+    return measure("getOutputContainerGroups", delegate::getOutputContainerGroups);
+  }
+
+  @Override
+  public PackageContainerGroup getPackageContainerGroup(Location location) {
+    return measure("getPackageContainerGroup", () -> delegate.getPackageContainerGroup(location));
+  }
+
+  @Override
+  public Collection<PackageContainerGroup> getPackageContainerGroups() {
+    return measure("getPackageContainerGroups", delegate::getPackageContainerGroups);
+  }
+
+  @Override
+  public <S> ServiceLoader<S> getServiceLoader(Location location, Class<S> service)
+      throws IOException {
+    return measure("getServiceLoader", () -> delegate.getServiceLoader(location, service));
+  }
+
+  @Override
+  public boolean handleOption(String current, Iterator<String> remaining) {
+    return measure("handleOption", () -> delegate.handleOption(current, remaining));
+  }
+
+  @Override
+  public boolean hasLocation(Location location) {
+    return measure("hasLocation", () -> delegate.hasLocation(location));
+  }
+
+  @Override
+  public String inferBinaryName(Location location, JavaFileObject file) {
+    return measure("inferBinaryName", () -> delegate.inferBinaryName(location, unwrap(file)));
+  }
+
+  @Override
+  public String inferModuleName(Location location) throws IOException {
+    return measure("inferModuleName", () -> delegate.inferModuleName(location));
+  }
+
+  @Override
+  public boolean isSameFile(FileObject a, FileObject b) {
+    return measure("isSameFile", () -> delegate.isSameFile(unwrap(a), unwrap(b)));
+  }
+
+  @Override
+  public int isSupportedOption(String option) {
+    return measure("isSupportedOption", () -> delegate.isSupportedOption(option));
+  }
+
+  @Override
+  public Set<JavaFileObject> list(
+      Location location,
+      String packageName,
+      Set<Kind> kinds,
+      boolean recurse
+  ) throws IOException {
+    var files = measure("list", () -> delegate.list(location, packageName, kinds, recurse));
+    listResultSizes.record(files.size());
+
+    var wrappedFiles = new LinkedHashSet<JavaFileObject>();
+    for (var file : files) {
+      wrappedFiles.add(wrap(file));
+    }
+    return wrappedFiles;
+  }
+
+  @Override
+  public Iterable<Set<Location>> listLocationsForModules(Location location) throws IOException {
+    return measure("listLocationsForModules", () -> delegate.listLocationsForModules(location));
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("delegate", delegate)
+        .toString();
+  }
+
+  private <T, E extends Exception> T measure(String operation, Call<T, E> call) throws E {
+    var recorder = operations.get(operation);
+
+    if (recorder == null) {
+      recorder = operations.computeIfAbsent(operation, ignored -> new OperationRecorder());
+    }
+
+    var start = nanoTime.getAsLong();
+    var succeeded = false;
+
+    try {
+      var result = call.call();
+      succeeded = true;
+      return result;
+    } finally {
+      recorder.record(nanoTime.getAsLong() - start, succeeded);
+    }
+  }
+
+  @Nullable
+  private FileObject wrap(@Nullable FileObject fileObject) {
+    if (fileObject instanceof JavaFileObject) {
+      return wrap((JavaFileObject) fileObject);
+    }
+
+    return fileObject == null ? null : new CountingFileObject(fileObject);
+  }
+
+  @Nullable
+  private JavaFileObject wrap(@Nullable JavaFileObject fileObject) {
+    return fileObject == null ? null : new CountingJavaFileObject(fileObject);
+  }
+
+  @Nullable
+  private static FileObject unwrap(@Nullable FileObject fileObject) {
+    if (fileObject instanceof CountingJavaFileObject) {
+      return ((CountingJavaFileObject) fileObject).getDelegate();
+    }
+
+    if (fileObject instanceof CountingFileObject) {
+      return ((CountingFileObject) fileObject).getDelegate();
+    }
+
+    return fileObject;
+  }
+
+  @Nullable
+  private static JavaFileObject unwrap(@Nullable JavaFileObject fileObject) {
+    return fileObject instanceof CountingJavaFileObject
+        ? ((CountingJavaFileObject) fileObject).getDelegate()
+        : fileObject;
+  }
+
+  @Nullable
+  private CharSequence countChars(@Nullable CharSequence content) {
+    if (content != null) {
+      bytesRead.add(content.length());
+    }
+    return content;
+  }
+
+  private static boolean isSameUri(FileObject fileObject, @Nullable Object other) {
+    return other instanceof FileObject
+        && fileObject.toUri().equals(((FileObject) other).toUri());
+  }
+
+  /**
+   * A call to the delegate file manager.
+   *
+   * @param <T> the result type.
+   * @param <E> the exception type.
+   */
+  @FunctionalInterface
+  private interface Call<T, E extends Exception> {
+
+    T call() throws E;
+  }
+
+  /**
+   * Striped counters for a single operation.
+   */
+  private static final class OperationRecorder {
+
+    private final LongAdder failures;
+    private final HistogramRecorder latencies;
+
+    private OperationRecorder() {
+      failures = new LongAdder();
+      latencies = new HistogramRecorder();
+    }
+
+    private void record(long latency, boolean succeeded) {
+      latencies.record(latency);
+
+      if (!succeeded) {
+        failures.increment();
+      }
+    }
+
+    private Operation snapshot() {
+      return new Operation(failures.sum(), latencies.snapshot());
+    }
+  }
+
+  /**
+   * Striped counters for a histogram with buckets bounded by powers of two.
+   */
+  private static final class HistogramRecorder {
+
+    // Bucket 0 holds zero, and bucket n holds values in [2^(n-1), 2^n).
+    private static final int BUCKET_COUNT = Long.SIZE + 1;
+
+    private final LongAdder[] buckets;
+    private final LongAdder sum;
+    private final LongAccumulator max;
+
+    private HistogramRecorder() {
+      buckets = new LongAdder[BUCKET_COUNT];
+      for (var i = 0; i < BUCKET_COUNT; ++i) {
+        buckets[i] = new LongAdder();
+      }
+      sum = new LongAdder();
+      max = new LongAccumulator(Math::max, 0);
+    }
+
+    private void record(long value) {
+      // Clocks should be monotonic, but we do not want to fail if they are not.
+      value = Math.max(0, value);
+      buckets[Long.SIZE - Long.numberOfLeadingZeros(value)].increment();
+      sum.add(value);
+      max.accumulate(value);
+    }
+
+    private Histogram snapshot() {
+      var counts = new HashMap<Long, Long>();
+
+      for (var i = 0; i < BUCKET_COUNT; ++i) {
+        var count = buckets[i].sum();
+
+        if (count > 0) {
+          var upperBound = i == Long.SIZE ? Long.MAX_VALUE : (1L << i) - 1;
+          counts.put(upperBound, count);
+        }
+      }
+
+      return new Histogram(sum.sum(), max.get(), counts);
+    }
+  }
+
+  /**
+   * A file object that counts the bytes read from and written to it.
+   */
+  private final class CountingFileObject extends ForwardingFileObject<FileObject> {
+
+    private CountingFileObject(FileObject fileObject) {
+      super(fileObject);
+    }
+
+    private FileObject getDelegate() {
+      return fileObject;
+    }
+
+    @Override
+    public InputStream openInputStream() throws IOException {
+      return new CountingInputStream(super.openInputStream());
+    }
+
+    @Override
+    public OutputStream openOutputStream() throws IOException {
+      return new CountingOutputStream(super.openOutputStream());
+    }
+
+    @Override
+    public Reader openReader(boolean ignoreEncodingErrors) throws IOException {
+      return new CountingReader(super.openReader(ignoreEncodingErrors));
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) throws IOException {
+      return countChars(super.getCharContent(ignoreEncodingErrors));
+    }
+
+    @Override
+    public Writer openWriter() throws IOException {
+      return new CountingWriter(super.openWriter());
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+      return isSameUri(this, other);
+    }
+
+    @Override
+    public int hashCode() {
+      return toUri().hashCode();
+    }
+  }
+
+  /**
+   * A Java file object that counts the bytes read from and written to it.
+   */
+  private final class CountingJavaFileObject extends ForwardingJavaFileObject<JavaFileObject> {
+
+    private CountingJavaFileObject(JavaFileObject fileObject) {
+      super(fileObject);
+    }
+
+    private JavaFileObject getDelegate() {
+      return fileObject;
+    }
+
+    @Override
+    public InputStream openInputStream() throws IOException {
+      return new CountingInputStream(super.openInputStream());
+    }
+
+    @Override
+    public OutputStream openOutputStream() throws IOException {
+      return new CountingOutputStream(super.openOutputStream());
+    }
+
+    @Override
+    public Reader openReader(boolean ignoreEncodingErrors) throws IOException {
+      return new CountingReader(super.openReader(ignoreEncodingErrors));
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) throws IOException {
+      return countChars(super.getCharContent(ignoreEncodingErrors));
+    }
+
+    @Override
+    public Writer openWriter() throws IOException {
+      return new CountingWriter(super.openWriter());
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+      return isSameUri(this, other);
+    }
+
+    @Override
+    public int hashCode() {
+      return toUri().hashCode();
+    }
+  }
+
+  /**
+   * An input stream that counts the bytes read from it.
+   */
+  private final class CountingInputStream extends FilterInputStream {
+
+    private CountingInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      var value = super.read();
+      if (value != -1) {
+        bytesRead.increment();
+      }
+      return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      var count = super.read(buffer, offset, length);
+      if (count > 0) {
+        bytesRead.add(count);
+      }
+      return count;
+    }
+  }
+
+  /**
+   * An output stream that counts the bytes written to it.
+   */
+  private final class CountingOutputStream extends FilterOutputStream {
+
+    private CountingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+      out.write(value);
+      bytesWritten.increment();
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) throws IOException {
+      // FilterOutputStream writes arrays one byte at a time, so bypass it.
+      out.write(buffer, offset, length);
+      bytesWritten.add(length);
+    }
+  }
+
+  /**
+   * A reader that counts the characters read from it.
+   */
+  private final class CountingReader extends FilterReader {
+
+    private CountingReader(Reader in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      var value = super.read();
+      if (value != -1) {
+        bytesRead.increment();
+      }
+      return value;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+      var count = super.read(buffer, offset, length);
+      if (count > 0) {
+        bytesRead.add(count);
+      }
+      return count;
+    }
+  }
+
+  /**
+   * A writer that counts the characters written to it.
+   */
+  private final class CountingWriter extends FilterWriter {
+
+    private CountingWriter(Writer out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+      super.write(value);
+      bytesWritten.increment();
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) throws IOException {
+      super.write(buffer, offset, length);
+      bytesWritten.add(length);
+    }
+
+    @Override
+    public void write(String string, int offset, int length) throws IOException {
+      super.write(string, offset, length);
+      bytesWritten.add(length);
+    }
+  }
+}
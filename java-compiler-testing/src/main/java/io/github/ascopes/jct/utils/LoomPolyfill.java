@@ -15,8 +15,12 @@
  */
 package io.github.ascopes.jct.utils;
 
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.apiguardian.api.API;
 import org.apiguardian.api.API.Status;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Polyfill support for Project Loom virtual threads.
@@ -27,6 +31,9 @@ import org.apiguardian.api.API.Status;
 @API(since = "0.0.1", status = Status.INTERNAL)
 public final class LoomPolyfill extends UtilityClass {
 
+  // Looked up once, since this is called for every intercepted call when logging file managers.
+  private static final @Nullable Method THREAD_ID_METHOD = findThreadIdMethod();
+
   private LoomPolyfill() {
     // Static-only class.
   }
@@ -43,15 +50,27 @@ public final class LoomPolyfill extends UtilityClass {
     // Note: this test will never get 100% coverage on one JDK, because it totally depends on the
     // JDK in use as to which code path runs. In CI, it should get covered when reports are merged.
 
+    if (THREAD_ID_METHOD != null) {
+      try {
+        return (long) THREAD_ID_METHOD.invoke(thread);
+      } catch (Exception ex) {
+        // Fall through to the old method.
+      }
+    }
+
+    @SuppressWarnings("deprecation")
+    var tid = thread.getId();
+    return tid;
+  }
+
+  @Nullable
+  private static Method findThreadIdMethod() {
     try {
       // If we are on JDK 19, attempt to call the .threadId() method instead of the .getId()
       // method. The former is new to JDK 19 and fetches the virtual thread ID.
-      var method = Thread.class.getDeclaredMethod("threadId");
-      return (long) method.invoke(thread);
-    } catch (Exception ex) {
-      @SuppressWarnings("deprecation")
-      var tid = thread.getId();
-      return tid;
+      return Thread.class.getDeclaredMethod("threadId");
+    } catch (NoSuchMethodException ex) {
+      return null;
     }
   }
 
@@ -63,4 +82,22 @@ public final class LoomPolyfill extends UtilityClass {
   public static Thread getCurrentThread() {
     return Thread.currentThread();
   }
+
+  /**
+   * Create an executor that runs each task in a new virtual thread, if virtual threads are
+   * available.
+   *
+   * @return the executor, or {@code null} if virtual threads are not available on this JVM.
+   * @since 0.7.0
+   */
+  @Nullable
+  public static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      // This method is new to JDK 19, and throws if preview features are needed but not enabled.
+      var method = Executors.class.getDeclaredMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) method.invoke(null);
+    } catch (Exception ex) {
+      return null;
+    }
+  }
 }
@@ -98,6 +98,8 @@ module io.github.ascopes.jct {
 
   requires java.compiler;
   requires java.management;
+  requires jdk.compiler;
+  requires jdk.management;
   requires jimfs;
   requires me.xdrop.fuzzywuzzy;
   requires static transitive org.apiguardian.api;
@@ -136,6 +138,7 @@ module io.github.ascopes.jct {
   exports io.github.ascopes.jct.compilers.impl to io.github.ascopes.jct.testing;
   exports io.github.ascopes.jct.compilers.javac to io.github.ascopes.jct.testing;
   exports io.github.ascopes.jct.containers.impl to io.github.ascopes.jct.testing;
+  exports io.github.ascopes.jct.diagnostics.impl to io.github.ascopes.jct.testing;
   exports io.github.ascopes.jct.filemanagers.impl to io.github.ascopes.jct.testing;
   exports io.github.ascopes.jct.utils to io.github.ascopes.jct.testing;
   exports io.github.ascopes.jct.workspaces.impl to io.github.ascopes.jct.testing;
@@ -151,6 +154,7 @@ module io.github.ascopes.jct {
   opens io.github.ascopes.jct.containers to io.github.ascopes.jct.testing;
   opens io.github.ascopes.jct.containers.impl to io.github.ascopes.jct.testing;
   opens io.github.ascopes.jct.diagnostics to io.github.ascopes.jct.testing;
+  opens io.github.ascopes.jct.diagnostics.impl to io.github.ascopes.jct.testing;
   opens io.github.ascopes.jct.ex to io.github.ascopes.jct.testing;
   opens io.github.ascopes.jct.filemanagers to io.github.ascopes.jct.testing;
   opens io.github.ascopes.jct.filemanagers.config to io.github.ascopes.jct.testing;
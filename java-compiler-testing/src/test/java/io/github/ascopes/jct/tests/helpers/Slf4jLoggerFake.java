@@ -38,9 +38,46 @@ import org.slf4j.helpers.AbstractLogger;
 public final class Slf4jLoggerFake extends AbstractLogger {
 
   private final List<Entry<Level, LogRecord>> entries;
+  private volatile boolean enabled;
 
   public Slf4jLoggerFake() {
     entries = new ArrayList<>();
+    enabled = true;
+  }
+
+  /**
+   * Set whether all logging levels are enabled. By default, they are.
+   *
+   * @param enabled {@code true} to enable all levels, {@code false} to disable all levels.
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Get the arguments of each log entry with the given level and message.
+   *
+   * @param level   the logger level.
+   * @param message the logger format message string.
+   * @return the arguments of each matching entry, in the order they were logged.
+   */
+  public List<Object[]> getEntryArguments(Level level, String message) {
+    return entries
+        .stream()
+        .filter(entry -> entry.getKey().equals(level))
+        .map(Entry::getValue)
+        .filter(record -> record.message.equals(message))
+        .map(record -> record.args)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Assert that nothing has been logged.
+   */
+  public void assertThatNothingLogged() {
+    assertThat(entries)
+        .withFailMessage("Expected nothing to be logged, but got %s", entries)
+        .isEmpty();
   }
 
   /**
@@ -101,53 +138,52 @@ public final class Slf4jLoggerFake extends AbstractLogger {
 
   @Override
   public boolean isTraceEnabled() {
-    return true;
+    return enabled;
   }
 
   @Override
   public boolean isTraceEnabled(Marker marker) {
-    return true;
+    return enabled;
   }
 
   @Override
   public boolean isDebugEnabled() {
-    return true;
+    return enabled;
   }
 
   @Override
   public boolean isDebugEnabled(Marker marker) {
-    return true;
+    return enabled;
   }
 
   @Override
   public boolean isInfoEnabled() {
-    return true;
+    return enabled;
   }
 
   @Override
   public boolean isInfoEnabled(Marker marker) {
-    return true;
-
+    return enabled;
   }
 
   @Override
   public boolean isWarnEnabled() {
-    return true;
+    return enabled;
   }
 
   @Override
   public boolean isWarnEnabled(Marker marker) {
-    return true;
+    return enabled;
   }
 
   @Override
   public boolean isErrorEnabled() {
-    return true;
+    return enabled;
   }
 
   @Override
   public boolean isErrorEnabled(Marker marker) {
-    return true;
+    return enabled;
   }
 
   private static class LogRecord {
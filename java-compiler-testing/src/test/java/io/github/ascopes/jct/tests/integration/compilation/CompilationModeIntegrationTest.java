@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.integration.compilation;
+
+import static io.github.ascopes.jct.assertions.JctAssertions.assertThatCompilation;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.jct.compilers.CompilationMode;
+import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.junit.JavacCompilerTest;
+import io.github.ascopes.jct.tests.integration.AbstractIntegrationTest;
+import io.github.ascopes.jct.workspaces.Workspaces;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Integration tests for compilation modes.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("Compilation mode integration tests")
+class CompilationModeIntegrationTest extends AbstractIntegrationTest {
+
+  @DisplayName("COMPILATION_ONLY generates classes without running annotation processors")
+  @JavacCompilerTest
+  void compilationOnlyGeneratesClassesWithoutRunningAnnotationProcessors(
+      JctCompiler<?, ?> compiler
+  ) {
+    var processor = new RecordingProcessor();
+    compiler
+        .compilationMode(CompilationMode.COMPILATION_ONLY)
+        .addAnnotationProcessors(processor);
+
+    try (var workspace = Workspaces.newWorkspace()) {
+      workspace.createSourcePathPackage()
+          .createFile("com/example/Foo.java")
+          .withContents("package com.example; public class Foo {}");
+
+      var compilation = compiler.compile(workspace);
+
+      assertThat(processor.rounds).isZero();
+      assertThatCompilation(compilation)
+          .isSuccessfulWithoutWarnings()
+          .classOutput()
+          .packages()
+          .fileExists("com/example/Foo.class")
+          .isNotEmptyFile();
+    }
+  }
+
+  @DisplayName("ANNOTATION_PROCESSING_ONLY runs annotation processors without generating classes")
+  @JavacCompilerTest
+  void annotationProcessingOnlyRunsAnnotationProcessorsWithoutGeneratingClasses(
+      JctCompiler<?, ?> compiler
+  ) {
+    var processor = new RecordingProcessor();
+    compiler
+        .compilationMode(CompilationMode.ANNOTATION_PROCESSING_ONLY)
+        .addAnnotationProcessors(processor);
+
+    try (var workspace = Workspaces.newWorkspace()) {
+      workspace.createSourcePathPackage()
+          .createFile("com/example/Foo.java")
+          .withContents("package com.example; public class Foo {}");
+
+      var compilation = compiler.compile(workspace);
+
+      assertThat(processor.rounds).isPositive();
+      assertThatCompilation(compilation)
+          .isSuccessfulWithoutWarnings()
+          .classOutput()
+          .packages()
+          .fileDoesNotExist("com/example/Foo.class");
+    }
+  }
+
+  /**
+   * Processor that counts the rounds it was invoked for.
+   */
+  static final class RecordingProcessor extends AbstractProcessor {
+
+    private int rounds;
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+      return Set.of("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+      return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+      ++rounds;
+      return false;
+    }
+  }
+}
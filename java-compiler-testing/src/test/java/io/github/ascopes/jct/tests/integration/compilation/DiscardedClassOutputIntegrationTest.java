@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.integration.compilation;
+
+import static io.github.ascopes.jct.assertions.JctAssertions.assertThatCompilation;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.jct.compilers.JctCompilation;
+import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.containers.impl.DiscardingContainerImpl;
+import io.github.ascopes.jct.junit.JavacCompilerTest;
+import io.github.ascopes.jct.tests.integration.AbstractIntegrationTest;
+import io.github.ascopes.jct.workspaces.Workspaces;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Integration tests for discarding class outputs.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("Discarded class output integration tests")
+class DiscardedClassOutputIntegrationTest extends AbstractIntegrationTest {
+
+  @DisplayName("Class outputs are recorded but not written to the workspace")
+  @JavacCompilerTest
+  void classOutputsAreRecordedButNotWrittenToTheWorkspace(JctCompiler<?, ?> compiler) {
+    compiler.discardClassOutputs(true);
+
+    try (var workspace = Workspaces.newWorkspace()) {
+      workspace.createSourcePathPackage()
+          .createFile("com/example/Foo.java")
+          .withContents("package com.example; public class Foo { class Bar {} }");
+
+      var compilation = compiler.compile(workspace);
+
+      assertThatCompilation(compilation).isSuccessfulWithoutWarnings();
+      assertThat(discardedClassOutputs(compilation).getDiscardedFiles())
+          .containsOnlyKeys("com/example/Foo.class", "com/example/Foo$Bar.class")
+          .allSatisfy((name, size) -> assertThat(size).isPositive());
+      assertThat(workspace.getClassOutputPackages()).isEmpty();
+    }
+  }
+
+  @DisplayName("Class outputs are still discarded when the workspace is compiled again")
+  @JavacCompilerTest
+  void classOutputsAreStillDiscardedWhenTheWorkspaceIsCompiledAgain(JctCompiler<?, ?> compiler) {
+    compiler.discardClassOutputs(true);
+
+    try (var workspace = Workspaces.newWorkspace()) {
+      workspace.createSourcePathPackage()
+          .createFile("com/example/Foo.java")
+          .withContents("package com.example; public class Foo {}");
+
+      compiler.compile(workspace);
+      var compilation = compiler.compile(workspace);
+
+      assertThatCompilation(compilation).isSuccessfulWithoutWarnings();
+      assertThat(discardedClassOutputs(compilation).getDiscardedFiles()).hasSize(1);
+      assertThat(workspace.getClassOutputPackages()).isEmpty();
+    }
+  }
+
+  @DisplayName("Diagnostics are still reported when class outputs are discarded")
+  @JavacCompilerTest
+  void diagnosticsAreStillReportedWhenClassOutputsAreDiscarded(JctCompiler<?, ?> compiler) {
+    compiler.discardClassOutputs(true);
+
+    try (var workspace = Workspaces.newWorkspace()) {
+      workspace.createSourcePathPackage()
+          .createFile("com/example/Foo.java")
+          .withContents("package com.example; public class Foo { int x = \"nope\"; }");
+
+      var compilation = compiler.compile(workspace);
+
+      assertThatCompilation(compilation)
+          .isFailure()
+          .diagnostics()
+          .errors()
+          .hasSize(1);
+    }
+  }
+
+  private static DiscardingContainerImpl discardedClassOutputs(JctCompilation compilation) {
+    var packages = compilation.getFileManager().getClassOutputGroup().getPackages();
+    assertThat(packages)
+        .singleElement()
+        .isInstanceOf(DiscardingContainerImpl.class);
+    return (DiscardingContainerImpl) packages.get(0);
+  }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.integration.compilation;
+
+import static io.github.ascopes.jct.assertions.JctAssertions.assertThatCompilation;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.jct.compilers.CompilationMode;
+import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.junit.JavacCompilerTest;
+import io.github.ascopes.jct.tests.integration.AbstractIntegrationTest;
+import io.github.ascopes.jct.workspaces.Workspaces;
+import java.io.IOException;
+import java.nio.file.Files;
+import javax.tools.JavaFileObject;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Integration tests for incremental compilation.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("Incremental compilation integration tests")
+class IncrementalCompilationIntegrationTest extends AbstractIntegrationTest {
+
+  @DisplayName("Recompiling an unchanged workspace compiles nothing")
+  @JavacCompilerTest
+  void recompilingAnUnchangedWorkspaceCompilesNothing(JctCompiler<?, ?> compiler) {
+    compiler.incrementalCompilation(true);
+
+    try (var workspace = Workspaces.newWorkspace()) {
+      workspace.createSourcePathPackage()
+          .createFile("com/example/Foo.java")
+          .withContents("package com.example; public class Foo {}");
+
+      compiler.compile(workspace);
+      var compilation = compiler.compile(workspace);
+
+      assertThat(compilation.getCompilationUnits()).isEmpty();
+      assertThatCompilation(compilation)
+          .isSuccessfulWithoutWarnings()
+          .classOutput()
+          .packages()
+          .fileExists("com/example/Foo.class")
+          .isNotEmptyFile();
+    }
+  }
+
+  @DisplayName("Changing a source only recompiles it and its dependents")
+  @JavacCompilerTest
+  void changingSourceOnlyRecompilesItAndItsDependents(
+      JctCompiler<?, ?> compiler
+  ) throws IOException {
+    compiler.incrementalCompilation(true);
+
+    try (var workspace = Workspaces.newWorkspace()) {
+      var sources = workspace.createSourcePathPackage()
+          .createFile("com/example/Foo.java")
+          .withContents("package com.example; public class Foo { static int x() { return 1; } }")
+          .and()
+          .createFile("com/example/Bar.java")
+          .withContents("package com.example; public class Bar { int y = Foo.x(); }")
+          .and()
+          .createFile("com/example/Baz.java")
+          .withContents("package com.example; public class Baz {}");
+
+      compiler.compile(workspace);
+
+      Files.writeString(
+          sources.getPath().resolve("com/example/Foo.java"),
+          "package com.example; public class Foo { static int x() { return 2; } }"
+      );
+      var compilation = compiler.compile(workspace);
+
+      assertThat(compilation.getCompilationUnits())
+          .map(JavaFileObject::getName)
+          .map(name -> name.substring(name.lastIndexOf('/') + 1))
+          .containsExactlyInAnyOrder("Foo.java", "Bar.java");
+      assertThatCompilation(compilation)
+          .isSuccessfulWithoutWarnings()
+          .classOutput()
+          .packages()
+          .allFilesExist("com/example/Foo.class", "com/example/Bar.class", "com/example/Baz.class");
+    }
+  }
+
+  @DisplayName("Removing a source deletes its class outputs")
+  @JavacCompilerTest
+  void removingSourceDeletesItsClassOutputs(JctCompiler<?, ?> compiler) throws IOException {
+    compiler.incrementalCompilation(true);
+
+    try (var workspace = Workspaces.newWorkspace()) {
+      var sources = workspace.createSourcePathPackage()
+          .createFile("com/example/Foo.java")
+          .withContents("package com.example; public class Foo { static class Nested {} }")
+          .and()
+          .createFile("com/example/Bar.java")
+          .withContents("package com.example; public class Bar {}");
+
+      compiler.compile(workspace);
+
+      Files.delete(sources.getPath().resolve("com/example/Foo.java"));
+      var compilation = compiler.compile(workspace);
+
+      assertThatCompilation(compilation)
+          .isSuccessfulWithoutWarnings()
+          .classOutput()
+          .packages()
+          .fileDoesNotExist("com/example/Foo.class")
+          .fileDoesNotExist("com/example/Foo$Nested.class")
+          .fileExists("com/example/Bar.class");
+    }
+  }
+
+  @DisplayName("Analyzing an unchanged workspace analyzes every source again")
+  @JavacCompilerTest
+  void analyzingAnUnchangedWorkspaceAnalyzesEverySourceAgain(JctCompiler<?, ?> compiler) {
+    compiler.incrementalCompilation(true).compilationMode(CompilationMode.ANALYZE_ONLY);
+
+    try (var workspace = Workspaces.newWorkspace()) {
+      workspace.createSourcePathPackage()
+          .createFile("com/example/Foo.java")
+          .withContents("package com.example; public class Foo {}");
+
+      compiler.compile(workspace);
+      var compilation = compiler.compile(workspace);
+
+      assertThat(compilation.getCompilationUnits())
+          .map(JavaFileObject::getName)
+          .map(name -> name.substring(name.lastIndexOf('/') + 1))
+          .containsExactly("Foo.java");
+      assertThatCompilation(compilation)
+          .isSuccessfulWithoutWarnings()
+          .classOutput()
+          .packages()
+          .fileDoesNotExist("com/example/Foo.class");
+    }
+  }
+}
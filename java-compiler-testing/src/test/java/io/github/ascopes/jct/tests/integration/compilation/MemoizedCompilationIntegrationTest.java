@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.integration.compilation;
+
+import static io.github.ascopes.jct.assertions.JctAssertions.assertThatCompilation;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.jct.compilers.JctCompilationCache;
+import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.junit.JavacCompilerTest;
+import io.github.ascopes.jct.tests.integration.AbstractIntegrationTest;
+import io.github.ascopes.jct.workspaces.Workspaces;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Integration tests for memoizing compilations.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("Memoized compilation integration tests")
+class MemoizedCompilationIntegrationTest extends AbstractIntegrationTest {
+
+  @DisplayName("Compiling identical workspaces reuses the first compilation")
+  @JavacCompilerTest
+  void compilingIdenticalWorkspacesReusesTheFirstCompilation(JctCompiler<?, ?> compiler) {
+    var cache = new JctCompilationCache();
+    compiler.compilationCache(cache);
+
+    try (
+        var firstWorkspace = Workspaces.newWorkspace();
+        var secondWorkspace = Workspaces.newWorkspace()
+    ) {
+      firstWorkspace.createSourcePathPackage().copyContentsFrom(resourcesDirectory());
+      secondWorkspace.createSourcePathPackage().copyContentsFrom(resourcesDirectory());
+
+      var firstCompilation = compiler.compile(firstWorkspace);
+      var secondCompilation = compiler.compile(secondWorkspace);
+
+      assertThat(cache.getMissCount()).isOne();
+      assertThat(cache.getHitCount()).isOne();
+      assertThat(firstCompilation.isMemoized()).isFalse();
+      assertThat(secondCompilation.isMemoized()).isTrue();
+
+      assertThatCompilation(secondCompilation)
+          .isSuccessfulWithoutWarnings()
+          .classOutput()
+          .packages()
+          .fileExists("HelloWorld.class")
+          .isNotEmptyFile();
+
+      assertThat(secondCompilation.getArguments())
+          .isEqualTo(firstCompilation.getArguments());
+      assertThat(secondCompilation.getCompilationUnits())
+          .hasSameSizeAs(firstCompilation.getCompilationUnits());
+    }
+  }
+
+  @DisplayName("Compiling workspaces with different contents does not reuse compilations")
+  @JavacCompilerTest
+  void compilingDifferentWorkspacesDoesNotReuseCompilations(JctCompiler<?, ?> compiler) {
+    var cache = new JctCompilationCache();
+    compiler.compilationCache(cache);
+
+    try (
+        var firstWorkspace = Workspaces.newWorkspace();
+        var secondWorkspace = Workspaces.newWorkspace()
+    ) {
+      firstWorkspace.createSourcePathPackage().copyContentsFrom(resourcesDirectory());
+      secondWorkspace.createSourcePathPackage()
+          .copyContentsFrom(resourcesDirectory())
+          .and()
+          .createFile("Extra.java")
+          .withContents("public class Extra {}");
+
+      compiler.compile(firstWorkspace);
+      var secondCompilation = compiler.compile(secondWorkspace);
+
+      assertThat(cache.getMissCount()).isEqualTo(2);
+      assertThat(cache.getHitCount()).isZero();
+
+      assertThatCompilation(secondCompilation)
+          .isSuccessfulWithoutWarnings()
+          .classOutput()
+          .packages()
+          .allFilesExist("HelloWorld.class", "Extra.class");
+    }
+  }
+}
@@ -35,9 +35,11 @@ import io.github.ascopes.jct.compilers.JctCompilation;
 import io.github.ascopes.jct.containers.ModuleContainerGroup;
 import io.github.ascopes.jct.containers.OutputContainerGroup;
 import io.github.ascopes.jct.containers.PackageContainerGroup;
+import io.github.ascopes.jct.diagnostics.DiagnosticCounts;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
 import io.github.ascopes.jct.repr.TraceDiagnosticListRepresentation;
 import java.util.List;
+import java.util.Map;
 import javax.tools.Diagnostic.Kind;
 import javax.tools.StandardLocation;
 import org.junit.jupiter.api.DisplayName;
@@ -317,6 +319,57 @@ class JctCompilationAssertTest {
           );
     }
 
+    @DisplayName(
+        ".isSuccessfulWithoutWarnings() fails if warnings were reported but not retained")
+    @Test
+    void isSuccessfulWithoutWarningsFailsIfWarningsWereReportedButNotRetained() {
+      // Given
+      var warnDiag = someTraceDiagnostic(Kind.WARNING);
+      var diagnostics = List.of(warnDiag);
+      var diagnosticCounts = new DiagnosticCounts(Map.of(Kind.WARNING, 3L), Map.of(), 1);
+
+      var compilation = mock(JctCompilation.class);
+      when(compilation.isFailure()).thenReturn(false);
+      when(compilation.isFailOnWarnings()).thenReturn(false);
+      when(compilation.getDiagnostics()).thenReturn(diagnostics);
+      when(compilation.getDiagnosticCounts()).thenReturn(diagnosticCounts);
+
+      var assertions = new JctCompilationAssert(compilation);
+
+      // Then
+      var expectedRepr = TraceDiagnosticListRepresentation.getInstance()
+          .toStringOf(List.of(warnDiag));
+
+      assertThatThrownBy(assertions::isSuccessfulWithoutWarnings)
+          .isInstanceOf(AssertionError.class)
+          .hasMessage(
+              "Expected no error, mandatory warning, or warning diagnostics.\n\n"
+                  + "Diagnostics:\n%s\n\n...and 2 more that were not retained",
+              expectedRepr
+          );
+    }
+
+    @DisplayName(
+        ".isSuccessfulWithoutWarnings() fails if only warnings that were not retained exist")
+    @Test
+    void isSuccessfulWithoutWarningsFailsIfOnlyWarningsThatWereNotRetainedExist() {
+      // Given
+      var diagnosticCounts = new DiagnosticCounts(Map.of(Kind.WARNING, 1_000L), Map.of(), 0);
+
+      var compilation = mock(JctCompilation.class);
+      when(compilation.isFailure()).thenReturn(false);
+      when(compilation.isFailOnWarnings()).thenReturn(false);
+      when(compilation.getDiagnostics()).thenReturn(List.of());
+      when(compilation.getDiagnosticCounts()).thenReturn(diagnosticCounts);
+
+      var assertions = new JctCompilationAssert(compilation);
+
+      // Then
+      assertThatThrownBy(assertions::isSuccessfulWithoutWarnings)
+          .isInstanceOf(AssertionError.class)
+          .hasMessageContaining("...and 1000 more that were not retained");
+    }
+
     @DisplayName(".isSuccessfulWithoutWarnings() succeeds if the compilation succeeded")
     @Test
     void isSuccessfulSucceedsIfCompilationSucceededNoFailOnWarnings() {
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.unit.assertions;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.ascopes.jct.assertions.JctCompilationTimingsAssert;
+import io.github.ascopes.jct.compilers.JctCompilationTimings;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link JctCompilationTimingsAssert} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JctCompilationTimingsAssert tests")
+class JctCompilationTimingsAssertTest {
+
+  @DisplayName(".total() fails if the timings are null")
+  @Test
+  void totalFailsIfTheTimingsAreNull() {
+    // Given
+    var timingsAssert = new JctCompilationTimingsAssert(null);
+
+    // Then
+    assertThatThrownBy(timingsAssert::total)
+        .isInstanceOf(AssertionError.class);
+  }
+
+  @DisplayName("Phase assertions are performed on the expected values")
+  @Test
+  void phaseAssertionsArePerformedOnTheExpectedValues() {
+    // Given
+    var timings = JctCompilationTimings
+        .builder()
+        .total(Duration.ofMillis(100))
+        .parse(Duration.ofMillis(1))
+        .enter(Duration.ofMillis(2))
+        .analyze(Duration.ofMillis(3))
+        .generate(Duration.ofMillis(4))
+        .annotationProcessing(Duration.ofMillis(5))
+        .annotationProcessingRounds(List.of(Duration.ofMillis(4), Duration.ofMillis(1)))
+        .build();
+    var timingsAssert = new JctCompilationTimingsAssert(timings);
+
+    // Then
+    assertThatCode(() -> {
+      timingsAssert.total().isEqualTo(Duration.ofMillis(100));
+      timingsAssert.parse().isEqualTo(Duration.ofMillis(1));
+      timingsAssert.enter().isEqualTo(Duration.ofMillis(2));
+      timingsAssert.analyze().isEqualTo(Duration.ofMillis(3));
+      timingsAssert.generate().isEqualTo(Duration.ofMillis(4));
+      timingsAssert.annotationProcessing().isEqualTo(Duration.ofMillis(5));
+      timingsAssert.annotationProcessingRounds()
+          .containsExactly(Duration.ofMillis(4), Duration.ofMillis(1));
+    }).doesNotThrowAnyException();
+  }
+
+  @DisplayName("Phase assertions fail for unexpected values")
+  @Test
+  void phaseAssertionsFailForUnexpectedValues() {
+    // Given
+    var timings = JctCompilationTimings.builder().analyze(Duration.ofSeconds(2)).build();
+    var timingsAssert = new JctCompilationTimingsAssert(timings);
+
+    // Then
+    assertThatThrownBy(() -> timingsAssert.analyze().isLessThan(Duration.ofSeconds(1)))
+        .isInstanceOf(AssertionError.class);
+  }
+}
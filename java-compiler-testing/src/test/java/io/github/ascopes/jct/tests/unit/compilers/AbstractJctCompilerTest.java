@@ -15,6 +15,7 @@
  */
 package io.github.ascopes.jct.tests.unit.compilers;
 
+import static io.github.ascopes.jct.tests.helpers.Fixtures.oneOf;
 import static io.github.ascopes.jct.tests.helpers.Fixtures.someBoolean;
 import static io.github.ascopes.jct.tests.helpers.Fixtures.someFlags;
 import static io.github.ascopes.jct.tests.helpers.Fixtures.someInt;
@@ -37,12 +38,16 @@ import static org.mockito.Mockito.when;
 import io.github.ascopes.jct.compilers.AbstractJctCompiler;
 import io.github.ascopes.jct.compilers.CompilationMode;
 import io.github.ascopes.jct.compilers.JctCompilation;
+import io.github.ascopes.jct.compilers.JctCompilationCache;
 import io.github.ascopes.jct.compilers.JctCompiler;
 import io.github.ascopes.jct.compilers.JctCompilerConfigurer;
 import io.github.ascopes.jct.compilers.JctFlagBuilder;
 import io.github.ascopes.jct.compilers.JctFlagBuilderFactory;
 import io.github.ascopes.jct.compilers.Jsr199CompilerFactory;
 import io.github.ascopes.jct.compilers.impl.JctCompilationFactoryImpl;
+import io.github.ascopes.jct.diagnostics.DiagnosticObserver;
+import io.github.ascopes.jct.diagnostics.DiagnosticRetention;
+import io.github.ascopes.jct.diagnostics.StackCaptureMode;
 import io.github.ascopes.jct.ex.JctCompilerException;
 import io.github.ascopes.jct.filemanagers.AnnotationProcessorDiscovery;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
@@ -53,6 +58,7 @@ import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.nio.file.FileSystemException;
 import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
@@ -315,6 +321,91 @@ class AbstractJctCompilerTest {
       assertThatCompilerField("annotationProcessorDiscovery")
           .isEqualTo(JctCompiler.DEFAULT_ANNOTATION_PROCESSOR_DISCOVERY);
     }
+
+    @DisplayName("constructor initialises compilationCache to null")
+    @Test
+    void constructorInitialisesCompilationCacheToNull() {
+      // Then
+      assertThatCompilerField("compilationCache").isNull();
+    }
+
+    @DisplayName("constructor initialises incrementalCompilation to default value")
+    @Test
+    void constructorInitialisesIncrementalCompilationToDefaultValue() {
+      // Then
+      assertThatCompilerField("incrementalCompilation")
+          .isEqualTo(JctCompiler.DEFAULT_INCREMENTAL_COMPILATION);
+    }
+
+    @DisplayName("constructor initialises annotationProcessorMetrics to default value")
+    @Test
+    void constructorInitialisesAnnotationProcessorMetricsToDefaultValue() {
+      // Then
+      assertThatCompilerField("annotationProcessorMetrics")
+          .isEqualTo(JctCompiler.DEFAULT_ANNOTATION_PROCESSOR_METRICS);
+    }
+
+    @DisplayName("constructor initialises fileManagerMetrics to default value")
+    @Test
+    void constructorInitialisesFileManagerMetricsToDefaultValue() {
+      // Then
+      assertThatCompilerField("fileManagerMetrics")
+          .isEqualTo(JctCompiler.DEFAULT_FILE_MANAGER_METRICS);
+    }
+
+    @DisplayName("constructor initialises diagnosticStackCaptureMode to default value")
+    @Test
+    void constructorInitialisesDiagnosticStackCaptureModeToDefaultValue() {
+      // Then
+      assertThatCompilerField("diagnosticStackCaptureMode")
+          .isEqualTo(JctCompiler.DEFAULT_DIAGNOSTIC_STACK_CAPTURE_MODE);
+    }
+
+    @DisplayName("constructor initialises diagnosticStackFrameLimit to default value")
+    @Test
+    void constructorInitialisesDiagnosticStackFrameLimitToDefaultValue() {
+      // Then
+      assertThatCompilerField("diagnosticStackFrameLimit")
+          .isEqualTo(JctCompiler.DEFAULT_DIAGNOSTIC_STACK_FRAME_LIMIT);
+    }
+
+    @DisplayName("constructor initialises diagnosticRetention to default value")
+    @Test
+    void constructorInitialisesDiagnosticRetentionToDefaultValue() {
+      // Then
+      assertThatCompilerField("diagnosticRetention")
+          .isEqualTo(JctCompiler.DEFAULT_DIAGNOSTIC_RETENTION);
+    }
+
+    @DisplayName("constructor initialises diagnosticRetentionLimit to default value")
+    @Test
+    void constructorInitialisesDiagnosticRetentionLimitToDefaultValue() {
+      // Then
+      assertThatCompilerField("diagnosticRetentionLimit")
+          .isEqualTo(JctCompiler.DEFAULT_DIAGNOSTIC_RETENTION_LIMIT);
+    }
+
+    @DisplayName("constructor initialises diagnosticObserver to null")
+    @Test
+    void constructorInitialisesDiagnosticObserverToNull() {
+      // Then
+      assertThatCompilerField("diagnosticObserver").isNull();
+    }
+
+    @DisplayName("constructor initialises compilationDeadline to null")
+    @Test
+    void constructorInitialisesCompilationDeadlineToNull() {
+      // Then
+      assertThatCompilerField("compilationDeadline").isNull();
+    }
+
+    @DisplayName("constructor initialises discardClassOutputs to default value")
+    @Test
+    void constructorInitialisesDiscardClassOutputsToDefaultValue() {
+      // Then
+      assertThatCompilerField("discardClassOutputs")
+          .isEqualTo(JctCompiler.DEFAULT_DISCARD_CLASS_OUTPUTS);
+    }
   }
 
   @ExtendWith(MockitoExtension.class)
@@ -475,6 +566,116 @@ class AbstractJctCompilerTest {
     }
   }
 
+  @DisplayName("AbstractJctCompiler#compile(Workspace) with a compilation cache tests")
+  @Nested
+  class CompileWithCompilationCacheTest extends AbstractCompileTestTemplate {
+
+    JctCompilationCache compilationCache;
+
+    @BeforeEach
+    void setUpCompilationCache() {
+      compilationCache = new JctCompilationCache();
+      compiler.compilationCache(compilationCache);
+    }
+
+    @Override
+    JctCompilation doCompile() {
+      return compiler.compile(workspace);
+    }
+
+    @Nullable
+    @Override
+    Collection<String> classNames() {
+      return null;
+    }
+
+    @DisplayName(".compile(...) reuses the memoized compilation for unchanged inputs")
+    @Test
+    void compileReusesTheMemoizedCompilationForUnchangedInputs() {
+      // Given
+      when(compilation.getArguments()).thenReturn(flags);
+      when(compilation.isSuccessful()).thenReturn(true);
+      var firstCompilation = doCompile();
+
+      // When
+      var secondCompilation = doCompile();
+
+      // Then
+      assertThat(firstCompilation).isSameAs(compilation);
+      assertThat(secondCompilation).isNotSameAs(compilation);
+      assertThat(secondCompilation.isSuccessful()).isTrue();
+      assertThat(secondCompilation.getArguments()).isEqualTo(flags);
+      assertThat(secondCompilation.getFileManager()).isSameAs(fileManager);
+
+      assertThat(compilationFactoryConstructor.constructed()).hasSize(1);
+      verify(jsr199CompilerFactory).createCompiler();
+
+      assertThat(compilationCache.getMissCount()).isOne();
+      assertThat(compilationCache.getHitCount()).isOne();
+      assertThat(compilationCache.size()).isOne();
+    }
+
+    @DisplayName(".compile(...) bypasses the cache when a diagnostic observer is set")
+    @Test
+    void compileBypassesTheCacheWhenDiagnosticObserverIsSet() {
+      // Given
+      compiler.diagnosticObserver(DiagnosticObserver.cancelOnFirstError());
+      var firstCompilation = doCompile();
+
+      // When
+      var secondCompilation = doCompile();
+
+      // Then
+      assertThat(firstCompilation).isSameAs(compilation);
+      assertThat(secondCompilation).isSameAs(compilation);
+      assertThat(compilationFactoryConstructor.constructed()).hasSize(2);
+
+      assertThat(compilationCache.getMissCount()).isZero();
+      assertThat(compilationCache.getHitCount()).isZero();
+      assertThat(compilationCache.size()).isZero();
+    }
+
+    @DisplayName(".compile(...) bypasses the cache when annotation processor metrics are enabled")
+    @Test
+    void compileBypassesTheCacheWhenAnnotationProcessorMetricsAreEnabled() {
+      // Given
+      compiler.annotationProcessorMetrics(true);
+      var firstCompilation = doCompile();
+
+      // When
+      var secondCompilation = doCompile();
+
+      // Then
+      assertThat(firstCompilation).isSameAs(compilation);
+      assertThat(secondCompilation).isSameAs(compilation);
+      assertThat(compilationFactoryConstructor.constructed()).hasSize(2);
+
+      assertThat(compilationCache.getMissCount()).isZero();
+      assertThat(compilationCache.getHitCount()).isZero();
+      assertThat(compilationCache.size()).isZero();
+    }
+
+    @DisplayName(".compile(...) bypasses the cache when file manager metrics are enabled")
+    @Test
+    void compileBypassesTheCacheWhenFileManagerMetricsAreEnabled() {
+      // Given
+      compiler.fileManagerMetrics(true);
+      var firstCompilation = doCompile();
+
+      // When
+      var secondCompilation = doCompile();
+
+      // Then
+      assertThat(firstCompilation).isSameAs(compilation);
+      assertThat(secondCompilation).isSameAs(compilation);
+      assertThat(compilationFactoryConstructor.constructed()).hasSize(2);
+
+      assertThat(compilationCache.getMissCount()).isZero();
+      assertThat(compilationCache.getHitCount()).isZero();
+      assertThat(compilationCache.size()).isZero();
+    }
+  }
+
   @DisplayName("AbstractJctCompiler#configure tests")
   @Nested
   class ConfigureTest {
@@ -1600,6 +1801,510 @@ class AbstractJctCompilerTest {
     }
   }
 
+  @DisplayName(".getCompilationCache() returns the expected value")
+  @Test
+  void getCompilationCacheReturnsTheExpectedValue() {
+    // Given
+    var expected = new JctCompilationCache();
+    setFieldOnCompiler("compilationCache", expected);
+
+    // Then
+    assertThat(compiler.getCompilationCache()).isSameAs(expected);
+  }
+
+  @DisplayName("AbstractJctCompiler#compilationCache tests")
+  @Nested
+  class CompilationCacheTests {
+
+    @DisplayName(".compilationCache(...) sets the expected value")
+    @Test
+    void compilationCacheSetsTheExpectedValue() {
+      // Given
+      var expected = new JctCompilationCache();
+
+      // When
+      compiler.compilationCache(expected);
+
+      // Then
+      assertThatCompilerField("compilationCache").isSameAs(expected);
+    }
+
+    @DisplayName(".compilationCache(null) disables memoization")
+    @Test
+    void compilationCacheNullDisablesMemoization() {
+      // Given
+      compiler.compilationCache(new JctCompilationCache());
+
+      // When
+      compiler.compilationCache(null);
+
+      // Then
+      assertThatCompilerField("compilationCache").isNull();
+    }
+
+    @DisplayName(".compilationCache(...) returns the compiler")
+    @Test
+    void compilationCacheReturnsTheCompiler() {
+      // When
+      var result = compiler.compilationCache(new JctCompilationCache());
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
+  @DisplayName(".isIncrementalCompilation() returns the expected value")
+  @ValueSource(booleans = {true, false})
+  @ParameterizedTest(name = "for {0}")
+  void isIncrementalCompilationReturnsTheExpectedValue(boolean expected) {
+    // Given
+    setFieldOnCompiler("incrementalCompilation", expected);
+
+    // Then
+    assertThat(compiler.isIncrementalCompilation()).isEqualTo(expected);
+  }
+
+  @DisplayName("AbstractJctCompiler#incrementalCompilation tests")
+  @Nested
+  class IncrementalCompilationTests {
+
+    @DisplayName(".incrementalCompilation(...) sets the expected value")
+    @ValueSource(booleans = {true, false})
+    @ParameterizedTest(name = "for {0}")
+    void incrementalCompilationSetsTheExpectedValue(boolean expected) {
+      // When
+      compiler.incrementalCompilation(expected);
+
+      // Then
+      assertThatCompilerField("incrementalCompilation").isEqualTo(expected);
+    }
+
+    @DisplayName(".incrementalCompilation(...) returns the compiler")
+    @Test
+    void incrementalCompilationReturnsTheCompiler() {
+      // When
+      var result = compiler.incrementalCompilation(true);
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
+  @DisplayName(".isAnnotationProcessorMetrics() returns the expected value")
+  @ValueSource(booleans = {true, false})
+  @ParameterizedTest(name = "for {0}")
+  void isAnnotationProcessorMetricsReturnsTheExpectedValue(boolean expected) {
+    // Given
+    setFieldOnCompiler("annotationProcessorMetrics", expected);
+
+    // Then
+    assertThat(compiler.isAnnotationProcessorMetrics()).isEqualTo(expected);
+  }
+
+  @DisplayName("AbstractJctCompiler#annotationProcessorMetrics tests")
+  @Nested
+  class AnnotationProcessorMetricsTests {
+
+    @DisplayName(".annotationProcessorMetrics(...) sets the expected value")
+    @ValueSource(booleans = {true, false})
+    @ParameterizedTest(name = "for {0}")
+    void annotationProcessorMetricsSetsTheExpectedValue(boolean expected) {
+      // When
+      compiler.annotationProcessorMetrics(expected);
+
+      // Then
+      assertThatCompilerField("annotationProcessorMetrics").isEqualTo(expected);
+    }
+
+    @DisplayName(".annotationProcessorMetrics(...) returns the compiler")
+    @Test
+    void annotationProcessorMetricsReturnsTheCompiler() {
+      // When
+      var result = compiler.annotationProcessorMetrics(true);
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
+  @DisplayName(".isFileManagerMetrics() returns the expected value")
+  @ValueSource(booleans = {true, false})
+  @ParameterizedTest(name = "for {0}")
+  void isFileManagerMetricsReturnsTheExpectedValue(boolean expected) {
+    // Given
+    setFieldOnCompiler("fileManagerMetrics", expected);
+
+    // Then
+    assertThat(compiler.isFileManagerMetrics()).isEqualTo(expected);
+  }
+
+  @DisplayName("AbstractJctCompiler#fileManagerMetrics tests")
+  @Nested
+  class FileManagerMetricsTests {
+
+    @DisplayName(".fileManagerMetrics(...) sets the expected value")
+    @ValueSource(booleans = {true, false})
+    @ParameterizedTest(name = "for {0}")
+    void fileManagerMetricsSetsTheExpectedValue(boolean expected) {
+      // When
+      compiler.fileManagerMetrics(expected);
+
+      // Then
+      assertThatCompilerField("fileManagerMetrics").isEqualTo(expected);
+    }
+
+    @DisplayName(".fileManagerMetrics(...) returns the compiler")
+    @Test
+    void fileManagerMetricsReturnsTheCompiler() {
+      // When
+      var result = compiler.fileManagerMetrics(true);
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
+  @DisplayName(".getDiagnosticStackCaptureMode() returns the expected values")
+  @EnumSource(StackCaptureMode.class)
+  @ParameterizedTest(name = "for diagnosticStackCaptureMode = {0}")
+  void getDiagnosticStackCaptureModeReturnsExpectedValue(StackCaptureMode expected) {
+    // Given
+    setFieldOnCompiler("diagnosticStackCaptureMode", expected);
+
+    // Then
+    assertThat(compiler.getDiagnosticStackCaptureMode()).isEqualTo(expected);
+  }
+
+  @DisplayName("AbstractJctCompiler#diagnosticStackCaptureMode tests")
+  @Nested
+  class DiagnosticStackCaptureModeTests {
+
+    @DisplayName(".diagnosticStackCaptureMode(...) sets the expected values")
+    @EnumSource(StackCaptureMode.class)
+    @ParameterizedTest(name = "for diagnosticStackCaptureMode = {0}")
+    void diagnosticStackCaptureModeSetsExpectedValue(StackCaptureMode expected) {
+      // When
+      compiler.diagnosticStackCaptureMode(expected);
+
+      // Then
+      assertThatCompilerField("diagnosticStackCaptureMode").isEqualTo(expected);
+    }
+
+    @DisplayName(".diagnosticStackCaptureMode(...) throws a NullPointerException "
+        + "if diagnosticStackCaptureMode is null")
+    @Test
+    void diagnosticStackCaptureModeThrowsNullPointerExceptionIfNull() {
+      // Then
+      assertThatThrownBy(() -> compiler.diagnosticStackCaptureMode(null))
+          .isInstanceOf(NullPointerException.class)
+          .hasMessage("diagnosticStackCaptureMode");
+    }
+
+    @DisplayName(".diagnosticStackCaptureMode(...) returns the compiler")
+    @Test
+    void diagnosticStackCaptureModeReturnsTheCompiler() {
+      // When
+      var result = compiler.diagnosticStackCaptureMode(StackCaptureMode.FULL);
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
+  @DisplayName(".getDiagnosticStackFrameLimit() returns the expected value")
+  @ValueSource(ints = {1, 32, Integer.MAX_VALUE})
+  @ParameterizedTest(name = "for {0}")
+  void getDiagnosticStackFrameLimitReturnsTheExpectedValue(int expected) {
+    // Given
+    setFieldOnCompiler("diagnosticStackFrameLimit", expected);
+
+    // Then
+    assertThat(compiler.getDiagnosticStackFrameLimit()).isEqualTo(expected);
+  }
+
+  @DisplayName("AbstractJctCompiler#diagnosticStackFrameLimit tests")
+  @Nested
+  class DiagnosticStackFrameLimitTests {
+
+    @DisplayName(".diagnosticStackFrameLimit(...) sets the expected value")
+    @ValueSource(ints = {1, 32, Integer.MAX_VALUE})
+    @ParameterizedTest(name = "for {0}")
+    void diagnosticStackFrameLimitSetsTheExpectedValue(int expected) {
+      // When
+      compiler.diagnosticStackFrameLimit(expected);
+
+      // Then
+      assertThatCompilerField("diagnosticStackFrameLimit").isEqualTo(expected);
+    }
+
+    @DisplayName(".diagnosticStackFrameLimit(...) throws an IllegalArgumentException if less "
+        + "than 1")
+    @ValueSource(ints = {0, -1, Integer.MIN_VALUE})
+    @ParameterizedTest(name = "for {0}")
+    void diagnosticStackFrameLimitThrowsIllegalArgumentExceptionIfLessThanOne(int limit) {
+      // Then
+      assertThatThrownBy(() -> compiler.diagnosticStackFrameLimit(limit))
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessage("Cannot provide a stack frame limit less than 1");
+    }
+
+    @DisplayName(".diagnosticStackFrameLimit(...) returns the compiler")
+    @Test
+    void diagnosticStackFrameLimitReturnsTheCompiler() {
+      // When
+      var result = compiler.diagnosticStackFrameLimit(16);
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
+  @DisplayName(".getDiagnosticRetention() returns the expected values")
+  @EnumSource(DiagnosticRetention.class)
+  @ParameterizedTest(name = "for diagnosticRetention = {0}")
+  void getDiagnosticRetentionReturnsExpectedValue(DiagnosticRetention expected) {
+    // Given
+    setFieldOnCompiler("diagnosticRetention", expected);
+
+    // Then
+    assertThat(compiler.getDiagnosticRetention()).isEqualTo(expected);
+  }
+
+  @DisplayName("AbstractJctCompiler#diagnosticRetention tests")
+  @Nested
+  class DiagnosticRetentionTests {
+
+    @DisplayName(".diagnosticRetention(...) sets the expected values")
+    @EnumSource(DiagnosticRetention.class)
+    @ParameterizedTest(name = "for diagnosticRetention = {0}")
+    void diagnosticRetentionSetsExpectedValue(DiagnosticRetention expected) {
+      // When
+      compiler.diagnosticRetention(expected);
+
+      // Then
+      assertThatCompilerField("diagnosticRetention").isEqualTo(expected);
+    }
+
+    @DisplayName(".diagnosticRetention(...) throws a NullPointerException "
+        + "if diagnosticRetention is null")
+    @Test
+    void diagnosticRetentionThrowsNullPointerExceptionIfNull() {
+      // Then
+      assertThatThrownBy(() -> compiler.diagnosticRetention(null))
+          .isInstanceOf(NullPointerException.class)
+          .hasMessage("diagnosticRetention");
+    }
+
+    @DisplayName(".diagnosticRetention(...) returns the compiler")
+    @Test
+    void diagnosticRetentionReturnsTheCompiler() {
+      // When
+      var result = compiler.diagnosticRetention(DiagnosticRetention.COUNTS_ONLY);
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
+  @DisplayName(".getDiagnosticRetentionLimit() returns the expected value")
+  @ValueSource(ints = {1, 100, Integer.MAX_VALUE})
+  @ParameterizedTest(name = "for {0}")
+  void getDiagnosticRetentionLimitReturnsTheExpectedValue(int expected) {
+    // Given
+    setFieldOnCompiler("diagnosticRetentionLimit", expected);
+
+    // Then
+    assertThat(compiler.getDiagnosticRetentionLimit()).isEqualTo(expected);
+  }
+
+  @DisplayName("AbstractJctCompiler#diagnosticRetentionLimit tests")
+  @Nested
+  class DiagnosticRetentionLimitTests {
+
+    @DisplayName(".diagnosticRetentionLimit(...) sets the expected value")
+    @ValueSource(ints = {1, 100, Integer.MAX_VALUE})
+    @ParameterizedTest(name = "for {0}")
+    void diagnosticRetentionLimitSetsTheExpectedValue(int expected) {
+      // When
+      compiler.diagnosticRetentionLimit(expected);
+
+      // Then
+      assertThatCompilerField("diagnosticRetentionLimit").isEqualTo(expected);
+    }
+
+    @DisplayName(".diagnosticRetentionLimit(...) throws an IllegalArgumentException if less "
+        + "than 1")
+    @ValueSource(ints = {0, -1, Integer.MIN_VALUE})
+    @ParameterizedTest(name = "for {0}")
+    void diagnosticRetentionLimitThrowsIllegalArgumentExceptionIfLessThanOne(int limit) {
+      // Then
+      assertThatThrownBy(() -> compiler.diagnosticRetentionLimit(limit))
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessage("Cannot provide a diagnostic retention limit less than 1");
+    }
+
+    @DisplayName(".diagnosticRetentionLimit(...) returns the compiler")
+    @Test
+    void diagnosticRetentionLimitReturnsTheCompiler() {
+      // When
+      var result = compiler.diagnosticRetentionLimit(16);
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
+  @DisplayName(".getDiagnosticObserver() returns the expected value")
+  @Test
+  void getDiagnosticObserverReturnsTheExpectedValue() {
+    // Given
+    var expected = mock(DiagnosticObserver.class);
+    setFieldOnCompiler("diagnosticObserver", expected);
+
+    // Then
+    assertThat(compiler.getDiagnosticObserver()).isSameAs(expected);
+  }
+
+  @DisplayName("AbstractJctCompiler#diagnosticObserver tests")
+  @Nested
+  class DiagnosticObserverTests {
+
+    @DisplayName(".diagnosticObserver(...) sets the expected value")
+    @Test
+    void diagnosticObserverSetsTheExpectedValue() {
+      // Given
+      var expected = mock(DiagnosticObserver.class);
+
+      // When
+      compiler.diagnosticObserver(expected);
+
+      // Then
+      assertThatCompilerField("diagnosticObserver").isSameAs(expected);
+    }
+
+    @DisplayName(".diagnosticObserver(null) removes the observer")
+    @Test
+    void diagnosticObserverNullRemovesTheObserver() {
+      // Given
+      compiler.diagnosticObserver(mock(DiagnosticObserver.class));
+
+      // When
+      compiler.diagnosticObserver(null);
+
+      // Then
+      assertThatCompilerField("diagnosticObserver").isNull();
+    }
+
+    @DisplayName(".diagnosticObserver(...) returns the compiler")
+    @Test
+    void diagnosticObserverReturnsTheCompiler() {
+      // When
+      var result = compiler.diagnosticObserver(mock(DiagnosticObserver.class));
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
+  @DisplayName(".getCompilationDeadline() returns the expected value")
+  @Test
+  void getCompilationDeadlineReturnsTheExpectedValue() {
+    // Given
+    var expected = Duration.ofSeconds(someInt(1, 100));
+    setFieldOnCompiler("compilationDeadline", expected);
+
+    // Then
+    assertThat(compiler.getCompilationDeadline()).isEqualTo(expected);
+  }
+
+  @DisplayName("AbstractJctCompiler#compilationDeadline tests")
+  @Nested
+  class CompilationDeadlineTests {
+
+    @DisplayName(".compilationDeadline(...) sets the expected value")
+    @Test
+    void compilationDeadlineSetsTheExpectedValue() {
+      // Given
+      var expected = Duration.ofMillis(someInt(1, 100_000));
+
+      // When
+      compiler.compilationDeadline(expected);
+
+      // Then
+      assertThatCompilerField("compilationDeadline").isEqualTo(expected);
+    }
+
+    @DisplayName(".compilationDeadline(null) removes the deadline")
+    @Test
+    void compilationDeadlineNullRemovesTheDeadline() {
+      // Given
+      compiler.compilationDeadline(Duration.ofSeconds(10));
+
+      // When
+      compiler.compilationDeadline(null);
+
+      // Then
+      assertThatCompilerField("compilationDeadline").isNull();
+    }
+
+    @DisplayName(".compilationDeadline(...) throws an IllegalArgumentException if not positive")
+    @ValueSource(longs = {0, -1, Long.MIN_VALUE})
+    @ParameterizedTest(name = "for {0} nanoseconds")
+    void compilationDeadlineThrowsIllegalArgumentExceptionIfNotPositive(long nanos) {
+      // Then
+      assertThatThrownBy(() -> compiler.compilationDeadline(Duration.ofNanos(nanos)))
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessage("Cannot provide a compilation deadline that is not positive");
+    }
+
+    @DisplayName(".compilationDeadline(...) returns the compiler")
+    @Test
+    void compilationDeadlineReturnsTheCompiler() {
+      // When
+      var result = compiler.compilationDeadline(Duration.ofSeconds(10));
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
+  @DisplayName(".isDiscardClassOutputs() returns the expected value")
+  @ValueSource(booleans = {true, false})
+  @ParameterizedTest(name = "for {0}")
+  void isDiscardClassOutputsReturnsTheExpectedValue(boolean expected) {
+    // Given
+    setFieldOnCompiler("discardClassOutputs", expected);
+
+    // Then
+    assertThat(compiler.isDiscardClassOutputs()).isEqualTo(expected);
+  }
+
+  @DisplayName("AbstractJctCompiler#discardClassOutputs tests")
+  @Nested
+  class DiscardClassOutputsTests {
+
+    @DisplayName(".discardClassOutputs(...) sets the expected value")
+    @ValueSource(booleans = {true, false})
+    @ParameterizedTest(name = "for {0}")
+    void discardClassOutputsSetsTheExpectedValue(boolean expected) {
+      // When
+      compiler.discardClassOutputs(expected);
+
+      // Then
+      assertThatCompilerField("discardClassOutputs").isEqualTo(expected);
+    }
+
+    @DisplayName(".discardClassOutputs(...) returns the compiler")
+    @Test
+    void discardClassOutputsReturnsTheCompiler() {
+      // When
+      var result = compiler.discardClassOutputs(true);
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
   @DisplayName(".toString() should return the name")
   @Test
   void toStringShouldReturnTheName() {
@@ -1639,6 +2344,7 @@ class AbstractJctCompilerTest {
     var target = setFieldOnCompiler("target", someRelease());
     var verbose = setFieldOnCompiler("verbose", someBoolean());
     var showWarnings = setFieldOnCompiler("showWarnings", someBoolean());
+    var compilationMode = setFieldOnCompiler("compilationMode", oneOf(CompilationMode.class));
 
     var expectedFlags = someFlags();
     when(flagBuilder.build()).thenReturn(expectedFlags);
@@ -1657,6 +2363,7 @@ class AbstractJctCompilerTest {
     verify(flagBuilder).target(eq(target));
     verify(flagBuilder).verbose(eq(verbose));
     verify(flagBuilder).showWarnings(eq(showWarnings));
+    verify(flagBuilder).compilationMode(eq(compilationMode));
     verify(flagBuilder).build();
 
     assertThat(actualFlags).isEqualTo(expectedFlags);
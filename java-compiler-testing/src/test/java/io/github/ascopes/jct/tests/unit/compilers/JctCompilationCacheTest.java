@@ -0,0 +1,255 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.unit.compilers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.github.ascopes.jct.compilers.JctCompilation;
+import io.github.ascopes.jct.compilers.JctCompilationCache;
+import io.github.ascopes.jct.compilers.impl.JctCompilationSnapshot;
+import io.github.ascopes.jct.workspaces.PathRoot;
+import io.github.ascopes.jct.workspaces.Workspace;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.tools.StandardLocation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * {@link JctCompilationCache} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JctCompilationCache tests")
+class JctCompilationCacheTest {
+
+  @TempDir
+  Path tempDir;
+
+  @DisplayName("getSharedInstance() returns a singleton")
+  @Test
+  void getSharedInstanceReturnsSingleton() {
+    // Then
+    assertThat(JctCompilationCache.getSharedInstance())
+        .isSameAs(JctCompilationCache.getSharedInstance());
+  }
+
+  @DisplayName("The default constructor uses the default limits")
+  @Test
+  void defaultConstructorUsesTheDefaultLimits() {
+    // When
+    var cache = new JctCompilationCache();
+
+    // Then
+    assertThat(cache.getMaximumEntries())
+        .isEqualTo(JctCompilationCache.DEFAULT_MAXIMUM_ENTRIES);
+    assertThat(cache.getMaximumSizeInBytes())
+        .isEqualTo(JctCompilationCache.DEFAULT_MAXIMUM_SIZE_IN_BYTES);
+  }
+
+  @DisplayName("Negative limits are rejected")
+  @Test
+  void negativeLimitsAreRejected() {
+    // Then
+    assertThatThrownBy(() -> new JctCompilationCache(-1, 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maximumEntries cannot be negative");
+    assertThatThrownBy(() -> new JctCompilationCache(0, -1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maximumSizeInBytes cannot be negative");
+  }
+
+  @DisplayName("Lookups record hits and misses")
+  @Test
+  void lookupsRecordHitsAndMisses() throws IOException {
+    // Given
+    var cache = new JctCompilationCache();
+    var snapshot = someSnapshot("foo", 10);
+
+    // When
+    var miss = cache.get("foo");
+    cache.put("foo", snapshot);
+    var hit = cache.get("foo");
+
+    // Then
+    assertThat(miss).isNull();
+    assertThat(hit).isSameAs(snapshot);
+    assertThat(cache.getHitCount()).isOne();
+    assertThat(cache.getMissCount()).isOne();
+    assertThat(cache.size()).isOne();
+    assertThat(cache.getSizeInBytes()).isEqualTo(10);
+  }
+
+  @DisplayName("The least recently used entries are evicted once there are too many")
+  @Test
+  void leastRecentlyUsedEntriesAreEvictedOnceThereAreTooMany() throws IOException {
+    // Given
+    var cache = new JctCompilationCache(2, Long.MAX_VALUE);
+    cache.put("foo", someSnapshot("foo", 1));
+    cache.put("bar", someSnapshot("bar", 1));
+    cache.get("foo");
+
+    // When
+    cache.put("baz", someSnapshot("baz", 1));
+
+    // Then
+    assertThat(cache.get("foo")).isNotNull();
+    assertThat(cache.get("bar")).isNull();
+    assertThat(cache.get("baz")).isNotNull();
+    assertThat(cache.getEvictionCount()).isOne();
+  }
+
+  @DisplayName("The least recently used entries are evicted once the cache is too large")
+  @Test
+  void leastRecentlyUsedEntriesAreEvictedOnceTheCacheIsTooLarge() throws IOException {
+    // Given
+    var cache = new JctCompilationCache(10, 25);
+    cache.put("foo", someSnapshot("foo", 10));
+    cache.put("bar", someSnapshot("bar", 10));
+
+    // When
+    cache.put("baz", someSnapshot("baz", 10));
+
+    // Then
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.getSizeInBytes()).isEqualTo(20);
+    assertThat(cache.get("foo")).isNull();
+  }
+
+  @DisplayName("Lowering the limits evicts excess entries")
+  @Test
+  void loweringTheLimitsEvictsExcessEntries() throws IOException {
+    // Given
+    var cache = new JctCompilationCache();
+    cache.put("foo", someSnapshot("foo", 10));
+    cache.put("bar", someSnapshot("bar", 10));
+    cache.put("baz", someSnapshot("baz", 10));
+
+    // When
+    cache.maximumEntries(2);
+
+    // Then
+    assertThat(cache.size()).isEqualTo(2);
+
+    // When
+    cache.maximumSizeInBytes(0);
+
+    // Then
+    assertThat(cache.size()).isZero();
+    assertThat(cache.getSizeInBytes()).isZero();
+    assertThat(cache.getEvictionCount()).isEqualTo(3);
+  }
+
+  @DisplayName("clear() removes all entries")
+  @Test
+  void clearRemovesAllEntries() throws IOException {
+    // Given
+    var cache = new JctCompilationCache();
+    cache.put("foo", someSnapshot("foo", 10));
+
+    // When
+    cache.clear();
+
+    // Then
+    assertThat(cache.size()).isZero();
+    assertThat(cache.getSizeInBytes()).isZero();
+    assertThat(cache.get("foo")).isNull();
+  }
+
+  @DisplayName("The default constructor does not persist entries or force misses")
+  @Test
+  void defaultConstructorDoesNotPersistEntriesOrForceMisses() {
+    // When
+    var cache = new JctCompilationCache();
+
+    // Then
+    assertThat(cache.getDirectory()).isNull();
+    assertThat(cache.getMaximumDirectorySizeInBytes())
+        .isEqualTo(JctCompilationCache.DEFAULT_MAXIMUM_DIRECTORY_SIZE_IN_BYTES);
+    assertThat(cache.isForceMiss()).isFalse();
+  }
+
+  @DisplayName("Entries in the directory are reused by other caches")
+  @Test
+  void entriesInTheDirectoryAreReusedByOtherCaches() throws IOException {
+    // Given
+    var directory = tempDir.resolve("cache");
+    var first = new JctCompilationCache().directory(directory);
+    var second = new JctCompilationCache().directory(directory);
+    first.put("abcd", someSnapshot("foo", 10));
+
+    // When
+    var snapshot = second.get("abcd");
+
+    // Then
+    assertThat(snapshot).isNotNull();
+    assertThat(snapshot.getSizeInBytes()).isEqualTo(10);
+    assertThat(second.getHitCount()).isOne();
+    assertThat(second.getDiskHitCount()).isOne();
+    assertThat(second.size()).isOne();
+
+    // When
+    second.get("abcd");
+
+    // Then
+    assertThat(second.getHitCount()).isEqualTo(2);
+    assertThat(second.getDiskHitCount()).isOne();
+  }
+
+  @DisplayName("Force-miss mode ignores existing entries but still stores new ones")
+  @Test
+  void forceMissModeIgnoresExistingEntriesButStillStoresNewOnes() throws IOException {
+    // Given
+    var directory = tempDir.resolve("cache");
+    var cache = new JctCompilationCache().directory(directory);
+    cache.put("abcd", someSnapshot("foo", 10));
+
+    // When
+    cache.forceMiss(true);
+    var miss = cache.get("abcd");
+    cache.put("abcd", someSnapshot("bar", 20));
+    cache.forceMiss(false);
+    var hit = new JctCompilationCache().directory(directory).get("abcd");
+
+    // Then
+    assertThat(miss).isNull();
+    assertThat(cache.getMissCount()).isOne();
+    assertThat(hit).isNotNull();
+    assertThat(hit.getSizeInBytes()).isEqualTo(20);
+  }
+
+  private JctCompilationSnapshot someSnapshot(String name, int size) throws IOException {
+    var root = Files.createDirectories(tempDir.resolve(name));
+    Files.write(root.resolve("Output.class"), new byte[size]);
+
+    var pathRoot = mock(PathRoot.class);
+    when(pathRoot.getPath()).thenReturn(root);
+
+    var workspace = mock(Workspace.class);
+    when(workspace.getAllPaths())
+        .thenReturn(Map.of(StandardLocation.CLASS_OUTPUT, List.of(pathRoot)));
+
+    return JctCompilationSnapshot.capture(mock(JctCompilation.class), workspace, Locale.ROOT);
+  }
+}
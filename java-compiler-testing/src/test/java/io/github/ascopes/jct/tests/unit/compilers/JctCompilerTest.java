@@ -23,12 +23,21 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.mock;
 
+import io.github.ascopes.jct.compilers.JctCompilation;
 import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.ex.JctCompilerException;
 import io.github.ascopes.jct.workspaces.Workspace;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 import javax.annotation.processing.Processor;
 import javax.lang.model.SourceVersion;
@@ -282,6 +291,124 @@ class JctCompilerTest {
     then(compiler).should().compile(workspace, List.of(firstClass, secondClass, thirdClass));
   }
 
+  @DisplayName(".compileAsync(Workspace, Executor) calls .compile(Workspace) on the executor")
+  @Test
+  void compileAsyncCallsCompileOnTheExecutor() {
+    // Given
+    var workspace = mock(Workspace.class);
+    var compilation = mock(JctCompilation.class);
+    var executor = mock(Executor.class);
+    willAnswer(ctx -> {
+      ctx.<Runnable>getArgument(0).run();
+      return null;
+    }).given(executor).execute(any());
+
+    given(compiler.compileAsync(any(), any())).willCallRealMethod();
+    given(compiler.compile(workspace)).will(ctx -> compilation);
+
+    // When
+    var result = compiler.compileAsync(workspace, executor);
+
+    // Then
+    then(executor).should().execute(any());
+    assertThat(result).isCompleted();
+    assertThat(result.join()).isSameAs(compilation);
+  }
+
+  @DisplayName(".compileAsync(Workspace, Executor) uses the caller's context class loader")
+  @Test
+  void compileAsyncUsesTheCallersContextClassLoader() throws Exception {
+    // Given
+    var workspace = mock(Workspace.class);
+    var compilation = mock(JctCompilation.class);
+    var callerClassLoader = new URLClassLoader(new URL[0]);
+    var executorClassLoader = new URLClassLoader(new URL[0]);
+    var executor = Executors.newSingleThreadExecutor(runnable -> {
+      var thread = new Thread(runnable);
+      thread.setContextClassLoader(executorClassLoader);
+      return thread;
+    });
+    var compileClassLoader = new AtomicReference<ClassLoader>();
+
+    given(compiler.compileAsync(any(), any())).willCallRealMethod();
+    given(compiler.compile(workspace)).will(ctx -> {
+      compileClassLoader.set(Thread.currentThread().getContextClassLoader());
+      return compilation;
+    });
+
+    var thread = Thread.currentThread();
+    var originalClassLoader = thread.getContextClassLoader();
+
+    try {
+      // When
+      thread.setContextClassLoader(callerClassLoader);
+      var result = compiler.compileAsync(workspace, executor);
+      thread.setContextClassLoader(originalClassLoader);
+
+      // Then
+      assertThat(result.get()).isSameAs(compilation);
+      assertThat(compileClassLoader).hasValue(callerClassLoader);
+      assertThat(executor.submit(() -> Thread.currentThread().getContextClassLoader()).get())
+          .isSameAs(executorClassLoader);
+    } finally {
+      thread.setContextClassLoader(originalClassLoader);
+      executor.shutdownNow();
+    }
+  }
+
+  @DisplayName(".compileAll(Collection, Executor) returns the results in order")
+  @Test
+  void compileAllReturnsTheResultsInOrder() {
+    // Given
+    var firstWorkspace = mock(Workspace.class);
+    var secondWorkspace = mock(Workspace.class);
+    var firstCompilation = mock(JctCompilation.class);
+    var secondCompilation = mock(JctCompilation.class);
+
+    given(compiler.compileAll(any(), any())).willCallRealMethod();
+    given(compiler.compileAsync(any(), any())).willCallRealMethod();
+    given(compiler.compile(firstWorkspace)).will(ctx -> firstCompilation);
+    given(compiler.compile(secondWorkspace)).will(ctx -> secondCompilation);
+
+    // When
+    var results = compiler.compileAll(
+        List.of(firstWorkspace, secondWorkspace),
+        ForkJoinPool.commonPool()
+    );
+
+    // Then
+    assertThat(results).hasSize(2);
+    assertThat(results.get(0)).isSameAs(firstCompilation);
+    assertThat(results.get(1)).isSameAs(secondCompilation);
+  }
+
+  @DisplayName(".compileAll(Collection, Executor) waits for all compilations before failing")
+  @Test
+  void compileAllWaitsForAllCompilationsBeforeFailing() {
+    // Given
+    var firstWorkspace = mock(Workspace.class);
+    var secondWorkspace = mock(Workspace.class);
+    var thirdWorkspace = mock(Workspace.class);
+    var firstException = new JctCompilerException("first");
+    var thirdException = new IllegalStateException("third");
+
+    given(compiler.compileAll(any(), any())).willCallRealMethod();
+    given(compiler.compileAsync(any(), any())).willCallRealMethod();
+    given(compiler.compile(firstWorkspace)).willThrow(firstException);
+    given(compiler.compile(secondWorkspace)).will(ctx -> mock(JctCompilation.class));
+    given(compiler.compile(thirdWorkspace)).willThrow(thirdException);
+
+    // Then
+    assertThatThrownBy(() -> compiler.compileAll(
+        List.of(firstWorkspace, secondWorkspace, thirdWorkspace),
+        ForkJoinPool.commonPool()
+    ))
+        .isSameAs(firstException)
+        .hasSuppressedException(thirdException);
+
+    then(compiler).should().compile(secondWorkspace);
+  }
+
   static Stream<Arguments> sourceVersions() {
     return Stream
         .of(SourceVersion.values())
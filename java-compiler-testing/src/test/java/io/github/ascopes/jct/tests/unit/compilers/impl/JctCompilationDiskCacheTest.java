@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.unit.compilers.impl;
+
+import static io.github.ascopes.jct.tests.helpers.Fixtures.someTraceDiagnostic;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.github.ascopes.jct.compilers.JctCompilation;
+import io.github.ascopes.jct.compilers.impl.JctCompilationDiskCache;
+import io.github.ascopes.jct.compilers.impl.JctCompilationSnapshot;
+import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.workspaces.PathRoot;
+import io.github.ascopes.jct.workspaces.Workspace;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.tools.StandardLocation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * {@link JctCompilationDiskCache} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JctCompilationDiskCache tests")
+class JctCompilationDiskCacheTest {
+
+  @TempDir
+  Path tempDir;
+
+  @DisplayName("A negative maximum size is rejected")
+  @Test
+  void negativeMaximumSizeIsRejected() {
+    // Then
+    assertThatThrownBy(() -> new JctCompilationDiskCache(tempDir, -1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maximumSizeInBytes cannot be negative");
+  }
+
+  @DisplayName("Missing entries are not found")
+  @Test
+  void missingEntriesAreNotFound() {
+    // Given
+    var cache = new JctCompilationDiskCache(tempDir.resolve("cache"), Long.MAX_VALUE);
+
+    // Then
+    assertThat(cache.load("abcd")).isNull();
+  }
+
+  @DisplayName("Fingerprints that are not hexadecimal are rejected")
+  @Test
+  void fingerprintsThatAreNotHexadecimalAreRejected() {
+    // Given
+    var cache = new JctCompilationDiskCache(tempDir.resolve("cache"), Long.MAX_VALUE);
+
+    // Then
+    assertThatThrownBy(() -> cache.load("../abcd"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @DisplayName("Saved snapshots can be loaded and restored")
+  @Test
+  void savedSnapshotsCanBeLoadedAndRestored() throws IOException {
+    // Given
+    var cache = new JctCompilationDiskCache(tempDir.resolve("cache"), Long.MAX_VALUE);
+    var diagnostic = someTraceDiagnostic();
+    var compilation = mock(JctCompilation.class);
+    when(compilation.getArguments()).thenReturn(List.of("-Xlint:all"));
+    when(compilation.isSuccessful()).thenReturn(true);
+    when(compilation.getOutputLines()).thenReturn(List.of("Note: héllo wörld"));
+    when(compilation.getDiagnostics()).thenReturn(List.of(diagnostic));
+    var snapshot = JctCompilationSnapshot.capture(
+        compilation,
+        someWorkspace("foo", 10),
+        Locale.ROOT
+    );
+
+    // When
+    cache.save("abcd", snapshot);
+    var loaded = cache.load("abcd");
+
+    // Then
+    assertThat(loaded).isNotNull();
+    assertThat(loaded.getSizeInBytes()).isEqualTo(10);
+
+    // When
+    var target = someWorkspace("bar", 0);
+    var restored = loaded.restore(target, mock(JctFileManager.class));
+
+    // Then
+    assertThat(restored).isNotNull();
+    assertThat(restored.getArguments()).containsExactly("-Xlint:all");
+    assertThat(restored.isSuccessful()).isTrue();
+    assertThat(restored.isMemoized()).isTrue();
+    assertThat(restored.getOutputLines()).containsExactly("Note: héllo wörld");
+    assertThat(restored.getDiagnostics()).singleElement().satisfies(restoredDiagnostic -> {
+      assertThat(restoredDiagnostic.getKind()).isEqualTo(diagnostic.getKind());
+      assertThat(restoredDiagnostic.getLineNumber()).isEqualTo(diagnostic.getLineNumber());
+      assertThat(restoredDiagnostic.getMessage(Locale.ROOT))
+          .isEqualTo(diagnostic.getMessage(Locale.ROOT));
+      assertThat(restoredDiagnostic.getTimestamp()).isEqualTo(diagnostic.getTimestamp());
+      assertThat(restoredDiagnostic.getStackTrace()).isEqualTo(diagnostic.getStackTrace());
+      assertThat(restoredDiagnostic.getSource()).isNull();
+    });
+    assertThat(tempDir.resolve("bar").resolve("Output.class")).hasBinaryContent(new byte[10]);
+  }
+
+  @DisplayName("Diagnostic messages are saved in the locale they were captured in")
+  @Test
+  void diagnosticMessagesAreSavedInTheLocaleTheyWereCapturedIn() throws IOException {
+    // Given
+    var cache = new JctCompilationDiskCache(tempDir.resolve("cache"), Long.MAX_VALUE);
+    var diagnostic = someTraceDiagnostic();
+    when(diagnostic.getMessage(Locale.GERMAN)).thenReturn("Fehler");
+    var compilation = mock(JctCompilation.class);
+    when(compilation.getDiagnostics()).thenReturn(List.of(diagnostic));
+    var snapshot = JctCompilationSnapshot.capture(
+        compilation,
+        someWorkspace("foo", 0),
+        Locale.GERMAN
+    );
+
+    // When
+    cache.save("abcd", snapshot);
+    var loaded = cache.load("abcd");
+
+    // Then
+    assertThat(loaded).isNotNull();
+    var restored = loaded.restore(someWorkspace("bar", 0), mock(JctFileManager.class));
+    assertThat(restored).isNotNull();
+    assertThat(restored.getDiagnostics())
+        .singleElement()
+        .satisfies(restoredDiagnostic -> assertThat(restoredDiagnostic.getMessage(Locale.ROOT))
+            .isEqualTo("Fehler"));
+  }
+
+  @DisplayName("Corrupt entries are discarded")
+  @Test
+  void corruptEntriesAreDiscarded() throws IOException {
+    // Given
+    var directory = tempDir.resolve("cache");
+    var cache = new JctCompilationDiskCache(directory, Long.MAX_VALUE);
+    cache.save("abcd", someSnapshot("foo", 10));
+    var entry = directory.resolve("abcd.jctc");
+    var content = Files.readAllBytes(entry);
+    content[content.length - 1] ^= 1;
+    Files.write(entry, content);
+
+    // When
+    var loaded = cache.load("abcd");
+
+    // Then
+    assertThat(loaded).isNull();
+    assertThat(entry).doesNotExist();
+  }
+
+  @DisplayName("Truncated entries are discarded")
+  @Test
+  void truncatedEntriesAreDiscarded() throws IOException {
+    // Given
+    var directory = tempDir.resolve("cache");
+    var cache = new JctCompilationDiskCache(directory, Long.MAX_VALUE);
+    cache.save("abcd", someSnapshot("foo", 10));
+    var entry = directory.resolve("abcd.jctc");
+    var content = Files.readAllBytes(entry);
+    Files.write(entry, Arrays.copyOf(content, content.length / 2));
+
+    // When
+    var loaded = cache.load("abcd");
+
+    // Then
+    assertThat(loaded).isNull();
+    assertThat(entry).doesNotExist();
+  }
+
+  @DisplayName("Entries moved to another fingerprint are discarded")
+  @Test
+  void entriesMovedToAnotherFingerprintAreDiscarded() throws IOException {
+    // Given
+    var directory = tempDir.resolve("cache");
+    var cache = new JctCompilationDiskCache(directory, Long.MAX_VALUE);
+    cache.save("abcd", someSnapshot("foo", 10));
+    Files.move(directory.resolve("abcd.jctc"), directory.resolve("ef01.jctc"));
+
+    // Then
+    assertThat(cache.load("ef01")).isNull();
+  }
+
+  @DisplayName("The least recently used entries are pruned once the directory is too large")
+  @Test
+  void leastRecentlyUsedEntriesArePrunedOnceTheDirectoryIsTooLarge() throws IOException {
+    // Given
+    var directory = tempDir.resolve("cache");
+    var unlimitedCache = new JctCompilationDiskCache(directory, Long.MAX_VALUE);
+    unlimitedCache.save("aa", someSnapshot("foo", 100));
+    unlimitedCache.save("bb", someSnapshot("bar", 100));
+    var entrySize = Files.size(directory.resolve("aa.jctc"));
+    var now = Instant.now();
+    Files.setLastModifiedTime(directory.resolve("aa.jctc"), FileTime.from(now.minusSeconds(20)));
+    Files.setLastModifiedTime(directory.resolve("bb.jctc"), FileTime.from(now.minusSeconds(30)));
+    var cache = new JctCompilationDiskCache(directory, entrySize * 2);
+
+    // When
+    cache.save("cc", someSnapshot("baz", 100));
+
+    // Then
+    assertThat(directory.resolve("aa.jctc")).exists();
+    assertThat(directory.resolve("bb.jctc")).doesNotExist();
+    assertThat(directory.resolve("cc.jctc")).exists();
+  }
+
+  @DisplayName("Loading an entry marks it as recently used")
+  @Test
+  void loadingAnEntryMarksItAsRecentlyUsed() throws IOException {
+    // Given
+    var directory = tempDir.resolve("cache");
+    var cache = new JctCompilationDiskCache(directory, Long.MAX_VALUE);
+    cache.save("abcd", someSnapshot("foo", 10));
+    var entry = directory.resolve("abcd.jctc");
+    var before = FileTime.from(Instant.now().minusSeconds(60));
+    Files.setLastModifiedTime(entry, before);
+
+    // When
+    cache.load("abcd");
+
+    // Then
+    assertThat(Files.getLastModifiedTime(entry)).isGreaterThan(before);
+  }
+
+  private JctCompilationSnapshot someSnapshot(String name, int size) throws IOException {
+    return JctCompilationSnapshot.capture(
+        mock(JctCompilation.class),
+        someWorkspace(name, size),
+        Locale.ROOT
+    );
+  }
+
+  private Workspace someWorkspace(String name, int size) throws IOException {
+    var root = Files.createDirectories(tempDir.resolve(name));
+
+    if (size > 0) {
+      Files.write(root.resolve("Output.class"), new byte[size]);
+    }
+
+    var pathRoot = mock(PathRoot.class);
+    when(pathRoot.getPath()).thenReturn(root);
+
+    var workspace = mock(Workspace.class);
+    when(workspace.getAllPaths())
+        .thenReturn(Map.of(StandardLocation.CLASS_OUTPUT, List.of(pathRoot)));
+    return workspace;
+  }
+}
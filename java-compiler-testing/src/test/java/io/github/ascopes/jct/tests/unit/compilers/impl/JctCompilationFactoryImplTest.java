@@ -19,6 +19,7 @@ import static io.github.ascopes.jct.tests.helpers.ExtraArgumentMatchers.contains
 import static io.github.ascopes.jct.tests.helpers.Fixtures.oneOf;
 import static io.github.ascopes.jct.tests.helpers.Fixtures.someBinaryName;
 import static io.github.ascopes.jct.tests.helpers.Fixtures.someFlags;
+import static io.github.ascopes.jct.tests.helpers.Fixtures.someInt;
 import static io.github.ascopes.jct.tests.helpers.Fixtures.someLinesOfText;
 import static io.github.ascopes.jct.tests.helpers.Fixtures.someText;
 import static io.github.ascopes.jct.tests.helpers.Fixtures.someTraceDiagnostic;
@@ -26,12 +27,14 @@ import static io.github.ascopes.jct.utils.IterableUtils.flatten;
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.InstanceOfAssertFactories.type;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockConstruction;
 import static org.mockito.Mockito.mockStatic;
@@ -42,24 +45,40 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.withSettings;
 
+import com.sun.source.util.JavacTask;
+import io.github.ascopes.jct.compilers.CompilationMode;
 import io.github.ascopes.jct.compilers.JctCompilation;
 import io.github.ascopes.jct.compilers.JctCompiler;
 import io.github.ascopes.jct.compilers.impl.JctCompilationFactoryImpl;
+import io.github.ascopes.jct.compilers.impl.JctMeasuringProcessor;
+import io.github.ascopes.jct.diagnostics.DiagnosticCounts;
+import io.github.ascopes.jct.diagnostics.DiagnosticObserver;
+import io.github.ascopes.jct.diagnostics.DiagnosticRetention;
+import io.github.ascopes.jct.diagnostics.StackCaptureMode;
 import io.github.ascopes.jct.diagnostics.TeeWriter;
 import io.github.ascopes.jct.diagnostics.TracingDiagnosticListener;
 import io.github.ascopes.jct.ex.JctCompilerException;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.filemanagers.JctFileManagerMetrics;
 import io.github.ascopes.jct.filemanagers.LoggingMode;
 import io.github.ascopes.jct.filemanagers.ModuleLocation;
 import io.github.ascopes.jct.filemanagers.PathFileObject;
+import io.github.ascopes.jct.filemanagers.impl.JctMeasuringFileManager;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic;
 import javax.tools.JavaCompiler;
 import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileManager;
 import javax.tools.JavaFileManager.Location;
 import javax.tools.JavaFileObject;
 import javax.tools.JavaFileObject.Kind;
@@ -71,8 +90,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedConstruction.MockInitializer;
@@ -105,6 +126,22 @@ class JctCompilationFactoryImplTest {
   @BeforeEach
   void setUp() {
     flags = someFlags();
+
+    // Deep stubs cannot produce valid stack frame or retention limits, so provide them for the
+    // tests that create a real diagnostic listener.
+    lenient().when(jctCompiler.getDiagnosticStackCaptureMode())
+        .thenReturn(StackCaptureMode.LIMITED);
+    lenient().when(jctCompiler.getDiagnosticStackFrameLimit())
+        .thenReturn(JctCompiler.DEFAULT_DIAGNOSTIC_STACK_FRAME_LIMIT);
+    lenient().when(jctCompiler.getDiagnosticRetention())
+        .thenReturn(DiagnosticRetention.ALL);
+    lenient().when(jctCompiler.getDiagnosticRetentionLimit())
+        .thenReturn(JctCompiler.DEFAULT_DIAGNOSTIC_RETENTION_LIMIT);
+    // Deep stubs would otherwise hand a mock observer to real diagnostic listeners.
+    lenient().when(jctCompiler.getDiagnosticObserver())
+        .thenReturn(null);
+    lenient().when(jctCompiler.getCompilationDeadline())
+        .thenReturn(null);
   }
 
   JctCompilation doCompile(@Nullable Collection<String> classNames) {
@@ -149,6 +186,10 @@ class JctCompilationFactoryImplTest {
     verify(fileManager).listLocationsForModules(StandardLocation.MODULE_SOURCE_PATH);
     verify(fileManager).list(apiLocation, "", Set.of(Kind.SOURCE), true);
     verify(fileManager).list(implLocation, "", Set.of(Kind.SOURCE), true);
+    // Container groups are inspected after compiling to measure the workspace size.
+    verify(fileManager).getPackageContainerGroups();
+    verify(fileManager).getModuleContainerGroups();
+    verify(fileManager).getOutputContainerGroups();
     verifyNoMoreInteractions(fileManager);
 
     verify(javaCompiler).getTask(
@@ -184,6 +225,10 @@ class JctCompilationFactoryImplTest {
     // Then
     verify(fileManager).listLocationsForModules(StandardLocation.MODULE_SOURCE_PATH);
     verify(fileManager).list(StandardLocation.SOURCE_PATH, "", Set.of(Kind.SOURCE), true);
+    // Container groups are inspected after compiling to measure the workspace size.
+    verify(fileManager).getPackageContainerGroups();
+    verify(fileManager).getModuleContainerGroups();
+    verify(fileManager).getOutputContainerGroups();
     verifyNoMoreInteractions(fileManager);
 
     verify(javaCompiler).getTask(
@@ -414,14 +459,35 @@ class JctCompilationFactoryImplTest {
     // Given
     when(jctCompiler.getDiagnosticLoggingMode())
         .thenReturn(loggingMode);
+    var stackCaptureMode = oneOf(StackCaptureMode.class);
+    when(jctCompiler.getDiagnosticStackCaptureMode())
+        .thenReturn(stackCaptureMode);
+    var stackFrameLimit = someInt(1, 100);
+    when(jctCompiler.getDiagnosticStackFrameLimit())
+        .thenReturn(stackFrameLimit);
+    var retention = oneOf(DiagnosticRetention.class);
+    when(jctCompiler.getDiagnosticRetention())
+        .thenReturn(retention);
+    var retentionLimit = someInt(1, 100);
+    when(jctCompiler.getDiagnosticRetentionLimit())
+        .thenReturn(retentionLimit);
+    var observer = mock(DiagnosticObserver.class);
+    when(jctCompiler.getDiagnosticObserver())
+        .thenReturn(observer);
 
     MockInitializer<TracingDiagnosticListener> verifier = (mock, ctx) -> {
       assertThat(ctx.arguments())
-          .hasSize(2)
+          .hasSize(7)
           .satisfies(
               args -> assertThat(args).element(0).isEqualTo(expectedEnabled),
-              args -> assertThat(args).element(1).isEqualTo(expectedStackTraces)
+              args -> assertThat(args).element(1).isEqualTo(expectedStackTraces),
+              args -> assertThat(args).element(2).isEqualTo(stackCaptureMode),
+              args -> assertThat(args).element(3).isEqualTo(stackFrameLimit),
+              args -> assertThat(args).element(4).isEqualTo(retention),
+              args -> assertThat(args).element(5).isEqualTo(retentionLimit),
+              args -> assertThat(args).element(6).isSameAs(observer)
           );
+      when(mock.getDiagnosticCounts()).thenReturn(DiagnosticCounts.empty());
     };
 
     try (var listenerCls = mockConstruction(TracingDiagnosticListener.class, verifier)) {
@@ -476,8 +542,10 @@ class JctCompilationFactoryImplTest {
         someTraceDiagnostic()
     );
 
-    MockInitializer<TracingDiagnosticListener> configurer =
-        (mock, ctx) -> when(mock.getDiagnostics()).thenReturn(diagnostics);
+    MockInitializer<TracingDiagnosticListener> configurer = (mock, ctx) -> {
+      when(mock.getDiagnostics()).thenReturn(diagnostics);
+      when(mock.getDiagnosticCounts()).thenReturn(DiagnosticCounts.empty());
+    };
 
     try (var ignored = mockConstruction(TracingDiagnosticListener.class, configurer)) {
       // Do not inline this, it will break in Mockito's stubber backend.
@@ -494,6 +562,35 @@ class JctCompilationFactoryImplTest {
     }
   }
 
+  @DisplayName("Diagnostic counts get placed in the compilation result")
+  @Test
+  @SuppressWarnings("rawtypes")
+  void diagnosticCountsGetPlacedInTheCompilationResult() throws IOException {
+    // Given
+    var counts = new DiagnosticCounts(
+        Map.of(Diagnostic.Kind.WARNING, 1_000L),
+        Map.of("compiler.warn.foo", 1_000L),
+        10
+    );
+
+    MockInitializer<TracingDiagnosticListener> configurer =
+        (mock, ctx) -> when(mock.getDiagnosticCounts()).thenReturn(counts);
+
+    try (var ignored = mockConstruction(TracingDiagnosticListener.class, configurer)) {
+      // Do not inline this, it will break in Mockito's stubber backend.
+      var fileObjects = Set.of(somePathFileObject(someBinaryName()));
+      when(fileManager.list(any(), any(), any(), anyBoolean()))
+          .thenReturn(fileObjects);
+
+      // When
+      var result = doCompile(null);
+
+      // Then
+      assertThat(result.getDiagnosticCounts())
+          .isSameAs(counts);
+    }
+  }
+
   @DisplayName("The file manager is passed to the compiler task")
   @Test
   void theFileManagerIsPassedToTheCompilationTask() throws IOException {
@@ -527,6 +624,49 @@ class JctCompilationFactoryImplTest {
         .isSameAs(fileManager);
   }
 
+  @DisplayName("The file manager is measured if file manager metrics are enabled")
+  @Test
+  void theFileManagerIsMeasuredIfFileManagerMetricsAreEnabled() throws IOException {
+    // Given
+    when(jctCompiler.isFileManagerMetrics()).thenReturn(true);
+
+    // Do not inline this, it will break in Mockito's stubber backend.
+    var fileObjects = Set.of(somePathFileObject(someBinaryName()));
+    when(fileManager.list(any(), any(), any(), anyBoolean()))
+        .thenReturn(fileObjects);
+
+    // When
+    var result = doCompile(null);
+
+    // Then
+    var captor = ArgumentCaptor.forClass(JavaFileManager.class);
+    verify(javaCompiler).getTask(any(), captor.capture(), any(), any(), any(), any());
+    assertThat(captor.getValue())
+        .asInstanceOf(type(JctMeasuringFileManager.class))
+        .extracting(JctMeasuringFileManager::getDelegate)
+        .isSameAs(fileManager);
+    assertThat(result.getFileManager()).isSameAs(fileManager);
+    assertThat(result.getFileManagerMetrics()).isNotSameAs(JctFileManagerMetrics.empty());
+  }
+
+  @DisplayName("File manager metrics are empty if file manager metrics are disabled")
+  @Test
+  void fileManagerMetricsAreEmptyIfFileManagerMetricsAreDisabled() throws IOException {
+    // Given
+    when(jctCompiler.isFileManagerMetrics()).thenReturn(false);
+
+    // Do not inline this, it will break in Mockito's stubber backend.
+    var fileObjects = Set.of(somePathFileObject(someBinaryName()));
+    when(fileManager.list(any(), any(), any(), anyBoolean()))
+        .thenReturn(fileObjects);
+
+    // When
+    var result = doCompile(null);
+
+    // Then
+    assertThat(result.getFileManagerMetrics()).isSameAs(JctFileManagerMetrics.empty());
+  }
+
   @DisplayName("Flags are passed to the compilation task")
   @Test
   void flagsArePassedToTheCompilationTask() throws IOException {
@@ -593,6 +733,39 @@ class JctCompilationFactoryImplTest {
     verify(task).setProcessors(processors);
   }
 
+  @DisplayName("Annotation processors are measured if annotation processor metrics are enabled")
+  @Test
+  @SuppressWarnings("unchecked")
+  void annotationProcessorsAreMeasuredIfAnnotationProcessorMetricsAreEnabled() throws IOException {
+    // Given
+    var processors = List.of(mock(Processor.class), mock(Processor.class));
+    when(jctCompiler.getAnnotationProcessors()).thenReturn(processors);
+    when(jctCompiler.isAnnotationProcessorMetrics()).thenReturn(true);
+
+    var task = mock(CompilationTask.class);
+    when(javaCompiler.getTask(any(), any(), any(), any(), any(), any()))
+        .thenReturn(task);
+
+    // Do not inline this, it will break in Mockito's stubber backend.
+    var fileObjects = Set.of(somePathFileObject(someBinaryName()));
+    when(fileManager.list(any(), any(), any(), anyBoolean()))
+        .thenReturn(fileObjects);
+
+    // When
+    var result = doCompile(null);
+
+    // Then
+    var captor = ArgumentCaptor.forClass(Iterable.class);
+    verify(task).setProcessors(captor.capture());
+    assertThat((Iterable<Processor>) captor.getValue())
+        .map(JctMeasuringProcessor.class::cast)
+        .map(JctMeasuringProcessor::getDelegate)
+        .containsExactlyElementsOf(processors);
+    assertThat(result.getAnnotationProcessorMetrics())
+        .hasSize(2)
+        .allSatisfy(metrics -> assertThat(metrics.getRounds()).isEmpty());
+  }
+
   @DisplayName("The locale is set on the compiler task")
   @Test
   void theLocaleIsSetOnTheCompilerTask() throws IOException {
@@ -675,6 +848,304 @@ class JctCompilationFactoryImplTest {
         .hasCause(cause);
   }
 
+  @DisplayName("Compilations cancelled by the diagnostic observer are reported as cancelled")
+  @Test
+  @SuppressWarnings("rawtypes")
+  void compilationsCancelledByTheDiagnosticObserverAreReportedAsCancelled() throws IOException {
+    // Given
+    var task = mock(CompilationTask.class);
+
+    when(javaCompiler.getTask(any(), any(), any(), any(), any(), any()))
+        .thenReturn(task);
+    when(task.call())
+        .thenThrow(new RuntimeException("cancelled"));
+
+    MockInitializer<TracingDiagnosticListener> configurer = (mock, ctx) -> {
+      when(mock.isCancelled()).thenReturn(true);
+      when(mock.getDiagnosticCounts()).thenReturn(DiagnosticCounts.empty());
+    };
+
+    try (var ignored = mockConstruction(TracingDiagnosticListener.class, configurer)) {
+      // Do not inline this, it will break in Mockito's stubber backend.
+      var fileObjects = Set.of(somePathFileObject(someBinaryName()));
+      when(fileManager.list(any(), any(), any(), anyBoolean()))
+          .thenReturn(fileObjects);
+
+      // When
+      var result = doCompile(null);
+
+      // Then
+      assertThat(result.isCancelled()).isTrue();
+      assertThat(result.isSuccessful()).isFalse();
+    }
+  }
+
+  @DisplayName("Compilations that are not cancelled are not reported as cancelled")
+  @ValueSource(booleans = {true, false})
+  @ParameterizedTest(name = "when CompilationTask.call() returns {0}")
+  void compilationsThatAreNotCancelledAreNotReportedAsCancelled(boolean success)
+      throws IOException {
+    // Given
+    var task = mock(CompilationTask.class);
+
+    when(javaCompiler.getTask(any(), any(), any(), any(), any(), any()))
+        .thenReturn(task);
+    when(task.call())
+        .thenReturn(success);
+
+    // Do not inline this, it will break in Mockito's stubber backend.
+    var fileObjects = Set.of(somePathFileObject(someBinaryName()));
+    when(fileManager.list(any(), any(), any(), anyBoolean()))
+        .thenReturn(fileObjects);
+
+    // When
+    var result = doCompile(null);
+
+    // Then
+    assertThat(result.isCancelled()).isFalse();
+  }
+
+  @DisplayName("Compilations run on the calling thread when no deadline is set")
+  @Test
+  void compilationsRunOnTheCallingThreadWhenNoDeadlineIsSet() throws IOException {
+    // Given
+    var task = mock(CompilationTask.class);
+    var compilingThread = new AtomicReference<Thread>();
+
+    when(javaCompiler.getTask(any(), any(), any(), any(), any(), any()))
+        .thenReturn(task);
+    when(task.call())
+        .then(ctx -> {
+          compilingThread.set(Thread.currentThread());
+          return true;
+        });
+
+    // Do not inline this, it will break in Mockito's stubber backend.
+    var fileObjects = Set.of(somePathFileObject(someBinaryName()));
+    when(fileManager.list(any(), any(), any(), anyBoolean()))
+        .thenReturn(fileObjects);
+
+    // When
+    doCompile(null);
+
+    // Then
+    assertThat(compilingThread).hasValue(Thread.currentThread());
+  }
+
+  @DisplayName("Compilations run on a separate thread when a deadline is set")
+  @Test
+  void compilationsRunOnSeparateThreadWhenDeadlineIsSet() throws IOException {
+    // Given
+    var task = mock(CompilationTask.class);
+    var compilingThread = new AtomicReference<Thread>();
+
+    when(jctCompiler.getName())
+        .thenReturn(someText());
+    when(jctCompiler.getCompilationDeadline())
+        .thenReturn(Duration.ofSeconds(30));
+    when(javaCompiler.getTask(any(), any(), any(), any(), any(), any()))
+        .thenReturn(task);
+    when(task.call())
+        .then(ctx -> {
+          compilingThread.set(Thread.currentThread());
+          return true;
+        });
+
+    // Do not inline this, it will break in Mockito's stubber backend.
+    var fileObjects = Set.of(somePathFileObject(someBinaryName()));
+    when(fileManager.list(any(), any(), any(), anyBoolean()))
+        .thenReturn(fileObjects);
+
+    // When
+    var result = doCompile(null);
+
+    // Then
+    assertThat(result.isSuccessful()).isTrue();
+    assertThat(compilingThread.get())
+        .isNotNull()
+        .isNotSameAs(Thread.currentThread())
+        .extracting(Thread::getName)
+        .asString()
+        .startsWith("jct-compiler-deadline-");
+  }
+
+  @DisplayName("Compilations exceeding the deadline are cancelled and raised as an exception")
+  @Test
+  void compilationsExceedingTheDeadlineAreCancelledAndRaisedAsAnException() throws IOException {
+    // Given
+    var task = mock(CompilationTask.class);
+    var name = someText();
+    var release = new CountDownLatch(1);
+    var listener = new AtomicReference<TracingDiagnosticListener<?>>();
+
+    when(jctCompiler.getName())
+        .thenReturn(name);
+    when(jctCompiler.getCompilationDeadline())
+        .thenReturn(Duration.ofMillis(100));
+    when(javaCompiler.getTask(any(), any(), any(), any(), any(), any()))
+        .then(ctx -> {
+          // The listener is created on the compiling thread, so capture it here.
+          listener.set(ctx.getArgument(2));
+          return task;
+        });
+    when(task.call())
+        .then(ctx -> release.await(30, TimeUnit.SECONDS));
+
+    // Do not inline this, it will break in Mockito's stubber backend.
+    var fileObjects = Set.of(somePathFileObject(someBinaryName()));
+    when(fileManager.list(any(), any(), any(), anyBoolean()))
+        .thenReturn(fileObjects);
+
+    try {
+      // Then
+      assertThatThrownBy(() -> doCompile(null))
+          .isInstanceOf(JctCompilerException.class)
+          .hasMessageStartingWith("Compilation with %s did not complete within 100ms", name);
+      assertThat(listener.get())
+          .isNotNull()
+          .extracting(TracingDiagnosticListener::isCancelled)
+          .isEqualTo(true);
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @DisplayName("PARSE_ONLY parses the sources without analysing or generating code")
+  @Test
+  void parseOnlyParsesTheSourcesWithoutAnalysingOrGeneratingCode() throws IOException {
+    // Given
+    var task = mock(JavacTask.class);
+
+    when(jctCompiler.getCompilationMode())
+        .thenReturn(CompilationMode.PARSE_ONLY);
+    when(javaCompiler.getTask(any(), any(), any(), any(), any(), any()))
+        .thenReturn(task);
+
+    // Do not inline this, it will break in Mockito's stubber backend.
+    var fileObjects = Set.of(somePathFileObject(someBinaryName()));
+    when(fileManager.list(any(), any(), any(), anyBoolean()))
+        .thenReturn(fileObjects);
+
+    // When
+    var result = doCompile(null);
+
+    // Then
+    assertThat(result.isSuccessful()).isTrue();
+    verify(task).parse();
+    verify(task, never()).analyze();
+    verify(task, never()).generate();
+    verify(task, never()).call();
+  }
+
+  @DisplayName("ANALYZE_ONLY analyses the sources without generating code")
+  @Test
+  void analyzeOnlyAnalysesTheSourcesWithoutGeneratingCode() throws IOException {
+    // Given
+    var task = mock(JavacTask.class);
+
+    when(jctCompiler.getCompilationMode())
+        .thenReturn(CompilationMode.ANALYZE_ONLY);
+    when(javaCompiler.getTask(any(), any(), any(), any(), any(), any()))
+        .thenReturn(task);
+
+    // Do not inline this, it will break in Mockito's stubber backend.
+    var fileObjects = Set.of(somePathFileObject(someBinaryName()));
+    when(fileManager.list(any(), any(), any(), anyBoolean()))
+        .thenReturn(fileObjects);
+
+    // When
+    var result = doCompile(null);
+
+    // Then
+    assertThat(result.isSuccessful()).isTrue();
+    verify(task).analyze();
+    verify(task, never()).generate();
+    verify(task, never()).call();
+  }
+
+  @DisplayName("Modes that skip code generation determine the outcome from the diagnostics")
+  @CsvSource({
+      "PARSE_ONLY,   0, 0, false,  true",
+      "PARSE_ONLY,   1, 0, false, false",
+      "PARSE_ONLY,   0, 1, false,  true",
+      "PARSE_ONLY,   0, 1,  true, false",
+      "ANALYZE_ONLY, 0, 0,  true,  true",
+      "ANALYZE_ONLY, 2, 0, false, false",
+      "ANALYZE_ONLY, 0, 3, false,  true",
+      "ANALYZE_ONLY, 0, 3,  true, false"
+  })
+  @ParameterizedTest(
+      name = "for {0} with {1} errors, {2} warnings, and failOnWarnings = {3}, expect {4}"
+  )
+  @SuppressWarnings("rawtypes")
+  void modesThatSkipCodeGenerationDetermineTheOutcomeFromTheDiagnostics(
+      CompilationMode compilationMode,
+      long errors,
+      long warnings,
+      boolean failOnWarnings,
+      boolean expectedSuccess
+  ) throws IOException {
+    // Given
+    var task = mock(JavacTask.class);
+    var counts = new DiagnosticCounts(
+        Map.of(Diagnostic.Kind.ERROR, errors, Diagnostic.Kind.WARNING, warnings),
+        Map.of(),
+        0
+    );
+
+    when(jctCompiler.getCompilationMode())
+        .thenReturn(compilationMode);
+    when(jctCompiler.isFailOnWarnings())
+        .thenReturn(failOnWarnings);
+    when(javaCompiler.getTask(any(), any(), any(), any(), any(), any()))
+        .thenReturn(task);
+
+    MockInitializer<TracingDiagnosticListener> configurer =
+        (mock, ctx) -> when(mock.getDiagnosticCounts()).thenReturn(counts);
+
+    try (var ignored = mockConstruction(TracingDiagnosticListener.class, configurer)) {
+      // Do not inline this, it will break in Mockito's stubber backend.
+      var fileObjects = Set.of(somePathFileObject(someBinaryName()));
+      when(fileManager.list(any(), any(), any(), anyBoolean()))
+          .thenReturn(fileObjects);
+
+      // When
+      var result = doCompile(null);
+
+      // Then
+      assertThat(result.isSuccessful()).isEqualTo(expectedSuccess);
+    }
+  }
+
+  @DisplayName("Modes that skip code generation are rejected for non-javac compilers")
+  @EnumSource(value = CompilationMode.class, names = {"PARSE_ONLY", "ANALYZE_ONLY"})
+  @ParameterizedTest(name = "for {0}")
+  void modesThatSkipCodeGenerationAreRejectedForNonJavacCompilers(
+      CompilationMode compilationMode
+  ) throws IOException {
+    // Given
+    var task = mock(CompilationTask.class);
+    var name = someText();
+
+    when(jctCompiler.getName())
+        .thenReturn(name);
+    when(jctCompiler.getCompilationMode())
+        .thenReturn(compilationMode);
+    when(javaCompiler.getTask(any(), any(), any(), any(), any(), any()))
+        .thenReturn(task);
+
+    // Do not inline this, it will break in Mockito's stubber backend.
+    var fileObjects = Set.of(somePathFileObject(someBinaryName()));
+    when(fileManager.list(any(), any(), any(), anyBoolean()))
+        .thenReturn(fileObjects);
+
+    // Then
+    assertThatThrownBy(() -> doCompile(null))
+        .isInstanceOf(JctCompilerException.class)
+        .hasMessage("Compiler %s does not support compilation mode %s", name, compilationMode);
+    verify(task, never()).call();
+  }
+
   @DisplayName("Compilers returning null outcomes will be raised as an exception")
   @Test
   void compilersReturningNullOutcomesWillBeRaisedAsAnException() throws IOException {
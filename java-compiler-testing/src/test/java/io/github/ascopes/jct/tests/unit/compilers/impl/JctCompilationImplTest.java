@@ -20,19 +20,28 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.InstanceOfAssertFactories.iterable;
 import static org.mockito.Mockito.mock;
 
+import io.github.ascopes.jct.compilers.JctAnnotationProcessorMetrics;
+import io.github.ascopes.jct.compilers.JctCompilationResourceUsage;
+import io.github.ascopes.jct.compilers.JctCompilationTimings;
 import io.github.ascopes.jct.compilers.impl.JctCompilationImpl;
+import io.github.ascopes.jct.diagnostics.DiagnosticCounts;
 import io.github.ascopes.jct.diagnostics.TraceDiagnostic;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.filemanagers.JctFileManagerMetrics;
 import io.github.ascopes.jct.tests.helpers.Fixtures;
 import io.github.ascopes.jct.utils.StringUtils;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.tools.Diagnostic.Kind;
 import javax.tools.JavaFileObject;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -94,6 +103,52 @@ class JctCompilationImplTest {
     assertThat(compilation.isFailOnWarnings()).isEqualTo(expected);
   }
 
+  @DisplayName(".isCancelled() returns the expected value")
+  @ValueSource(booleans = {true, false})
+  @ParameterizedTest(name = "for cancelled = {0}")
+  void isCancelledReturnsExpectedValue(boolean expected) {
+    // Given
+    var compilation = filledBuilder()
+        .cancelled(expected)
+        .build();
+
+    // Then
+    assertThat(compilation.isCancelled()).isEqualTo(expected);
+  }
+
+  @DisplayName(".isCancelled() defaults to false")
+  @Test
+  void isCancelledDefaultsToFalse() {
+    // When
+    var compilation = filledBuilder().build();
+
+    // Then
+    assertThat(compilation.isCancelled()).isFalse();
+  }
+
+  @DisplayName(".isMemoized() returns the expected value")
+  @ValueSource(booleans = {true, false})
+  @ParameterizedTest(name = "for memoized = {0}")
+  void isMemoizedReturnsExpectedValue(boolean expected) {
+    // Given
+    var compilation = filledBuilder()
+        .memoized(expected)
+        .build();
+
+    // Then
+    assertThat(compilation.isMemoized()).isEqualTo(expected);
+  }
+
+  @DisplayName(".isMemoized() defaults to false")
+  @Test
+  void isMemoizedDefaultsToFalse() {
+    // When
+    var compilation = filledBuilder().build();
+
+    // Then
+    assertThat(compilation.isMemoized()).isFalse();
+  }
+
   @DisplayName(".getOutputLines() returns the expected value")
   @ValueSource(ints = {0, 1, 2, 3, 5, 10, 100})
   @ParameterizedTest(name = "for lineCount = {0}")
@@ -154,6 +209,32 @@ class JctCompilationImplTest {
         .containsExactlyElementsOf(diagnostics);
   }
 
+  @DisplayName(".getDiagnosticCounts() returns the expected value")
+  @Test
+  void getDiagnosticCountsReturnsExpectedValue() {
+    // Given
+    var diagnosticCounts = new DiagnosticCounts(
+        Map.of(Kind.WARNING, 1_000L), Map.of("compiler.warn.foo", 1_000L), 0
+    );
+    var compilation = filledBuilder()
+        .diagnosticCounts(diagnosticCounts)
+        .build();
+
+    // Then
+    assertThat(compilation.getDiagnosticCounts()).isSameAs(diagnosticCounts);
+  }
+
+  @DisplayName(".getDiagnosticCounts() defaults to counting the diagnostics")
+  @Test
+  void getDiagnosticCountsDefaultsToCountingTheDiagnostics() {
+    // When
+    var compilation = filledBuilder().build();
+
+    // Then
+    assertThat(compilation.getDiagnosticCounts())
+        .isEqualTo(DiagnosticCounts.of(compilation.getDiagnostics()));
+  }
+
   @DisplayName(".getFileManager() returns the expected value")
   @Test
   void getFileManagerReturnsExpectedValue() {
@@ -167,6 +248,96 @@ class JctCompilationImplTest {
     assertThat(compilation.getFileManager()).isEqualTo(fileManager);
   }
 
+  @DisplayName(".getTimings() returns the expected value")
+  @Test
+  void getTimingsReturnsExpectedValue() {
+    // Given
+    var timings = JctCompilationTimings.builder().total(Duration.ofMillis(123)).build();
+    var compilation = filledBuilder()
+        .timings(timings)
+        .build();
+
+    // Then
+    assertThat(compilation.getTimings()).isSameAs(timings);
+  }
+
+  @DisplayName(".getTimings() returns empty timings if none were set")
+  @Test
+  void getTimingsReturnsEmptyTimingsIfNoneWereSet() {
+    // Given
+    var compilation = filledBuilder().build();
+
+    // Then
+    assertThat(compilation.getTimings()).isSameAs(JctCompilationTimings.empty());
+  }
+
+  @DisplayName(".getAnnotationProcessorMetrics() returns the expected value")
+  @Test
+  void getAnnotationProcessorMetricsReturnsExpectedValue() {
+    // Given
+    var metrics = List.of(
+        new JctAnnotationProcessorMetrics("foo.Bar", Duration.ZERO, Duration.ZERO, List.of()),
+        new JctAnnotationProcessorMetrics("foo.Baz", Duration.ZERO, Duration.ZERO, List.of())
+    );
+    var compilation = filledBuilder()
+        .annotationProcessorMetrics(metrics)
+        .build();
+
+    // Then
+    assertThat(compilation.getAnnotationProcessorMetrics())
+        .containsExactlyElementsOf(metrics);
+  }
+
+  @DisplayName(".getResourceUsage() returns the expected value")
+  @Test
+  void getResourceUsageReturnsExpectedValue() {
+    // Given
+    var resourceUsage = new JctCompilationResourceUsage(
+        OptionalLong.of(1024), Duration.ofMillis(5), 1, 2048
+    );
+    var compilation = filledBuilder()
+        .resourceUsage(resourceUsage)
+        .build();
+
+    // Then
+    assertThat(compilation.getResourceUsage()).isSameAs(resourceUsage);
+  }
+
+  @DisplayName(".getResourceUsage() defaults to empty")
+  @Test
+  void getResourceUsageDefaultsToEmpty() {
+    // When
+    var compilation = filledBuilder().build();
+
+    // Then
+    assertThat(compilation.getResourceUsage()).isSameAs(JctCompilationResourceUsage.empty());
+  }
+
+  @DisplayName(".getFileManagerMetrics() returns the expected value")
+  @Test
+  void getFileManagerMetricsReturnsExpectedValue() {
+    // Given
+    var fileManagerMetrics = new JctFileManagerMetrics(
+        Map.of(), 1024, 2048, JctFileManagerMetrics.Histogram.empty()
+    );
+    var compilation = filledBuilder()
+        .fileManagerMetrics(fileManagerMetrics)
+        .build();
+
+    // Then
+    assertThat(compilation.getFileManagerMetrics()).isSameAs(fileManagerMetrics);
+  }
+
+  @DisplayName(".getFileManagerMetrics() defaults to empty")
+  @Test
+  void getFileManagerMetricsDefaultsToEmpty() {
+    // When
+    var compilation = filledBuilder().build();
+
+    // Then
+    assertThat(compilation.getFileManagerMetrics()).isSameAs(JctFileManagerMetrics.empty());
+  }
+
   @DisplayName(".toString() returns the expected value")
   @Test
   void toStringReturnsExpectedValue() {
@@ -401,6 +572,30 @@ class JctCompilationImplTest {
           .hasMessage("fileManager");
     }
 
+    @DisplayName("Setting null diagnostic counts raises a NullPointerException")
+    @Test
+    void settingNullDiagnosticCountsRaisesNullPointerException() {
+      // Given
+      var builder = filledBuilder();
+
+      // Then
+      assertThatThrownBy(() -> builder.diagnosticCounts(null))
+          .isInstanceOf(NullPointerException.class)
+          .hasMessage("diagnosticCounts");
+    }
+
+    @DisplayName("Setting null timings raises a NullPointerException")
+    @Test
+    void settingNullTimingsRaisesNullPointerException() {
+      // Given
+      var builder = filledBuilder();
+
+      // Then
+      assertThatThrownBy(() -> builder.timings(null))
+          .isInstanceOf(NullPointerException.class)
+          .hasMessage("timings");
+    }
+
     @DisplayName("Building without a file manager raises a NullPointerException")
     @Test
     void buildingWithoutFileManagerRaisesNullPointerException() {
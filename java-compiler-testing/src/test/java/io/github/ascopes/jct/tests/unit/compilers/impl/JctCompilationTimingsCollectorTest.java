@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.unit.compilers.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskEvent.Kind;
+import io.github.ascopes.jct.compilers.impl.JctCompilationTimingsCollector;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link JctCompilationTimingsCollector} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JctCompilationTimingsCollector tests")
+class JctCompilationTimingsCollectorTest {
+
+  final AtomicLong clock = new AtomicLong();
+  final JctCompilationTimingsCollector collector = new JctCompilationTimingsCollector(clock::get);
+
+  @DisplayName("No events result in every phase taking no time")
+  @Test
+  void noEventsResultInEveryPhaseTakingNoTime() {
+    // When
+    var timings = collector.toTimings(Duration.ofSeconds(1));
+
+    // Then
+    assertThat(timings.getTotal()).isEqualTo(Duration.ofSeconds(1));
+    assertThat(timings.getParse()).isZero();
+    assertThat(timings.getEnter()).isZero();
+    assertThat(timings.getAnalyze()).isZero();
+    assertThat(timings.getGenerate()).isZero();
+    assertThat(timings.getAnnotationProcessing()).isZero();
+    assertThat(timings.getAnnotationProcessingRounds()).isEmpty();
+  }
+
+  @DisplayName("Repeated events of the same kind are accumulated")
+  @Test
+  void repeatedEventsOfTheSameKindAreAccumulated() {
+    // Given
+    run(Kind.PARSE, 10);
+    run(Kind.PARSE, 15);
+    run(Kind.ANALYZE, 20);
+    run(Kind.GENERATE, 5);
+    run(Kind.ANALYZE, 7);
+
+    // When
+    var timings = collector.toTimings(Duration.ZERO);
+
+    // Then
+    assertThat(timings.getParse()).isEqualTo(Duration.ofNanos(25));
+    assertThat(timings.getAnalyze()).isEqualTo(Duration.ofNanos(27));
+    assertThat(timings.getGenerate()).isEqualTo(Duration.ofNanos(5));
+    assertThat(timings.getEnter()).isZero();
+  }
+
+  @DisplayName("Nested events of the same kind are only measured once")
+  @Test
+  void nestedEventsOfTheSameKindAreOnlyMeasuredOnce() {
+    // Given
+    start(Kind.ENTER);
+    clock.addAndGet(10);
+    start(Kind.ENTER);
+    clock.addAndGet(5);
+    finish(Kind.ENTER);
+    clock.addAndGet(3);
+    finish(Kind.ENTER);
+
+    // When
+    var timings = collector.toTimings(Duration.ZERO);
+
+    // Then
+    assertThat(timings.getEnter()).isEqualTo(Duration.ofNanos(18));
+  }
+
+  @DisplayName("Annotation processing rounds are measured individually")
+  @Test
+  void annotationProcessingRoundsAreMeasuredIndividually() {
+    // Given
+    start(Kind.ANNOTATION_PROCESSING);
+    clock.addAndGet(1);
+    run(Kind.ANNOTATION_PROCESSING_ROUND, 100);
+    run(Kind.ANNOTATION_PROCESSING_ROUND, 20);
+    clock.addAndGet(2);
+    finish(Kind.ANNOTATION_PROCESSING);
+
+    // When
+    var timings = collector.toTimings(Duration.ZERO);
+
+    // Then
+    assertThat(timings.getAnnotationProcessing()).isEqualTo(Duration.ofNanos(123));
+    assertThat(timings.getAnnotationProcessingRounds())
+        .containsExactly(Duration.ofNanos(100), Duration.ofNanos(20));
+  }
+
+  @DisplayName("Unbalanced finish events are ignored")
+  @Test
+  void unbalancedFinishEventsAreIgnored() {
+    // Given
+    finish(Kind.GENERATE);
+    finish(Kind.ANNOTATION_PROCESSING_ROUND);
+    run(Kind.GENERATE, 10);
+    finish(Kind.GENERATE);
+
+    // When
+    var timings = collector.toTimings(Duration.ZERO);
+
+    // Then
+    assertThat(timings.getGenerate()).isEqualTo(Duration.ofNanos(10));
+    assertThat(timings.getAnnotationProcessingRounds()).isEmpty();
+  }
+
+  private void run(Kind kind, long nanos) {
+    start(kind);
+    clock.addAndGet(nanos);
+    finish(kind);
+  }
+
+  private void start(Kind kind) {
+    collector.started(new TaskEvent(kind));
+  }
+
+  private void finish(Kind kind) {
+    collector.finished(new TaskEvent(kind));
+  }
+}
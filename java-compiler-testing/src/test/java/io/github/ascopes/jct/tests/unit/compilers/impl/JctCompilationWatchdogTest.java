@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.unit.compilers.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.ascopes.jct.compilers.impl.JctCompilationWatchdog;
+import io.github.ascopes.jct.ex.JctCompilerException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link JctCompilationWatchdog} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JctCompilationWatchdog tests")
+class JctCompilationWatchdogTest {
+
+  final CountDownLatch release = new CountDownLatch(1);
+
+  @AfterEach
+  void tearDown() {
+    // Never leave abandoned threads blocked after the test.
+    release.countDown();
+  }
+
+  @DisplayName("The result of the compilation is returned")
+  @Test
+  void theResultOfTheCompilationIsReturned() throws Exception {
+    // Given
+    var watchdog = new JctCompilationWatchdog("foobar", Duration.ofSeconds(30));
+
+    // When
+    var result = watchdog.call(() -> "it worked");
+
+    // Then
+    assertThat(result).isEqualTo("it worked");
+  }
+
+  @DisplayName("The compilation runs on a separate daemon thread")
+  @Test
+  void theCompilationRunsOnSeparateDaemonThread() throws Exception {
+    // Given
+    var watchdog = new JctCompilationWatchdog("foobar", Duration.ofSeconds(30));
+    var caller = Thread.currentThread();
+
+    // When
+    var worker = watchdog.call(Thread::currentThread);
+
+    // Then
+    assertThat(worker).isNotSameAs(caller);
+    assertThat(worker.isDaemon()).isTrue();
+    assertThat(worker.getName()).startsWith("jct-compiler-deadline-");
+    assertThat(worker.getContextClassLoader()).isSameAs(caller.getContextClassLoader());
+  }
+
+  @DisplayName("Exceptions raised by the compilation are rethrown unchanged")
+  @Test
+  void exceptionsRaisedByTheCompilationAreRethrownUnchanged() {
+    // Given
+    var watchdog = new JctCompilationWatchdog("foobar", Duration.ofSeconds(30));
+    var ex = new IOException("something went wrong");
+
+    // Then
+    assertThatThrownBy(() -> watchdog.call(() -> {
+      throw ex;
+    }))
+        .isSameAs(ex);
+  }
+
+  @DisplayName("Errors raised by the compilation are rethrown unchanged")
+  @Test
+  void errorsRaisedByTheCompilationAreRethrownUnchanged() {
+    // Given
+    var watchdog = new JctCompilationWatchdog("foobar", Duration.ofSeconds(30));
+    var error = new StackOverflowError("something went very wrong");
+
+    // Then
+    assertThatThrownBy(() -> watchdog.call(() -> {
+      throw error;
+    }))
+        .isSameAs(error);
+  }
+
+  @DisplayName("Compilations exceeding the deadline raise an exception with the thread dump")
+  @Test
+  void compilationsExceedingTheDeadlineRaiseAnExceptionWithTheThreadDump() {
+    // Given
+    var watchdog = new JctCompilationWatchdog("foobar", Duration.ofMillis(100));
+
+    // Then
+    assertThatThrownBy(() -> watchdog.call(this::blockUntilReleased))
+        .isInstanceOf(JctCompilerException.class)
+        .hasMessageStartingWith(
+            "Compilation with foobar did not complete within 100ms, so the compiling thread was "
+                + "interrupted and abandoned."
+        )
+        .hasMessageContaining("Stack trace of thread \"jct-compiler-deadline-")
+        .hasMessageContaining(getClass().getName() + ".blockUntilReleased(");
+  }
+
+  @DisplayName("Timeout hooks are run and the compiling thread is interrupted on timeout")
+  @Test
+  void timeoutHooksAreRunAndTheCompilingThreadIsInterruptedOnTimeout() throws Exception {
+    // Given
+    var watchdog = new JctCompilationWatchdog("foobar", Duration.ofMillis(100));
+    var hookRan = new AtomicBoolean();
+    watchdog.onTimeout(() -> hookRan.set(true));
+    var interrupted = new CountDownLatch(1);
+
+    // When
+    assertThatThrownBy(() -> watchdog.call(() -> {
+      try {
+        return blockUntilReleased();
+      } catch (InterruptedException ex) {
+        interrupted.countDown();
+        throw ex;
+      }
+    }))
+        .isInstanceOf(JctCompilerException.class);
+
+    // Then
+    assertThat(hookRan).isTrue();
+    assertThat(interrupted.await(10, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @DisplayName("Timeout hooks are not run if the compilation completes in time")
+  @Test
+  void timeoutHooksAreNotRunIfTheCompilationCompletesInTime() throws Exception {
+    // Given
+    var watchdog = new JctCompilationWatchdog("foobar", Duration.ofSeconds(30));
+    var hookRan = new AtomicBoolean();
+    watchdog.onTimeout(() -> hookRan.set(true));
+
+    // When
+    watchdog.call(() -> "done");
+
+    // Then
+    assertThat(hookRan).isFalse();
+  }
+
+  @DisplayName("Interrupting the caller abandons the compilation")
+  @Test
+  void interruptingTheCallerAbandonsTheCompilation() throws Exception {
+    // Given
+    var watchdog = new JctCompilationWatchdog("foobar", Duration.ofSeconds(30));
+    var failure = new AtomicReference<Throwable>();
+    var callerInterrupted = new AtomicBoolean();
+    var caller = new Thread(() -> {
+      try {
+        watchdog.call(this::blockUntilReleased);
+      } catch (Throwable ex) {
+        failure.set(ex);
+        callerInterrupted.set(Thread.currentThread().isInterrupted());
+      }
+    });
+
+    // When
+    caller.start();
+    caller.interrupt();
+    caller.join(TimeUnit.SECONDS.toMillis(10));
+
+    // Then
+    assertThat(failure.get())
+        .isInstanceOf(JctCompilerException.class)
+        .hasMessage("Interrupted while waiting for compilation with foobar to complete")
+        .hasCauseInstanceOf(InterruptedException.class);
+    assertThat(callerInterrupted).isTrue();
+  }
+
+  String blockUntilReleased() throws InterruptedException {
+    release.await();
+    return "released";
+  }
+}
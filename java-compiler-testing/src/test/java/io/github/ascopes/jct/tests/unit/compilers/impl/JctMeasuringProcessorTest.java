@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.unit.compilers.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+import io.github.ascopes.jct.compilers.impl.JctMeasuringProcessor;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * {@link JctMeasuringProcessor} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JctMeasuringProcessor tests")
+@ExtendWith(MockitoExtension.class)
+class JctMeasuringProcessorTest {
+
+  @Mock
+  Processor delegate;
+
+  @Mock
+  ProcessingEnvironment processingEnv;
+
+  @Mock
+  Filer filer;
+
+  @Mock
+  RoundEnvironment roundEnv;
+
+  final AtomicLong wallClock = new AtomicLong();
+  final AtomicLong cpuClock = new AtomicLong();
+
+  @DisplayName("Initialisation is measured")
+  @Test
+  void initialisationIsMeasured() {
+    // Given
+    given(processingEnv.getFiler()).willReturn(filer);
+    willAnswer(ctx -> {
+      advance(100, 40);
+      return null;
+    }).given(delegate).init(any());
+    var processor = newProcessor();
+
+    // When
+    processor.init(processingEnv);
+
+    // Then
+    var metrics = processor.getMetrics();
+    assertThat(metrics.getProcessorName()).isEqualTo(delegate.getClass().getName());
+    assertThat(metrics.getInitWallTime()).isEqualTo(Duration.ofNanos(100));
+    assertThat(metrics.getInitCpuTime()).isEqualTo(Duration.ofNanos(40));
+    assertThat(metrics.getRounds()).isEmpty();
+  }
+
+  @DisplayName("Each round is measured")
+  @Test
+  void eachRoundIsMeasured() {
+    // Given
+    var annotation = mock(TypeElement.class);
+    given(roundEnv.getElementsAnnotatedWithAny(annotation))
+        .willAnswer(ctx -> Set.of(mock(Element.class), mock(Element.class)));
+    willAnswer(ctx -> {
+      advance(1_000, 500);
+      return true;
+    }).willAnswer(ctx -> {
+      advance(10, 5);
+      return false;
+    }).given(delegate).process(any(), any());
+    var processor = newProcessor();
+
+    // When
+    processor.process(Set.of(annotation), roundEnv);
+    processor.process(Set.of(), roundEnv);
+
+    // Then
+    var rounds = processor.getMetrics().getRounds();
+    assertThat(rounds).hasSize(2);
+    assertThat(rounds.get(0).getWallTime()).isEqualTo(Duration.ofNanos(1_000));
+    assertThat(rounds.get(0).getCpuTime()).isEqualTo(Duration.ofNanos(500));
+    assertThat(rounds.get(0).getElementCount()).isEqualTo(2);
+    assertThat(rounds.get(1).getWallTime()).isEqualTo(Duration.ofNanos(10));
+    assertThat(rounds.get(1).getCpuTime()).isEqualTo(Duration.ofNanos(5));
+    assertThat(rounds.get(1).getElementCount()).isZero();
+    assertThat(processor.getMetrics().getTotalWallTime()).isEqualTo(Duration.ofNanos(1_010));
+    assertThat(processor.getMetrics().getTotalCpuTime()).isEqualTo(Duration.ofNanos(505));
+  }
+
+  @DisplayName("Files generated through the filer are counted for the round")
+  @Test
+  void filesGeneratedThroughTheFilerAreCountedForTheRound() throws Exception {
+    // Given
+    given(processingEnv.getFiler()).willReturn(filer);
+    var processor = newProcessor();
+    processor.init(processingEnv);
+
+    var envCaptor = ArgumentCaptor.forClass(ProcessingEnvironment.class);
+    then(delegate).should().init(envCaptor.capture());
+    var measuredFiler = envCaptor.getValue().getFiler();
+
+    willAnswer(ctx -> {
+      measuredFiler.createSourceFile("Foo");
+      measuredFiler.createClassFile("Bar");
+      return false;
+    }).willReturn(false).given(delegate).process(any(), any());
+
+    // When
+    processor.process(Set.of(), roundEnv);
+    processor.process(Set.of(), roundEnv);
+
+    // Then
+    then(filer).should().createSourceFile("Foo");
+    then(filer).should().createClassFile("Bar");
+    var rounds = processor.getMetrics().getRounds();
+    assertThat(rounds.get(0).getGeneratedFileCount()).isEqualTo(2);
+    assertThat(rounds.get(1).getGeneratedFileCount()).isZero();
+    assertThat(processor.getMetrics().getGeneratedFileCount()).isEqualTo(2);
+  }
+
+  @DisplayName("Rounds that throw exceptions are still measured")
+  @Test
+  void roundsThatThrowExceptionsAreStillMeasured() {
+    // Given
+    var ex = new IllegalStateException("bang");
+    willAnswer(ctx -> {
+      advance(7, 3);
+      throw ex;
+    }).given(delegate).process(any(), any());
+    var processor = newProcessor();
+
+    // Then
+    assertThatThrownBy(() -> processor.process(Set.of(), roundEnv)).isSameAs(ex);
+    assertThat(processor.getMetrics().getRounds())
+        .singleElement()
+        .satisfies(round -> assertThat(round.getWallTime()).isEqualTo(Duration.ofNanos(7)));
+  }
+
+  @DisplayName("Processor descriptors are delegated")
+  @Test
+  void processorDescriptorsAreDelegated() {
+    // Given
+    given(delegate.getSupportedAnnotationTypes()).willReturn(Set.of("foo.Bar"));
+    given(delegate.getSupportedOptions()).willReturn(Set.of("baz"));
+    var processor = newProcessor();
+
+    // Then
+    assertThat(processor.getSupportedAnnotationTypes()).containsExactly("foo.Bar");
+    assertThat(processor.getSupportedOptions()).containsExactly("baz");
+    assertThat(processor.getDelegate()).isSameAs(delegate);
+  }
+
+  private JctMeasuringProcessor newProcessor() {
+    return new JctMeasuringProcessor(delegate, wallClock::get, cpuClock::get);
+  }
+
+  private void advance(long wallNanos, long cpuNanos) {
+    wallClock.addAndGet(wallNanos);
+    cpuClock.addAndGet(cpuNanos);
+  }
+}
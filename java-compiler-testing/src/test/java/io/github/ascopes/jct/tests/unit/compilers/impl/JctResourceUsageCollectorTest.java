@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.unit.compilers.impl;
+
+import static io.github.ascopes.jct.tests.helpers.Fixtures.someTemporaryFileSystem;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import io.github.ascopes.jct.compilers.impl.JctResourceUsageCollector;
+import io.github.ascopes.jct.containers.Container;
+import io.github.ascopes.jct.containers.OutputContainerGroup;
+import io.github.ascopes.jct.containers.PackageContainerGroup;
+import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.workspaces.ManagedDirectory;
+import io.github.ascopes.jct.workspaces.PathRoot;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * {@link JctResourceUsageCollector} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JctResourceUsageCollector tests")
+class JctResourceUsageCollectorTest {
+
+  @TempDir
+  Path tempDir;
+
+  @DisplayName("Bytes allocated by the current thread are measured")
+  @Test
+  void bytesAllocatedByTheCurrentThreadAreMeasured() {
+    // Given
+    var fileManager = mock(JctFileManager.class);
+    var collector = new JctResourceUsageCollector();
+
+    // When
+    var garbage = new byte[1024 * 1024];
+    var resourceUsage = collector.finish(fileManager);
+
+    // Then
+    assertThat(garbage).hasSize(1024 * 1024);
+    assertThat(resourceUsage.getAllocatedBytes()).isPresent();
+    assertThat(resourceUsage.getAllocatedBytes().getAsLong())
+        .isGreaterThanOrEqualTo(1024L * 1024L);
+    assertThat(resourceUsage.getGcTime()).isGreaterThanOrEqualTo(Duration.ZERO);
+    assertThat(resourceUsage.getGcCount()).isNotNegative();
+  }
+
+  @DisplayName("The workspace size is only computed once it is first requested")
+  @Test
+  void theWorkspaceSizeIsOnlyComputedOnceItIsFirstRequested() {
+    // Given
+    var fileManager = mock(JctFileManager.class);
+    var resourceUsage = new JctResourceUsageCollector().finish(fileManager);
+    verifyNoInteractions(fileManager);
+
+    // When
+    var firstSize = resourceUsage.getWorkspaceSizeInBytes();
+    var secondSize = resourceUsage.getWorkspaceSizeInBytes();
+
+    // Then
+    assertThat(firstSize).isZero();
+    assertThat(secondSize).isZero();
+    verify(fileManager).getPackageContainerGroups();
+    verify(fileManager).getModuleContainerGroups();
+    verify(fileManager).getOutputContainerGroups();
+    verifyNoMoreInteractions(fileManager);
+  }
+
+  @DisplayName("Files in in-memory containers are included in the workspace size")
+  @Test
+  void filesInInMemoryContainersAreIncludedInTheWorkspaceSize() throws IOException {
+    // Given
+    try (var fs = someTemporaryFileSystem()) {
+      var sources = Files.createDirectories(fs.getRootPath().resolve("sources"));
+      Files.write(sources.resolve("Foo.java"), new byte[100]);
+      var bar = Files.createDirectories(sources.resolve("bar"));
+      Files.write(bar.resolve("Bar.java"), new byte[50]);
+
+      var classes = Files.createDirectories(fs.getRootPath().resolve("classes"));
+      Files.write(classes.resolve("Foo.class"), new byte[25]);
+
+      var sourceContainer = someContainer(sources);
+      var sourceGroup = mock(PackageContainerGroup.class);
+      given(sourceGroup.getPackages()).willReturn(List.of(sourceContainer));
+
+      var classContainer = someContainer(classes);
+      var outputGroup = mock(OutputContainerGroup.class);
+      given(outputGroup.getPackages()).willReturn(List.of(classContainer));
+      given(outputGroup.getModules()).willReturn(Map.of());
+
+      var fileManager = mock(JctFileManager.class);
+      given(fileManager.getPackageContainerGroups()).willReturn(List.of(sourceGroup));
+      given(fileManager.getOutputContainerGroups()).willReturn(List.of(outputGroup));
+
+      // When
+      var resourceUsage = new JctResourceUsageCollector().finish(fileManager);
+
+      // Then
+      assertThat(resourceUsage.getWorkspaceSizeInBytes()).isEqualTo(175);
+    }
+  }
+
+  @DisplayName("Files on the default file system are excluded from the workspace size")
+  @Test
+  void filesOnTheDefaultFileSystemAreExcludedFromTheWorkspaceSize() throws IOException {
+    // Given
+    Files.write(tempDir.resolve("Foo.java"), new byte[100]);
+
+    var sourceContainer = someContainer(tempDir);
+    var sourceGroup = mock(PackageContainerGroup.class);
+    given(sourceGroup.getPackages()).willReturn(List.of(sourceContainer));
+
+    var fileManager = mock(JctFileManager.class);
+    given(fileManager.getPackageContainerGroups()).willReturn(List.of(sourceGroup));
+
+    // When
+    var resourceUsage = new JctResourceUsageCollector().finish(fileManager);
+
+    // Then
+    assertThat(resourceUsage.getWorkspaceSizeInBytes()).isZero();
+  }
+
+  @DisplayName("Roots not created by the workspace are excluded from the workspace size")
+  @Test
+  void rootsNotCreatedByTheWorkspaceAreExcludedFromTheWorkspaceSize() throws IOException {
+    // Given
+    try (var fs = someTemporaryFileSystem()) {
+      var modules = Files.createDirectories(fs.getRootPath().resolve("modules"));
+      Files.write(modules.resolve("Foo.class"), new byte[100]);
+
+      var systemContainer = someContainer(mock(PathRoot.class), modules);
+      var systemGroup = mock(PackageContainerGroup.class);
+      given(systemGroup.getPackages()).willReturn(List.of(systemContainer));
+
+      var fileManager = mock(JctFileManager.class);
+      given(fileManager.getPackageContainerGroups()).willReturn(List.of(systemGroup));
+
+      // When
+      var resourceUsage = new JctResourceUsageCollector().finish(fileManager);
+
+      // Then
+      assertThat(resourceUsage.getWorkspaceSizeInBytes()).isZero();
+    }
+  }
+
+  private static Container someContainer(Path path) {
+    return someContainer(mock(ManagedDirectory.class), path);
+  }
+
+  private static Container someContainer(PathRoot pathRoot, Path path) {
+    given(pathRoot.getPath()).willReturn(path);
+    var container = mock(Container.class);
+    given(container.getPathRoot()).willReturn(pathRoot);
+    return container;
+  }
+}
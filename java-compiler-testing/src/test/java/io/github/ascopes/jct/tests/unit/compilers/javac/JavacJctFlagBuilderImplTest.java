@@ -219,6 +219,17 @@ class JavacJctFlagBuilderImplTest {
       assertThat(flagBuilder.build()).containsExactly("-proc:only");
     }
 
+    @DisplayName(".compilationMode(...) adds no flags for modes that skip code generation")
+    @EnumSource(value = CompilationMode.class, names = {"PARSE_ONLY", "ANALYZE_ONLY"})
+    @ParameterizedTest(name = "for compilationMode = {0}")
+    void modesThatSkipCodeGenerationAddNoFlags(CompilationMode mode) {
+      // When
+      flagBuilder.compilationMode(mode);
+
+      // Then
+      assertThat(flagBuilder.build()).isEmpty();
+    }
+
     @DisplayName(".compilationMode(...) returns the flag builder")
     @EnumSource(CompilationMode.class)
     @ParameterizedTest(name = "for compilationMode = {0}")
@@ -15,17 +15,31 @@
  */
 package io.github.ascopes.jct.tests.unit.containers.impl;
 
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import io.github.ascopes.jct.containers.Container;
 import io.github.ascopes.jct.containers.impl.AbstractPackageContainerGroup;
+import io.github.ascopes.jct.containers.impl.JarContainerImpl;
+import io.github.ascopes.jct.containers.impl.PackageContainerGroupImpl;
+import io.github.ascopes.jct.filemanagers.PathFileObject;
+import io.github.ascopes.jct.workspaces.impl.WrappingDirectoryImpl;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.StandardLocation;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * {@link AbstractPackageContainerGroup} tests.
@@ -35,6 +49,9 @@ import org.junit.jupiter.api.Test;
 @DisplayName("AbstractPackageContainerGroup tests")
 class AbstractPackageContainerGroupTest {
 
+  @TempDir
+  Path tempDir;
+
   @DisplayName("listAllFiles returns a multimap of all files in all containers")
   @SuppressWarnings("resource")
   @Test
@@ -83,4 +100,140 @@ class AbstractPackageContainerGroupTest {
             .hasSize(3)
             .containsExactly(container3Path1, container3Path2, container3Path3));
   }
+
+  @DisplayName("getJavaFileForInput returns the file from the first container that holds it")
+  @Test
+  void getJavaFileForInputReturnsFileFromFirstContainerThatHoldsIt() throws IOException {
+    // Given
+    var jar = createJar("com/example/Foo.class", "com/example/Bar.class");
+    var directory = createDirectory("com/example/Foo.class", "org/example/Baz.class");
+
+    var jarFirst = new PackageContainerGroupImpl(StandardLocation.CLASS_PATH, "11");
+    jarFirst.addPackage(new WrappingDirectoryImpl(jar));
+    jarFirst.addPackage(new WrappingDirectoryImpl(directory));
+
+    var directoryFirst = new PackageContainerGroupImpl(StandardLocation.CLASS_PATH, "11");
+    directoryFirst.addPackage(new WrappingDirectoryImpl(directory));
+    directoryFirst.addPackage(new WrappingDirectoryImpl(jar));
+
+    // Then
+    assertThat(jarFirst.getJavaFileForInput("com.example.Foo", Kind.CLASS).toUri())
+        .hasScheme("jar");
+    assertThat(directoryFirst.getJavaFileForInput("com.example.Foo", Kind.CLASS).toUri())
+        .hasScheme("file");
+  }
+
+  @DisplayName("getJavaFileForInput finds files in packages that only unindexed containers hold")
+  @Test
+  void getJavaFileForInputFindsFilesInPackagesOnlyUnindexedContainersHold() throws IOException {
+    // Given
+    var jar = createJar("com/example/Foo.class");
+    var directory = createDirectory("org/example/Baz.class");
+
+    var group = new PackageContainerGroupImpl(StandardLocation.CLASS_PATH, "11");
+    group.addPackage(new WrappingDirectoryImpl(jar));
+
+    // Route the packages before adding the directory to ensure routes are rebuilt.
+    assertThat(group.getJavaFileForInput("org.example.Baz", Kind.CLASS)).isNull();
+    group.addPackage(new WrappingDirectoryImpl(directory));
+
+    // When
+    var baz = group.getJavaFileForInput("org.example.Baz", Kind.CLASS);
+    var foo = group.getJavaFileForInput("com.example.Foo", Kind.CLASS);
+
+    // Then
+    assertThat(baz).isNotNull();
+    assertThat(foo).isNotNull();
+    assertThat(group.getJavaFileForInput("com.example.Missing", Kind.CLASS)).isNull();
+    assertThat(group.contains(baz)).isTrue();
+    assertThat(group.contains(foo)).isTrue();
+    assertThat(group.inferBinaryName(baz)).isEqualTo("org.example.Baz");
+    assertThat(group.inferBinaryName(foo)).isEqualTo("com.example.Foo");
+  }
+
+  @DisplayName("Lookups answered by an earlier container do not index later archives")
+  @Test
+  void lookupsAnsweredByEarlierContainerDoNotIndexLaterArchives() {
+    // Given
+    var file = mock(PathFileObject.class);
+    var directory = mock(Container.class);
+    when(directory.getJavaFileForInput("com.example.Foo", Kind.CLASS)).thenReturn(file);
+    var jar = mock(JarContainerImpl.class);
+
+    var group = new PackageContainerGroupImpl(StandardLocation.CLASS_PATH, "11");
+    group.addPackage(directory);
+    group.addPackage(jar);
+
+    // When
+    var result = group.getJavaFileForInput("com.example.Foo", Kind.CLASS);
+
+    // Then
+    assertThat(result).isSameAs(file);
+    verifyNoInteractions(jar);
+  }
+
+  @DisplayName("listFileObjects returns the same results in the same order when in parallel")
+  @Test
+  void listFileObjectsReturnsSameResultsInSameOrderWhenInParallel() throws IOException {
+    // Given
+    var jar = createJar("com/example/Foo.class", "com/example/Bar.class");
+    var directory = createDirectory("com/example/Baz.class", "com/example/sub/Bork.class");
+
+    var sequential = new PackageContainerGroupImpl(StandardLocation.CLASS_PATH, "11");
+    sequential.addPackage(new WrappingDirectoryImpl(jar));
+    sequential.addPackage(new WrappingDirectoryImpl(directory));
+
+    PackageContainerGroupImpl parallel;
+    var property = AbstractPackageContainerGroup.PARALLEL_LISTING_PROPERTY;
+    var previous = System.setProperty(property, "true");
+
+    try {
+      parallel = new PackageContainerGroupImpl(StandardLocation.CLASS_PATH, "11");
+    } finally {
+      if (previous == null) {
+        System.clearProperty(property);
+      } else {
+        System.setProperty(property, previous);
+      }
+    }
+
+    parallel.addPackage(new WrappingDirectoryImpl(jar));
+    parallel.addPackage(new WrappingDirectoryImpl(directory));
+
+    // When
+    var expected = sequential.listFileObjects("com.example", Set.of(Kind.CLASS), true);
+    var actual = parallel.listFileObjects("com.example", Set.of(Kind.CLASS), true);
+
+    // Then
+    assertThat(actual)
+        .hasSize(4)
+        .map(JavaFileObject::toUri)
+        .containsExactlyElementsOf(expected.stream().map(JavaFileObject::toUri).collect(toList()));
+  }
+
+  private Path createJar(String... entries) throws IOException {
+    var jar = tempDir.resolve("test.jar");
+
+    try (var zip = new ZipOutputStream(Files.newOutputStream(jar))) {
+      for (var entry : entries) {
+        zip.putNextEntry(new ZipEntry(entry));
+        zip.write(new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+        zip.closeEntry();
+      }
+    }
+
+    return jar;
+  }
+
+  private Path createDirectory(String... entries) throws IOException {
+    var directory = tempDir.resolve("classes");
+
+    for (var entry : entries) {
+      var file = directory.resolve(entry);
+      Files.createDirectories(file.getParent());
+      Files.write(file, new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+    }
+
+    return directory;
+  }
 }
@@ -19,8 +19,10 @@ import static io.github.ascopes.jct.tests.helpers.Fixtures.somePathRoot;
 import static io.github.ascopes.jct.tests.helpers.Fixtures.someRelease;
 import static java.util.stream.Collectors.toMap;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.InstanceOfAssertFactories.list;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
 
 import io.github.ascopes.jct.containers.Container;
 import io.github.ascopes.jct.containers.PackageContainerGroup;
@@ -87,6 +89,71 @@ class ContainerGroupRepositoryImplTest {
     }
   }
 
+  @DisplayName(".addContainer(...) tests")
+  @Nested
+  class AddContainerTest {
+
+    @DisplayName("adding a container to an output location registers it as a package")
+    @Test
+    void addingContainerToOutputLocationRegistersItAsPackage() {
+      // Given
+      var location = StandardLocation.CLASS_OUTPUT;
+      var container = mock(Container.class);
+
+      // When
+      repository.addContainer(location, container);
+
+      // Then
+      assertThat(repository.getOutputContainerGroup(location))
+          .as("output container group")
+          .isNotNull()
+          .satisfies(group -> assertThat(group.getPackages()).containsExactly(container));
+    }
+
+    @DisplayName("adding a container to a package location registers it as a package")
+    @Test
+    void addingContainerToPackageLocationRegistersItAsPackage() {
+      // Given
+      var location = StandardLocation.CLASS_PATH;
+      var container = mock(Container.class);
+
+      // When
+      repository.addContainer(location, container);
+
+      // Then
+      assertThat(repository.getPackageContainerGroup(location))
+          .as("package container group")
+          .isNotNull()
+          .satisfies(group -> assertThat(group.getPackages()).containsExactly(container));
+    }
+
+    @DisplayName("adding a container to a module-oriented location raises an exception")
+    @Test
+    void addingContainerToModuleOrientedLocationRaisesException() {
+      // Given
+      var location = StandardLocation.MODULE_PATH;
+      var container = mock(Container.class);
+
+      // Then
+      assertThatThrownBy(() -> repository.addContainer(location, container))
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessage("Cannot add containers to module locations or module-oriented locations");
+    }
+
+    @DisplayName("adding a container to a module location raises an exception")
+    @Test
+    void addingContainerToModuleLocationRaisesException() {
+      // Given
+      var location = new ModuleLocation(StandardLocation.MODULE_PATH, "foo.bar");
+      var container = mock(Container.class);
+
+      // Then
+      assertThatThrownBy(() -> repository.addContainer(location, container))
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessage("Cannot add containers to module locations or module-oriented locations");
+    }
+  }
+
   @DisplayName(".addPath(...) tests")
   @Nested
   class AddPathTest {
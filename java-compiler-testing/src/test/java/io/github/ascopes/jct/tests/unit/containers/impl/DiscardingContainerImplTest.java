@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.unit.containers.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.jct.containers.impl.DiscardingContainerImpl;
+import io.github.ascopes.jct.workspaces.impl.WrappingDirectoryImpl;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.StandardLocation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * {@link DiscardingContainerImpl} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("DiscardingContainerImpl tests")
+class DiscardingContainerImplTest {
+
+  @TempDir
+  Path tempDir;
+
+  @DisplayName("Output file objects have the same paths as they would on the file system")
+  @Test
+  void outputFileObjectsHaveTheSamePathsAsTheyWouldOnTheFileSystem() {
+    // Given
+    var container = newContainer();
+
+    // When
+    var fileObject = container.getJavaFileForOutput("com.example.Foo", Kind.CLASS);
+
+    // Then
+    assertThat(fileObject.getLocation()).isEqualTo(StandardLocation.CLASS_OUTPUT);
+    assertThat(fileObject.getRootPath()).isEqualTo(tempDir);
+    assertThat(fileObject.getFullPath()).isEqualTo(tempDir.resolve("com/example/Foo.class"));
+    assertThat(fileObject.getKind()).isEqualTo(Kind.CLASS);
+    assertThat(container.inferBinaryName(fileObject)).isEqualTo("com.example.Foo");
+  }
+
+  @DisplayName("Writing to output file objects records sizes without creating files")
+  @Test
+  void writingToOutputFileObjectsRecordsSizesWithoutCreatingFiles() throws IOException {
+    // Given
+    var container = newContainer();
+    var foo = container.getJavaFileForOutput("com.example.Foo", Kind.CLASS);
+    var bar = container.getFileForOutput("com.example", "bar.txt");
+
+    // When
+    try (var output = foo.openOutputStream()) {
+      output.write(new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+      output.write(0);
+    }
+
+    try (var writer = bar.openWriter()) {
+      writer.write("Hello, World!");
+    }
+
+    // Then
+    assertThat(container.getDiscardedFiles())
+        .containsExactly(
+            Map.entry(Path.of("com", "example", "Foo.class").toString(), 5L),
+            Map.entry(Path.of("com", "example", "bar.txt").toString(), 13L)
+        );
+
+    try (var files = Files.list(tempDir)) {
+      assertThat(files).isEmpty();
+    }
+  }
+
+  @DisplayName("Files that are still being written are not recorded")
+  @Test
+  void filesThatAreStillBeingWrittenAreNotRecorded() throws IOException {
+    // Given
+    var container = newContainer();
+    var foo = container.getJavaFileForOutput("com.example.Foo", Kind.CLASS);
+
+    // When
+    try (var output = foo.openOutputStream()) {
+      output.write(new byte[100]);
+      output.flush();
+
+      // Then
+      assertThat(container.getDiscardedFiles()).isEmpty();
+      assertThat(container.contains(foo)).isFalse();
+    }
+
+    assertThat(container.getDiscardedFiles()).hasSize(1);
+    assertThat(container.contains(foo)).isTrue();
+  }
+
+  @DisplayName("Inputs and listings are always empty")
+  @Test
+  void inputsAndListingsAreAlwaysEmpty() throws IOException {
+    // Given
+    var container = newContainer();
+
+    try (var output = container.getJavaFileForOutput("com.example.Foo", Kind.CLASS)
+        .openOutputStream()) {
+      output.write(1);
+    }
+
+    // When
+    var listing = new ArrayList<JavaFileObject>();
+    container.listFileObjects("com.example", Set.of(Kind.CLASS), true, listing);
+
+    // Then
+    assertThat(listing).isEmpty();
+    assertThat(container.listAllFiles()).isEmpty();
+    assertThat(container.getJavaFileForInput("com.example.Foo", Kind.CLASS)).isNull();
+    assertThat(container.getFileForInput("com.example", "Foo.class")).isNull();
+    assertThat(container.getFile("com", "example", "Foo.class")).isNull();
+  }
+
+  private DiscardingContainerImpl newContainer() {
+    return new DiscardingContainerImpl(
+        StandardLocation.CLASS_OUTPUT,
+        new WrappingDirectoryImpl(tempDir)
+    );
+  }
+}
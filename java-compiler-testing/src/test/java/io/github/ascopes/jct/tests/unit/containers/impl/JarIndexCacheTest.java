@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.unit.containers.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.ascopes.jct.containers.impl.JarIndexCache;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * {@link JarIndexCache} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JarIndexCache tests")
+class JarIndexCacheTest {
+
+  @TempDir
+  Path tempDir;
+
+  @DisplayName("getInstance() returns a singleton")
+  @Test
+  void getInstanceReturnsSingleton() {
+    // Then
+    assertThat(JarIndexCache.getInstance()).isSameAs(JarIndexCache.getInstance());
+  }
+
+  @DisplayName("A negative maximum number of idle entries is rejected")
+  @Test
+  void negativeMaximumIdleEntriesIsRejected() {
+    // Then
+    assertThatThrownBy(() -> new JarIndexCache(-1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @DisplayName("Concurrent leases for the same JAR share the same index")
+  @Test
+  void concurrentLeasesForSameJarShareSameIndex() throws IOException {
+    // Given
+    var jar = createJar("foo.jar", "com/example/Foo.class");
+    var cache = new JarIndexCache(4);
+
+    // When
+    try (
+        var first = cache.acquire(jar, "11");
+        var second = cache.acquire(jar, "11")
+    ) {
+      // Then
+      assertThat(first.getIndex()).isSameAs(second.getIndex());
+      assertThat(first.getIndex().getPackage("com.example")).isNotNull();
+      assertThat(cache.size()).isOne();
+      assertThat(cache.idleSize()).isZero();
+    }
+  }
+
+  @DisplayName("Different releases of the same JAR use different indexes")
+  @Test
+  void differentReleasesUseDifferentIndexes() throws IOException {
+    // Given
+    var jar = createJar("foo.jar", "com/example/Foo.class");
+    var cache = new JarIndexCache(4);
+
+    // When
+    try (
+        var first = cache.acquire(jar, "11");
+        var second = cache.acquire(jar, "17")
+    ) {
+      // Then
+      assertThat(first.getIndex()).isNotSameAs(second.getIndex());
+      assertThat(cache.size()).isEqualTo(2);
+    }
+  }
+
+  @DisplayName("Modified JARs are reindexed")
+  @Test
+  void modifiedJarsAreReindexed() throws IOException {
+    // Given
+    var jar = createJar("foo.jar", "com/example/Foo.class");
+    var cache = new JarIndexCache(4);
+
+    try (var first = cache.acquire(jar, "11")) {
+      // When
+      createJar("foo.jar", "com/example/Foo.class", "org/example/Bar.class");
+      Files.setLastModifiedTime(jar, FileTime.from(Instant.now().plusSeconds(60)));
+
+      try (var second = cache.acquire(jar, "11")) {
+        // Then
+        assertThat(first.getIndex()).isNotSameAs(second.getIndex());
+        assertThat(first.getIndex().getPackage("org.example")).isNull();
+        assertThat(second.getIndex().getPackage("org.example")).isNotNull();
+      }
+    }
+  }
+
+  @DisplayName("Indexes remain open while any lease is still in use")
+  @Test
+  void indexesRemainOpenWhileAnyLeaseIsInUse() throws IOException {
+    // Given
+    var jar = createJar("foo.jar", "com/example/Foo.class");
+    var cache = new JarIndexCache(0);
+    var first = cache.acquire(jar, "11");
+    var second = cache.acquire(jar, "11");
+    var index = first.getIndex();
+
+    // When
+    first.close();
+    first.close();
+
+    // Then
+    assertThat(index.isOpen()).isTrue();
+    assertThat(cache.size()).isOne();
+
+    // When
+    second.close();
+
+    // Then
+    assertThat(index.isOpen()).isFalse();
+    assertThat(cache.size()).isZero();
+  }
+
+  @DisplayName("Idle indexes are reused by later leases")
+  @Test
+  void idleIndexesAreReusedByLaterLeases() throws IOException {
+    // Given
+    var jar = createJar("foo.jar", "com/example/Foo.class");
+    var cache = new JarIndexCache(4);
+    var first = cache.acquire(jar, "11");
+    var index = first.getIndex();
+    first.close();
+
+    // When
+    try (var second = cache.acquire(jar, "11")) {
+      // Then
+      assertThat(second.getIndex()).isSameAs(index);
+      assertThat(index.isOpen()).isTrue();
+    }
+  }
+
+  @DisplayName("The least recently used idle indexes are evicted first")
+  @Test
+  void leastRecentlyUsedIdleIndexesAreEvictedFirst() throws IOException {
+    // Given
+    var foo = createJar("foo.jar", "com/example/Foo.class");
+    var bar = createJar("bar.jar", "com/example/Bar.class");
+    var baz = createJar("baz.jar", "com/example/Baz.class");
+    var cache = new JarIndexCache(2);
+
+    var fooLease = cache.acquire(foo, "11");
+    var barLease = cache.acquire(bar, "11");
+    var bazLease = cache.acquire(baz, "11");
+
+    // When
+    fooLease.close();
+    barLease.close();
+    bazLease.close();
+
+    // Then
+    assertThat(fooLease.getIndex().isOpen()).isFalse();
+    assertThat(barLease.getIndex().isOpen()).isTrue();
+    assertThat(bazLease.getIndex().isOpen()).isTrue();
+    assertThat(cache.idleSize()).isEqualTo(2);
+
+    // When
+    cache.setMaximumIdleEntries(1);
+
+    // Then
+    assertThat(barLease.getIndex().isOpen()).isFalse();
+    assertThat(bazLease.getIndex().isOpen()).isTrue();
+
+    // When
+    cache.clear();
+
+    // Then
+    assertThat(bazLease.getIndex().isOpen()).isFalse();
+    assertThat(cache.size()).isZero();
+  }
+
+  @DisplayName("Missing JARs raise an exception and are not cached")
+  @Test
+  void missingJarsRaiseAnExceptionAndAreNotCached() {
+    // Given
+    var cache = new JarIndexCache(4);
+
+    // Then
+    assertThatThrownBy(() -> cache.acquire(tempDir.resolve("missing.jar"), "11"))
+        .isInstanceOf(IOException.class);
+    assertThat(cache.size()).isZero();
+  }
+
+  private Path createJar(String name, String... entries) throws IOException {
+    var jar = tempDir.resolve(name);
+
+    try (var zip = new ZipOutputStream(Files.newOutputStream(jar))) {
+      for (var entry : entries) {
+        zip.putNextEntry(new ZipEntry(entry));
+        zip.write(new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+        zip.closeEntry();
+      }
+    }
+
+    return jar;
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.unit.containers.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.jct.containers.impl.JarIndex;
+import io.github.ascopes.jct.containers.impl.JarIndexStore;
+import io.github.ascopes.jct.containers.impl.JarIndexStore.Contents;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * {@link JarIndexStore} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JarIndexStore tests")
+class JarIndexStoreTest {
+
+  @TempDir
+  Path tempDir;
+
+  @DisplayName("Saved contents can be loaded again")
+  @Test
+  void savedContentsCanBeLoadedAgain() throws IOException {
+    // Given
+    var jar = createJar("foo.jar", "com/example/Foo.class");
+    var store = new JarIndexStore(tempDir.resolve("cache"));
+    var contents = new Contents(
+        List.of("com/example", "", "com", "com/éxâmple"),
+        List.of("com/example/Foo.class", "com/example/Bar.class", "com/éxâmple/😀")
+    );
+
+    // When
+    store.save(jar, "11", contents);
+    var loaded = store.load(jar, "11");
+
+    // Then
+    assertThat(loaded).isNotNull();
+    assertThat(loaded.getDirectories())
+        .containsExactly("", "com", "com/example", "com/éxâmple");
+    assertThat(loaded.getFiles())
+        .containsExactly(
+            "com/example/Bar.class",
+            "com/example/Foo.class",
+            "com/éxâmple/😀"
+        );
+  }
+
+  @DisplayName("Missing entries are not loaded")
+  @Test
+  void missingEntriesAreNotLoaded() throws IOException {
+    // Given
+    var jar = createJar("foo.jar", "com/example/Foo.class");
+    var store = new JarIndexStore(tempDir.resolve("cache"));
+
+    // Then
+    assertThat(store.load(jar, "11")).isNull();
+  }
+
+  @DisplayName("Entries for other releases are not loaded")
+  @Test
+  void entriesForOtherReleasesAreNotLoaded() throws IOException {
+    // Given
+    var jar = createJar("foo.jar", "com/example/Foo.class");
+    var store = new JarIndexStore(tempDir.resolve("cache"));
+
+    // When
+    store.save(jar, "11", new Contents(List.of(""), List.of()));
+
+    // Then
+    assertThat(store.load(jar, "17")).isNull();
+  }
+
+  @DisplayName("Entries for modified JARs are not loaded")
+  @Test
+  void entriesForModifiedJarsAreNotLoaded() throws IOException {
+    // Given
+    var jar = createJar("foo.jar", "com/example/Foo.class");
+    var store = new JarIndexStore(tempDir.resolve("cache"));
+    store.save(jar, "11", new Contents(List.of(""), List.of()));
+
+    // When
+    Files.setLastModifiedTime(jar, FileTime.from(Instant.now().plusSeconds(60)));
+
+    // Then
+    assertThat(store.load(jar, "11")).isNull();
+  }
+
+  @DisplayName("Corrupt entries are not loaded")
+  @Test
+  void corruptEntriesAreNotLoaded() throws IOException {
+    // Given
+    var jar = createJar("foo.jar", "com/example/Foo.class");
+    var store = new JarIndexStore(tempDir.resolve("cache"));
+    store.save(jar, "11", new Contents(List.of("", "com"), List.of("com/Foo.class")));
+
+    // When
+    try (var entries = Files.list(store.getDirectory())) {
+      for (var entry : (Iterable<Path>) entries::iterator) {
+        var bytes = Files.readAllBytes(entry);
+        Files.write(entry, Arrays.copyOf(bytes, bytes.length - 3));
+      }
+    }
+
+    // Then
+    assertThat(store.load(jar, "11")).isNull();
+  }
+
+  @DisplayName("JAR indexes are saved to and loaded from the store")
+  @Test
+  void jarIndexesAreSavedToAndLoadedFromTheStore() throws IOException {
+    // Given
+    var jar = createJar("foo.jar", "com/example/Foo.class", "org/example/Bar.class");
+    var store = new JarIndexStore(tempDir.resolve("cache"));
+
+    // When
+    try (var first = new JarIndex(jar, "11", store)) {
+      // Then
+      assertThat(store.load(jar, "11")).isNotNull();
+
+      try (var second = new JarIndex(jar, "11", store)) {
+        var bar = second.getPathRoot().getPath().resolve("org/example/Bar.class");
+        assertThat(second.getPackageNames()).isEqualTo(first.getPackageNames());
+        assertThat(second.getFileCount()).isEqualTo(first.getFileCount());
+        assertThat(second.containsFile(bar)).isTrue();
+      }
+    }
+  }
+
+  @DisplayName("fromSystemProperties() returns null if the property is not set")
+  @Test
+  void fromSystemPropertiesReturnsNullIfThePropertyIsNotSet() {
+    // Given
+    var previous = System.clearProperty(JarIndexStore.DIRECTORY_PROPERTY);
+
+    try {
+      // Then
+      assertThat(JarIndexStore.fromSystemProperties()).isNull();
+    } finally {
+      if (previous != null) {
+        System.setProperty(JarIndexStore.DIRECTORY_PROPERTY, previous);
+      }
+    }
+  }
+
+  private Path createJar(String name, String... entries) throws IOException {
+    var jar = tempDir.resolve(name);
+
+    try (var zip = new ZipOutputStream(Files.newOutputStream(jar))) {
+      for (var entry : entries) {
+        zip.putNextEntry(new ZipEntry(entry));
+        zip.write(new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+        zip.closeEntry();
+      }
+    }
+
+    return jar;
+  }
+}
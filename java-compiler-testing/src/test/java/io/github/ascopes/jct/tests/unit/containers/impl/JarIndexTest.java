@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.unit.containers.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.jct.containers.impl.JarIndex;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * {@link JarIndex} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JarIndex tests")
+class JarIndexTest {
+
+  @TempDir
+  Path tempDir;
+
+  @DisplayName("Packages in the JAR are indexed")
+  @Test
+  void packagesInTheJarAreIndexed() throws IOException {
+    // Given
+    var jar = createJar("com/example/Foo.class", "org/example/Bar.class");
+
+    // When
+    try (var index = new JarIndex(jar, "11")) {
+      // Then
+      assertThat(index.getPackageNames())
+          .containsExactlyInAnyOrder("", "com", "com.example", "org", "org.example");
+      assertThat(index.getPackage("net.example")).isNull();
+    }
+  }
+
+  @DisplayName("containsFile(Path) returns true for files in the JAR")
+  @Test
+  void containsFileReturnsTrueForFilesInTheJar() throws IOException {
+    // Given
+    var jar = createJar("com/example/Foo.class", "META-INF/MANIFEST.MF");
+
+    // When
+    try (var index = new JarIndex(jar, "11")) {
+      var root = index.getPathRoot().getPath();
+
+      // Then
+      assertThat(index.containsFile(root.resolve("com/example/Foo.class"))).isTrue();
+      assertThat(index.containsFile(root.resolve("com/example/../example/Foo.class"))).isTrue();
+      assertThat(index.containsFile(root.resolve("META-INF/MANIFEST.MF"))).isTrue();
+      assertThat(index.getFileCount()).isEqualTo(2);
+    }
+  }
+
+  @DisplayName("containsFile(Path) returns false for files and directories not in the JAR")
+  @Test
+  void containsFileReturnsFalseForFilesAndDirectoriesNotInTheJar() throws IOException {
+    // Given
+    var jar = createJar("com/example/Foo.class");
+
+    // When
+    try (var index = new JarIndex(jar, "11")) {
+      var root = index.getPathRoot().getPath();
+
+      // Then
+      assertThat(index.containsFile(root.resolve("com/example/Bar.class"))).isFalse();
+      assertThat(index.containsFile(root.resolve("com/example"))).isFalse();
+      assertThat(index.containsFile(root)).isFalse();
+    }
+  }
+
+  @DisplayName("Multi-Release JARs are indexed for the given release")
+  @Test
+  void multiReleaseJarsAreIndexedForTheGivenRelease() throws IOException {
+    // Given
+    var jar = createJar(
+        "META-INF/MANIFEST.MF",
+        "com/example/Foo.class",
+        "META-INF/versions/11/com/example/Foo.class",
+        "META-INF/versions/11/org/example/Bar.class"
+    );
+
+    // When
+    try (
+        var index8 = new JarIndex(jar, "8");
+        var index11 = new JarIndex(jar, "11")
+    ) {
+      var root8 = index8.getPathRoot().getPath();
+      var root11 = index11.getPathRoot().getPath();
+
+      // Then
+      assertThat(index8.getPackage("org.example")).isNull();
+      assertThat(index8.containsFile(root8.resolve("org/example/Bar.class"))).isFalse();
+
+      assertThat(index11.getPackage("org.example")).isNotNull();
+      assertThat(index11.containsFile(root11.resolve("org/example/Bar.class"))).isTrue();
+      assertThat(index11.containsFile(root11.resolve("com/example/Foo.class"))).isTrue();
+    }
+  }
+
+  @DisplayName("Packages are created for directories without their own entries")
+  @Test
+  void packagesAreCreatedForDirectoriesWithoutTheirOwnEntries() throws IOException {
+    // Given
+    var jar = createJar("com/example/deeply/nested/Foo.class");
+
+    // When
+    try (var index = new JarIndex(jar, "11")) {
+      // Then
+      assertThat(index.getPackageNames())
+          .containsExactlyInAnyOrder(
+              "",
+              "com",
+              "com.example",
+              "com.example.deeply",
+              "com.example.deeply.nested"
+          );
+      assertThat(index.getPackage("com.example.deeply").getPath())
+          .isEqualTo(index.getPathRoot().getPath().resolve("com/example/deeply"));
+    }
+  }
+
+  private Path createJar(String... entries) throws IOException {
+    var jar = tempDir.resolve("test.jar");
+
+    try (var zip = new ZipOutputStream(Files.newOutputStream(jar))) {
+      for (var entry : entries) {
+        zip.putNextEntry(new ZipEntry(entry));
+
+        if (entry.equals("META-INF/MANIFEST.MF")) {
+          zip.write("Manifest-Version: 1.0\r\nMulti-Release: true\r\n\r\n"
+              .getBytes(StandardCharsets.UTF_8));
+        } else {
+          zip.write(new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+        }
+
+        zip.closeEntry();
+      }
+    }
+
+    return jar;
+  }
+}
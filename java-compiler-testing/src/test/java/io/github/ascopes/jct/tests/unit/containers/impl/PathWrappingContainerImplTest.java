@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.unit.containers.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.jct.containers.impl.PathWrappingContainerImpl;
+import io.github.ascopes.jct.workspaces.impl.WrappingDirectoryImpl;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Set;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.StandardLocation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * {@link PathWrappingContainerImpl} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("PathWrappingContainerImpl tests")
+class PathWrappingContainerImplTest {
+
+  @TempDir
+  Path tempDir;
+
+  @DisplayName("Input lookups are answered from the index once it is built")
+  @Test
+  void inputLookupsAreAnsweredFromTheIndexOnceItIsBuilt() throws IOException {
+    // Given
+    createFile("com/example/Foo.class");
+    var container = newContainer(StandardLocation.CLASS_PATH);
+
+    // When
+    var foo = container.getJavaFileForInput("com.example.Foo", Kind.CLASS);
+    createFile("com/example/Bar.class");
+    var bar = container.getJavaFileForInput("com.example.Bar", Kind.CLASS);
+
+    // Then
+    assertThat(foo).isNotNull();
+    assertThat(bar).isNull();
+    assertThat(container.getIndexHitCount()).isOne();
+    assertThat(container.getIndexMissCount()).isOne();
+  }
+
+  @DisplayName("Writing through a file object invalidates the index")
+  @Test
+  void writingThroughFileObjectInvalidatesTheIndex() throws IOException {
+    // Given
+    createFile("com/example/Foo.class");
+    var container = newContainer(StandardLocation.CLASS_PATH);
+    assertThat(container.getJavaFileForInput("com.example.Bar", Kind.CLASS)).isNull();
+
+    // When
+    try (var output = container.getJavaFileForOutput("com.example.Bar", Kind.CLASS)
+        .openOutputStream()) {
+      output.write(new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+    }
+
+    // Then
+    assertThat(container.getJavaFileForInput("com.example.Bar", Kind.CLASS)).isNotNull();
+  }
+
+  @DisplayName("Deleting through a file object invalidates the index")
+  @Test
+  void deletingThroughFileObjectInvalidatesTheIndex() throws IOException {
+    // Given
+    createFile("com/example/Foo.class");
+    var container = newContainer(StandardLocation.CLASS_PATH);
+    var foo = container.getJavaFileForInput("com.example.Foo", Kind.CLASS);
+
+    // When
+    foo.delete();
+
+    // Then
+    assertThat(container.getJavaFileForInput("com.example.Foo", Kind.CLASS)).isNull();
+  }
+
+  @DisplayName("Output locations are not indexed")
+  @Test
+  void outputLocationsAreNotIndexed() throws IOException {
+    // Given
+    var container = newContainer(StandardLocation.CLASS_OUTPUT);
+    assertThat(container.getJavaFileForInput("com.example.Foo", Kind.CLASS)).isNull();
+
+    // When
+    createFile("com/example/Foo.class");
+
+    // Then
+    assertThat(container.getJavaFileForInput("com.example.Foo", Kind.CLASS)).isNotNull();
+    assertThat(container.getIndexHitCount()).isZero();
+    assertThat(container.getIndexMissCount()).isZero();
+  }
+
+  @DisplayName("listFileObjects lists the expected files from the index")
+  @Test
+  void listFileObjectsListsTheExpectedFilesFromTheIndex() throws IOException {
+    // Given
+    createFile("com/example/Foo.class");
+    createFile("com/example/Foo.java");
+    createFile("com/example/sub/Bar.class");
+    createFile("org/example/Baz.class");
+    var container = newContainer(StandardLocation.CLASS_PATH);
+
+    // When
+    var shallow = new ArrayList<JavaFileObject>();
+    container.listFileObjects("com.example", Set.of(Kind.CLASS), false, shallow);
+    var deep = new ArrayList<JavaFileObject>();
+    container.listFileObjects("com.example", Set.of(Kind.CLASS), true, deep);
+
+    // Then
+    assertThat(shallow)
+        .map(JavaFileObject::getName)
+        .containsExactly(Path.of("com", "example", "Foo.class").toString());
+
+    assertThat(deep)
+        .map(JavaFileObject::getName)
+        .containsExactlyInAnyOrder(
+            Path.of("com", "example", "Foo.class").toString(),
+            Path.of("com", "example", "sub", "Bar.class").toString()
+        );
+  }
+
+  @DisplayName("listFileObjects lists nothing for packages that are not in the index")
+  @Test
+  void listFileObjectsListsNothingForPackagesThatAreNotInTheIndex() throws IOException {
+    // Given
+    createFile("com/example/Foo.class");
+    var container = newContainer(StandardLocation.CLASS_PATH);
+
+    // When
+    var shallow = new ArrayList<JavaFileObject>();
+    container.listFileObjects("org.example", Set.of(Kind.CLASS), false, shallow);
+
+    // Then
+    assertThat(shallow).isEmpty();
+  }
+
+  @DisplayName("listAllFiles lists all files and directories from the index")
+  @Test
+  void listAllFilesListsAllFilesAndDirectoriesFromTheIndex() throws IOException {
+    // Given
+    createFile("com/example/Foo.class");
+    var container = newContainer(StandardLocation.CLASS_PATH);
+
+    // When
+    var files = container.listAllFiles();
+
+    // Then
+    assertThat(files)
+        .containsExactlyInAnyOrder(
+            tempDir,
+            tempDir.resolve("com"),
+            tempDir.resolve("com/example"),
+            tempDir.resolve("com/example/Foo.class")
+        );
+  }
+
+  private PathWrappingContainerImpl newContainer(StandardLocation location) {
+    return new PathWrappingContainerImpl(location, new WrappingDirectoryImpl(tempDir));
+  }
+
+  private void createFile(String name) throws IOException {
+    var file = tempDir.resolve(name);
+    Files.createDirectories(file.getParent());
+    Files.write(file, new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+  }
+}
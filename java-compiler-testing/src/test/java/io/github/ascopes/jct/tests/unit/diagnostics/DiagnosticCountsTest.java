@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.unit.diagnostics;
+
+import static io.github.ascopes.jct.tests.helpers.Fixtures.someDiagnostic;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.when;
+
+import io.github.ascopes.jct.diagnostics.DiagnosticCounts;
+import java.util.List;
+import java.util.Map;
+import javax.tools.Diagnostic;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link DiagnosticCounts} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("DiagnosticCounts tests")
+class DiagnosticCountsTest {
+
+  @DisplayName(".getCount(Kind) returns the count for the kind")
+  @Test
+  void getCountForKindReturnsTheCountForTheKind() {
+    // Given
+    var counts = new DiagnosticCounts(Map.of(Kind.WARNING, 5L, Kind.ERROR, 2L), Map.of(), 0);
+
+    // Then
+    assertThat(counts.getCount(Kind.WARNING)).isEqualTo(5);
+    assertThat(counts.getCount(Kind.ERROR)).isEqualTo(2);
+    assertThat(counts.getCount(Kind.NOTE)).isZero();
+  }
+
+  @DisplayName(".getCount(String) returns the count for the code")
+  @Test
+  void getCountForCodeReturnsTheCountForTheCode() {
+    // Given
+    var counts = new DiagnosticCounts(
+        Map.of(Kind.WARNING, 5L),
+        Map.of("compiler.warn.foo", 5L),
+        0
+    );
+
+    // Then
+    assertThat(counts.getCount("compiler.warn.foo")).isEqualTo(5);
+    assertThat(counts.getCount("compiler.warn.bar")).isZero();
+  }
+
+  @DisplayName(".getCount(Iterable) sums each distinct kind once")
+  @Test
+  void getCountForKindsSumsEachDistinctKindOnce() {
+    // Given
+    var counts = new DiagnosticCounts(
+        Map.of(Kind.WARNING, 5L, Kind.MANDATORY_WARNING, 3L, Kind.ERROR, 2L),
+        Map.of(),
+        0
+    );
+
+    // Then
+    assertThat(counts.getCount(List.of(Kind.WARNING, Kind.MANDATORY_WARNING, Kind.WARNING)))
+        .isEqualTo(8);
+  }
+
+  @DisplayName("Total, retained, and dropped counts are derived from the kind counts")
+  @Test
+  void totalRetainedAndDroppedCountsAreDerivedFromTheKindCounts() {
+    // Given
+    var counts = new DiagnosticCounts(Map.of(Kind.WARNING, 5L, Kind.ERROR, 2L), Map.of(), 3);
+
+    // Then
+    assertThat(counts.getTotalCount()).isEqualTo(7);
+    assertThat(counts.getRetainedCount()).isEqualTo(3);
+    assertThat(counts.getDroppedCount()).isEqualTo(4);
+  }
+
+  @DisplayName("Zero counts are ignored")
+  @Test
+  void zeroCountsAreIgnored() {
+    // Given
+    var counts = new DiagnosticCounts(
+        Map.of(Kind.WARNING, 0L, Kind.ERROR, 1L),
+        Map.of("compiler.warn.foo", 0L),
+        1
+    );
+
+    // Then
+    assertThat(counts.getKindCounts()).containsOnly(entry(Kind.ERROR, 1L));
+    assertThat(counts.getCodeCounts()).isEmpty();
+    assertThat(counts)
+        .isEqualTo(new DiagnosticCounts(Map.of(Kind.ERROR, 1L), Map.of(), 1))
+        .hasSameHashCodeAs(new DiagnosticCounts(Map.of(Kind.ERROR, 1L), Map.of(), 1));
+  }
+
+  @DisplayName("Negative counts are rejected")
+  @Test
+  void negativeCountsAreRejected() {
+    // Then
+    assertThatThrownBy(() -> new DiagnosticCounts(Map.of(Kind.ERROR, -1L), Map.of(), 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Cannot provide a diagnostic count less than 0");
+  }
+
+  @DisplayName("Retaining more diagnostics than were reported is rejected")
+  @Test
+  void retainingMoreDiagnosticsThanWereReportedIsRejected() {
+    // Then
+    assertThatThrownBy(() -> new DiagnosticCounts(Map.of(Kind.ERROR, 1L), Map.of(), 2))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Cannot retain 2 diagnostics when only 1 were reported");
+  }
+
+  @DisplayName(".empty() has no counts")
+  @Test
+  void emptyHasNoCounts() {
+    // When
+    var counts = DiagnosticCounts.empty();
+
+    // Then
+    assertThat(counts.getKindCounts()).isEmpty();
+    assertThat(counts.getCodeCounts()).isEmpty();
+    assertThat(counts.getTotalCount()).isZero();
+    assertThat(counts.getDroppedCount()).isZero();
+  }
+
+  @DisplayName(".of(...) counts every diagnostic as retained")
+  @Test
+  void ofCountsEveryDiagnosticAsRetained() {
+    // Given
+    var diagnostics = List.of(
+        someDiagnosticOfKind(Kind.WARNING, "compiler.warn.foo"),
+        someDiagnosticOfKind(Kind.WARNING, "compiler.warn.foo"),
+        someDiagnosticOfKind(Kind.ERROR, "compiler.err.bar"),
+        someDiagnosticOfKind(Kind.NOTE, null)
+    );
+
+    // When
+    var counts = DiagnosticCounts.of(diagnostics);
+
+    // Then
+    assertThat(counts.getKindCounts())
+        .containsOnly(entry(Kind.WARNING, 2L), entry(Kind.ERROR, 1L), entry(Kind.NOTE, 1L));
+    assertThat(counts.getCodeCounts())
+        .containsOnly(entry("compiler.warn.foo", 2L), entry("compiler.err.bar", 1L));
+    assertThat(counts.getRetainedCount()).isEqualTo(4);
+    assertThat(counts.getDroppedCount()).isZero();
+  }
+
+  static Diagnostic<JavaFileObject> someDiagnosticOfKind(Kind kind, @Nullable String code) {
+    var diagnostic = someDiagnostic();
+    when(diagnostic.getKind()).thenReturn(kind);
+    when(diagnostic.getCode()).thenReturn(code);
+    return diagnostic;
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.unit.diagnostics;
+
+import static io.github.ascopes.jct.tests.helpers.Fixtures.someTraceDiagnostic;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.ascopes.jct.diagnostics.DiagnosticCounts;
+import io.github.ascopes.jct.diagnostics.DiagnosticObserver;
+import io.github.ascopes.jct.diagnostics.DiagnosticObserver.Action;
+import java.util.Map;
+import javax.tools.Diagnostic.Kind;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * {@link DiagnosticObserver} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("DiagnosticObserver tests")
+class DiagnosticObserverTest {
+
+  @DisplayName(".cancelOnFirstError() continues while no errors have been reported")
+  @Test
+  void cancelOnFirstErrorContinuesWhileNoErrorsHaveBeenReported() {
+    // Given
+    var observer = DiagnosticObserver.cancelOnFirstError();
+    var counts = new DiagnosticCounts(Map.of(Kind.WARNING, 10L, Kind.NOTE, 3L), Map.of(), 13);
+
+    // When
+    var action = observer.observe(someTraceDiagnostic(), counts);
+
+    // Then
+    assertThat(action).isEqualTo(Action.CONTINUE);
+  }
+
+  @DisplayName(".cancelOnFirstError() cancels once an error has been reported")
+  @Test
+  void cancelOnFirstErrorCancelsOnceAnErrorHasBeenReported() {
+    // Given
+    var observer = DiagnosticObserver.cancelOnFirstError();
+    var counts = new DiagnosticCounts(Map.of(Kind.WARNING, 10L, Kind.ERROR, 1L), Map.of(), 11);
+
+    // When
+    var action = observer.observe(someTraceDiagnostic(), counts);
+
+    // Then
+    assertThat(action).isEqualTo(Action.CANCEL);
+  }
+
+  @DisplayName(".cancelAfterErrors(int) cancels once enough errors have been reported")
+  @ValueSource(ints = {1, 2, 5, 100})
+  @ParameterizedTest(name = "for errorCount = {0}")
+  void cancelAfterErrorsCancelsOnceEnoughErrorsHaveBeenReported(int errorCount) {
+    // Given
+    var observer = DiagnosticObserver.cancelAfterErrors(errorCount);
+    var before = new DiagnosticCounts(Map.of(Kind.ERROR, errorCount - 1L), Map.of(), 0);
+    var after = new DiagnosticCounts(Map.of(Kind.ERROR, (long) errorCount), Map.of(), 0);
+
+    // Then
+    assertThat(observer.observe(someTraceDiagnostic(), before)).isEqualTo(Action.CONTINUE);
+    assertThat(observer.observe(someTraceDiagnostic(), after)).isEqualTo(Action.CANCEL);
+  }
+
+  @DisplayName(".cancelAfterErrors(int) throws an IllegalArgumentException for counts below 1")
+  @ValueSource(ints = {0, -1, Integer.MIN_VALUE})
+  @ParameterizedTest(name = "for errorCount = {0}")
+  void cancelAfterErrorsThrowsAnIllegalArgumentExceptionForCountsBelowOne(int errorCount) {
+    // Then
+    assertThatThrownBy(() -> DiagnosticObserver.cancelAfterErrors(errorCount))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Cannot provide an error count less than 1");
+  }
+}
@@ -15,6 +15,7 @@
  */
 package io.github.ascopes.jct.tests.unit.diagnostics;
 
+import static io.github.ascopes.jct.tests.helpers.Fixtures.oneOf;
 import static io.github.ascopes.jct.tests.helpers.Fixtures.someBoolean;
 import static io.github.ascopes.jct.tests.helpers.Fixtures.someDiagnostic;
 import static io.github.ascopes.jct.tests.helpers.Fixtures.someLong;
@@ -22,23 +23,35 @@ import static io.github.ascopes.jct.tests.helpers.Fixtures.someRealStackTrace;
 import static io.github.ascopes.jct.tests.helpers.Fixtures.someText;
 import static java.util.Locale.ROOT;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
 import static org.assertj.core.api.InstanceOfAssertFactories.list;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import io.github.ascopes.jct.diagnostics.DiagnosticObserver;
+import io.github.ascopes.jct.diagnostics.DiagnosticRetention;
+import io.github.ascopes.jct.diagnostics.StackCaptureMode;
 import io.github.ascopes.jct.diagnostics.TraceDiagnostic;
 import io.github.ascopes.jct.diagnostics.TracingDiagnosticListener;
 import io.github.ascopes.jct.tests.helpers.Slf4jLoggerFake;
 import io.github.ascopes.jct.utils.LoomPolyfill;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.tools.Diagnostic;
 import javax.tools.Diagnostic.Kind;
 import javax.tools.JavaFileObject;
+import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -83,6 +96,409 @@ class TracingDiagnosticListenerTest {
     assertThat(listener.isStackTraceReportingEnabled()).isEqualTo(stackTraces);
   }
 
+  @DisplayName("getStackCaptureMode() returns expected value")
+  @EnumSource(StackCaptureMode.class)
+  @ParameterizedTest(name = "when stackCaptureMode = {0}")
+  void getStackCaptureModeReturnsExpectedValue(StackCaptureMode stackCaptureMode) {
+    // Given
+    var listener = new TracingDiagnosticListener<>(
+        someBoolean(),
+        someBoolean(),
+        stackCaptureMode,
+        10,
+        oneOf(DiagnosticRetention.class),
+        10
+    );
+
+    // Then
+    assertThat(listener.getStackCaptureMode()).isEqualTo(stackCaptureMode);
+  }
+
+  @DisplayName("getStackFrameLimit() returns expected value")
+  @ValueSource(ints = {1, 10, Integer.MAX_VALUE})
+  @ParameterizedTest(name = "when stackFrameLimit = {0}")
+  void getStackFrameLimitReturnsExpectedValue(int stackFrameLimit) {
+    // Given
+    var listener = new TracingDiagnosticListener<>(
+        someBoolean(),
+        someBoolean(),
+        StackCaptureMode.LIMITED,
+        stackFrameLimit,
+        oneOf(DiagnosticRetention.class),
+        10
+    );
+
+    // Then
+    assertThat(listener.getStackFrameLimit()).isEqualTo(stackFrameLimit);
+  }
+
+  @DisplayName("The full stack is captured by default")
+  @Test
+  void theFullStackIsCapturedByDefault() {
+    // Given
+    var listener = new TracingDiagnosticListener<>(someBoolean(), someBoolean());
+
+    // Then
+    assertThat(listener.getStackCaptureMode()).isEqualTo(StackCaptureMode.FULL);
+  }
+
+  @DisplayName("An IllegalArgumentException is thrown if the stack frame limit is less than 1")
+  @ValueSource(ints = {0, -1, Integer.MIN_VALUE})
+  @ParameterizedTest(name = "when stackFrameLimit = {0}")
+  void illegalArgumentExceptionIsThrownIfStackFrameLimitIsLessThanOne(int stackFrameLimit) {
+    // Then
+    assertThatThrownBy(() -> new TracingDiagnosticListener<>(
+        someBoolean(),
+        someBoolean(),
+        oneOf(StackCaptureMode.class),
+        stackFrameLimit,
+        oneOf(DiagnosticRetention.class),
+        10
+    ))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Stack frame limit must be at least 1");
+  }
+
+  @DisplayName("getRetention() returns expected value")
+  @EnumSource(DiagnosticRetention.class)
+  @ParameterizedTest(name = "when retention = {0}")
+  void getRetentionReturnsExpectedValue(DiagnosticRetention retention) {
+    // Given
+    var listener = new TracingDiagnosticListener<>(
+        someBoolean(),
+        someBoolean(),
+        oneOf(StackCaptureMode.class),
+        10,
+        retention,
+        10
+    );
+
+    // Then
+    assertThat(listener.getRetention()).isEqualTo(retention);
+  }
+
+  @DisplayName("getRetentionLimit() returns expected value")
+  @ValueSource(ints = {1, 10, Integer.MAX_VALUE})
+  @ParameterizedTest(name = "when retentionLimit = {0}")
+  void getRetentionLimitReturnsExpectedValue(int retentionLimit) {
+    // Given
+    var listener = new TracingDiagnosticListener<>(
+        someBoolean(),
+        someBoolean(),
+        oneOf(StackCaptureMode.class),
+        10,
+        DiagnosticRetention.FIRST_PER_KIND,
+        retentionLimit
+    );
+
+    // Then
+    assertThat(listener.getRetentionLimit()).isEqualTo(retentionLimit);
+  }
+
+  @DisplayName("All diagnostics are retained by default")
+  @Test
+  void allDiagnosticsAreRetainedByDefault() {
+    // Given
+    var listener = new TracingDiagnosticListener<>(someBoolean(), someBoolean());
+
+    // Then
+    assertThat(listener.getRetention()).isEqualTo(DiagnosticRetention.ALL);
+  }
+
+  @DisplayName("An IllegalArgumentException is thrown if the retention limit is less than 1")
+  @ValueSource(ints = {0, -1, Integer.MIN_VALUE})
+  @ParameterizedTest(name = "when retentionLimit = {0}")
+  void illegalArgumentExceptionIsThrownIfRetentionLimitIsLessThanOne(int retentionLimit) {
+    // Then
+    assertThatThrownBy(() -> new TracingDiagnosticListener<>(
+        someBoolean(),
+        someBoolean(),
+        oneOf(StackCaptureMode.class),
+        10,
+        oneOf(DiagnosticRetention.class),
+        retentionLimit
+    ))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Retention limit must be at least 1");
+  }
+
+  @DisplayName("Only the first diagnostics of each kind are retained for FIRST_PER_KIND")
+  @Test
+  void onlyTheFirstDiagnosticsOfEachKindAreRetainedForFirstPerKind() {
+    // Given
+    var listener = new AccessibleImpl<>(
+        mock(Logger.class),
+        false,
+        DiagnosticRetention.FIRST_PER_KIND,
+        2
+    );
+
+    for (var i = 0; i < 5; ++i) {
+      var warning = someDiagnosticOfKind(Kind.WARNING, "compiler.warn.foo");
+      when(warning.getMessage(ROOT)).thenReturn("warning " + i);
+      listener.report(warning);
+    }
+
+    var error = someDiagnosticOfKind(Kind.ERROR, "compiler.err.bar");
+    when(error.getMessage(ROOT)).thenReturn("error");
+
+    // When
+    listener.report(error);
+
+    // Then
+    assertThat(listener.getDiagnostics())
+        .extracting(diagnostic -> diagnostic.getMessage(ROOT))
+        .containsExactly("warning 0", "warning 1", "error");
+  }
+
+  @DisplayName("No diagnostics are retained for COUNTS_ONLY")
+  @Test
+  void noDiagnosticsAreRetainedForCountsOnly() {
+    // Given
+    var listener = new AccessibleImpl<>(
+        mock(Logger.class),
+        false,
+        DiagnosticRetention.COUNTS_ONLY,
+        10
+    );
+
+    // When
+    listener.report(someDiagnosticOfKind(Kind.WARNING, "compiler.warn.foo"));
+    listener.report(someDiagnosticOfKind(Kind.ERROR, "compiler.err.bar"));
+
+    // Then
+    assertThat(listener.getDiagnostics()).isEmpty();
+  }
+
+  @DisplayName("Every diagnostic is counted regardless of the retention policy")
+  @EnumSource(DiagnosticRetention.class)
+  @ParameterizedTest(name = "for retention = {0}")
+  void everyDiagnosticIsCountedRegardlessOfTheRetentionPolicy(DiagnosticRetention retention) {
+    // Given
+    var listener = new AccessibleImpl<>(mock(Logger.class), false, retention, 1);
+
+    // When
+    for (var i = 0; i < 3; ++i) {
+      listener.report(someDiagnosticOfKind(Kind.WARNING, "compiler.warn.foo"));
+    }
+    listener.report(someDiagnosticOfKind(Kind.MANDATORY_WARNING, "compiler.warn.foo"));
+    listener.report(someDiagnosticOfKind(Kind.ERROR, "compiler.err.bar"));
+    listener.report(someDiagnosticOfKind(Kind.NOTE, null));
+
+    // Then
+    var counts = listener.getDiagnosticCounts();
+    assertThat(counts.getKindCounts())
+        .containsOnly(
+            entry(Kind.WARNING, 3L),
+            entry(Kind.MANDATORY_WARNING, 1L),
+            entry(Kind.ERROR, 1L),
+            entry(Kind.NOTE, 1L)
+        );
+    assertThat(counts.getCodeCounts())
+        .containsOnly(entry("compiler.warn.foo", 4L), entry("compiler.err.bar", 1L));
+    assertThat(counts.getTotalCount()).isEqualTo(6);
+    assertThat(counts.getRetainedCount()).isEqualTo(listener.getDiagnostics().size());
+  }
+
+  @DisplayName("Nothing is captured for diagnostics that are not retained or logged")
+  @Test
+  void nothingIsCapturedForDiagnosticsThatAreNotRetainedOrLogged() {
+    // Given
+    var currentThread = mock(Thread.class);
+    var listener = new AccessibleImpl<>(
+        mock(Logger.class),
+        () -> currentThread,
+        false,
+        DiagnosticRetention.COUNTS_ONLY,
+        1
+    );
+
+    // When
+    listener.report(someDiagnosticOfKind(Kind.WARNING, "compiler.warn.foo"));
+
+    // Then
+    verifyNoInteractions(currentThread);
+  }
+
+  @DisplayName("Diagnostics that are not retained are still logged")
+  @Test
+  void diagnosticsThatAreNotRetainedAreStillLogged() {
+    // Given
+    var logger = new Slf4jLoggerFake();
+    var listener = new AccessibleImpl<>(logger, true, DiagnosticRetention.COUNTS_ONLY, 1);
+
+    var diagnostic = someDiagnosticOfKind(Kind.WARNING, "compiler.warn.foo");
+    when(diagnostic.getMessage(ROOT)).thenReturn("not retained");
+
+    // When
+    listener.report(diagnostic);
+
+    // Then
+    assertThat(listener.getDiagnostics()).isEmpty();
+    logger.assertThatEntryLogged(Level.WARN, null, "{}{}", "not retained", "");
+  }
+
+  @DisplayName("getObserver() returns expected value")
+  @Test
+  void getObserverReturnsExpectedValue() {
+    // Given
+    var observer = mock(DiagnosticObserver.class);
+    var listener = new TracingDiagnosticListener<>(
+        someBoolean(),
+        someBoolean(),
+        oneOf(StackCaptureMode.class),
+        10,
+        oneOf(DiagnosticRetention.class),
+        10,
+        observer
+    );
+
+    // Then
+    assertThat(listener.getObserver()).isSameAs(observer);
+  }
+
+  @DisplayName("No observer is used by default")
+  @Test
+  void noObserverIsUsedByDefault() {
+    // Given
+    var listener = new TracingDiagnosticListener<>(someBoolean(), someBoolean());
+
+    // Then
+    assertThat(listener.getObserver()).isNull();
+    assertThat(listener.isCancelled()).isFalse();
+  }
+
+  @DisplayName("The observer is invoked with each diagnostic and the counts so far")
+  @Test
+  void theObserverIsInvokedWithEachDiagnosticAndTheCountsSoFar() {
+    // Given
+    var observed = new ArrayList<String>();
+    DiagnosticObserver observer = (diagnostic, counts) -> {
+      observed.add(diagnostic.getMessage(ROOT) + ":" + counts.getTotalCount());
+      return DiagnosticObserver.Action.CONTINUE;
+    };
+    var listener = new AccessibleImpl<>(
+        mock(Logger.class),
+        false,
+        DiagnosticRetention.ALL,
+        Integer.MAX_VALUE,
+        observer
+    );
+
+    var warning = someDiagnosticOfKind(Kind.WARNING, "compiler.warn.foo");
+    when(warning.getMessage(ROOT)).thenReturn("warning");
+    var error = someDiagnosticOfKind(Kind.ERROR, "compiler.err.bar");
+    when(error.getMessage(ROOT)).thenReturn("error");
+
+    // When
+    listener.report(warning);
+    listener.report(error);
+
+    // Then
+    assertThat(observed).containsExactly("warning:1", "error:2");
+    assertThat(listener.isCancelled()).isFalse();
+  }
+
+  @DisplayName("The observer is invoked for diagnostics that are not retained")
+  @Test
+  void theObserverIsInvokedForDiagnosticsThatAreNotRetained() {
+    // Given
+    var observer = mock(DiagnosticObserver.class);
+    when(observer.observe(any(), any())).thenReturn(DiagnosticObserver.Action.CONTINUE);
+    var listener = new AccessibleImpl<>(
+        mock(Logger.class),
+        false,
+        DiagnosticRetention.COUNTS_ONLY,
+        1,
+        observer
+    );
+
+    var diagnostic = someDiagnosticOfKind(Kind.WARNING, "compiler.warn.foo");
+    when(diagnostic.getMessage(ROOT)).thenReturn("not retained");
+
+    // When
+    listener.report(diagnostic);
+
+    // Then
+    assertThat(listener.getDiagnostics()).isEmpty();
+    verify(observer).observe(
+        argThat(wrapped -> wrapped.getMessage(ROOT).equals("not retained")),
+        argThat(counts -> counts.getTotalCount() == 1)
+    );
+  }
+
+  @DisplayName("The compilation is cancelled when the observer requests it")
+  @Test
+  void theCompilationIsCancelledWhenTheObserverRequestsIt() {
+    // Given
+    var listener = new AccessibleImpl<>(
+        mock(Logger.class),
+        false,
+        DiagnosticRetention.ALL,
+        Integer.MAX_VALUE,
+        DiagnosticObserver.cancelOnFirstError()
+    );
+
+    listener.report(someDiagnosticOfKind(Kind.WARNING, "compiler.warn.foo"));
+
+    // Then
+    assertThat(listener.isCancelled()).isFalse();
+    assertThatThrownBy(() -> listener.report(someDiagnosticOfKind(Kind.ERROR, "compiler.err.bar")))
+        .isInstanceOf(RuntimeException.class)
+        .hasMessage("Compilation was cancelled");
+    assertThat(listener.isCancelled()).isTrue();
+    assertThat(listener.getDiagnostics()).hasSize(2);
+  }
+
+  @DisplayName("Further diagnostics are rejected once the compilation is cancelled")
+  @Test
+  void furtherDiagnosticsAreRejectedOnceTheCompilationIsCancelled() {
+    // Given
+    var observer = mock(DiagnosticObserver.class);
+    when(observer.observe(any(), any())).thenReturn(DiagnosticObserver.Action.CANCEL);
+    var listener = new AccessibleImpl<>(
+        mock(Logger.class),
+        false,
+        DiagnosticRetention.ALL,
+        Integer.MAX_VALUE,
+        observer
+    );
+
+    assertThatThrownBy(() -> listener.report(someDiagnosticOfKind(Kind.ERROR, "compiler.err.bar")))
+        .isInstanceOf(RuntimeException.class);
+
+    // Then
+    assertThatThrownBy(() -> listener.report(someDiagnosticOfKind(Kind.NOTE, null)))
+        .isInstanceOf(RuntimeException.class)
+        .hasMessage("Compilation was cancelled");
+    assertThat(listener.getDiagnostics()).hasSize(1);
+    assertThat(listener.getDiagnosticCounts().getTotalCount()).isEqualTo(1);
+    verify(observer).observe(any(), any());
+  }
+
+  @DisplayName("cancel() aborts the compilation at the next diagnostic")
+  @Test
+  void cancelAbortsTheCompilationAtTheNextDiagnostic() {
+    // Given
+    var listener = new AccessibleImpl<>(
+        mock(Logger.class),
+        false,
+        DiagnosticRetention.ALL,
+        Integer.MAX_VALUE
+    );
+    listener.report(someDiagnosticOfKind(Kind.WARNING, "compiler.warn.foo"));
+
+    // When
+    listener.cancel();
+
+    // Then
+    assertThat(listener.isCancelled()).isTrue();
+    assertThatThrownBy(() -> listener.report(someDiagnosticOfKind(Kind.NOTE, null)))
+        .isInstanceOf(RuntimeException.class)
+        .hasMessage("Compilation was cancelled");
+    assertThat(listener.getDiagnostics()).hasSize(1);
+  }
+
   @DisplayName("getDiagnostics() returns a copy")
   @Test
   void getDiagnosticsReturnsCopy() {
@@ -263,6 +679,70 @@ class TracingDiagnosticListenerTest {
         .isEqualTo(List.of(stackTrace));
   }
 
+  @DisplayName("No stacktrace is captured when stack capture is disabled")
+  @MethodSource("loggingArgs")
+  @ParameterizedTest(name = "for logging={0}, stackTraces={1}")
+  void noStackTraceIsCapturedWhenStackCaptureIsDisabled(boolean logging, boolean stackTraces) {
+    // Given
+    var currentThread = mock(Thread.class);
+    var listener = new AccessibleImpl<>(
+        () -> currentThread,
+        logging,
+        stackTraces,
+        StackCaptureMode.DISABLED,
+        10
+    );
+
+    var originalDiagnostic = someDiagnostic();
+    when(originalDiagnostic.getKind()).thenReturn(Kind.OTHER);
+    when(originalDiagnostic.getMessage(ROOT)).thenReturn("OTHER logging tests");
+
+    // When
+    listener.report(originalDiagnostic);
+
+    // Then
+    assertThat(listener.getDiagnostics())
+        .singleElement()
+        .extracting(TraceDiagnostic::getStackTrace, list(StackTraceElement.class))
+        .isEmpty();
+    verify(currentThread, never()).getStackTrace();
+  }
+
+  @DisplayName("A limited stacktrace is captured starting at the caller")
+  @ValueSource(ints = {1, 2, 3})
+  @ParameterizedTest(name = "for stackFrameLimit={0}")
+  void limitedStackTraceIsCapturedStartingAtTheCaller(int stackFrameLimit) {
+    // Given
+    var currentThread = mock(Thread.class);
+    var listener = new AccessibleImpl<>(
+        () -> currentThread,
+        false,
+        false,
+        StackCaptureMode.LIMITED,
+        stackFrameLimit
+    );
+
+    var originalDiagnostic = someDiagnostic();
+    when(originalDiagnostic.getKind()).thenReturn(Kind.OTHER);
+    when(originalDiagnostic.getMessage(ROOT)).thenReturn("OTHER logging tests");
+
+    // When
+    listener.report(originalDiagnostic);
+
+    // Then
+    assertThat(listener.getDiagnostics())
+        .singleElement()
+        .extracting(TraceDiagnostic::getStackTrace, list(StackTraceElement.class))
+        .hasSize(stackFrameLimit)
+        .first()
+        .satisfies(
+            frame -> assertThat(frame.getClassName()).isEqualTo(getClass().getName()),
+            frame -> assertThat(frame.getMethodName())
+                .isEqualTo("limitedStackTraceIsCapturedStartingAtTheCaller")
+        );
+    verify(currentThread, never()).getStackTrace();
+  }
+
   @DisplayName("Nothing is logged if logging is disabled")
   @MethodSource("loggingDisabledArgs")
   @ParameterizedTest(name = "for kind={0}, stackTraces={1}")
@@ -473,6 +953,13 @@ class TracingDiagnosticListenerTest {
         ));
   }
 
+  static Diagnostic<JavaFileObject> someDiagnosticOfKind(Kind kind, @Nullable String code) {
+    var diagnostic = someDiagnostic();
+    when(diagnostic.getKind()).thenReturn(kind);
+    when(diagnostic.getCode()).thenReturn(code);
+    return diagnostic;
+  }
+
   static Supplier<Thread> dummyThreadSupplier() {
     var thread = mock(Thread.class);
     when(thread.getStackTrace()).thenReturn(new StackTraceElement[0]);
@@ -532,5 +1019,72 @@ class TracingDiagnosticListenerTest {
           stackTraces
       );
     }
+
+    AccessibleImpl(
+        Supplier<Thread> currentThreadSupplier,
+        boolean logging,
+        boolean stackTraces,
+        StackCaptureMode stackCaptureMode,
+        int stackFrameLimit
+    ) {
+      super(
+          LoggerFactory.getLogger(AccessibleImpl.class),
+          currentThreadSupplier,
+          logging,
+          stackTraces,
+          stackCaptureMode,
+          stackFrameLimit,
+          DiagnosticRetention.ALL,
+          Integer.MAX_VALUE
+      );
+    }
+
+    AccessibleImpl(
+        Logger logger,
+        boolean logging,
+        DiagnosticRetention retention,
+        int retentionLimit
+    ) {
+      this(logger, dummyThreadSupplier(), logging, retention, retentionLimit);
+    }
+
+    AccessibleImpl(
+        Logger logger,
+        Supplier<Thread> currentThreadSupplier,
+        boolean logging,
+        DiagnosticRetention retention,
+        int retentionLimit
+    ) {
+      super(
+          logger,
+          currentThreadSupplier,
+          logging,
+          false,
+          StackCaptureMode.FULL,
+          Integer.MAX_VALUE,
+          retention,
+          retentionLimit
+      );
+    }
+
+    AccessibleImpl(
+        Logger logger,
+        boolean logging,
+        DiagnosticRetention retention,
+        int retentionLimit,
+        @Nullable DiagnosticObserver observer
+    ) {
+      super(
+          logger,
+          dummyThreadSupplier(),
+          logging,
+          false,
+          StackCaptureMode.FULL,
+          Integer.MAX_VALUE,
+          retention,
+          retentionLimit,
+          observer
+      );
+    }
   }
 }
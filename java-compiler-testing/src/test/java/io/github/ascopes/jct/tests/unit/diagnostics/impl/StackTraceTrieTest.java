@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.unit.diagnostics.impl;
+
+import static io.github.ascopes.jct.tests.helpers.Fixtures.someRealStackTrace;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.ascopes.jct.diagnostics.impl.StackTraceTrie;
+import java.lang.StackWalker.StackFrame;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link StackTraceTrie} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("StackTraceTrie tests")
+class StackTraceTrieTest {
+
+  @DisplayName("Interned stack traces hold the same frames in the same order")
+  @Test
+  void internedStackTracesHoldTheSameFramesInTheSameOrder() {
+    // Given
+    var trie = new StackTraceTrie();
+    var stackTrace = List.of(someRealStackTrace());
+
+    // When
+    var interned = trie.intern(stackTrace);
+
+    // Then
+    assertThat(interned)
+        .isEqualTo(stackTrace)
+        .hasSameHashCodeAs(stackTrace)
+        .hasSize(stackTrace.size());
+
+    for (var i = 0; i < stackTrace.size(); ++i) {
+      assertThat(interned.get(i)).isSameAs(stackTrace.get(i));
+    }
+  }
+
+  @DisplayName("Interning the same stack trace twice returns the same list")
+  @Test
+  void interningTheSameStackTraceTwiceReturnsTheSameList() {
+    // Given
+    var trie = new StackTraceTrie();
+    var stackTrace = List.of(someRealStackTrace());
+
+    // When
+    var first = trie.intern(stackTrace);
+    var second = trie.intern(new ArrayList<>(stackTrace));
+
+    // Then
+    assertThat(second).isSameAs(first);
+    assertThat(trie.getNodeCount()).isEqualTo(stackTrace.size());
+  }
+
+  @DisplayName("Stack traces sharing the same callers share the same frames")
+  @Test
+  void stackTracesSharingTheSameCallersShareTheSameFrames() {
+    // Given
+    var trie = new StackTraceTrie();
+    var callers = List.of(someRealStackTrace());
+    var first = new ArrayList<StackTraceElement>();
+    first.add(new StackTraceElement("org.example.Foo", "bar", "Foo.java", 12));
+    first.addAll(callers);
+    var second = new ArrayList<StackTraceElement>();
+    second.add(new StackTraceElement("org.example.Foo", "baz", "Foo.java", 34));
+    second.add(new StackTraceElement("org.example.Foo", "bork", "Foo.java", 56));
+    second.addAll(callers);
+
+    // When
+    var internedFirst = trie.intern(first);
+    var internedSecond = trie.intern(second);
+    var internedCallers = trie.intern(callers);
+
+    // Then
+    assertThat(internedFirst).isEqualTo(first);
+    assertThat(internedSecond).isEqualTo(second);
+    assertThat(internedCallers).isEqualTo(callers);
+    assertThat(trie.getNodeCount()).isEqualTo(callers.size() + 3);
+  }
+
+  @DisplayName("Interning an empty stack trace returns an empty list")
+  @Test
+  void interningAnEmptyStackTraceReturnsAnEmptyList() {
+    // Given
+    var trie = new StackTraceTrie();
+
+    // When
+    var interned = trie.intern(List.of());
+
+    // Then
+    assertThat(interned).isEmpty();
+    assertThat(trie.getNodeCount()).isZero();
+  }
+
+  @DisplayName("Interned stack frames are converted to the expected elements")
+  @Test
+  void internedStackFramesAreConvertedToTheExpectedElements() {
+    // Given
+    var trie = new StackTraceTrie();
+    var frames = StackWalker.getInstance()
+        .walk(stream -> stream.collect(Collectors.toList()));
+    var expected = frames.stream()
+        .map(StackFrame::toStackTraceElement)
+        .collect(Collectors.toList());
+
+    // When
+    var first = trie.internFrames(frames);
+    var second = trie.internFrames(StackWalker.getInstance()
+        .walk(stream -> stream.collect(Collectors.toList())));
+
+    // Then
+    assertThat(first).isEqualTo(expected);
+    assertThat(second)
+        .isNotSameAs(first)
+        .hasSameSizeAs(first);
+    assertThat(second.subList(1, second.size()))
+        .isEqualTo(first.subList(1, first.size()));
+    assertThat(trie.getNodeCount()).isEqualTo(frames.size() + 1);
+  }
+
+  @DisplayName("Interned stack traces cannot be modified")
+  @Test
+  void internedStackTracesCannotBeModified() {
+    // Given
+    var trie = new StackTraceTrie();
+    var interned = trie.intern(List.of(someRealStackTrace()));
+
+    // Then
+    assertThatThrownBy(() -> interned.add(interned.get(0)))
+        .isInstanceOf(UnsupportedOperationException.class);
+    assertThatThrownBy(() -> interned.remove(0))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @DisplayName("Reading a frame outside the stack trace throws an IndexOutOfBoundsException")
+  @Test
+  void readingFrameOutsideStackTraceThrowsIndexOutOfBoundsException() {
+    // Given
+    var trie = new StackTraceTrie();
+    var interned = trie.intern(List.of(someRealStackTrace()));
+
+    // Then
+    assertThatThrownBy(() -> interned.get(-1))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+    assertThatThrownBy(() -> interned.get(interned.size()))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.unit.filemanagers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.ascopes.jct.filemanagers.JctFileManagerMetrics;
+import io.github.ascopes.jct.filemanagers.JctFileManagerMetrics.Histogram;
+import io.github.ascopes.jct.filemanagers.JctFileManagerMetrics.Operation;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * {@link JctFileManagerMetrics} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JctFileManagerMetrics tests")
+class JctFileManagerMetricsTest {
+
+  @DisplayName("Operations are sorted by name")
+  @Test
+  void operationsAreSortedByName() {
+    // Given
+    var list = new Operation(0, Histogram.empty());
+    var close = new Operation(0, Histogram.empty());
+
+    // When
+    var metrics = new JctFileManagerMetrics(
+        Map.of("list", list, "close", close), 0, 0, Histogram.empty()
+    );
+
+    // Then
+    assertThat(metrics.getOperations()).containsExactly(
+        Map.entry("close", close),
+        Map.entry("list", list)
+    );
+    assertThat(metrics.getOperation("list")).isSameAs(list);
+    assertThat(metrics.getOperation("flush")).isNull();
+  }
+
+  @DisplayName("Operations report the call count and total time from their latencies")
+  @Test
+  void operationsReportTheCallCountAndTotalTimeFromTheirLatencies() {
+    // Given
+    var latencies = new Histogram(1_500, 1_000, Map.of(511L, 1L, 1023L, 1L));
+
+    // When
+    var operation = new Operation(1, latencies);
+
+    // Then
+    assertThat(operation.getCallCount()).isEqualTo(2);
+    assertThat(operation.getFailureCount()).isEqualTo(1);
+    assertThat(operation.getTotalTime()).isEqualTo(Duration.ofNanos(1_500));
+  }
+
+  @DisplayName("Histograms count the values in each bucket")
+  @Test
+  void histogramsCountTheValuesInEachBucket() {
+    // When
+    var histogram = new Histogram(100, 60, Map.of(63L, 1L, 15L, 3L));
+
+    // Then
+    assertThat(histogram.getCount()).isEqualTo(4);
+    assertThat(histogram.getMean()).isEqualTo(25.0);
+    assertThat(histogram.getBuckets().keySet()).containsExactly(15L, 63L);
+  }
+
+  @DisplayName("Histogram percentiles return the upper bound of the matching bucket")
+  @CsvSource({
+      "0, 1",
+      "50, 1",
+      "80, 7",
+      "90, 7",
+      "95, 50",
+      "100, 50",
+  })
+  @ParameterizedTest(name = "the {0}th percentile is {1}")
+  void histogramPercentilesReturnTheUpperBoundOfTheMatchingBucket(
+      double percentile,
+      long expected
+  ) {
+    // Given
+    var histogram = new Histogram(0, 50, Map.of(1L, 10L, 7L, 8L, 63L, 2L));
+
+    // Then
+    assertThat(histogram.getPercentile(percentile)).isEqualTo(expected);
+  }
+
+  @DisplayName("Histogram percentiles are zero when there are no values")
+  @Test
+  void histogramPercentilesAreZeroWhenThereAreNoValues() {
+    // Then
+    assertThat(Histogram.empty().getPercentile(99)).isZero();
+    assertThat(Histogram.empty().getMean()).isZero();
+  }
+
+  @DisplayName("Histogram percentiles out of range are rejected")
+  @ValueSource(doubles = {-1, 100.1})
+  @ParameterizedTest(name = "for {0}")
+  void histogramPercentilesOutOfRangeAreRejected(double percentile) {
+    // Then
+    assertThatThrownBy(() -> Histogram.empty().getPercentile(percentile))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Percentile must be between 0 and 100");
+  }
+
+  @DisplayName(".empty() has no operations")
+  @Test
+  void emptyHasNoOperations() {
+    // When
+    var metrics = JctFileManagerMetrics.empty();
+
+    // Then
+    assertThat(metrics.getOperations()).isEmpty();
+    assertThat(metrics.getBytesRead()).isZero();
+    assertThat(metrics.getBytesWritten()).isZero();
+    assertThat(metrics.getListResultSizes().getCount()).isZero();
+  }
+}
@@ -29,7 +29,6 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
-import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.withSettings;
 
 import io.github.ascopes.jct.filemanagers.JctFileManager;
@@ -66,8 +65,8 @@ import org.slf4j.event.Level;
 /**
  * {@link LoggingFileManagerProxy} tests.
  *
- * <p>Note that the dynamic nature of this class makes these tests a bit funky with a lot
- * of Mockito voodoo.
+ * <p>Note that these tests exercise every method of the proxy reflectively, which makes them a
+ * bit funky with a lot of Mockito voodoo.
  *
  * @author Ashley Scopes
  */
@@ -78,7 +77,6 @@ import org.slf4j.event.Level;
 class LoggingFileManagerProxyTest {
 
   long threadId;
-  StackTraceElement[] stackTrace;
 
   @Mock(answer = Answers.CALLS_REAL_METHODS)
   MockedStatic<LoomPolyfill> loomPolyfillMockedStatic;
@@ -94,7 +92,6 @@ class LoggingFileManagerProxyTest {
   @BeforeEach
   void setUp() {
     threadId = someLong(66_666);
-    stackTrace = someRealStackTrace();
 
     loomPolyfillMockedStatic.when(LoomPolyfill::getCurrentThread)
         .thenReturn(thread);
@@ -102,9 +99,6 @@ class LoggingFileManagerProxyTest {
     loomPolyfillMockedStatic.when(() -> LoomPolyfill.getThreadId(thread))
         .thenReturn(threadId);
 
-    when(thread.getStackTrace())
-        .thenReturn(stackTrace);
-
     slf4jLoggerFake = new Slf4jLoggerFake();
     slf4jLoggerFactory.when(() -> LoggerFactory.getLogger(any(Class.class)))
         .thenReturn(slf4jLoggerFake);
@@ -212,9 +206,6 @@ class LoggingFileManagerProxyTest {
   @ParameterizedTest(name = "for method {0}")
   void methodInvocationsGetLoggedWithStacktraces(String ignored, Method method) throws Throwable {
     // Given
-    when(thread.getStackTrace())
-        .thenReturn(stackTrace);
-
     var params = mockParams(method);
     var impl = mock(JctFileManager.class, Answers.RETURNS_DEEP_STUBS);
     var proxy = LoggingFileManagerProxy.wrap(impl, true);
@@ -223,25 +214,42 @@ class LoggingFileManagerProxyTest {
     method.invoke(proxy, params);
 
     // Then
-    slf4jLoggerFake.assertThatEntryLogged(
+    assertThat(slf4jLoggerFake.getEntryArguments(
         Level.DEBUG,
-        null,
-        ">>> [thread={}, depth={}] {} {}({}) called with ({}){}",
-        threadId,
-        1,
-        method.getReturnType().getSimpleName(),
-        method.getName(),
-        Stream.of(method.getParameterTypes())
-            .map(Class::getSimpleName)
-            .collect(Collectors.joining(", ")),
-        Stream.of(params)
-            .map(Objects::toString)
-            .collect(Collectors.joining(", ")),
-        Stream.of(stackTrace)
-            .map(Objects::toString)
-            .map("\n\t"::concat)
-            .collect(Collectors.joining())
+        ">>> [thread={}, depth={}] {} {}({}) called with ({}){}"
+    ))
+        .singleElement()
+        .extracting(args -> args[args.length - 1])
+        .asString()
+        .startsWith("\n\t")
+        .contains(getClass().getName() + ".methodInvocationsGetLoggedWithStacktraces(")
+        .doesNotContain(LoggingFileManagerProxy.class.getName() + ".");
+  }
+
+  @DisplayName("Nothing is logged when the DEBUG level is disabled")
+  @MethodSource("proxiedMethods")
+  @ParameterizedTest(name = "for method {0}")
+  void nothingIsLoggedWhenDebugIsDisabled(String ignored, Method method) throws Throwable {
+    // Given
+    slf4jLoggerFake.setEnabled(false);
+
+    var params = mockParams(method);
+    var expectedResult = isVoidReturnType(method) ? null : mockReturnType(method);
+    var impl = mock(JctFileManager.class, (ctx) -> expectedResult);
+    var proxy = LoggingFileManagerProxy.wrap(impl, someBoolean());
+
+    // When
+    var actualResult = method.invoke(proxy, params);
+
+    // Then
+    method.invoke(verify(impl), params);
+    assertThat(actualResult).satisfiesAnyOf(
+        actual -> assertThat(actual).isSameAs(expectedResult),
+        actual -> assertThat(actual).isEqualTo(expectedResult)
     );
+    verifyNoMoreInteractions(impl);
+    slf4jLoggerFake.assertThatNothingLogged();
+    loomPolyfillMockedStatic.verifyNoInteractions();
   }
 
   @DisplayName("Method results are logged")
@@ -339,6 +347,9 @@ class LoggingFileManagerProxyTest {
         .concat(declaredMethods, inheritedMethods)
         .filter(not(Method::isSynthetic))
         .filter(not(m -> m.getName().equals("toString")))
+        // Methods added to JavaFileManager after Java 11 cannot be overridden by the proxy, so
+        // fall back to the default implementations instead.
+        .filter(not(m -> m.getName().endsWith("ForOriginatingFiles")))
         .map(m -> arguments(signature(m), m));
   }
 
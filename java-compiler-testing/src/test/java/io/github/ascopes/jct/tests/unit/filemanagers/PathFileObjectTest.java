@@ -28,13 +28,17 @@ import static org.mockito.Mockito.mock;
 
 import io.github.ascopes.jct.filemanagers.PathFileObject;
 import io.github.ascopes.jct.utils.FileUtils;
+import io.github.ascopes.jct.utils.IoExceptionUtils.IoSupplier;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.StringWriter;
 import java.nio.charset.MalformedInputException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.tools.FileObject;
 import javax.tools.JavaFileObject;
 import javax.tools.JavaFileObject.Kind;
@@ -91,6 +95,128 @@ class PathFileObjectTest {
         .hasMessage("Expected rootPath to be absolute, but got " + rootPath);
   }
 
+  @DisplayName("Passing a null modification listener to the constructor raises an exception")
+  @Test
+  void passingNullModificationListenerToConstructorRaisesException() {
+    // Then
+    assertThatThrownBy(
+        () -> new PathFileObject(
+            someLocation(),
+            someAbsolutePath(),
+            someRelativePath(),
+            (Runnable) null
+        )
+    )
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("modificationListener");
+  }
+
+  @DisplayName("Passing a null output stream factory to the constructor raises an exception")
+  @Test
+  void passingNullOutputStreamFactoryToConstructorRaisesException() {
+    // Then
+    assertThatThrownBy(
+        () -> new PathFileObject(
+            someLocation(),
+            someAbsolutePath(),
+            someRelativePath(),
+            (IoSupplier<OutputStream>) null
+        )
+    )
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("outputStreamFactory");
+  }
+
+  @DisplayName(".delete() notifies the modification listener when the file is deleted")
+  @Test
+  void deleteNotifiesTheModificationListenerWhenTheFileIsDeleted() throws IOException {
+    // Given
+    try (var fs = someTemporaryFileSystem()) {
+      var rootDir = fs.getRootPath().resolve("root");
+      var file = rootDir.resolve("Baz.txt");
+      var modifications = new AtomicInteger();
+      var fileObject = new PathFileObject(
+          someLocation(),
+          rootDir,
+          rootDir.relativize(file),
+          modifications::incrementAndGet
+      );
+
+      Files.createDirectories(rootDir);
+      Files.createFile(file);
+
+      // When
+      fileObject.delete();
+      fileObject.delete();
+
+      // Then
+      assertThat(modifications).hasValue(1);
+    }
+  }
+
+  @DisplayName(".openOutputStream() and .openWriter() notify the modification listener")
+  @Test
+  void openOutputStreamAndOpenWriterNotifyTheModificationListener() throws IOException {
+    // Given
+    try (var fs = someTemporaryFileSystem()) {
+      var rootDir = fs.getRootPath().resolve("root");
+      var file = rootDir.resolve("foo").resolve("Baz.txt");
+      var modifications = new AtomicInteger();
+      var fileObject = new PathFileObject(
+          someLocation(),
+          rootDir,
+          rootDir.relativize(file),
+          () -> {
+            // The file must already exist by the time listeners are notified.
+            assertThat(file).exists();
+            modifications.incrementAndGet();
+          }
+      );
+
+      // When
+      try (var ignored = fileObject.openOutputStream()) {
+        assertThat(modifications).hasValue(1);
+      }
+
+      try (var ignored = fileObject.openWriter()) {
+        assertThat(modifications).hasValue(2);
+      }
+
+      // Then
+      assertThat(modifications).hasValue(2);
+    }
+  }
+
+  @DisplayName(".openOutputStream() and .openWriter() use the output stream factory if provided")
+  @Test
+  void openOutputStreamAndOpenWriterUseTheOutputStreamFactoryIfProvided() throws IOException {
+    // Given
+    try (var fs = someTemporaryFileSystem()) {
+      var rootDir = fs.getRootPath().resolve("root");
+      var file = rootDir.resolve("foo").resolve("Baz.txt");
+      var outputStream = new ByteArrayOutputStream();
+      var fileObject = new PathFileObject(
+          someLocation(),
+          rootDir,
+          rootDir.relativize(file),
+          () -> outputStream
+      );
+
+      // When
+      try (var output = fileObject.openOutputStream()) {
+        output.write(new byte[]{1, 2, 3});
+      }
+
+      try (var writer = fileObject.openWriter()) {
+        writer.write("abc");
+      }
+
+      // Then
+      assertThat(outputStream.toByteArray()).containsExactly(1, 2, 3, 'a', 'b', 'c');
+      assertThat(rootDir).doesNotExist();
+    }
+  }
+
   @DisplayName(".delete() will delete an existing file")
   @Test
   void deleteWillDeleteAnExistingFile() throws IOException {
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.unit.filemanagers.config;
+
+import static io.github.ascopes.jct.tests.helpers.Fixtures.somePathRoot;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.containers.impl.DiscardingContainerImpl;
+import io.github.ascopes.jct.filemanagers.config.JctFileManagerDiscardingClassOutputConfigurer;
+import io.github.ascopes.jct.filemanagers.impl.JctFileManagerImpl;
+import io.github.ascopes.jct.workspaces.PathRoot;
+import io.github.ascopes.jct.workspaces.Workspace;
+import java.util.List;
+import javax.tools.StandardLocation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * {@link JctFileManagerDiscardingClassOutputConfigurer} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JctFileManagerDiscardingClassOutputConfigurer tests")
+@ExtendWith(MockitoExtension.class)
+class JctFileManagerDiscardingClassOutputConfigurerTest {
+
+  @Mock
+  JctCompiler<?, ?> compiler;
+
+  @Mock
+  Workspace workspace;
+
+  @Mock
+  JctFileManagerImpl fileManager;
+
+  @InjectMocks
+  JctFileManagerDiscardingClassOutputConfigurer configurer;
+
+  @DisplayName(".configure(...) discards outputs to the existing class output package")
+  @Test
+  @SuppressWarnings("unchecked")
+  void configureDiscardsOutputsToTheExistingClassOutputPackage() {
+    // Given
+    var firstRoot = somePathRoot();
+    var secondRoot = somePathRoot();
+    when((List<PathRoot>) workspace.getClassOutputPackages())
+        .thenReturn(List.of(firstRoot, secondRoot));
+
+    // When
+    configurer.configure(fileManager);
+
+    // Then
+    var captor = ArgumentCaptor.forClass(DiscardingContainerImpl.class);
+    verify(fileManager).addContainer(eq(StandardLocation.CLASS_OUTPUT), captor.capture());
+    verify(workspace, never()).createClassOutputPackage();
+
+    assertThat(captor.getValue().getLocation()).isEqualTo(StandardLocation.CLASS_OUTPUT);
+    assertThat(captor.getValue().getPathRoot()).isSameAs(firstRoot);
+  }
+
+  @DisplayName(".configure(...) does not create a class output package if none exists")
+  @Test
+  void configureDoesNotCreateClassOutputPackageIfNoneExists() {
+    // Given
+    when(workspace.getClassOutputPackages()).thenReturn(List.of());
+
+    // When
+    configurer.configure(fileManager);
+
+    // Then
+    var captor = ArgumentCaptor.forClass(DiscardingContainerImpl.class);
+    verify(fileManager).addContainer(eq(StandardLocation.CLASS_OUTPUT), captor.capture());
+    verify(workspace, never()).createClassOutputPackage();
+
+    var root = captor.getValue().getPathRoot().getPath();
+    assertThat(root).doesNotExist();
+    assertThat(captor.getValue().getFileForOutput("com.example", "Foo.class").getFullPath())
+        .startsWithRaw(root);
+  }
+
+  @DisplayName(".configure(...) returns the input file manager")
+  @Test
+  void configureReturnsTheInputFileManager() {
+    // Given
+    when(workspace.getClassOutputPackages()).thenReturn(List.of());
+
+    // When
+    var result = configurer.configure(fileManager);
+
+    // Then
+    assertThat(result).isSameAs(fileManager);
+  }
+
+  @DisplayName(".isEnabled() returns the expected result")
+  @ValueSource(booleans = {true, false})
+  @ParameterizedTest(name = "when JctCompiler.isDiscardClassOutputs() returns {0}")
+  void isEnabledReturnsTheExpectedResult(boolean discardClassOutputs) {
+    // Given
+    when(compiler.isDiscardClassOutputs()).thenReturn(discardClassOutputs);
+
+    // Then
+    assertThat(configurer.isEnabled()).isEqualTo(discardClassOutputs);
+  }
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.unit.filemanagers.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.containers.Container;
+import io.github.ascopes.jct.containers.impl.JarContainerImpl;
+import io.github.ascopes.jct.containers.impl.JarIndexCache;
+import io.github.ascopes.jct.containers.impl.PathWrappingContainerImpl;
+import io.github.ascopes.jct.filemanagers.ModuleLocation;
+import io.github.ascopes.jct.filemanagers.config.JctFileManagerJvmBaselineConfigurer;
+import io.github.ascopes.jct.filemanagers.impl.JctFileManagerBaselineCache;
+import io.github.ascopes.jct.filemanagers.impl.JctFileManagerImpl;
+import io.github.ascopes.jct.workspaces.impl.WrappingDirectoryImpl;
+import java.net.URI;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.StandardLocation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * {@link JctFileManagerJvmBaselineConfigurer} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JctFileManagerJvmBaselineConfigurer tests")
+@ExtendWith(MockitoExtension.class)
+class JctFileManagerJvmBaselineConfigurerTest {
+
+  @Mock
+  JctCompiler<?, ?> compiler;
+
+  @Mock
+  JctFileManagerBaselineCache cache;
+
+  @TempDir
+  Path tempDir;
+
+  @DisplayName(".configure(...) appends the baseline package containers after existing ones")
+  @Test
+  void configureAppendsBaselinePackageContainersAfterExistingOnes() throws Exception {
+    // Given
+    var baseline = new JctFileManagerImpl("11");
+    baseline.addPath(StandardLocation.CLASS_PATH, directory("inherited"));
+    when(cache.getBaseline(compiler)).thenReturn(baseline);
+
+    var fileManager = new JctFileManagerImpl("11");
+    fileManager.addPath(StandardLocation.CLASS_PATH, directory("workspace"));
+
+    var configurer = new JctFileManagerJvmBaselineConfigurer(compiler, cache);
+
+    // When
+    configurer.configure(fileManager);
+
+    // Then
+    var baselineContainer = baseline.getClassPathGroup().getPackages().get(0);
+
+    assertThat(fileManager.getClassPathGroup().getPackages())
+        .hasSize(2)
+        .satisfies(
+            containers -> assertThat(containers.get(0).getPathRoot().getPath())
+                .isEqualTo(tempDir.resolve("workspace")),
+            containers -> assertThat(containers.get(1).getPathRoot())
+                .isSameAs(baselineContainer.getPathRoot())
+        );
+  }
+
+  @DisplayName(".configure(...) recreates JAR and directory containers")
+  @Test
+  void configureRecreatesJarAndDirectoryContainers() throws Exception {
+    // Given
+    var baseline = new JctFileManagerImpl("11");
+    baseline.addPath(StandardLocation.CLASS_PATH, new WrappingDirectoryImpl(jar("inherited.jar")));
+    baseline.addPath(StandardLocation.CLASS_PATH, directory("inherited"));
+    when(cache.getBaseline(compiler)).thenReturn(baseline);
+
+    var fileManager = new JctFileManagerImpl("11");
+    var configurer = new JctFileManagerJvmBaselineConfigurer(compiler, cache);
+
+    // When
+    configurer.configure(fileManager);
+
+    // Then
+    var baselineContainers = baseline.getClassPathGroup().getPackages();
+
+    assertThat(fileManager.getClassPathGroup().getPackages())
+        .hasSize(2)
+        .satisfies(
+            containers -> assertThat(containers.get(0))
+                .isInstanceOf(JarContainerImpl.class)
+                .isNotSameAs(baselineContainers.get(0))
+                .extracting(Container::getPathRoot)
+                .isSameAs(baselineContainers.get(0).getPathRoot()),
+            containers -> assertThat(containers.get(1))
+                .isInstanceOf(PathWrappingContainerImpl.class)
+                .isNotSameAs(baselineContainers.get(1))
+                .extracting(Container::getPathRoot)
+                .isSameAs(baselineContainers.get(1).getPathRoot())
+        );
+  }
+
+  @DisplayName(".configure(...) keeps inherited JARs open after earlier file managers close")
+  @Test
+  void configureKeepsInheritedJarsOpenAfterEarlierFileManagersClose() throws Exception {
+    // Given
+    var jarIndexCache = JarIndexCache.getInstance();
+    var originalMaximumIdleEntries = jarIndexCache.getMaximumIdleEntries();
+
+    var baseline = new JctFileManagerImpl("11");
+    baseline.addPath(StandardLocation.CLASS_PATH, new WrappingDirectoryImpl(jar("inherited.jar")));
+    when(cache.getBaseline(compiler)).thenReturn(baseline);
+
+    var configurer = new JctFileManagerJvmBaselineConfigurer(compiler, cache);
+
+    try {
+      // Evict each JAR as soon as the last container using it is closed.
+      jarIndexCache.setMaximumIdleEntries(0);
+
+      // When
+      var firstFileManager = new JctFileManagerImpl("11");
+      configurer.configure(firstFileManager);
+      var firstFile = firstFileManager.getClassPathGroup()
+          .getJavaFileForInput("com.example.Foo", Kind.CLASS);
+      firstFileManager.getClassPathGroup().close();
+
+      var secondFileManager = new JctFileManagerImpl("11");
+      configurer.configure(secondFileManager);
+      var secondFile = secondFileManager.getClassPathGroup()
+          .getJavaFileForInput("com.example.Foo", Kind.CLASS);
+
+      // Then
+      assertThat(firstFile).isNotNull();
+      assertThat(secondFile).isNotNull();
+      try (var input = secondFile.openInputStream()) {
+        assertThat(input.readAllBytes()).containsExactly(0xCA, 0xFE, 0xBA, 0xBE);
+      }
+
+      secondFileManager.getClassPathGroup().close();
+    } finally {
+      jarIndexCache.setMaximumIdleEntries(originalMaximumIdleEntries);
+    }
+  }
+
+  @DisplayName(".configure(...) copies the baseline modules into new groups")
+  @Test
+  void configureCopiesTheBaselineModulesIntoNewGroups() throws Exception {
+    // Given
+    var baseline = new JctFileManagerImpl("11");
+    var moduleLocation = new ModuleLocation(StandardLocation.MODULE_PATH, "org.example");
+    baseline.addPath(moduleLocation, directory("org.example"));
+    when(cache.getBaseline(compiler)).thenReturn(baseline);
+
+    var fileManager = new JctFileManagerImpl("11");
+    var configurer = new JctFileManagerJvmBaselineConfigurer(compiler, cache);
+
+    // When
+    configurer.configure(fileManager);
+
+    // Then
+    var baselineGroup = baseline.getModulePathGroup();
+    var group = fileManager.getModulePathGroup();
+
+    assertThat(group).isNotSameAs(baselineGroup);
+    assertThat(group.getModule("org.example").getPackages())
+        .singleElement()
+        .extracting(Container::getPathRoot)
+        .isSameAs(baselineGroup.getModule("org.example").getPackages().get(0).getPathRoot());
+  }
+
+  @DisplayName(".configure(...) shares directory containers on read-only file systems")
+  @Test
+  void configureSharesDirectoryContainersOnReadOnlyFileSystems() {
+    // Given
+    var javaBase = FileSystems.getFileSystem(URI.create("jrt:/")).getPath("/modules/java.base");
+    var baseline = new JctFileManagerImpl("11");
+    var moduleLocation = new ModuleLocation(StandardLocation.SYSTEM_MODULES, "java.base");
+    baseline.addPath(moduleLocation, new WrappingDirectoryImpl(javaBase));
+    when(cache.getBaseline(compiler)).thenReturn(baseline);
+
+    var fileManager = new JctFileManagerImpl("11");
+    var configurer = new JctFileManagerJvmBaselineConfigurer(compiler, cache);
+
+    // When
+    configurer.configure(fileManager);
+
+    // Then
+    var baselineContainer = baseline.getModuleContainerGroup(StandardLocation.SYSTEM_MODULES)
+        .getModule("java.base")
+        .getPackages()
+        .get(0);
+
+    assertThat(fileManager.getModuleContainerGroup(StandardLocation.SYSTEM_MODULES)
+        .getModule("java.base")
+        .getPackages())
+        .singleElement()
+        .isSameAs(baselineContainer);
+  }
+
+  @DisplayName(".configure(...) returns the input file manager")
+  @Test
+  void configureReturnsTheInputFileManager() {
+    // Given
+    when(cache.getBaseline(compiler)).thenReturn(new JctFileManagerImpl("11"));
+    var fileManager = new JctFileManagerImpl("11");
+    var configurer = new JctFileManagerJvmBaselineConfigurer(compiler, cache);
+
+    // When
+    var result = configurer.configure(fileManager);
+
+    // Then
+    assertThat(result).isSameAs(fileManager);
+  }
+
+  @DisplayName(".isEnabled() returns the expected result")
+  @CsvSource({
+      "true, true, true, true",
+      "true, false, false, true",
+      "false, true, false, true",
+      "false, false, true, true",
+      "false, false, false, false",
+  })
+  @ParameterizedTest(
+      name = "for inheritClassPath={0}, inheritModulePath={1}, inheritSystemModulePath={2}"
+  )
+  void isEnabledReturnsTheExpectedResult(
+      boolean inheritClassPath,
+      boolean inheritModulePath,
+      boolean inheritSystemModulePath,
+      boolean expectedResult
+  ) {
+    // Given
+    lenient().when(compiler.isInheritClassPath()).thenReturn(inheritClassPath);
+    lenient().when(compiler.isInheritModulePath()).thenReturn(inheritModulePath);
+    lenient().when(compiler.isInheritSystemModulePath()).thenReturn(inheritSystemModulePath);
+    var configurer = new JctFileManagerJvmBaselineConfigurer(compiler, cache);
+
+    // Then
+    assertThat(configurer.isEnabled()).isEqualTo(expectedResult);
+  }
+
+  private WrappingDirectoryImpl directory(String name) throws Exception {
+    return new WrappingDirectoryImpl(Files.createDirectories(tempDir.resolve(name)));
+  }
+
+  private Path jar(String name) throws Exception {
+    var jar = tempDir.resolve(name);
+    try (var zip = new ZipOutputStream(Files.newOutputStream(jar))) {
+      zip.putNextEntry(new ZipEntry("com/example/Foo.class"));
+      zip.write(new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+      zip.closeEntry();
+    }
+    return jar;
+  }
+}
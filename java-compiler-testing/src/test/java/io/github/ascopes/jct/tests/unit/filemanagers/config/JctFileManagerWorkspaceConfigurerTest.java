@@ -18,6 +18,9 @@ package io.github.ascopes.jct.tests.unit.filemanagers.config;
 import static io.github.ascopes.jct.tests.helpers.Fixtures.someLocation;
 import static io.github.ascopes.jct.tests.helpers.Fixtures.somePathRoot;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -28,6 +31,7 @@ import io.github.ascopes.jct.workspaces.Workspace;
 import java.util.List;
 import java.util.Map;
 import javax.tools.JavaFileManager.Location;
+import javax.tools.StandardLocation;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -72,6 +76,28 @@ class JctFileManagerWorkspaceConfigurerTest {
     paths.forEach((location, roots) -> verify(fileManager).addPaths(location, roots));
   }
 
+  @DisplayName(".configure(...) skips output locations that the file manager already has")
+  @Test
+  void configureSkipsOutputLocationsThatTheFileManagerAlreadyHas() {
+    // Given
+    var existingLocation = StandardLocation.CLASS_OUTPUT;
+    var newLocation = StandardLocation.SOURCE_OUTPUT;
+    var paths = Map.<Location, List<? extends PathRoot>>of(
+        existingLocation, List.of(somePathRoot()),
+        newLocation, List.of(somePathRoot())
+    );
+    when(workspace.getAllPaths()).thenReturn(paths);
+    when(fileManager.hasLocation(existingLocation)).thenReturn(true);
+    when(fileManager.hasLocation(newLocation)).thenReturn(false);
+
+    // When
+    configurer.configure(fileManager);
+
+    // Then
+    verify(fileManager, never()).addPaths(eq(existingLocation), any());
+    verify(fileManager).addPaths(newLocation, paths.get(newLocation));
+  }
+
   @DisplayName(".configure(...) returns the input file manager")
   @Test
   void configureReturnsTheInputFileManager() {
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.unit.filemanagers.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.filemanagers.impl.JctFileManagerBaselineCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+/**
+ * {@link JctFileManagerBaselineCache} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JctFileManagerBaselineCache tests")
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class JctFileManagerBaselineCacheTest {
+
+  @Mock
+  JctCompiler<?, ?> compiler;
+
+  @DisplayName("getInstance() returns a singleton")
+  @Test
+  void getInstanceReturnsSingleton() {
+    // Then
+    assertThat(JctFileManagerBaselineCache.getInstance())
+        .isSameAs(JctFileManagerBaselineCache.getInstance());
+  }
+
+  @DisplayName("Baselines are reused for the same release and settings")
+  @Test
+  void baselinesAreReusedForTheSameReleaseAndSettings() {
+    // Given
+    var cache = new JctFileManagerBaselineCache();
+    when(compiler.getEffectiveRelease()).thenReturn("11");
+
+    // When
+    var first = cache.getBaseline(compiler);
+    var second = cache.getBaseline(compiler);
+
+    // Then
+    assertThat(first).isSameAs(second);
+    assertThat(first.getEffectiveRelease()).isEqualTo("11");
+    assertThat(cache.size()).isOne();
+  }
+
+  @DisplayName("Baselines are not shared between different releases")
+  @Test
+  void baselinesAreNotSharedBetweenDifferentReleases() {
+    // Given
+    var cache = new JctFileManagerBaselineCache();
+
+    // When
+    when(compiler.getEffectiveRelease()).thenReturn("11");
+    var first = cache.getBaseline(compiler);
+    when(compiler.getEffectiveRelease()).thenReturn("17");
+    var second = cache.getBaseline(compiler);
+
+    // Then
+    assertThat(first).isNotSameAs(second);
+    assertThat(cache.size()).isEqualTo(2);
+  }
+
+  @DisplayName("Baselines are not shared between different inheritance settings")
+  @Test
+  void baselinesAreNotSharedBetweenDifferentInheritanceSettings() {
+    // Given
+    var cache = new JctFileManagerBaselineCache();
+    when(compiler.getEffectiveRelease()).thenReturn("11");
+
+    // When
+    var first = cache.getBaseline(compiler);
+    when(compiler.isInheritClassPath()).thenReturn(true);
+    var second = cache.getBaseline(compiler);
+
+    // Then
+    assertThat(first).isNotSameAs(second);
+    assertThat(cache.size()).isEqualTo(2);
+  }
+
+  @DisplayName("clear() discards all baselines")
+  @Test
+  void clearDiscardsAllBaselines() {
+    // Given
+    var cache = new JctFileManagerBaselineCache();
+    when(compiler.getEffectiveRelease()).thenReturn("11");
+    var first = cache.getBaseline(compiler);
+
+    // When
+    cache.clear();
+
+    // Then
+    assertThat(cache.size()).isZero();
+    assertThat(cache.getBaseline(compiler)).isNotSameAs(first);
+  }
+}
@@ -29,11 +29,9 @@ import io.github.ascopes.jct.filemanagers.JctFileManager;
 import io.github.ascopes.jct.filemanagers.config.JctFileManagerAnnotationProcessorClassPathConfigurer;
 import io.github.ascopes.jct.filemanagers.config.JctFileManagerConfigurer;
 import io.github.ascopes.jct.filemanagers.config.JctFileManagerConfigurerChain;
-import io.github.ascopes.jct.filemanagers.config.JctFileManagerJvmClassPathConfigurer;
-import io.github.ascopes.jct.filemanagers.config.JctFileManagerJvmClassPathModuleConfigurer;
-import io.github.ascopes.jct.filemanagers.config.JctFileManagerJvmModulePathConfigurer;
+import io.github.ascopes.jct.filemanagers.config.JctFileManagerDiscardingClassOutputConfigurer;
+import io.github.ascopes.jct.filemanagers.config.JctFileManagerJvmBaselineConfigurer;
 import io.github.ascopes.jct.filemanagers.config.JctFileManagerJvmPlatformClassPathConfigurer;
-import io.github.ascopes.jct.filemanagers.config.JctFileManagerJvmSystemModulesConfigurer;
 import io.github.ascopes.jct.filemanagers.config.JctFileManagerLoggingProxyConfigurer;
 import io.github.ascopes.jct.filemanagers.config.JctFileManagerRequiredLocationsConfigurer;
 import io.github.ascopes.jct.filemanagers.config.JctFileManagerWorkspaceConfigurer;
@@ -129,12 +127,10 @@ class JctFileManagerFactoryImplTest {
         .map(JctFileManagerConfigurer::getClass)
         .map(Class.class::cast)
         .containsExactly(
+            JctFileManagerDiscardingClassOutputConfigurer.class,
             JctFileManagerWorkspaceConfigurer.class,
-            JctFileManagerJvmClassPathConfigurer.class,
-            JctFileManagerJvmClassPathModuleConfigurer.class,
-            JctFileManagerJvmModulePathConfigurer.class,
+            JctFileManagerJvmBaselineConfigurer.class,
             JctFileManagerJvmPlatformClassPathConfigurer.class,
-            JctFileManagerJvmSystemModulesConfigurer.class,
             JctFileManagerAnnotationProcessorClassPathConfigurer.class,
             JctFileManagerRequiredLocationsConfigurer.class,
             JctFileManagerLoggingProxyConfigurer.class
@@ -43,6 +43,7 @@ import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import io.github.ascopes.jct.containers.Container;
 import io.github.ascopes.jct.containers.ContainerGroup;
 import io.github.ascopes.jct.containers.ModuleContainerGroup;
 import io.github.ascopes.jct.containers.OutputContainerGroup;
@@ -112,6 +113,21 @@ class JctFileManagerImplTest {
         .hasMessage("release");
   }
 
+  @DisplayName(".addContainer(...) delegates to the repository")
+  @Test
+  void addContainerDelegatesToRepository() {
+    // Given
+    var location = someLocation();
+    var container = mock(Container.class);
+
+    // When
+    fileManager.addContainer(location, container);
+
+    // Then
+    verify(repository).addContainer(location, container);
+    verifyNoMoreInteractions(repository);
+  }
+
   @DisplayName(".addPath(...) delegates to the repository")
   @Test
   void addPathDelegatesToRepository() {
@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2022 - 2023, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.tests.unit.filemanagers.impl;
+
+import static io.github.ascopes.jct.tests.helpers.Fixtures.someBinaryName;
+import static io.github.ascopes.jct.tests.helpers.Fixtures.someLocation;
+import static io.github.ascopes.jct.tests.helpers.Fixtures.somePackageName;
+import static io.github.ascopes.jct.tests.helpers.Fixtures.someText;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+
+import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.filemanagers.impl.JctMeasuringFileManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URI;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * {@link JctMeasuringFileManager} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JctMeasuringFileManager tests")
+@ExtendWith(MockitoExtension.class)
+class JctMeasuringFileManagerTest {
+
+  @Mock
+  JctFileManager delegate;
+
+  AtomicLong clock;
+  JctMeasuringFileManager fileManager;
+
+  @BeforeEach
+  void setUp() {
+    // Each call reads the clock twice, so every call appears to take 100ns.
+    clock = new AtomicLong();
+    fileManager = new JctMeasuringFileManager(delegate, () -> clock.getAndAdd(100));
+  }
+
+  @DisplayName(".getDelegate() returns the delegate")
+  @Test
+  void getDelegateReturnsTheDelegate() {
+    // Then
+    assertThat(fileManager.getDelegate()).isSameAs(delegate);
+  }
+
+  @DisplayName("Calls are delegated, counted, and timed")
+  @Test
+  void callsAreDelegatedCountedAndTimed() {
+    // Given
+    var location = someLocation();
+    given(delegate.hasLocation(location)).willReturn(true);
+
+    // When
+    for (var i = 0; i < 3; ++i) {
+      assertThat(fileManager.hasLocation(location)).isTrue();
+    }
+
+    // Then
+    then(delegate).should(times(3)).hasLocation(location);
+
+    var operation = fileManager.getMetrics().getOperation("hasLocation");
+    assertThat(operation).isNotNull();
+    assertThat(operation.getCallCount()).isEqualTo(3);
+    assertThat(operation.getFailureCount()).isZero();
+    assertThat(operation.getLatencies().getSum()).isEqualTo(300);
+    assertThat(operation.getLatencies().getMax()).isEqualTo(100);
+    assertThat(operation.getLatencies().getBuckets()).isEqualTo(Map.of(127L, 3L));
+  }
+
+  @DisplayName("Operations that were never called are not included in the metrics")
+  @Test
+  void operationsThatWereNeverCalledAreNotIncludedInTheMetrics() {
+    // Then
+    assertThat(fileManager.getMetrics().getOperations()).isEmpty();
+  }
+
+  @DisplayName("Failed calls are counted and rethrown")
+  @Test
+  void failedCallsAreCountedAndRethrown() throws IOException {
+    // Given
+    var location = someLocation();
+    var binaryName = someBinaryName();
+    var ex = new IOException("bang");
+    given(delegate.getJavaFileForInput(location, binaryName, Kind.CLASS)).willThrow(ex);
+
+    // Then
+    assertThatThrownBy(() -> fileManager.getJavaFileForInput(location, binaryName, Kind.CLASS))
+        .isSameAs(ex);
+
+    var operation = fileManager.getMetrics().getOperation("getJavaFileForInput");
+    assertThat(operation).isNotNull();
+    assertThat(operation.getCallCount()).isEqualTo(1);
+    assertThat(operation.getFailureCount()).isEqualTo(1);
+  }
+
+  @DisplayName("Missing files are returned as null")
+  @Test
+  void missingFilesAreReturnedAsNull() throws IOException {
+    // Given
+    var location = someLocation();
+    var binaryName = someBinaryName();
+    given(delegate.getJavaFileForInput(location, binaryName, Kind.CLASS)).willReturn(null);
+
+    // Then
+    assertThat(fileManager.getJavaFileForInput(location, binaryName, Kind.CLASS)).isNull();
+  }
+
+  @DisplayName("Listed files are wrapped and the result sizes are recorded")
+  @Test
+  void listedFilesAreWrappedAndTheResultSizesAreRecorded() throws IOException {
+    // Given
+    var location = someLocation();
+    var packageName = somePackageName();
+    var files = Set.of(someFileWithUri(), someFileWithUri());
+    given(delegate.list(location, packageName, Set.of(Kind.CLASS), true)).willReturn(files);
+
+    // When
+    var result = fileManager.list(location, packageName, Set.of(Kind.CLASS), true);
+
+    // Then
+    assertThat(result)
+        .hasSize(2)
+        .allSatisfy(file -> assertThat(file).isInstanceOf(ForwardingJavaFileObject.class));
+
+    var listResultSizes = fileManager.getMetrics().getListResultSizes();
+    assertThat(listResultSizes.getCount()).isEqualTo(1);
+    assertThat(listResultSizes.getSum()).isEqualTo(2);
+  }
+
+  @DisplayName("Wrapped files are unwrapped when passed back to the file manager")
+  @Test
+  void wrappedFilesAreUnwrappedWhenPassedBackToTheFileManager() throws IOException {
+    // Given
+    var location = someLocation();
+    var packageName = somePackageName();
+    var file = someFileWithUri();
+    given(delegate.list(location, packageName, Set.of(Kind.CLASS), false))
+        .willReturn(Set.of(file));
+    var binaryName = someBinaryName();
+    given(delegate.inferBinaryName(location, file)).willReturn(binaryName);
+    var wrapped = fileManager.list(location, packageName, Set.of(Kind.CLASS), false)
+        .iterator()
+        .next();
+
+    // When
+    var result = fileManager.inferBinaryName(location, wrapped);
+
+    // Then
+    assertThat(result).isEqualTo(binaryName);
+    then(delegate).should().inferBinaryName(location, file);
+  }
+
+  @DisplayName("Output siblings are unwrapped when passed back to the file manager")
+  @Test
+  void outputSiblingsAreUnwrappedWhenPassedBackToTheFileManager() throws IOException {
+    // Given
+    var location = someLocation();
+    var binaryName = someBinaryName();
+    var sibling = mock(JavaFileObject.class);
+    given(delegate.getJavaFileForInput(location, binaryName, Kind.SOURCE)).willReturn(sibling);
+    var wrappedSibling = fileManager.getJavaFileForInput(location, binaryName, Kind.SOURCE);
+
+    // When
+    fileManager.getJavaFileForOutput(location, binaryName, Kind.CLASS, wrappedSibling);
+
+    // Then
+    then(delegate).should().getJavaFileForOutput(location, binaryName, Kind.CLASS, sibling);
+  }
+
+  @DisplayName("Bytes read from files are counted")
+  @Test
+  void bytesReadFromFilesAreCounted() throws IOException {
+    // Given
+    var location = someLocation();
+    var binaryName = someBinaryName();
+    var file = mock(JavaFileObject.class);
+    given(file.openInputStream()).willReturn(new ByteArrayInputStream(new byte[10]));
+    given(file.openReader(true)).willReturn(new StringReader("hello"));
+    given(file.getCharContent(true)).willReturn("world!");
+    given(delegate.getJavaFileForInput(location, binaryName, Kind.CLASS)).willReturn(file);
+    var wrapped = fileManager.getJavaFileForInput(location, binaryName, Kind.CLASS);
+
+    // When
+    try (var inputStream = wrapped.openInputStream()) {
+      inputStream.readAllBytes();
+    }
+    try (var reader = wrapped.openReader(true)) {
+      assertThat(reader.read()).isEqualTo('h');
+      assertThat(reader.read(new char[10], 0, 10)).isEqualTo(4);
+    }
+    wrapped.getCharContent(true);
+
+    // Then
+    assertThat(fileManager.getMetrics().getBytesRead()).isEqualTo(10 + 5 + 6);
+    assertThat(fileManager.getMetrics().getBytesWritten()).isZero();
+  }
+
+  @DisplayName("Bytes written to files are counted")
+  @Test
+  void bytesWrittenToFilesAreCounted() throws IOException {
+    // Given
+    var location = someLocation();
+    var packageName = somePackageName();
+    var relativeName = someText();
+    var file = mock(FileObject.class);
+    var outputStream = new ByteArrayOutputStream();
+    var writer = new StringWriter();
+    given(file.openOutputStream()).willReturn(outputStream);
+    given(file.openWriter()).willReturn(writer);
+    given(delegate.getFileForOutput(location, packageName, relativeName, null)).willReturn(file);
+    var wrapped = fileManager.getFileForOutput(location, packageName, relativeName, null);
+
+    // When
+    try (var wrappedOutputStream = wrapped.openOutputStream()) {
+      wrappedOutputStream.write(new byte[8]);
+      wrappedOutputStream.write(1);
+    }
+    try (var wrappedWriter = wrapped.openWriter()) {
+      wrappedWriter.write("hello");
+      wrappedWriter.append('!');
+    }
+
+    // Then
+    assertThat(outputStream.toByteArray()).hasSize(9);
+    assertThat(writer).hasToString("hello!");
+    assertThat(fileManager.getMetrics().getBytesWritten()).isEqualTo(9 + 6);
+    assertThat(fileManager.getMetrics().getBytesRead()).isZero();
+  }
+
+  private static JavaFileObject someFileWithUri() {
+    // Wrapped files are compared by their URIs.
+    var file = mock(JavaFileObject.class);
+    given(file.toUri()).willReturn(URI.create("mem:///" + UUID.randomUUID() + ".class"));
+    return file;
+  }
+}
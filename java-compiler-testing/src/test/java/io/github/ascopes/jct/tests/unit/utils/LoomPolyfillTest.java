@@ -88,4 +88,12 @@ class LoomPolyfillTest implements UtilityClassTestTemplate {
     assertThat(getCurrentThread())
         .isSameAs(Thread.currentThread());
   }
+
+  @DisplayName(".newVirtualThreadPerTaskExecutor() returns null on JRE <= 18")
+  @EnabledForJreRange(max = JRE.JAVA_18)
+  @Test
+  void newVirtualThreadPerTaskExecutorOnJre18AndOlderReturnsNull() {
+    // Then
+    assertThat(LoomPolyfill.newVirtualThreadPerTaskExecutor()).isNull();
+  }
 }
@@ -18,6 +18,7 @@ open module io.github.ascopes.jct.testing {
   requires transitive io.github.ascopes.jct;
   requires java.compiler;
   requires java.management;
+  requires jdk.compiler;
   requires jimfs;
   requires me.xdrop.fuzzywuzzy;
   requires net.bytebuddy;         // required for mockito to work with JPMS.